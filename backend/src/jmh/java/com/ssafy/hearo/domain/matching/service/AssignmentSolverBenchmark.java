@@ -0,0 +1,70 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 순차 매칭(greedy)과 일괄 배정(AssignmentSolver.solve) 비교
+ *
+ * 실제 매칭 사이클 규모(대기 고객 × 가용 상담원)에서 배정 계산 시간을 측정한다.
+ * 점수는 CounselorScoreService 범위(-20 ~ 35), 차단 조합은 약 10%로 생성한다.
+ * 배정 품질(매칭 인원/점수 합) 차이는 setup 시 한 번 출력한다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AssignmentSolverBenchmark {
+
+    @Param({"10x5", "50x20", "200x50"})
+    private String size;
+
+    private double[][] scores;
+
+    @Setup
+    public void setUp() {
+        String[] parts = size.split("x");
+        int customers = Integer.parseInt(parts[0]);
+        int counselors = Integer.parseInt(parts[1]);
+
+        Random random = new Random(42);
+        scores = new double[customers][counselors];
+        for (int i = 0; i < customers; i++) {
+            for (int j = 0; j < counselors; j++) {
+                scores[i][j] = random.nextInt(10) == 0
+                        ? AssignmentSolver.FORBIDDEN
+                        : random.nextInt(56) - 20;
+            }
+        }
+
+        int[] greedy = AssignmentSolver.greedy(scores);
+        int[] solved = AssignmentSolver.solve(scores);
+        System.out.printf("%n[%s] greedy: 매칭 %d건, 점수 합 %.1f / solve: 매칭 %d건, 점수 합 %.1f%n",
+                size, matched(greedy), AssignmentSolver.totalScore(scores, greedy),
+                matched(solved), AssignmentSolver.totalScore(scores, solved));
+    }
+
+    @Benchmark
+    public void greedy(Blackhole blackhole) {
+        blackhole.consume(AssignmentSolver.greedy(scores));
+    }
+
+    @Benchmark
+    public void solve(Blackhole blackhole) {
+        blackhole.consume(AssignmentSolver.solve(scores));
+    }
+
+    private static int matched(int[] assignment) {
+        int count = 0;
+        for (int column : assignment) {
+            if (column >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메모리 대기열(InMemoryQueueService) 기준 측정
+ *
+ * 대기 인원별로 순위 조회, 등록+추출(claim), Normal→Blacklist 이동 비용을 측정한다.
+ * 다른 대기열 구현(Redis 등)을 바꿀 때 네트워크 왕복을 뺀 자료구조 비용의 기준값으로 사용한다.
+ * linearRank는 순서 목록을 앞에서부터 세는 방식(O(N))과의 비교용이다.
+ *
+ * 이벤트 전송과 로그 출력은 측정에서 제외한다(no-op publisher, 로그 레벨 WARN).
+ *
+ * 실행: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class InMemoryQueueBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int waiting;
+
+    private InMemoryQueueService queueService;
+    private List<String> order;
+    private String[] probes;
+    private int cursor;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(InMemoryQueueService.class)).setLevel(Level.WARN);
+        queueService = new InMemoryQueueService(new NoOpPublisher(), null, null, new QueuePriority(300_000, 5_000, 120_000));
+        order = new ArrayList<>(waiting);
+        for (int i = 0; i < waiting; i++) {
+            String customerId = "c" + i;
+            queueService.enqueue(customerId);
+            order.add(customerId);
+        }
+
+        Random random = new Random(42);
+        probes = new String[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = "c" + random.nextInt(waiting);
+        }
+    }
+
+    @Benchmark
+    public void rank(Blackhole blackhole) {
+        blackhole.consume(queueService.getWaitingRank(nextProbe()));
+    }
+
+    @Benchmark
+    public void linearRank(Blackhole blackhole) {
+        blackhole.consume(order.indexOf(nextProbe()) + 1);
+    }
+
+    @Benchmark
+    public void enqueueAndClaim(Blackhole blackhole) {
+        String customerId = "n" + sequence++;
+        blackhole.consume(queueService.enqueue(customerId));
+        blackhole.consume(queueService.claim(customerId));
+    }
+
+    @Benchmark
+    public void moveToBlacklist(Blackhole blackhole) {
+        String customerId = "m" + sequence++;
+        queueService.enqueue(customerId);
+        blackhole.consume(queueService.moveToBlacklistQueue(customerId));
+        queueService.claim(customerId);
+    }
+
+    private String nextProbe() {
+        String probe = probes[cursor];
+        cursor = (cursor + 1) & (probes.length - 1);
+        return probe;
+    }
+
+    /**
+     * 이벤트 전송을 생략하는 publisher
+     */
+    private static class NoOpPublisher extends QueueEventPublisher {
+
+        NoOpPublisher() {
+            super(null, null, null);
+        }
+
+        @Override
+        public void publishQueueUpdate(long normalSize, long blacklistSize, long epoch,
+                                       List<Long> removedRanks, List<Long> insertedRanks) {
+        }
+
+        @Override
+        public void sendRankUpdate(String customerId, Long rank, long epoch) {
+        }
+    }
+}
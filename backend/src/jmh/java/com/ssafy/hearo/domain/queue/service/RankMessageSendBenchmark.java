@@ -0,0 +1,93 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.hearo.domain.queue.service.QueueEventPublisher.RankUpdateMessage;
+import com.ssafy.hearo.global.websocket.EncodedJsonMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.DefaultContentTypeResolver;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 고객별 순위 메시지 1건 전송 비용 (SimpMessagingTemplate.convertAndSend → brokerChannel 직전까지)
+ *
+ * - jackson: RankUpdateMessage를 기본 변환기(Jackson)로 변환 (이전 방식)
+ * - encoded: RankMessageEncoder로 직접 직렬화한 EncodedJson을 전송 (RankUpdateDispatcher 현재 방식)
+ *
+ * 변환기 구성은 WebSocketConfig와 같다 (EncodedJson 변환기 + 기본 변환기, Jackson 기본 content-type JSON).
+ * 메시지당 할당량은 gc 프로파일러의 gc.alloc.rate.norm (B/op)으로 비교한다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RankMessageSendBenchmark {
+
+    private static final String RANK_TOPIC_PREFIX = "/topic/queue-rank/";
+    private static final int CUSTOMERS = 1024;
+
+    private SimpMessagingTemplate template;
+    private RankUpdateMessage[] messages;
+    private String[] destinations;
+    private int cursor;
+    private Blackhole sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        sink = blackhole;
+        template = new SimpMessagingTemplate((message, timeout) -> {
+            sink.consume(message);
+            return true;
+        });
+
+        MappingJackson2MessageConverter jackson = new MappingJackson2MessageConverter();
+        jackson.setObjectMapper(new ObjectMapper());
+        DefaultContentTypeResolver resolver = new DefaultContentTypeResolver();
+        resolver.setDefaultMimeType(MimeTypeUtils.APPLICATION_JSON);
+        jackson.setContentTypeResolver(resolver);
+        List<MessageConverter> converters = new ArrayList<>();
+        converters.add(new EncodedJsonMessageConverter());
+        converters.add(new StringMessageConverter());
+        converters.add(new ByteArrayMessageConverter());
+        converters.add(jackson);
+        template.setMessageConverter(new CompositeMessageConverter(converters));
+
+        messages = new RankUpdateMessage[CUSTOMERS];
+        destinations = new String[CUSTOMERS];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String customerId = "customer_" + i;
+            messages[i] = new RankUpdateMessage(customerId, (long) i + 1, "WAITING", 1000L + i, now, (i + 1) * 60L);
+            destinations[i] = RANK_TOPIC_PREFIX + customerId;
+        }
+    }
+
+    @Benchmark
+    public void jackson() {
+        int i = next();
+        template.convertAndSend(destinations[i], messages[i]);
+    }
+
+    @Benchmark
+    public void encoded() {
+        int i = next();
+        template.convertAndSend(destinations[i], RankMessageEncoder.encode(messages[i]));
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) & (CUSTOMERS - 1);
+        return i;
+    }
+}
@@ -5,6 +5,7 @@ import com.ssafy.hearo.domain.consultation.entity.Consultation;
 import com.ssafy.hearo.domain.consultation.entity.ConsultationRating;
 import com.ssafy.hearo.domain.consultation.repository.ConsultationRatingRepository;
 import com.ssafy.hearo.domain.consultation.repository.ConsultationRepository;
+import com.ssafy.hearo.domain.matching.service.CounselorAffinityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +17,7 @@ public class ConsultationRatingService {
 
     private final ConsultationRatingRepository ratingRepository;
     private final ConsultationRepository consultationRepository;
+    private final CounselorAffinityService affinityService;
 
     /**
      * 후기 등록
@@ -46,6 +48,10 @@ public class ConsultationRatingService {
         // 5. 저장
         ratingRepository.save(rating);
 
+        // 6. 매칭 점수용 통계 반영
+        affinityService.recordRatingCreated(
+                consultation.getUser().getId(), consultation.getCustomer().getId(), rating);
+
         return rating.getId();
     }
 
@@ -67,12 +73,18 @@ public class ConsultationRatingService {
         ConsultationRating rating = ratingRepository.findByConsultationId(consultationId)
                 .orElseThrow(() -> new IllegalArgumentException("해당 상담의 후기가 존재하지 않습니다."));
 
+        double previousRating = CounselorAffinityService.ratingOf(rating);
         rating.update(
                 request.getProcessRating(),
                 request.getSolutionRating(),
                 request.getKindnessRating(),
                 request.getFeedback()
         );
+
+        // 매칭 점수용 통계 반영 (수정 전후 차이만큼)
+        Consultation consultation = rating.getConsultation();
+        affinityService.recordRatingUpdated(
+                consultation.getUser().getId(), consultation.getCustomer().getId(), previousRating, rating);
     }
 
     /**
@@ -93,5 +105,10 @@ public class ConsultationRatingService {
         }
 
         ratingRepository.delete(rating);
+
+        // 매칭 점수용 통계 반영
+        Consultation consultation = rating.getConsultation();
+        affinityService.recordRatingDeleted(
+                consultation.getUser().getId(), consultation.getCustomer().getId(), rating);
     }
 }
\ No newline at end of file
@@ -12,6 +12,8 @@ import com.ssafy.hearo.domain.customer.entity.Blacklist;
 import com.ssafy.hearo.domain.customer.entity.Customer;
 import com.ssafy.hearo.domain.customer.repository.BlacklistRepository;
 import com.ssafy.hearo.domain.customer.repository.CustomerRepository;
+import com.ssafy.hearo.domain.matching.service.CounselorAffinityService;
+import com.ssafy.hearo.domain.queue.service.WaitTimeEstimator;
 import com.ssafy.hearo.domain.registration.entity.Registration;
 import com.ssafy.hearo.domain.registration.repository.RegistrationRepository;
 import com.ssafy.hearo.domain.user.entity.User;
@@ -43,6 +45,8 @@ public class ConsultationServiceImpl implements ConsultationService{
     private final ConsultationSummaryService summaryService;
     private final BlacklistRepository blacklistRepository;
     private final UserStateService userStateService;
+    private final CounselorAffinityService affinityService;
+    private final WaitTimeEstimator waitTimeEstimator;
 
     public List<ConsultationSummaryResponse> getLatest3ByCustomerId(Integer customerId) {
         // 통화 중에는 현재 상담(빈 상태)이 첫 번째이므로, 4개를 조회한 후 첫 번째를 건너뛰고 3개 반환
@@ -82,6 +86,9 @@ public class ConsultationServiceImpl implements ConsultationService{
                 .build();
 
         consultationRepository.save(consultation);
+        // 매칭 점수용 통계 반영 (상담원-고객 상담 횟수, 카테고리 경험)
+        affinityService.recordConsultation(userId, customer.getId(),
+                registration.getProduct() != null ? registration.getProduct().getCategory() : null);
         log.info("[상담] 상담 레코드 생성 - ID: {}, 상담원: {}, 고객: {}, 접수: {}",
                 consultation.getId(), userId, request.getCustomerId(), request.getRegistrationId());
         return ConsultationStartResponse.of(consultation.getId());
@@ -115,6 +122,8 @@ public class ConsultationServiceImpl implements ConsultationService{
 
         TerminationReason reason = request.getTerminationReason();
         consultation.endConsultation(reason, request.getDurationSeconds());
+        // 예상 대기 시간 추정용 평균 상담 시간 반영
+        waitTimeEstimator.recordHandleTime(request.getDurationSeconds());
 
         log.info("[상담종료] 상담 {} 종료 - 상담원: {}, 고객: {}, 사유: {}, 시간: {}초",
                 consultationId, userId, consultation.getCustomer().getId(),
@@ -1,5 +1,6 @@
 package com.ssafy.hearo.domain.customer.entity;
 
+import com.ssafy.hearo.domain.customer.service.BlacklistIndexListener;
 import com.ssafy.hearo.domain.user.entity.User;
 import com.ssafy.hearo.global.common.BaseTimeEntity;
 import jakarta.persistence.*;
@@ -18,6 +19,7 @@ import lombok.NoArgsConstructor;
                 @Index(name = "idx_blacklists_user_id", columnList = "user_id") // 상담원 기준 조회용 인덱스 추가
         }
 )
+@EntityListeners(BlacklistIndexListener.class) // 저장/삭제 시 매칭용 차단 인덱스 갱신
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Blacklist extends BaseTimeEntity {
@@ -17,6 +17,12 @@ public interface BlacklistRepository extends JpaRepository<Blacklist, Long> {
     @Query("SELECT b.user.id FROM Blacklist b WHERE b.customer.id = :customerId")
     Set<Long> findBlockedCounselorIdsByCustomerId(@Param("customerId") Integer customerId);
 
+    /**
+     * 전체 블랙리스트 관계 조회 (차단 인덱스 적재용)
+     */
+    @Query("SELECT b.customer.id AS customerId, b.user.id AS counselorId FROM Blacklist b")
+    List<BlockedPair> findAllBlockedPairs();
+
     /**
      * 특정 고객과 특정 상담원 간의 블랙리스트 관계 존재 여부
      */
@@ -45,4 +51,12 @@ public interface BlacklistRepository extends JpaRepository<Blacklist, Long> {
 
     // 블랙리스트 삭제를 위한 조회
     Optional<Blacklist> findByUserIdAndCustomerId(Long userId, Integer customerId);
+
+    /**
+     * 고객-상담원 차단 관계 projection
+     */
+    interface BlockedPair {
+        Integer getCustomerId();
+        Long getCounselorId();
+    }
 }
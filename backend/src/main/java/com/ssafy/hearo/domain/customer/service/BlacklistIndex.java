@@ -0,0 +1,173 @@
+package com.ssafy.hearo.domain.customer.service;
+
+import com.ssafy.hearo.domain.customer.repository.BlacklistRepository;
+import com.ssafy.hearo.domain.customer.repository.BlacklistRepository.BlockedPair;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 매칭용 블랙리스트 차단 인덱스 (Redis 미러)
+ *
+ * 고객별로 차단한 상담원 ID를 Redis SET(blacklist:customer:{customerId})에 보관한다.
+ * 매칭 탐색 스크립트(pop-matchable.lua)가 이 SET을 직접 읽으므로 매칭 경로에서는 SQL을 실행하지 않는다.
+ *
+ * - 적재: 애플리케이션 시작 시 DB 전체를 읽어 채운다
+ * - 갱신: Blacklist 저장/삭제 트랜잭션 커밋 후 반영 (BlacklistIndexListener)
+ * - 보정: 일정 주기(blacklist.index.reconcile-interval-ms)마다 DB 기준으로 차이를 맞춘다
+ * - Redis가 초기화되어 준비 표시 키(READY_KEY)가 없으면 매칭 스크립트가 오류를 내고, 호출 측이 다시 적재한다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlacklistIndex {
+
+    public static final String KEY_PREFIX = "blacklist:customer:";
+    public static final String READY_KEY = "blacklist:customer-index:ready";
+
+    private final BlacklistRepository blacklistRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 차단 관계 추가 (트랜잭션 안이면 커밋 후 반영)
+     */
+    public void block(Integer customerId, Long counselorId) {
+        afterCommit(() -> redisTemplate.opsForSet().add(KEY_PREFIX + customerId, String.valueOf(counselorId)));
+    }
+
+    /**
+     * 차단 관계 해제 (트랜잭션 안이면 커밋 후 반영)
+     */
+    public void unblock(Integer customerId, Long counselorId) {
+        afterCommit(() -> redisTemplate.opsForSet().remove(KEY_PREFIX + customerId, String.valueOf(counselorId)));
+    }
+
+    /**
+     * 고객이 차단한 상담원 ID 목록
+     */
+    public Set<Long> findBlockedCounselorIds(Integer customerId) {
+        Set<String> members = redisTemplate.opsForSet().members(KEY_PREFIX + customerId);
+        if (members == null || members.isEmpty()) {
+            return Set.of();
+        }
+        return members.stream().map(Long::parseLong).collect(Collectors.toSet());
+    }
+
+    /**
+     * 인덱스가 없으면 다시 적재 (Redis 초기화 대비)
+     */
+    public void ensureLoaded() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY))) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${blacklist.index.reconcile-interval-ms:600000}",
+            fixedDelayString = "${blacklist.index.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * DB 기준으로 인덱스를 맞춤
+     *
+     * 매칭 스크립트가 중간 상태를 보지 않도록 SET을 지웠다 다시 채우지 않고 차이만 반영한다.
+     * - DB에만 있는 관계는 바로 추가 (동시에 해제된 관계를 다시 넣더라도 차단 쪽이므로 안전, 다음 보정에서 제거)
+     * - Redis에만 있는 관계는 DB에서 한 번 더 확인한 뒤 제거 (조회 이후 새로 등록된 관계를 지우지 않도록)
+     */
+    public void rebuild() {
+        Map<String, Set<String>> expected = new HashMap<>();
+        for (BlockedPair pair : blacklistRepository.findAllBlockedPairs()) {
+            expected.computeIfAbsent(KEY_PREFIX + pair.getCustomerId(), key -> new HashSet<>())
+                    .add(String.valueOf(pair.getCounselorId()));
+        }
+        Map<String, Set<String>> current = loadCurrent();
+
+        int added = 0;
+        for (Map.Entry<String, Set<String>> entry : expected.entrySet()) {
+            Set<String> missing = new HashSet<>(entry.getValue());
+            missing.removeAll(current.getOrDefault(entry.getKey(), Set.of()));
+            if (!missing.isEmpty()) {
+                redisTemplate.opsForSet().add(entry.getKey(), missing.toArray(new String[0]));
+                added += missing.size();
+            }
+        }
+
+        int removed = 0;
+        for (Map.Entry<String, Set<String>> entry : current.entrySet()) {
+            Integer customerId = Integer.valueOf(entry.getKey().substring(KEY_PREFIX.length()));
+            for (String counselorId : entry.getValue()) {
+                if (expected.getOrDefault(entry.getKey(), Set.of()).contains(counselorId)
+                        || blacklistRepository.existsByCustomerIdAndUserId(customerId, Long.valueOf(counselorId))) {
+                    continue;
+                }
+                redisTemplate.opsForSet().remove(entry.getKey(), counselorId);
+                removed++;
+            }
+        }
+
+        redisTemplate.opsForValue().set(READY_KEY, String.valueOf(System.currentTimeMillis()));
+        log.info("[블랙리스트] 차단 인덱스 동기화 완료: 고객 {}명, 추가 {}건, 제거 {}건",
+                expected.size(), added, removed);
+    }
+
+    /**
+     * Redis에 있는 차단 인덱스 전체 조회 (SCAN + 파이프라인 SMEMBERS)
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<String>> loadCurrent() {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object> members = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) {
+                keys.forEach(key -> operations.opsForSet().members(key));
+                return null;
+            }
+        });
+
+        Map<String, Set<String>> current = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            current.put(keys.get(i), (Set<String>) members.get(i));
+        }
+        return current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.ssafy.hearo.domain.customer.service;
+
+import com.ssafy.hearo.domain.customer.entity.Blacklist;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Blacklist 엔티티 저장/삭제 시 차단 인덱스 갱신
+ * BlacklistService(등록/해제)와 상담 종료 시 자동 등록(ConsultationServiceImpl) 모두 이 경로를 거친다.
+ *
+ * 리스너는 EntityManagerFactory 생성 중에 만들어지므로, 리포지토리를 쓰는 BlacklistIndex는 나중에 꺼내 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlacklistIndexListener {
+
+    private final ObjectProvider<BlacklistIndex> blacklistIndex;
+
+    @PostPersist
+    public void onPersist(Blacklist blacklist) {
+        blacklistIndex.getObject().block(blacklist.getCustomer().getId(), blacklist.getUser().getId());
+    }
+
+    @PostRemove
+    public void onRemove(Blacklist blacklist) {
+        blacklistIndex.getObject().unblock(blacklist.getCustomer().getId(), blacklist.getUser().getId());
+    }
+}
@@ -0,0 +1,24 @@
+package com.ssafy.hearo.domain.matching.endpoint;
+
+import com.ssafy.hearo.domain.matching.service.MatchingLeaderElection;
+import com.ssafy.hearo.domain.matching.service.MatchingLeaderElection.LeaderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 매칭 리더 조회 (GET /actuator/matchingleader)
+ */
+@Component
+@Endpoint(id = "matchingleader")
+@RequiredArgsConstructor
+public class MatchingLeaderEndpoint {
+
+    private final MatchingLeaderElection leaderElection;
+
+    @ReadOperation
+    public LeaderStatus leader() {
+        return leaderElection.getStatus();
+    }
+}
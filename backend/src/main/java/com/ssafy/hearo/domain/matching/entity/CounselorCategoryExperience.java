@@ -0,0 +1,37 @@
+package com.ssafy.hearo.domain.matching.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상담원의 상품 카테고리별 상담 횟수 (매칭 점수 계산용)
+ * 상담 생성 시 증가하며, 매칭 시에는 집계 없이 이 값만 읽는다.
+ */
+@Entity
+@Table(name = "counselor_category_experiences",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_experiences_counselor_category", columnNames = {"counselor_id", "category"})
+        },
+        indexes = {
+                @Index(name = "idx_experiences_category", columnList = "category")
+        }
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CounselorCategoryExperience {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "counselor_id", nullable = false)
+    private Long counselorId;
+
+    @Column(nullable = false, length = 30)
+    private String category;
+
+    @Column(name = "consultation_count", nullable = false)
+    private long consultationCount;
+}
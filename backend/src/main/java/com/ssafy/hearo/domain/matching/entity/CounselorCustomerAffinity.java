@@ -0,0 +1,51 @@
+package com.ssafy.hearo.domain.matching.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상담원-고객 간 과거 상담 통계 (매칭 점수 계산용)
+ * 상담 생성/평점 등록·수정·삭제 시 증감되며, 매칭 시에는 집계 없이 이 값만 읽는다.
+ * 평균 평점 = ratingSum / ratingCount (평점 = (과정 + 해결 + 친절) / 3)
+ */
+@Entity
+@Table(name = "counselor_customer_affinities",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_affinities_counselor_customer", columnNames = {"counselor_id", "customer_id"})
+        },
+        indexes = {
+                @Index(name = "idx_affinities_customer_id", columnList = "customer_id")
+        }
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CounselorCustomerAffinity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "counselor_id", nullable = false)
+    private Long counselorId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Integer customerId;
+
+    @Column(name = "consultation_count", nullable = false)
+    private long consultationCount; // 상담 횟수
+
+    @Column(name = "rating_sum", nullable = false)
+    private double ratingSum; // 평점 합계
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount; // 평점이 등록된 상담 수
+
+    /**
+     * 평균 평점 (평점이 등록된 상담이 없으면 null)
+     */
+    public Double getAvgRating() {
+        return ratingCount > 0 ? ratingSum / ratingCount : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ssafy.hearo.domain.matching.repository;
+
+import com.ssafy.hearo.domain.matching.entity.CounselorCategoryExperience;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CounselorCategoryExperienceRepository extends JpaRepository<CounselorCategoryExperience, Long> {
+
+    /**
+     * 여러 상담원의 카테고리 상담 횟수 조회 (이력 없는 상담원은 결과에 없음)
+     */
+    List<CounselorCategoryExperience> findByCategoryAndCounselorIdIn(String category, Collection<Long> counselorIds);
+
+    /**
+     * 여러 상담원의 전체 카테고리 상담 횟수 조회 (이력 없는 상담원은 결과에 없음)
+     */
+    List<CounselorCategoryExperience> findByCounselorIdIn(Collection<Long> counselorIds);
+
+    /**
+     * 카테고리 상담 횟수 증가 (행이 없으면 생성)
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO counselor_category_experiences (counselor_id, category, consultation_count)
+           VALUES (:counselorId, :category, 1)
+           ON CONFLICT (counselor_id, category) DO UPDATE SET
+               consultation_count = counselor_category_experiences.consultation_count + 1
+           """, nativeQuery = true)
+    void increment(@Param("counselorId") Long counselorId, @Param("category") String category);
+
+    /**
+     * 상담 이력 전체로 다시 집계 (초기 적재/보정용)
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO counselor_category_experiences (counselor_id, category, consultation_count)
+           SELECT c.user_id, p.category, COUNT(*)
+           FROM consultations c
+           JOIN registrations reg ON reg.id = c.registration_id
+           JOIN products p ON p.id = reg.product_id
+           WHERE p.category IS NOT NULL
+           GROUP BY c.user_id, p.category
+           ON CONFLICT (counselor_id, category) DO NOTHING
+           """, nativeQuery = true)
+    int backfill();
+}
@@ -0,0 +1,54 @@
+package com.ssafy.hearo.domain.matching.repository;
+
+import com.ssafy.hearo.domain.matching.entity.CounselorCustomerAffinity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CounselorCustomerAffinityRepository extends JpaRepository<CounselorCustomerAffinity, Long> {
+
+    /**
+     * 고객과 여러 상담원 간 통계 조회 (이력 없는 상담원은 결과에 없음)
+     */
+    List<CounselorCustomerAffinity> findByCustomerIdAndCounselorIdIn(Integer customerId, Collection<Long> counselorIds);
+
+    /**
+     * 상담 횟수/평점 증감 (행이 없으면 생성) - 동시에 호출돼도 값이 유실되지 않도록 한 문장으로 처리
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO counselor_customer_affinities
+               (counselor_id, customer_id, consultation_count, rating_sum, rating_count)
+           VALUES (:counselorId, :customerId, :countDelta, :ratingSumDelta, :ratingCountDelta)
+           ON CONFLICT (counselor_id, customer_id) DO UPDATE SET
+               consultation_count = counselor_customer_affinities.consultation_count + EXCLUDED.consultation_count,
+               rating_sum = counselor_customer_affinities.rating_sum + EXCLUDED.rating_sum,
+               rating_count = counselor_customer_affinities.rating_count + EXCLUDED.rating_count
+           """, nativeQuery = true)
+    void increment(@Param("counselorId") Long counselorId,
+                   @Param("customerId") Integer customerId,
+                   @Param("countDelta") long countDelta,
+                   @Param("ratingSumDelta") double ratingSumDelta,
+                   @Param("ratingCountDelta") long ratingCountDelta);
+
+    /**
+     * 상담 이력 전체로 다시 집계 (초기 적재/보정용)
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO counselor_customer_affinities
+               (counselor_id, customer_id, consultation_count, rating_sum, rating_count)
+           SELECT c.user_id, c.customer_id, COUNT(*),
+                  COALESCE(SUM((r.process_rating + r.solution_rating + r.kindness_rating) / 3.0), 0),
+                  COUNT(r.id)
+           FROM consultations c
+           LEFT JOIN consultation_ratings r ON r.consultation_id = c.id
+           GROUP BY c.user_id, c.customer_id
+           ON CONFLICT (counselor_id, customer_id) DO NOTHING
+           """, nativeQuery = true)
+    int backfill();
+}
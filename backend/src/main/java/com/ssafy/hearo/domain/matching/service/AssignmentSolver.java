@@ -0,0 +1,210 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import java.util.Arrays;
+
+/**
+ * 일괄 매칭용 배정 알고리즘
+ *
+ * 대기 고객(행) K명과 가용 상담원(열) C명의 점수 행렬을 받아 한 번에 배정한다.
+ * 1. 대기 순서 우선: 앞 고객부터 증가 경로(augmenting path)로 배정 가능 여부를 확인해 매칭할 고객을 고른다.
+ *    앞 고객이 매칭되지 않는 대신 뒤 고객이 매칭되는 일은 없고,
+ *    앞 고객이 다른 상담원으로도 매칭될 수 있으면 뒤 고객도 함께 매칭된다.
+ * 2. 점수 최대화: 고른 고객 전원이 매칭되는 배정 중 점수 합이 최대인 배정을 헝가리안 알고리즘으로 구한다.
+ *
+ * 매칭 불가(차단/가용 아님) 조합은 Double.NEGATIVE_INFINITY 로 표시한다.
+ * 순차 매칭(greedy)은 앞 고객이 뒤 고객에게 꼭 필요한 상담원을 가져가
+ * 뒤 고객이 Blacklist Queue로 밀리는 경우가 있는데, 일괄 배정은 이를 피한다.
+ */
+public final class AssignmentSolver {
+
+    public static final double FORBIDDEN = Double.NEGATIVE_INFINITY;
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * 대기 순서 우선 + 점수 합 최대 배정
+     *
+     * @param scores scores[고객][상담원] 매칭 점수 (고객은 대기 순서대로, 매칭 불가는 FORBIDDEN)
+     * @return 고객별 배정된 상담원 인덱스 (배정되지 않으면 -1)
+     */
+    public static int[] solve(double[][] scores) {
+        int rows = scores.length;
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        if (rows == 0 || scores[0].length == 0) {
+            return assignment;
+        }
+        int cols = scores[0].length;
+
+        // 1. 대기 순서대로 매칭할 고객 선택
+        int[] selected = selectByPriority(scores, cols);
+        if (selected.length == 0) {
+            return assignment;
+        }
+
+        // 2. 선택된 고객 전원을 배정하는 최대 점수 배정 (비용 최소화로 변환)
+        double maxScore = Double.NEGATIVE_INFINITY;
+        double minScore = Double.POSITIVE_INFINITY;
+        for (int row : selected) {
+            for (double score : scores[row]) {
+                if (score != FORBIDDEN) {
+                    maxScore = Math.max(maxScore, score);
+                    minScore = Math.min(minScore, score);
+                }
+            }
+        }
+        // 매칭 불가 조합 비용: 허용 조합만으로 만든 어떤 배정보다도 비싸게
+        double forbiddenCost = (maxScore - minScore + 1) * (selected.length + 1);
+
+        double[][] cost = new double[selected.length][cols];
+        for (int i = 0; i < selected.length; i++) {
+            for (int j = 0; j < cols; j++) {
+                double score = scores[selected[i]][j];
+                cost[i][j] = score == FORBIDDEN ? forbiddenCost : maxScore - score;
+            }
+        }
+
+        int[] columns = hungarian(cost);
+        for (int i = 0; i < selected.length; i++) {
+            assignment[selected[i]] = columns[i];
+        }
+        return assignment;
+    }
+
+    /**
+     * 순차 매칭 (비교용) - 대기 순서대로 남은 상담원 중 점수가 가장 높은 상담원을 배정
+     * 순차 매칭 루프(peekMatchable 1명 + selectBestCounselor)와 같은 결과
+     *
+     * @param scores scores[고객][상담원] 매칭 점수 (매칭 불가는 FORBIDDEN)
+     * @return 고객별 배정된 상담원 인덱스 (배정되지 않으면 -1)
+     */
+    public static int[] greedy(double[][] scores) {
+        int[] assignment = new int[scores.length];
+        Arrays.fill(assignment, -1);
+        if (scores.length == 0) {
+            return assignment;
+        }
+        boolean[] taken = new boolean[scores[0].length];
+        for (int i = 0; i < scores.length; i++) {
+            int best = -1;
+            for (int j = 0; j < taken.length; j++) {
+                if (!taken[j] && scores[i][j] != FORBIDDEN && (best < 0 || scores[i][j] > scores[i][best])) {
+                    best = j;
+                }
+            }
+            if (best >= 0) {
+                taken[best] = true;
+                assignment[i] = best;
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * 배정 결과의 점수 합
+     */
+    public static double totalScore(double[][] scores, int[] assignment) {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                total += scores[i][assignment[i]];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 대기 순서대로 증가 경로를 찾아 매칭 가능한 고객을 고름 (Kuhn 알고리즘)
+     * 찾지 못하면 기존 배정은 그대로이므로 앞 고객의 매칭은 항상 유지된다.
+     */
+    private static int[] selectByPriority(double[][] scores, int cols) {
+        int[] owner = new int[cols]; // 상담원 → 임시 배정된 고객
+        Arrays.fill(owner, -1);
+        int[] selected = new int[Math.min(scores.length, cols)];
+        int count = 0;
+
+        for (int row = 0; row < scores.length && count < cols; row++) {
+            if (augment(scores, row, owner, new boolean[cols])) {
+                selected[count++] = row;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static boolean augment(double[][] scores, int row, int[] owner, boolean[] visited) {
+        for (int col = 0; col < owner.length; col++) {
+            if (scores[row][col] == FORBIDDEN || visited[col]) {
+                continue;
+            }
+            visited[col] = true;
+            if (owner[col] < 0 || augment(scores, owner[col], owner, visited)) {
+                owner[col] = row;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 헝가리안 알고리즘 (행 수 ≤ 열 수, 비용 최소화) - O(n²m)
+     * @return 행별 배정된 열 인덱스
+     */
+    private static int[] hungarian(double[][] cost) {
+        int n = cost.length;
+        int m = cost[0].length;
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1]; // 열 → 배정된 행 (1-indexed, 0이면 없음)
+        int[] way = new int[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            double[] minv = new double[m + 1];
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            boolean[] used = new boolean[m + 1];
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                int j1 = 0;
+                double delta = Double.POSITIVE_INFINITY;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double cur = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                        if (cur < minv[j]) {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] result = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) {
+                result[p[j] - 1] = j - 1;
+            }
+        }
+        return result;
+    }
+}
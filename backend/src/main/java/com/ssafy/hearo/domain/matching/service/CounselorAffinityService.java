@@ -0,0 +1,153 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.consultation.entity.ConsultationRating;
+import com.ssafy.hearo.domain.matching.entity.CounselorCategoryExperience;
+import com.ssafy.hearo.domain.matching.entity.CounselorCustomerAffinity;
+import com.ssafy.hearo.domain.matching.repository.CounselorCategoryExperienceRepository;
+import com.ssafy.hearo.domain.matching.repository.CounselorCustomerAffinityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 매칭 점수용 상담원 통계 관리
+ *
+ * - 상담원-고객 통계: 상담 횟수, 평점 합계, 평점 수
+ * - 상담원-카테고리 통계: 카테고리별 상담 횟수
+ *
+ * 상담 생성(ConsultationServiceImpl.startConsultation)과 평점 등록/수정/삭제(ConsultationRatingService)
+ * 시점에 같은 트랜잭션 안에서 증감하므로, 매칭 시에는 상담 이력을 집계하지 않고 조회만 한다.
+ * 테이블이 비어 있으면 시작 시 상담 이력 전체로 한 번 채운다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CounselorAffinityService {
+
+    private final CounselorCustomerAffinityRepository affinityRepository;
+    private final CounselorCategoryExperienceRepository experienceRepository;
+
+    /**
+     * 상담 생성 반영
+     */
+    @Transactional
+    public void recordConsultation(Long counselorId, Integer customerId, String category) {
+        affinityRepository.increment(counselorId, customerId, 1, 0, 0);
+        if (category != null && !category.isBlank()) {
+            experienceRepository.increment(counselorId, category);
+        }
+    }
+
+    /**
+     * 평점 등록 반영
+     */
+    @Transactional
+    public void recordRatingCreated(Long counselorId, Integer customerId, ConsultationRating rating) {
+        affinityRepository.increment(counselorId, customerId, 0, ratingOf(rating), 1);
+    }
+
+    /**
+     * 평점 수정 반영
+     * @param previousRating 수정 전 평점 ((과정 + 해결 + 친절) / 3)
+     */
+    @Transactional
+    public void recordRatingUpdated(Long counselorId, Integer customerId, double previousRating, ConsultationRating rating) {
+        affinityRepository.increment(counselorId, customerId, 0, ratingOf(rating) - previousRating, 0);
+    }
+
+    /**
+     * 평점 삭제 반영
+     */
+    @Transactional
+    public void recordRatingDeleted(Long counselorId, Integer customerId, ConsultationRating rating) {
+        affinityRepository.increment(counselorId, customerId, 0, -ratingOf(rating), -1);
+    }
+
+    /**
+     * 고객과 여러 상담원 간 통계 (상담원 ID → 통계, 이력 없는 상담원은 없음)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, CounselorCustomerAffinity> findAffinities(Integer customerId, Collection<Long> counselorIds) {
+        return affinityRepository.findByCustomerIdAndCounselorIdIn(customerId, counselorIds).stream()
+                .collect(Collectors.toMap(CounselorCustomerAffinity::getCounselorId, Function.identity()));
+    }
+
+    /**
+     * 여러 상담원의 카테고리 상담 횟수 (상담원 ID → 횟수, 이력 없는 상담원은 없음)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> findCategoryCounts(String category, Collection<Long> counselorIds) {
+        return experienceRepository.findByCategoryAndCounselorIdIn(category, counselorIds).stream()
+                .collect(Collectors.toMap(CounselorCategoryExperience::getCounselorId,
+                        CounselorCategoryExperience::getConsultationCount));
+    }
+
+    /**
+     * 상담원별 주 카테고리 (상담 횟수가 가장 많은 카테고리, 같으면 이름순 앞, 이력 없는 상담원은 없음)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> findHomeCategories(Collection<Long> counselorIds) {
+        Map<Long, CounselorCategoryExperience> best = new HashMap<>();
+        for (CounselorCategoryExperience experience : experienceRepository.findByCounselorIdIn(counselorIds)) {
+            best.merge(experience.getCounselorId(), experience, (a, b) ->
+                    a.getConsultationCount() != b.getConsultationCount()
+                            ? (a.getConsultationCount() > b.getConsultationCount() ? a : b)
+                            : (a.getCategory().compareTo(b.getCategory()) <= 0 ? a : b));
+        }
+        return best.values().stream()
+                .collect(Collectors.toMap(CounselorCategoryExperience::getCounselorId,
+                        CounselorCategoryExperience::getCategory));
+    }
+
+    /**
+     * 상담 이력 전체로 다시 집계 (기존 통계는 삭제)
+     */
+    @Transactional
+    public void rebuild() {
+        affinityRepository.deleteAllInBatch();
+        experienceRepository.deleteAllInBatch();
+        int pairs = affinityRepository.backfill();
+        int categories = experienceRepository.backfill();
+        log.info("[매칭 통계] 상담 이력으로 통계 재집계: 상담원-고객 {}건, 상담원-카테고리 {}건", pairs, categories);
+    }
+
+    /**
+     * 통계 테이블이 비어 있으면 상담 이력으로 채움 (기능 도입 후 첫 실행 등)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (affinityRepository.count() > 0 || experienceRepository.count() > 0) {
+            return;
+        }
+        int pairs = affinityRepository.backfill();
+        int categories = experienceRepository.backfill();
+        if (pairs > 0 || categories > 0) {
+            log.info("[매칭 통계] 초기 적재 완료: 상담원-고객 {}건, 상담원-카테고리 {}건", pairs, categories);
+        }
+    }
+
+    /**
+     * 상담 1건의 평점 ((과정 + 해결 + 친절) / 3)
+     */
+    public static double ratingOf(ConsultationRating rating) {
+        return ratingOf(rating.getProcessRating(), rating.getSolutionRating(), rating.getKindnessRating());
+    }
+
+    /**
+     * 평점 값 세 개로 평점 계산 (수정 전 값 보관용)
+     */
+    public static double ratingOf(BigDecimal processRating, BigDecimal solutionRating, BigDecimal kindnessRating) {
+        return processRating.add(solutionRating).add(kindnessRating).doubleValue() / 3.0;
+    }
+}
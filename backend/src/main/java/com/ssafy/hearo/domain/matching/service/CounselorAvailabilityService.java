@@ -1,12 +1,19 @@
 package com.ssafy.hearo.domain.matching.service;
 
+import com.ssafy.hearo.domain.matching.service.MatchingTrigger.MatchingRequestedEvent;
 import com.ssafy.hearo.domain.user.service.HeartbeatService;
+import com.ssafy.hearo.domain.user.service.HeartbeatServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -20,9 +27,23 @@ import java.util.stream.Collectors;
 public class CounselorAvailabilityService {
 
     private static final String AVAILABLE_COUNSELORS_KEY = "counselors:available";
+    private static final String MATCHING_FENCED = "MATCHING_FENCED";
+
+    /**
+     * 매칭 리더 fencing 검사 후 상담원을 가용 목록에서 빼는 스크립트
+     */
+    private static final RedisScript<Long> RESERVE_COUNSELOR_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/reserve-counselor.lua"), Long.class);
+
+    /**
+     * 매칭 리더 fencing과 하트비트 검사 후 배정을 취소한 상담원을 가용 목록에 되돌리는 스크립트
+     */
+    private static final RedisScript<Long> CANCEL_RESERVATION_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/cancel-reservation.lua"), Long.class);
 
     private final RedisTemplate<String, String> redisTemplate;
     private final HeartbeatService heartbeatService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 상담원을 가용 상태로 설정 (로그인/상담 종료 시)
@@ -33,6 +54,11 @@ public class CounselorAvailabilityService {
         Set<Long> currentSet = getAvailableCounselorIds();
         log.info("[가용성] 상담원 {} → 가용 (이전 상태: {}) | 현재 가용 목록: {}",
                 counselorId, wasAlreadyAvailable ? "이미 가용" : "비가용", currentSet);
+
+        // 비가용 → 가용 전환 시에만 매칭 요청 (하트비트 갱신마다 호출되므로)
+        if (!wasAlreadyAvailable) {
+            eventPublisher.publishEvent(new MatchingRequestedEvent("available:" + counselorId));
+        }
     }
 
     /**
@@ -46,6 +72,49 @@ public class CounselorAvailabilityService {
                 counselorId, wasAvailable ? "가용" : "이미 비가용", currentSet);
     }
 
+    /**
+     * 매칭할 상담원을 가용 목록에서 원자적으로 뺌 (매칭 사이클 안이면 fencing token 검사)
+     * @return 가용 상태였다가 빠졌으면 true, 이미 비가용이면 false
+     * @throws IllegalStateException 매칭 리더 자격을 잃어 거부된 경우
+     */
+    public boolean reserveForMatching(Long counselorId) {
+        Long removed;
+        try {
+            removed = redisTemplate.execute(RESERVE_COUNSELOR_SCRIPT,
+                    List.of(AVAILABLE_COUNSELORS_KEY, MatchingLeaderElection.LEADER_KEY),
+                    counselorId.toString(), MatchingLeaderElection.currentFencingToken());
+        } catch (DataAccessException e) {
+            rejectIfFenced(e, "상담원 배정이");
+            throw e;
+        }
+        boolean reserved = removed != null && removed > 0;
+        log.info("[가용성] 상담원 {} → 매칭 배정으로 비가용 ({})", counselorId, reserved ? "가용에서 전환" : "이미 비가용");
+        return reserved;
+    }
+
+    /**
+     * 매칭 배정을 취소하고 상담원을 다시 가용 목록에 넣음 (고객 추출 실패 시, 매칭 사이클 안이면 fencing token 검사)
+     * 그 사이 하트비트가 끊긴(로그아웃/만료) 상담원은 되돌리지 않는다.
+     * @return 가용 목록에 되돌렸으면 true, 하트비트가 없어 비가용으로 두었으면 false
+     * @throws IllegalStateException 매칭 리더 자격을 잃어 거부된 경우 (상담원은 다음 하트비트 갱신 때 다시 가용이 됨)
+     */
+    public boolean cancelReservation(Long counselorId) {
+        Long restored;
+        try {
+            restored = redisTemplate.execute(CANCEL_RESERVATION_SCRIPT,
+                    List.of(AVAILABLE_COUNSELORS_KEY, MatchingLeaderElection.LEADER_KEY,
+                            HeartbeatServiceImpl.HEARTBEAT_KEY),
+                    counselorId.toString(), MatchingLeaderElection.currentFencingToken(),
+                    String.valueOf(HeartbeatServiceImpl.expiryCutoff()));
+        } catch (DataAccessException e) {
+            rejectIfFenced(e, "상담원 배정 취소가");
+            throw e;
+        }
+        boolean available = restored != null && restored > 0;
+        log.info("[가용성] 상담원 {} → 매칭 배정 취소 ({})", counselorId, available ? "다시 가용" : "하트비트 없음, 비가용 유지");
+        return available;
+    }
+
     /**
      * 현재 가용한 모든 상담원 ID 조회
      */
@@ -114,4 +183,14 @@ public class CounselorAvailabilityService {
 
         return matchable;
     }
+
+    /**
+     * 매칭 리더 자격을 잃은 노드의 변경이 거부되었으면 매칭 사이클을 중단시킨다
+     */
+    private static void rejectIfFenced(DataAccessException e, String rejected) {
+        if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(MATCHING_FENCED)) {
+            throw new IllegalStateException("매칭 리더 자격을 잃어 " + rejected + " 거부되었습니다 (fencing token "
+                    + MatchingLeaderElection.currentFencingToken() + ")", e);
+        }
+    }
 }
@@ -1,13 +1,12 @@
 package com.ssafy.hearo.domain.matching.service;
 
-import com.ssafy.hearo.domain.consultation.repository.ConsultationRepository;
+import com.ssafy.hearo.domain.matching.entity.CounselorCustomerAffinity;
 import com.ssafy.hearo.domain.registration.entity.Registration;
 import com.ssafy.hearo.domain.registration.repository.RegistrationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 /**
@@ -28,7 +27,7 @@ import java.util.*;
 @Slf4j
 public class CounselorScoreService {
 
-    private final ConsultationRepository consultationRepository;
+    private final CounselorAffinityService affinityService;
     private final RegistrationRepository registrationRepository;
 
     // 가중치 설정값
@@ -49,6 +48,29 @@ public class CounselorScoreService {
             return null;
         }
 
+        Map<Long, Double> counselorScores = scoreCandidates(customerId, availableCounselorIds);
+
+        // 최고 점수의 상담원 선택
+        Long bestCounselor = counselorScores.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(availableCounselorIds.iterator().next());
+
+        log.info("[점수] ★ 선택된 상담원: {} (점수: {})",
+                bestCounselor, String.format("%.1f", counselorScores.get(bestCounselor)));
+
+        return bestCounselor;
+    }
+
+    /**
+     * 고객에 대한 상담원별 매칭 점수 계산
+     * 일괄 매칭(AssignmentSolver)에서는 이 점수의 합이 최대가 되도록 배정한다.
+     *
+     * @param customerId 고객 ID (문자열, "customer_123" 형태 가능)
+     * @param counselorIds 점수를 계산할 상담원 ID 목록
+     * @return 상담원 ID → 점수
+     */
+    public Map<Long, Double> scoreCandidates(String customerId, Set<Long> counselorIds) {
         // customerId에서 숫자 추출
         Integer customerIdInt = extractCustomerId(customerId);
 
@@ -62,46 +84,26 @@ public class CounselorScoreService {
             }
         }
 
+        // 미리 집계된 통계 테이블에서 후보 상담원 전체를 키 조회 (상담 이력 집계 없음, 최대 2회)
+        Map<Long, CounselorCustomerAffinity> affinities = customerIdInt != null && !counselorIds.isEmpty()
+                ? affinityService.findAffinities(customerIdInt, counselorIds)
+                : Map.of();
+        Map<Long, Long> categoryCounts = category != null && !category.isBlank() && !counselorIds.isEmpty()
+                ? affinityService.findCategoryCounts(category, counselorIds)
+                : Map.of();
+
         // 각 상담원의 점수 계산
         Map<Long, Double> counselorScores = new HashMap<>();
 
-        for (Long counselorId : availableCounselorIds) {
-            double score = calculateScore(counselorId, customerIdInt, category);
+        for (Long counselorId : counselorIds) {
+            double score = calculateRatingScore(counselorId, affinities.get(counselorId))
+                    + calculateCategoryScore(counselorId, category, categoryCounts.get(counselorId));
             counselorScores.put(counselorId, score);
         }
 
         log.info("[점수] 고객 {} (카테고리: {}) 에 대한 상담원별 점수: {}",
                 customerId, category != null ? category : "없음", counselorScores);
-
-        // 최고 점수의 상담원 선택
-        Long bestCounselor = counselorScores.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(availableCounselorIds.iterator().next());
-
-        log.info("[점수] ★ 선택된 상담원: {} (점수: {})",
-                bestCounselor, String.format("%.1f", counselorScores.get(bestCounselor)));
-
-        return bestCounselor;
-    }
-
-    /**
-     * 상담원-고객 매칭 점수 계산
-     */
-    private double calculateScore(Long counselorId, Integer customerId, String category) {
-        double score = 0.0;
-
-        // 1. 과거 상담 평점 기반 가중치 (비중 높음)
-        if (customerId != null) {
-            score += calculateRatingScore(counselorId, customerId);
-        }
-
-        // 2. 카테고리 경험 기반 가중치 (비중 낮음)
-        if (category != null && !category.isBlank()) {
-            score += calculateCategoryScore(counselorId, category);
-        }
-
-        return score;
+        return counselorScores;
     }
 
     /**
@@ -109,32 +111,26 @@ public class CounselorScoreService {
      * - 평점 3점 미만: 음수 점수
      * - 평점 3점 이상: 양수 점수
      */
-    private double calculateRatingScore(Long counselorId, Integer customerId) {
-        // 과거 상담 횟수 확인
-        Long consultationCount = consultationRepository.countByCounselorAndCustomer(counselorId, customerId);
-
-        if (consultationCount == null || consultationCount == 0) {
+    private double calculateRatingScore(Long counselorId, CounselorCustomerAffinity stat) {
+        if (stat == null || stat.getConsultationCount() == 0) {
             // 과거 상담 이력 없음 - 중립 (0점)
             return 0.0;
         }
 
-        // 평균 평점 조회
-        BigDecimal avgRating = consultationRepository.findAvgRatingByCounselorAndCustomer(counselorId, customerId);
-
-        if (avgRating == null) {
+        if (stat.getAvgRating() == null) {
             // 평점이 없는 상담만 있음 (평가 미완료) - 중립
             return 0.0;
         }
 
-        double rating = avgRating.doubleValue();
+        double rating = stat.getAvgRating();
 
         // 평점 3점 기준으로 음수/양수 가중치 계산
         // 예: 평점 4.5 → (4.5 - 3.0) * 10 = +15점
         // 예: 평점 2.0 → (2.0 - 3.0) * 10 = -10점
         double ratingScore = (rating - RATING_THRESHOLD) * RATING_WEIGHT;
 
-        log.debug("상담원 {} - 고객 {} 평점 점수: {} (평균 평점: {}, 상담 횟수: {})",
-                counselorId, customerId, ratingScore, rating, consultationCount);
+        log.debug("상담원 {} 평점 점수: {} (평균 평점: {}, 상담 횟수: {})",
+                counselorId, ratingScore, rating, stat.getConsultationCount());
 
         return ratingScore;
     }
@@ -143,9 +139,7 @@ public class CounselorScoreService {
      * 카테고리 경험 기반 점수 계산
      * - 해당 카테고리 상담 경험이 많을수록 높은 점수 (양수만)
      */
-    private double calculateCategoryScore(Long counselorId, String category) {
-        Long categoryCount = consultationRepository.countByCounselorAndCategory(counselorId, category);
-
+    private double calculateCategoryScore(Long counselorId, String category, Long categoryCount) {
         if (categoryCount == null || categoryCount == 0) {
             return 0.0;
         }
@@ -0,0 +1,224 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * 매칭 리더 선출 (Redis lease + fencing token)
+ *
+ * 여러 인스턴스 중 lease(matching:leader)를 가진 한 노드만 매칭 사이클을 실행한다.
+ * - 리더는 matching.leader.renew-interval-ms마다 lease를 연장하고, 나머지 노드는 같은 주기로 획득을 시도한다
+ * - 리더가 죽으면 lease(matching.leader.lease-ms)가 만료된 뒤 다음 시도에서 다른 노드가 리더가 된다
+ *   (장애 전환 시간 ≤ lease-ms + renew-interval-ms, 정상 종료 시에는 lease를 반납하므로 ≤ renew-interval-ms)
+ * - 리더가 바뀔 때마다 fencing token이 증가한다. 매칭 사이클 안의 대기열 쓰기와 상담원 배정은 이 token을 함께 보내고,
+ *   스크립트가 현재 리더의 token과 다르면 거부하므로 GC 정지 등으로 lease를 잃은 이전 리더가 쓰지 못한다
+ *
+ * 로컬 판단은 lease 요청을 보낸 시점 기준으로 lease 시간의 90%까지만 리더로 본다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchingLeaderElection {
+
+    public static final String LEADER_KEY = "matching:leader";
+    private static final String FENCING_KEY = "matching:leader:fencing";
+
+    // 매칭 사이클을 실행 중인 스레드의 fencing token
+    private static final ThreadLocal<Long> CURRENT_TOKEN = new ThreadLocal<>();
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEADER_LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/leader-lease.lua"), List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // false면 모든 노드가 매칭을 실행 (단일 인스턴스 전용)
+    @Value("${matching.leader.enabled:true}")
+    private boolean enabled;
+
+    @Value("${matching.leader.lease-ms:3000}")
+    private long leaseMs;
+
+    @Value("${matching.leader.node-id:${HOSTNAME:local}}")
+    private String nodeName;
+
+    // 같은 호스트에서 여러 인스턴스를 띄워도 구분되도록 실행마다 접미사를 붙임
+    private final String instanceSuffix = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile long fencingToken;
+    private volatile long leaseValidUntilNanos;
+
+    /**
+     * 리더인 경우에만 작업 실행 (작업 중 대기열 쓰기에는 fencing token이 붙는다)
+     * @return 실행 여부
+     */
+    public boolean runAsLeader(Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+
+        long token = ensureLeadership();
+        if (token == 0) {
+            log.debug("[매칭] 리더가 아니므로 매칭 생략 (노드 {})", getNodeId());
+            return false;
+        }
+
+        CURRENT_TOKEN.set(token);
+        try {
+            task.run();
+        } finally {
+            CURRENT_TOKEN.remove();
+        }
+        return true;
+    }
+
+    /**
+     * 현재 스레드가 매칭 사이클 안이면 그 fencing token, 아니면 "" (대기열 스크립트 인자용)
+     */
+    public static String currentFencingToken() {
+        Long token = CURRENT_TOKEN.get();
+        return token != null ? String.valueOf(token) : "";
+    }
+
+    /**
+     * 현재 스레드의 fencing token을 다른 스레드(파티션 작업자 등)에서도 쓰도록 작업을 감쌈
+     */
+    public static <T> Callable<T> withCurrentToken(Callable<T> task) {
+        Long token = CURRENT_TOKEN.get();
+        return () -> {
+            Long previous = CURRENT_TOKEN.get();
+            if (token != null) {
+                CURRENT_TOKEN.set(token);
+            }
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT_TOKEN.set(previous);
+                } else {
+                    CURRENT_TOKEN.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * 이 노드가 유효한 lease를 가진 리더인지 (Redis 조회 없음)
+     */
+    public boolean isLeader() {
+        return !enabled || (fencingToken > 0 && System.nanoTime() - leaseValidUntilNanos < 0);
+    }
+
+    public String getNodeId() {
+        return nodeName + ":" + instanceSuffix;
+    }
+
+    /**
+     * lease 연장 또는 획득 시도
+     */
+    @Scheduled(fixedDelayString = "${matching.leader.renew-interval-ms:1000}")
+    public void renew() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            acquire();
+        } catch (Exception e) {
+            log.warn("[매칭] 리더 lease 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 현재 리더 정보 조회 (Redis 기준)
+     */
+    public LeaderStatus getStatus() {
+        LeaseReply reply = execute("STATUS");
+        return new LeaderStatus(reply.leader(), reply.token(), reply.remainingMs(), getNodeId(), isLeader());
+    }
+
+    /**
+     * 종료 시 lease 반납 (Redis 연결이 닫히기 전에 실행되도록 ContextClosedEvent에서 처리)
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void release() {
+        if (!enabled || fencingToken == 0) {
+            return;
+        }
+        try {
+            execute("RELEASE");
+            log.info("[매칭] 리더 lease 반납 (노드 {})", getNodeId());
+        } catch (Exception e) {
+            log.warn("[매칭] 리더 lease 반납 실패: {}", e.getMessage());
+        } finally {
+            fencingToken = 0;
+        }
+    }
+
+    private long ensureLeadership() {
+        if (isLeader()) {
+            return fencingToken;
+        }
+        return acquire();
+    }
+
+    /**
+     * @return 리더가 되었으면 fencing token, 아니면 0
+     */
+    private synchronized long acquire() {
+        long requestedAt = System.nanoTime();
+        LeaseReply reply = execute("ACQUIRE");
+        long previous = fencingToken;
+
+        if (getNodeId().equals(reply.leader())) {
+            leaseValidUntilNanos = requestedAt + leaseMs * 900_000L;
+            fencingToken = reply.token();
+            if (previous != reply.token()) {
+                log.info("[매칭] 리더 선출: 노드 {} (fencing token {})", getNodeId(), reply.token());
+            }
+            return reply.token();
+        }
+
+        fencingToken = 0;
+        if (previous != 0) {
+            log.warn("[매칭] 리더 자격 상실: 노드 {} → 현재 리더 {} (fencing token {})",
+                    getNodeId(), reply.leader(), reply.token());
+        }
+        return 0;
+    }
+
+    private LeaseReply execute(String op) {
+        List<?> reply = redisTemplate.execute(LEADER_LEASE_SCRIPT, List.of(LEADER_KEY, FENCING_KEY),
+                op, getNodeId(), String.valueOf(leaseMs));
+        if (reply == null || reply.size() < 3) {
+            throw new IllegalStateException("리더 lease 스크립트 응답 이상: " + reply);
+        }
+        String leader = (String) reply.get(0);
+        return new LeaseReply(leader.isEmpty() ? null : leader, (Long) reply.get(1), (Long) reply.get(2));
+    }
+
+    private record LeaseReply(String leader, long token, long remainingMs) {}
+
+    /**
+     * 리더 정보
+     * @param leaderNodeId 현재 리더 노드 (없으면 null)
+     * @param fencingToken 현재 리더의 fencing token
+     * @param remainingMs 남은 lease 시간 (ms)
+     * @param nodeId 이 노드
+     * @param leader 이 노드가 리더인지
+     */
+    public record LeaderStatus(String leaderNodeId, long fencingToken, long remainingMs,
+                               String nodeId, boolean leader) {}
+}
@@ -0,0 +1,180 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.queue.service.QueueService.MatchCandidate;
+import com.ssafy.hearo.domain.registration.repository.RegistrationRepository;
+import com.ssafy.hearo.domain.registration.repository.RegistrationRepository.CustomerCategory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 상품 카테고리별 매칭 파티션 구성 + 파티션 작업자 풀
+ *
+ * - 고객: 최신 접수 상품의 카테고리 (Registration.product.category)
+ * - 상담원: 상담 횟수가 가장 많은 카테고리 (주 카테고리)
+ * - 카테고리를 알 수 없는 고객/상담원은 DEFAULT_PARTITION으로 분류
+ *
+ * 파티션마다 상담원이 겹치지 않으므로 파티션별 배정은 작업자 풀(queue.matching.partition.workers)에서
+ * 동시에 실행해도 같은 상담원을 두 번 배정하지 않는다. 고객 꺼내기(claim)는 원자적이다.
+ */
+@Component
+@Slf4j
+public class MatchingPartitioner {
+
+    public static final String DEFAULT_PARTITION = "";
+
+    private final RegistrationRepository registrationRepository;
+    private final CounselorAffinityService affinityService;
+    private final ThreadPoolExecutor workers;
+
+    public MatchingPartitioner(RegistrationRepository registrationRepository,
+                               CounselorAffinityService affinityService,
+                               @Value("${queue.matching.partition.workers:4}") int workerCount) {
+        this.registrationRepository = registrationRepository;
+        this.affinityService = affinityService;
+        AtomicInteger sequence = new AtomicInteger();
+        // 대기 작업 수를 제한하고, 넘치면 매칭 스레드가 직접 실행
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount * 4),
+                task -> {
+                    Thread thread = new Thread(task, "matching-partition-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int getWorkerCount() {
+        return workers.getMaximumPoolSize();
+    }
+
+    /**
+     * 매칭 후보와 가용 상담원을 카테고리별로 나눔
+     * 각 파티션의 고객은 대기 순서를 유지한다.
+     * @return 카테고리 → 파티션 (고객 또는 상담원 한쪽만 있는 파티션도 포함)
+     */
+    public List<Partition> partition(List<MatchCandidate> candidates, Collection<Long> counselorIds) {
+        Map<String, String> customerCategories = findCustomerCategories(candidates);
+        Map<Long, String> counselorCategories = counselorIds.isEmpty()
+                ? Map.of()
+                : affinityService.findHomeCategories(counselorIds);
+
+        Map<String, Partition> partitions = new LinkedHashMap<>();
+        for (MatchCandidate candidate : candidates) {
+            String category = customerCategories.getOrDefault(candidate.customerId(), DEFAULT_PARTITION);
+            partitions.computeIfAbsent(category, Partition::new).candidates().add(candidate);
+        }
+        for (Long counselorId : counselorIds) {
+            String category = counselorCategories.getOrDefault(counselorId, DEFAULT_PARTITION);
+            partitions.computeIfAbsent(category, Partition::new).counselorIds().add(counselorId);
+        }
+        return new ArrayList<>(partitions.values());
+    }
+
+    /**
+     * 작업들을 파티션 작업자 풀에서 동시에 실행하고 결과를 작업 순서대로 반환
+     * 호출 스레드의 fencing token은 작업자에게도 전달된다.
+     */
+    public <T> List<T> runAll(List<Callable<T>> tasks) {
+        if (tasks.size() == 1) {
+            try {
+                return List.of(tasks.get(0).call());
+            } catch (Exception e) {
+                throw rethrow(e);
+            }
+        }
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(workers.submit(MatchingLeaderElection.withCurrentToken(task)));
+        }
+
+        List<T> results = new ArrayList<>(tasks.size());
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("파티션 매칭 대기 중 인터럽트", e);
+            } catch (ExecutionException e) {
+                // 나머지 작업은 끝까지 기다린 뒤 첫 실패를 전달
+                if (failure == null) {
+                    failure = rethrow(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Map<String, String> findCustomerCategories(List<MatchCandidate> candidates) {
+        Map<Integer, String> customerIdsByDbId = new HashMap<>();
+        for (MatchCandidate candidate : candidates) {
+            Integer dbId = extractCustomerDbId(candidate.customerId());
+            if (dbId != null) {
+                customerIdsByDbId.put(dbId, candidate.customerId());
+            }
+        }
+        if (customerIdsByDbId.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, String> categories = new HashMap<>();
+        for (CustomerCategory row : registrationRepository.findLatestCategories(customerIdsByDbId.keySet())) {
+            if (row.getCategory() != null && !row.getCategory().isBlank()) {
+                categories.put(customerIdsByDbId.get(row.getCustomerId()), row.getCategory());
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * customerId 문자열에서 DB PK 추출 ("customer_123" → 123)
+     */
+    private Integer extractCustomerDbId(String customerId) {
+        String idPart = customerId.startsWith("customer_")
+                ? customerId.substring("customer_".length())
+                : customerId;
+        try {
+            return Integer.parseInt(idPart);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("파티션 매칭 실패", cause);
+    }
+
+    /**
+     * 카테고리 파티션
+     * @param category 상품 카테고리 (DEFAULT_PARTITION이면 미분류)
+     * @param candidates 대기 순서대로 정렬된 고객
+     * @param counselorIds 주 카테고리가 같은 가용 상담원
+     */
+    public record Partition(String category, List<MatchCandidate> candidates, List<Long> counselorIds) {
+
+        Partition(String category) {
+            this(category, new ArrayList<>(), new ArrayList<>());
+        }
+    }
+}
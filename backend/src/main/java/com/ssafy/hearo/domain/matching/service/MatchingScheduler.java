@@ -1,25 +1,37 @@
 package com.ssafy.hearo.domain.matching.service;
 
 import com.ssafy.hearo.domain.matching.dto.MatchingResult;
+import com.ssafy.hearo.domain.matching.service.MatchingPartitioner.Partition;
 import com.ssafy.hearo.domain.queue.service.QueueEventPublisher;
 import com.ssafy.hearo.domain.queue.service.QueueLeaseService;
 import com.ssafy.hearo.domain.queue.service.QueueService;
-import com.ssafy.hearo.domain.queue.service.QueueService.PopResult;
+import com.ssafy.hearo.domain.queue.service.QueueService.MatchCandidate;
 import com.ssafy.hearo.domain.registration.entity.Registration;
 import com.ssafy.hearo.domain.registration.repository.RegistrationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 자율 매칭 엔진
- * 5초마다 실행되어 대기 고객과 가용 상담원을 자동으로 매칭
+ * 대기 고객과 가용 상담원을 자동으로 매칭
+ * 평소에는 MatchingTrigger가 고객 등록/상담원 가용 전환 시 바로 실행하고,
+ * 주기 실행은 이벤트 유실에 대비한 안전망 역할만 한다.
+ *
+ * 일괄 매칭(queue.matching.batch.enabled)이 켜져 있으면 대기 고객 앞부분과 가용 상담원을
+ * 한 번에 배정하고(AssignmentSolver), 꺼져 있으면 고객 한 명씩 순차 매칭한다.
+ * 파티션 매칭(queue.matching.partition.enabled)이 켜져 있으면 일괄 배정을 상품 카테고리별로 나눠
+ * 파티션 작업자가 동시에 실행하고, 자기 파티션 고객을 다 배정하고 남은 상담원은 다른 파티션의 남은 고객을 가져간다.
+ * 한 파티션의 배정이 실패해도 다른 파티션은 그대로 배정되고, 실패한 파티션의 고객은 가져오기 단계에서 다시 배정된다.
+ *
+ * 여러 인스턴스로 실행하면 매칭 리더(MatchingLeaderElection)인 노드만 매칭 사이클을 실행한다.
  */
 @Service
 @RequiredArgsConstructor
@@ -33,20 +45,46 @@ public class MatchingScheduler {
     private final QueueEventPublisher queueEventPublisher;
     private final ApplicationEventPublisher eventPublisher;
     private final RegistrationRepository registrationRepository;
+    private final MatchingLeaderElection leaderElection;
+    private final MatchingPartitioner matchingPartitioner;
+
+    // 이벤트 트리거와 주기 실행이 겹쳐도 매칭 사이클은 한 번에 하나만 실행
+    private final ReentrantLock matchingLock = new ReentrantLock();
+
+    @Value("${queue.matching.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${queue.matching.batch.size:20}")
+    private int batchSize;
+
+    @Value("${queue.matching.partition.enabled:true}")
+    private boolean partitionEnabled;
 
     /**
-     * 5초마다 실행되는 자동 매칭 프로세스
+     * 자동 매칭 프로세스 (이벤트 트리거 + 안전망 주기 실행)
      *
      * 로직:
      * 1. 가용 상담원 목록 조회
      * 2. 대기 고객 중 매칭 가능한 고객 탐색
      *    - Blacklist Queue 우선 (우선순위 높음)
      *    - Normal Queue 차순위
-     * 3. 매칭 불가 고객은 자동으로 Blacklist Queue로 이동
+     * 3. 매칭 불가 고객은 자동으로 Blacklist Queue로 이동 (aging은 사이클 시작 시 한 번만)
      * 4. 매칭 성공 시 상담 세션 생성 이벤트 발행
+     *
+     * 다른 사이클이 실행 중이면 끝날 때까지 기다렸다가 실행한다.
+     * 매칭 리더가 아니면 실행하지 않는다.
      */
-    @Scheduled(fixedRate = 5000) // 5초마다 실행
+    @Scheduled(fixedDelayString = "${queue.matching.sweep-interval-ms:30000}")
     public void executeMatching() {
+        matchingLock.lock();
+        try {
+            leaderElection.runAsLeader(this::runMatchingCycle);
+        } finally {
+            matchingLock.unlock();
+        }
+    }
+
+    private void runMatchingCycle() {
         // 매칭 가능한 상담원 조회 (가용 AND 하트비트 활성)
         Set<Long> availableCounselors = counselorAvailabilityService.getMatchableCounselorIds();
 
@@ -65,9 +103,30 @@ public class MatchingScheduler {
         log.info("[매칭] 대기 고객: {}명 (Normal: {}, Blacklist: {})",
                 sizes.totalSize(), sizes.normalQueueSize(), sizes.blacklistQueueSize());
 
-        // 가용 상담원 수만큼 매칭 시도
+        // 매칭 불가 고객 aging은 사이클당 한 번 (이후의 후보 조회는 점수를 바꾸지 않음)
+        queueService.ageUnmatchable(availableCounselors);
+
+        int matchedCount;
+        if (!batchEnabled) {
+            matchedCount = matchSequentially(availableCounselors.size());
+        } else if (partitionEnabled) {
+            matchedCount = matchInPartitions();
+        } else {
+            matchedCount = matchInBatches();
+        }
+
+        // 매칭 후 남은 가용 상담원 확인
+        Set<Long> remainingAvailable = counselorAvailabilityService.getMatchableCounselorIds();
+        log.info("[매칭] ========== 매칭 사이클 종료: {}건 성공, 남은 가용 상담원: {} ==========",
+                matchedCount, remainingAvailable);
+    }
+
+    /**
+     * 순차 매칭 - 대기 순서대로 첫 매칭 가능 고객에게 가장 점수가 높은 상담원을 배정
+     * @return 매칭 성공 건수
+     */
+    private int matchSequentially(int maxMatches) {
         int matchedCount = 0;
-        int maxMatches = availableCounselors.size();
 
         while (matchedCount < maxMatches) {
             // 현재 매칭 가능한 상담원 목록 다시 조회 (매칭 중 변경될 수 있음)
@@ -79,52 +138,287 @@ public class MatchingScheduler {
 
             log.info("[매칭] {}번째 매칭 시도 - 현재 가용 상담원: {}", matchedCount + 1, currentAvailable);
 
-            // 매칭 가능한 고객 추출
-            PopResult result = queueService.popMatchable(currentAvailable);
-
-            if (!result.hasMatch()) {
-                log.info("[매칭] 매칭 가능한 고객 없음 (Blacklist 스킵: {}, Normal→Blacklist 이동: {})",
-                        result.skippedCount(), result.movedToBlacklistCount());
+            // 매칭 가능한 첫 고객 조회 (상담원을 먼저 배정한 뒤 꺼냄)
+            List<MatchCandidate> candidates = queueService.peekMatchable(currentAvailable, 1);
+            if (candidates.isEmpty()) {
+                log.info("[매칭] 매칭 가능한 고객 없음");
                 break;
             }
+            MatchCandidate candidate = candidates.get(0);
 
             // 매칭 가능한 상담원 중 최적의 상담원 선택 (가중치 기반)
             log.info("[매칭] 고객 {} 에 대해 상담원 선택 중... 후보: {}",
-                    result.customerId(), result.matchableCounselorIds());
+                    candidate.customerId(), candidate.matchableCounselorIds());
 
             Long selectedCounselor = counselorScoreService.selectBestCounselor(
-                    result.customerId(), result.matchableCounselorIds());
+                    candidate.customerId(), candidate.matchableCounselorIds());
 
-            // 상담 세션 생성
-            String roomName = generateRoomName(result.customerId(), selectedCounselor);
-            MatchingResult matchingResult = MatchingResult.success(
-                    result.customerId(), selectedCounselor, roomName);
+            // 실패하면 상담원/고객 목록을 다시 읽어 이어서 시도 (실패한 쪽은 다음 조회에서 빠짐)
+            if (!reserveAndClaim(candidate.customerId(), selectedCounselor)) {
+                continue;
+            }
+            completeMatch(candidate.customerId(), selectedCounselor);
 
-            // 상담원을 비가용 상태로 변경
-            log.info("[매칭] 상담원 {} → 비가용 상태로 변경 (고객 {} 매칭됨)", selectedCounselor, result.customerId());
-            counselorAvailabilityService.setUnavailable(selectedCounselor);
+            matchedCount++;
+        }
+        return matchedCount;
+    }
 
-            // 매칭 성공 시 lease 삭제 (더 이상 heartbeat 불필요)
-            queueLeaseService.deleteLeaseByCustomerId(result.customerId());
-            log.info("[매칭] 고객 {} lease 삭제 완료", result.customerId());
+    /**
+     * 일괄 매칭 - 대기 고객 앞부분(queue.matching.batch.size명)과 가용 상담원을 한 번에 배정
+     *
+     * 1. 매칭 가능한 고객을 대기 순서대로 조회 (큐에서 꺼내지 않음)
+     * 2. 고객×상담원 점수 행렬 계산 (차단/매칭 불가 조합은 제외)
+     * 3. 대기 순서를 지키면서 점수 합이 최대가 되도록 배정 (AssignmentSolver)
+     * 4. 배정된 고객을 대기 순서대로 꺼내 매칭 확정
+     *
+     * 배정 이후 가용 상담원이 남고 대기 고객도 남아 있으면 다음 묶음을 이어서 처리한다.
+     * @return 매칭 성공 건수
+     */
+    private int matchInBatches() {
+        int matchedCount = 0;
 
-            // 매칭 이벤트 발행 (상담 세션 생성용)
-            eventPublisher.publishEvent(new MatchingCompletedEvent(
-                    result.customerId(), selectedCounselor, roomName));
+        while (true) {
+            Set<Long> currentAvailable = counselorAvailabilityService.getMatchableCounselorIds();
+            if (currentAvailable.isEmpty()) {
+                log.info("[매칭] 일괄 매칭 중단: 가용 상담원이 더 이상 없음");
+                break;
+            }
 
-            // WebSocket으로 고객/상담원에게 매칭 알림 전송
-            sendMatchingNotifications(result.customerId(), selectedCounselor, roomName);
+            List<MatchCandidate> candidates = queueService.peekMatchable(currentAvailable, batchSize);
+            if (candidates.isEmpty()) {
+                log.info("[매칭] 매칭 가능한 고객 없음");
+                break;
+            }
 
-            log.info("[매칭] ★ 매칭 성공: 고객={} ↔ 상담원={}, 방={}",
-                    result.customerId(), selectedCounselor, roomName);
+            int batchMatched = assignBatch("전체", candidates, new ArrayList<>(currentAvailable)).size();
 
-            matchedCount++;
+            matchedCount += batchMatched;
+            if (batchMatched == 0 || candidates.size() < batchSize) {
+                break;
+            }
         }
+        return matchedCount;
+    }
 
-        // 매칭 후 남은 가용 상담원 확인
-        Set<Long> remainingAvailable = counselorAvailabilityService.getMatchableCounselorIds();
-        log.info("[매칭] ========== 매칭 사이클 종료: {}건 성공, 남은 가용 상담원: {} ==========",
-                matchedCount, remainingAvailable);
+    /**
+     * 파티션 매칭 - 대기 고객 앞부분(queue.matching.batch.size × 작업자 수)을 상품 카테고리별로 나눠 배정
+     *
+     * 1. 매칭 가능한 고객을 대기 순서대로 조회 (큐에서 꺼내지 않음)
+     * 2. 고객은 접수 상품 카테고리, 상담원은 주 카테고리로 파티션 구성 (MatchingPartitioner)
+     * 3. 고객과 상담원이 모두 있는 파티션은 작업자 풀에서 동시에 일괄 배정 (파티션당 최대 batch.size명)
+     * 4. 가져오기: 배정되지 않은 상담원(자기 파티션 고객이 없거나 남은 상담원)이
+     *    다른 파티션의 남은 고객을 대기 순서대로 배정
+     *
+     * 한 카테고리의 상담원이 모두 바빠도 다른 카테고리 고객의 배정이 그 뒤에서 기다리지 않는다.
+     * @return 매칭 성공 건수
+     */
+    private int matchInPartitions() {
+        int matchedCount = 0;
+        int windowSize = batchSize * matchingPartitioner.getWorkerCount();
+
+        while (true) {
+            Set<Long> currentAvailable = counselorAvailabilityService.getMatchableCounselorIds();
+            if (currentAvailable.isEmpty()) {
+                log.info("[매칭] 파티션 매칭 중단: 가용 상담원이 더 이상 없음");
+                break;
+            }
+
+            List<MatchCandidate> candidates = queueService.peekMatchable(currentAvailable, windowSize);
+            if (candidates.isEmpty()) {
+                log.info("[매칭] 매칭 가능한 고객 없음");
+                break;
+            }
+
+            List<Partition> partitions = matchingPartitioner.partition(candidates, currentAvailable);
+            List<Callable<BatchResult>> tasks = new ArrayList<>();
+            for (Partition partition : partitions) {
+                if (partition.candidates().isEmpty() || partition.counselorIds().isEmpty()) {
+                    continue;
+                }
+                List<MatchCandidate> head = partition.candidates()
+                        .subList(0, Math.min(batchSize, partition.candidates().size()));
+                tasks.add(() -> assignPartition(partition, head));
+            }
+
+            Set<String> matchedCustomers = new HashSet<>();
+            Set<Long> busyCounselors = new HashSet<>();
+            if (!tasks.isEmpty()) {
+                for (BatchResult result : matchingPartitioner.runAll(tasks)) {
+                    matchedCustomers.addAll(result.customerIds());
+                    busyCounselors.addAll(result.counselorIds());
+                }
+            }
+            int partitionMatched = matchedCustomers.size();
+
+            // 가져오기: 남은 상담원 × 다른 파티션의 남은 고객
+            List<Long> idleCounselors = new ArrayList<>();
+            for (Long counselorId : currentAvailable) {
+                if (!busyCounselors.contains(counselorId)) {
+                    idleCounselors.add(counselorId);
+                }
+            }
+            List<MatchCandidate> leftovers = new ArrayList<>();
+            for (MatchCandidate candidate : candidates) {
+                if (leftovers.size() >= batchSize) {
+                    break;
+                }
+                if (!matchedCustomers.contains(candidate.customerId())) {
+                    leftovers.add(candidate);
+                }
+            }
+            int stolen = idleCounselors.isEmpty() || leftovers.isEmpty()
+                    ? 0
+                    : assignBatch("가져오기", leftovers, idleCounselors).size();
+
+            log.info("[매칭] 파티션 매칭: 파티션 {}개(동시 배정 {}개) → {}건, 다른 파티션에서 가져온 고객 {}건",
+                    partitions.size(), tasks.size(), partitionMatched, stolen);
+
+            int batchMatched = partitionMatched + stolen;
+            matchedCount += batchMatched;
+            if (batchMatched == 0 || candidates.size() < windowSize) {
+                break;
+            }
+        }
+        return matchedCount;
+    }
+
+    /**
+     * 파티션 하나를 일괄 배정
+     * 실패해도 다른 파티션의 배정은 그대로 두고, 이 파티션의 남은 고객은 가져오기 단계에서 다시 배정한다.
+     * (fencing 거부라면 가져오기 단계도 같은 이유로 거부되어 사이클이 중단된다)
+     */
+    private BatchResult assignPartition(Partition partition, List<MatchCandidate> head) {
+        String label = partitionLabel(partition);
+        try {
+            return assignBatch(label, head, partition.counselorIds());
+        } catch (RuntimeException e) {
+            log.error("[매칭] 파티션({}) 배정 실패 → 남은 고객은 가져오기 단계로 넘김: {}", label, e.getMessage(), e);
+            return new BatchResult(Set.of(), Set.of());
+        }
+    }
+
+    /**
+     * 고객 묶음과 상담원을 한 번에 배정(AssignmentSolver)하고 대기 순서대로 매칭 확정
+     * 배정 계산 중 비가용으로 바뀐 상담원이나 그 사이 이탈한 고객은 건너뛴다.
+     * @param label 로그용 묶음 이름
+     * @return 매칭된 고객/상담원
+     */
+    private BatchResult assignBatch(String label, List<MatchCandidate> candidates, List<Long> counselors) {
+        double[][] scores = buildScoreMatrix(candidates, counselors);
+        int[] assignment = AssignmentSolver.solve(scores);
+
+        log.info("[매칭] 일괄 배정({}): 고객 {}명 × 상담원 {}명 → 점수 합 {}",
+                label, candidates.size(), counselors.size(),
+                String.format("%.1f", AssignmentSolver.totalScore(scores, assignment)));
+
+        // 배정 계산 중 비가용으로 바뀐 상담원은 건너뜀 (다음 사이클에서 다시 배정)
+        Set<Long> stillAvailable = counselorAvailabilityService.getMatchableCounselorIds();
+        Set<String> matchedCustomers = new HashSet<>();
+        Set<Long> matchedCounselors = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (assignment[i] < 0) {
+                continue;
+            }
+            String customerId = candidates.get(i).customerId();
+            Long counselorId = counselors.get(assignment[i]);
+            if (!stillAvailable.contains(counselorId)) {
+                log.info("[매칭] 상담원 {} 비가용 전환 → 고객 {} 배정 보류", counselorId, customerId);
+                continue;
+            }
+            if (!reserveAndClaim(customerId, counselorId)) {
+                continue;
+            }
+            completeMatch(customerId, counselorId);
+            matchedCustomers.add(customerId);
+            matchedCounselors.add(counselorId);
+        }
+        return new BatchResult(matchedCustomers, matchedCounselors);
+    }
+
+    /**
+     * 상담원을 가용 목록에서 먼저 빼고(fencing 검사) 고객을 대기열에서 꺼냄
+     *
+     * 두 쓰기 모두 fencing token을 검사하므로 lease를 잃은 이전 리더는 새 리더와 같은 상담원/고객을 배정하지 못한다.
+     * 상담원을 먼저 빼므로 고객 추출이 거부되어도 고객이 대기열에서 사라지지 않고,
+     * 고객을 꺼내지 못하면(이미 이탈/추출됨 또는 거부) 상담원을 다시 가용 목록에 넣는다
+     * (되돌리기도 fencing을 검사하고, 그 사이 하트비트가 끊긴 상담원은 되돌리지 않음).
+     * @return 상담원 배정과 고객 추출이 모두 성공했으면 true
+     */
+    private boolean reserveAndClaim(String customerId, Long counselorId) {
+        if (!counselorAvailabilityService.reserveForMatching(counselorId)) {
+            log.info("[매칭] 상담원 {} 이미 비가용 → 고객 {} 배정 보류", counselorId, customerId);
+            return false;
+        }
+        boolean claimed = false;
+        try {
+            claimed = queueService.claim(customerId);
+            return claimed;
+        } finally {
+            if (!claimed) {
+                counselorAvailabilityService.cancelReservation(counselorId);
+            }
+        }
+    }
+
+    private static String partitionLabel(Partition partition) {
+        return MatchingPartitioner.DEFAULT_PARTITION.equals(partition.category())
+                ? "미분류"
+                : partition.category();
+    }
+
+    /**
+     * 일괄 배정 결과
+     */
+    private record BatchResult(Set<String> customerIds, Set<Long> counselorIds) {
+
+        int size() {
+            return customerIds.size();
+        }
+    }
+
+    /**
+     * 고객×상담원 점수 행렬 생성 (고객별 매칭 가능 상담원이 아니면 AssignmentSolver.FORBIDDEN)
+     */
+    private double[][] buildScoreMatrix(List<MatchCandidate> candidates, List<Long> counselors) {
+        double[][] scores = new double[candidates.size()][counselors.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            MatchCandidate candidate = candidates.get(i);
+            // 이번 묶음의 상담원에 대해서만 점수 계산
+            Set<Long> scoped = new HashSet<>(candidate.matchableCounselorIds());
+            scoped.retainAll(counselors);
+            Map<Long, Double> customerScores = counselorScoreService.scoreCandidates(candidate.customerId(), scoped);
+            for (int j = 0; j < counselors.size(); j++) {
+                Double score = customerScores.get(counselors.get(j));
+                scores[i][j] = score != null ? score : AssignmentSolver.FORBIDDEN;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 매칭 확정 처리 - lease 삭제, 매칭 이벤트 발행, WebSocket 알림
+     *
+     * 상담원 비가용 전환과 고객 추출은 reserveAndClaim에서 fencing token 검사와 함께 끝난 상태다.
+     * 여기서의 쓰기(lease 삭제, 상담 세션 생성, 알림)는 fencing하지 않는다. 모두 이 사이클이 방금 꺼낸 고객에 대한 것이라
+     * 그 사이 리더가 바뀌어도 새 리더는 이 고객과 상담원을 볼 수 없으므로 두 리더의 쓰기가 겹치지 않는다.
+     */
+    private void completeMatch(String customerId, Long counselorId) {
+        // 상담 세션 생성
+        String roomName = generateRoomName(customerId, counselorId);
+        log.info("[매칭] 상담원 {} 비가용 전환 완료 (고객 {} 매칭됨)", counselorId, customerId);
+
+        // 매칭 성공 시 lease 삭제 (더 이상 heartbeat 불필요)
+        queueLeaseService.deleteLeaseByCustomerId(customerId);
+        log.info("[매칭] 고객 {} lease 삭제 완료", customerId);
+
+        // 매칭 이벤트 발행 (상담 세션 생성용)
+        eventPublisher.publishEvent(new MatchingCompletedEvent(customerId, counselorId, roomName));
+
+        // WebSocket으로 고객/상담원에게 매칭 알림 전송
+        sendMatchingNotifications(customerId, counselorId, roomName);
+
+        log.info("[매칭] ★ 매칭 성공: 고객={} ↔ 상담원={}, 방={}", customerId, counselorId, roomName);
     }
 
     /**
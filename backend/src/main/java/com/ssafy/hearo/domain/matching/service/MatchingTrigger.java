@@ -0,0 +1,106 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 이벤트 기반 매칭 트리거
+ * 고객 등록, 상담원 가용 전환, 하트비트 활성화 시 매칭을 바로 실행한다.
+ *
+ * 짧은 시간(queue.matching.trigger-debounce-ms) 안에 들어온 요청은 한 번의 매칭으로 합친다.
+ * 매칭 실행 중에 들어온 요청은 다음 실행으로 예약되므로 놓치지 않는다.
+ * 주기 실행(queue.matching.sweep-interval-ms)은 이벤트 유실에 대비한 안전망으로만 남는다.
+ *
+ * 매칭은 리더 노드만 실행하므로, 리더가 아닌 노드에서 생긴 요청은 Redis 채널(matching:trigger)로 리더에게 넘긴다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchingTrigger implements MessageListener {
+
+    public static final String TRIGGER_CHANNEL = "matching:trigger";
+
+    private final MatchingScheduler matchingScheduler;
+    private final TaskScheduler taskScheduler;
+    private final MatchingLeaderElection leaderElection;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // 이미 예약된 매칭 실행이 있는지 여부
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    @Value("${queue.matching.event-trigger:true}")
+    private boolean enabled;
+
+    @Value("${queue.matching.trigger-debounce-ms:50}")
+    private long debounceMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(TRIGGER_CHANNEL));
+    }
+
+    @EventListener
+    public void onMatchingRequested(MatchingRequestedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!leaderElection.isLeader()) {
+            // 리더에게 전달 (리더가 없으면 다음 주기 실행에서 처리)
+            log.debug("[매칭] 매칭 요청 ({}) → 리더 노드로 전달", event.reason());
+            redisTemplate.convertAndSend(TRIGGER_CHANNEL, event.reason());
+            return;
+        }
+        schedule(event.reason());
+    }
+
+    /**
+     * 다른 노드에서 전달된 매칭 요청
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (enabled && leaderElection.isLeader()) {
+            schedule(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void schedule(String reason) {
+        if (scheduled.compareAndSet(false, true)) {
+            log.debug("[매칭] 매칭 요청 ({}) → {}ms 후 실행", reason, debounceMs);
+            taskScheduler.schedule(this::run, Instant.now().plus(Duration.ofMillis(debounceMs)));
+        } else {
+            log.debug("[매칭] 매칭 요청 ({}) → 이미 예약된 실행에 합침", reason);
+        }
+    }
+
+    private void run() {
+        // 실행 시작 전에 해제 - 실행 중 들어온 요청은 다음 실행으로 예약된다
+        scheduled.set(false);
+        try {
+            matchingScheduler.executeMatching();
+        } catch (Exception e) {
+            log.error("[매칭] 이벤트 기반 매칭 실행 중 오류", e);
+        }
+    }
+
+    /**
+     * 매칭 요청 이벤트
+     * @param reason 요청 사유 (로그용, 예: "enqueue:123", "available:5")
+     */
+    public record MatchingRequestedEvent(String reason) {}
+}
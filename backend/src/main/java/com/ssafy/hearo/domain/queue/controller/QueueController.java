@@ -5,14 +5,23 @@ import com.ssafy.hearo.domain.queue.dto.HeartbeatResponse;
 import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
 import com.ssafy.hearo.domain.queue.service.QueueLeaseService;
 import com.ssafy.hearo.domain.queue.service.QueueService;
+import com.ssafy.hearo.domain.queue.service.QueueAdmissionService;
+import com.ssafy.hearo.domain.queue.service.QueueEventStream;
+import com.ssafy.hearo.domain.queue.service.QueueStatusReader;
 import com.ssafy.hearo.global.common.response.BaseResponse;
 import com.ssafy.hearo.global.util.MockUserIdExtractor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/queue")
@@ -22,35 +31,72 @@ public class QueueController {
 
     private final QueueService queueService;
     private final QueueLeaseService queueLeaseService;
+    private final QueueStatusReader queueStatusReader;
+    private final QueueAdmissionService queueAdmissionService;
+    private final QueueEventStream queueEventStream;
     private final MockUserIdExtractor userIdExtractor;
 
     // register 메서드는 RegistrationController로 이사감! 👋
 
     /**
-     * 현재 대기 순위 조회
+     * 현재 대기 순위 조회 (노드별 읽기 미러 우선, 콜백 대기 고객은 queueType=HOLD)
+     * JWT 인증된 본인 요청이면 실시간 대기열 고객에게 queueTicket을 함께 돌려준다
+     * (콜백 대기에서 옮겨진 고객은 ADMITTED 메시지를 받은 뒤 이 응답으로 ticket을 받아 heartbeat 시작)
      */
     @GetMapping("/status")
     public ResponseEntity<QueueStatusResponse> getStatus(HttpServletRequest httpRequest) {
         String customerId = userIdExtractor.extract(httpRequest);
 
-        return queueService.getWaitingRank(customerId)
-                .map(rank -> {
-                    var queueType = queueService.getQueueType(customerId)
-                            .map(Enum::name)
-                            .orElse(null);
-                    return ResponseEntity.ok(QueueStatusResponse.of(customerId, rank, queueType));
-                })
+        Optional<QueueStatusResponse> live = queueStatusReader.getStatus(customerId);
+        if (live.isPresent()) {
+            QueueStatusResponse status = live.get();
+            if (userIdExtractor.extractAuthenticated().filter(customerId::equals).isPresent()) {
+                status = queueLeaseService.findTicket(customerId).map(status::withQueueTicket).orElse(status);
+            }
+            return ResponseEntity.ok(status);
+        }
+        return queueAdmissionService.findHoldStatus(customerId)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 대기 순위 실시간 수신 (SSE, /ws/queue STOMP 구독의 가벼운 대안)
+     * 이벤트: queue-rank(본인 순위/ETA/ADMITTED/MATCHED, MATCHED 후 종료), queue-updates(대기열 변경)
+     * 현재 순위는 연결 후 /status로 조회
+     * 고객 확인: queueTicket 쿼리 파라미터(EventSource는 헤더를 보낼 수 없음)의 lease 소유자, 없으면 JWT 인증 사용자
+     * (누구나 보낼 수 있는 userId/X-User-ID로는 연결할 수 없음, 둘 다 없거나 ticket이 만료되면 401)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> stream(@RequestParam(required = false) String queueTicket) {
+        Optional<String> customerId = queueTicket != null && !queueTicket.isBlank()
+                ? queueLeaseService.validateLease(queueTicket)
+                : userIdExtractor.extractAuthenticated();
+        if (customerId.isEmpty()) {
+            log.debug("SSE 스트림 연결 거부: 유효하지 않은 ticket 또는 미인증");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        log.debug("고객 {} SSE 스트림 연결", customerId.get());
+        return ResponseEntity.ok()
+                // Nginx 프록시 버퍼링 끄기 (이벤트가 모였다가 한꺼번에 가지 않도록)
+                .header("X-Accel-Buffering", "no")
+                .body(queueEventStream.stream(customerId.get()));
+    }
+
     /**
      * 대기열 이탈 (접수 취소 아님, 단순 줄 서기 취소)
-     * lease도 함께 삭제
+     * lease도 함께 삭제 (콜백 대기 중이면 콜백 대기 취소)
      */
     @DeleteMapping("/cancel")
     public ResponseEntity<Void> cancel(HttpServletRequest httpRequest) {
         String customerId = userIdExtractor.extract(httpRequest);
 
+        if (queueAdmissionService.cancelHold(customerId)) {
+            log.info("고객 {} 콜백 대기 취소", customerId);
+            return ResponseEntity.noContent().build();
+        }
+
         // lease 삭제 (큐 제거 전에 먼저 삭제)
         queueLeaseService.deleteLeaseByCustomerId(customerId);
 
@@ -83,10 +129,10 @@ public class QueueController {
     }
 
     /**
-     * 대기열 통계 조회
+     * 대기열 통계 조회 (노드별 읽기 미러 우선)
      */
     @GetMapping("/stats")
     public ResponseEntity<QueueService.QueueSizes> getStats() {
-        return ResponseEntity.ok(queueService.getQueueSizes());
+        return ResponseEntity.ok(queueStatusReader.getQueueSizes());
     }
 }
\ No newline at end of file
@@ -14,14 +14,52 @@ public class QueueStatusResponse {
     private String customerId;
     private Long waitingRank; // 현재 사용자의 대기 순번
     private String queueType; // 사용자가 일반 큐에 있는지 , blacklist 큐에 있는지 구분
-    private Long estimatedWaitMinutes; // 현재 코드에서는 한 명당 평균 상담 시간을 5분으로 가저앟고 대기 시간을 계산함
+    private Long estimatedWaitMinutes; // 예상 대기 시간 (분, 올림). 추정값이 없으면 한 명당 5분으로 계산
+    private Long estimatedWaitSeconds; // 예상 대기 시간 (초, WaitTimeEstimator)
+    private Long rankEpoch; // waitingRank가 기준으로 하는 대기열 변경 순번 (순위 변경 이벤트와 맞춰보는 용도)
+    private String queueTicket; // heartbeat용 티켓 (본인 인증된 /status 응답에만 포함, 콜백 대기에서 옮겨진 고객이 받는 경로)
 
     public static QueueStatusResponse of(String customerId, Long rank, String queueType) {
+        return of(customerId, rank, queueType, null);
+    }
+
+    public static QueueStatusResponse of(String customerId, Long rank, String queueType, Long rankEpoch) {
         return QueueStatusResponse.builder()
                 .customerId(customerId)
                 .waitingRank(rank)
                 .queueType(queueType)
                 .estimatedWaitMinutes(rank != null ? rank * 5 : null)
+                .rankEpoch(rankEpoch)
+                .build();
+    }
+
+    /**
+     * 예상 대기 시간을 바꾼 응답
+     */
+    public QueueStatusResponse withEstimatedWaitSeconds(long seconds) {
+        return QueueStatusResponse.builder()
+                .customerId(customerId)
+                .waitingRank(waitingRank)
+                .queueType(queueType)
+                .estimatedWaitMinutes((seconds + 59) / 60)
+                .estimatedWaitSeconds(seconds)
+                .rankEpoch(rankEpoch)
+                .queueTicket(queueTicket)
+                .build();
+    }
+
+    /**
+     * queueTicket을 채운 응답
+     */
+    public QueueStatusResponse withQueueTicket(String ticket) {
+        return QueueStatusResponse.builder()
+                .customerId(customerId)
+                .waitingRank(waitingRank)
+                .queueType(queueType)
+                .estimatedWaitMinutes(estimatedWaitMinutes)
+                .estimatedWaitSeconds(estimatedWaitSeconds)
+                .rankEpoch(rankEpoch)
+                .queueTicket(ticket)
                 .build();
     }
 }
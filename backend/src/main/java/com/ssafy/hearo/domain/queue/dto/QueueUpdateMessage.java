@@ -3,10 +3,23 @@ package com.ssafy.hearo.domain.queue.dto;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 대기열에 변화가 생겼을 때
  * 웹소켓을 통해 브로드 캐스팅 할 때 사용하는 메시지 객체
  * 지금 대기열 전체 상황이 이렇다
+ *
+ * 대기열 변경 1건마다 1번만 전송되며, 고객은 마지막으로 알고 있던 순위에
+ * removedRanks / insertedRanks 를 적용해 자기 순위를 직접 계산한다 (shiftRank 참고).
+ * epoch가 연속되지 않으면 메시지를 놓친 것이므로 /api/v1/queue/status 로 다시 맞춘다.
+ *
+ * 짧은 시간 안의 연속된 변경은 하나로 합쳐 보낼 수 있다 (then 참고).
+ * 이때 메시지는 fromEpoch ~ epoch 구간의 변경을 한꺼번에 담는다.
+ *
+ * secondsPerRank는 순위 1칸당 예상 대기 시간으로, 고객은 계산한 순위 × secondsPerRank로 예상 대기 시간을 갱신한다.
  */
 
 @Getter
@@ -16,14 +29,116 @@ public class QueueUpdateMessage {
     private Long normalQueueSize;
     private Long blacklistQueueSize;
     private Long totalWaiting;
+    private Long fromEpoch; // 이 메시지에 담긴 첫 변경의 순번 (합쳐지지 않았으면 epoch와 같음)
+    private Long epoch; // 대기열 변경마다 1씩 증가하는 순번 (이 메시지에 담긴 마지막 변경)
+    private List<Long> removedRanks; // 대기열에서 빠진 자리 (변경 전 순위, 오름차순)
+    private List<Long> insertedRanks; // 새로 들어간 자리 (변경 후 순위, 오름차순)
     private Long timestamp;
+    private Double secondsPerRank; // 순위 1칸당 예상 대기 시간 (초, WaitTimeEstimator)
+
+    public static QueueUpdateMessage of(long normalSize, long blacklistSize, long epoch,
+                                        List<Long> removedRanks, List<Long> insertedRanks, long timestamp) {
+        return of(normalSize, blacklistSize, epoch, removedRanks, insertedRanks, timestamp, null);
+    }
 
-    public static QueueUpdateMessage of(long normalSize, long blacklistSize, long timestamp) {
+    public static QueueUpdateMessage of(long normalSize, long blacklistSize, long epoch,
+                                        List<Long> removedRanks, List<Long> insertedRanks, long timestamp,
+                                        Double secondsPerRank) {
         return QueueUpdateMessage.builder()
                 .normalQueueSize(normalSize)
                 .blacklistQueueSize(blacklistSize)
                 .totalWaiting(normalSize + blacklistSize)
+                .fromEpoch(epoch)
+                .epoch(epoch)
+                .removedRanks(removedRanks)
+                .insertedRanks(insertedRanks)
                 .timestamp(timestamp)
+                .secondsPerRank(secondsPerRank)
+                .build();
+    }
+
+    /**
+     * 이 변경을 적용한 뒤의 순위 계산 (클라이언트와 같은 규칙)
+     * 1. 내 앞에서 빠진 자리 수만큼 당겨진다
+     * 2. 새로 들어간 자리를 앞에서부터 보며, 내 자리 이하이면 한 칸 밀린다
+     * 본인이 빠지거나 새로 들어간 경우에는 개별 메시지로 새 순위를 받는다.
+     * @param rank 변경 전 순위
+     * @return 변경 후 순위
+     */
+    public long shiftRank(long rank) {
+        long shifted = rank;
+        for (Long removed : removedRanks) {
+            if (removed < rank) {
+                shifted--;
+            }
+        }
+        for (Long inserted : insertedRanks) {
+            if (inserted <= shifted) {
+                shifted++;
+            }
+        }
+        return shifted;
+    }
+
+    /**
+     * 바로 다음 변경(later)까지 합친 메시지 생성
+     * 합친 메시지의 removedRanks는 합치기 전 순위, insertedRanks는 합친 후 순위 기준이며,
+     * 구간 안에서 들어왔다가 다시 빠진 자리는 양쪽 모두에서 사라진다.
+     * @param later epoch가 이 메시지 바로 다음인 변경
+     * @return fromEpoch ~ later.epoch 구간을 담은 메시지
+     */
+    public QueueUpdateMessage then(QueueUpdateMessage later) {
+        if (later.getFromEpoch() != epoch + 1) {
+            throw new IllegalArgumentException(
+                    "연속되지 않은 변경은 합칠 수 없음: " + epoch + " -> " + later.getFromEpoch());
+        }
+
+        List<Long> removed = new ArrayList<>(removedRanks);
+        List<Long> carriedInserted = new ArrayList<>(insertedRanks); // 중간 순위 기준
+        for (Long laterRemoved : later.getRemovedRanks()) {
+            if (carriedInserted.remove(laterRemoved)) {
+                continue; // 이 구간에 들어왔다가 다시 빠진 자리
+            }
+            removed.add(unshiftRank(laterRemoved));
+        }
+
+        List<Long> inserted = new ArrayList<>(later.getInsertedRanks());
+        for (Long carried : carriedInserted) {
+            inserted.add(later.shiftRank(carried));
+        }
+        Collections.sort(removed);
+        Collections.sort(inserted);
+
+        return QueueUpdateMessage.builder()
+                .normalQueueSize(later.getNormalQueueSize())
+                .blacklistQueueSize(later.getBlacklistQueueSize())
+                .totalWaiting(later.getTotalWaiting())
+                .fromEpoch(fromEpoch)
+                .epoch(later.getEpoch())
+                .removedRanks(removed)
+                .insertedRanks(inserted)
+                .timestamp(later.getTimestamp())
+                .secondsPerRank(later.getSecondsPerRank())
                 .build();
     }
+
+    /**
+     * shiftRank의 역연산 - 변경 후에도 남아있던 고객의 변경 전 순위
+     * @param rank 변경 후 순위 (새로 들어간 자리가 아니어야 함)
+     * @return 변경 전 순위
+     */
+    private long unshiftRank(long rank) {
+        long original = rank;
+        for (Long inserted : insertedRanks) {
+            if (inserted < rank) {
+                original--;
+            }
+        }
+        for (Long removed : removedRanks) {
+            if (removed <= original) {
+                original++;
+            }
+        }
+        return original;
+    }
 }
@@ -0,0 +1,38 @@
+package com.ssafy.hearo.domain.queue.entity;
+
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대기열 스냅샷 항목 (Redis 대기열 유실 시 복원용)
+ * QueueSnapshotService가 주기적으로 바뀐 항목만 upsert/delete 하며, 복원 시에는 조회만 한다.
+ */
+@Entity
+@Table(name = "queue_snapshot_entries")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class QueueSnapshotEntry {
+
+    @Id
+    @Column(name = "customer_id", length = 64)
+    private String customerId;
+
+    @Column(name = "arrived_at", nullable = false)
+    private long arrivedAt; // 도착 시각 (ms)
+
+    @Column(nullable = false)
+    private double score; // 우선순위 점수 (작을수록 앞)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_type", nullable = false, length = 20)
+    private QueueType queueType;
+
+    @Column(name = "queue_ticket", length = 64)
+    private String queueTicket; // heartbeat용 lease ticket (없으면 null)
+
+    @Column(name = "snapshot_epoch", nullable = false)
+    private long snapshotEpoch; // 마지막으로 저장할 때의 대기열 epoch
+}
@@ -0,0 +1,32 @@
+package com.ssafy.hearo.domain.queue.repository;
+
+import com.ssafy.hearo.domain.queue.entity.QueueSnapshotEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface QueueSnapshotEntryRepository extends JpaRepository<QueueSnapshotEntry, String> {
+
+    /**
+     * 항목 저장 (행이 있으면 갱신) - 조회 없이 한 문장으로 처리
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO queue_snapshot_entries
+               (customer_id, arrived_at, score, queue_type, queue_ticket, snapshot_epoch)
+           VALUES (:customerId, :arrivedAt, :score, :queueType, :queueTicket, :snapshotEpoch)
+           ON CONFLICT (customer_id) DO UPDATE SET
+               arrived_at = EXCLUDED.arrived_at,
+               score = EXCLUDED.score,
+               queue_type = EXCLUDED.queue_type,
+               queue_ticket = EXCLUDED.queue_ticket,
+               snapshot_epoch = EXCLUDED.snapshot_epoch
+           """, nativeQuery = true)
+    void upsert(@Param("customerId") String customerId,
+                @Param("arrivedAt") long arrivedAt,
+                @Param("score") double score,
+                @Param("queueType") String queueType,
+                @Param("queueTicket") String queueTicket,
+                @Param("snapshotEpoch") long snapshotEpoch);
+}
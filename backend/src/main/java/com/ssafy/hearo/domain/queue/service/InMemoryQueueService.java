@@ -0,0 +1,702 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.customer.service.BlacklistIndex;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 메모리 기반 대기열 구현 (단일 노드/테스트 환경용, queue.store=memory)
+ *
+ * 대기열을 (우선순위 점수, 등록 순번) 순서의 순서 통계 트리(OrderStatisticTreap)로 관리해
+ * 등록/제거/순위 조회가 네트워크 왕복 없이 O(log N)이다.
+ * 점수 규칙(QueuePriority)은 Redis 구현과 같다. 점수가 바뀐 고객(aging, Blacklist 전환)은
+ * 그 고객만 빼고 새 점수로 다시 넣으므로 1명당 O(log N)이다 (전체를 다시 정렬하지 않음).
+ *
+ * 동시성:
+ * - 단건 변경은 StampedLock 쓰기 잠금 안에서 O(log N)으로 끝나고, 큐 크기 조회는 낙관적 읽기로 잠금 없이 수행한다
+ * - 매칭 탐색은 읽기 잠금으로 앞부분을 복사한 뒤 lease/차단 확인(Redis)을 잠금 밖에서 하고,
+ *   쓰기 잠금 안에서 각 고객이 복사 시점과 같은 항목인지 비교한 후에만 반영한다(CAS 방식).
+ *   그 사이 다른 스레드가 먼저 꺼내거나 점수를 바꾼 고객은 반영하지 않는다 (추출은 claim의 쓰기 잠금 안에서 한 번만)
+ *
+ * lease와 블랙리스트 인덱스는 기존 서비스(Redis)를 그대로 사용한다.
+ * 콜백 대기열 → 대기열 이동은 쓰기 잠금 안에서 콜백 대기열(Redis) ZREM을 파이프라인 1회로 보내고
+ * 빠진 고객만 등록한다 (그 사이 취소한 고객의 remove는 잠금을 기다렸다가 등록된 항목을 지운다).
+ * 대기열 상태가 프로세스 안에만 있으므로 여러 인스턴스로 띄우면 안 된다.
+ */
+@Service
+@ConditionalOnProperty(name = "queue.store", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryQueueService implements QueueService {
+
+    private final QueueEventPublisher queueEventPublisher;
+    private final BlacklistIndex blacklistIndex;
+    private final QueueLeaseService queueLeaseService;
+    private final QueuePriority queuePriority;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // 한 번의 매칭 탐색에서 확인하는 최대 고객 수
+    @Value("${queue.matching.scan-limit:200}")
+    private int scanLimit;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final OrderStatisticTreap<Entry> queue = new OrderStatisticTreap<>(ORDER);
+    private int blacklistSize;
+
+    // 등록 순번 (같은 점수일 때 순서, 복사 후 변경 여부 비교에도 사용)
+    private long arrivalSequence;
+    // 대기열 변경 순번 (queue:rank-epoch와 같은 의미)
+    private long epoch;
+
+    @Override
+    public QueueStatusResponse enqueue(String customerId) {
+        long rank;
+        Snapshot snapshot;
+        long stamp = lock.writeLock();
+        try {
+            Entry existing = entries.get(customerId);
+            if (existing != null) {
+                return QueueStatusResponse.of(customerId, rankOf(existing), existing.type().name(), epoch);
+            }
+
+            long now = System.currentTimeMillis();
+            Entry entry = insertEntry(new Entry(customerId, ++arrivalSequence, now, now, QueueType.NORMAL));
+            rank = rankOf(entry);
+            epoch++;
+            snapshot = snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        log.info("[대기열] 고객 {} Normal Queue에 등록 (순위: {}위)", customerId, rank);
+
+        // 맨 뒤에 추가되므로 다른 고객의 순위는 바뀌지 않음 - 변경 이벤트만 전송
+        publishRankShift(snapshot, List.of(), List.of(rank));
+        queueEventPublisher.sendRankUpdate(customerId, rank, snapshot.epoch());
+
+        return QueueStatusResponse.of(customerId, rank, QueueType.NORMAL.name(), snapshot.epoch());
+    }
+
+    @Override
+    public List<QueueStatusResponse> enqueueAll(List<String> customerIds) {
+        Map<String, QueueStatusResponse> statuses =
+                insertAll(QueueEntry.arrivals(customerIds, System.currentTimeMillis()), null);
+        return customerIds.stream().map(statuses::get).toList();
+    }
+
+    @Override
+    public List<QueueStatusResponse> enqueueAllFromHold(String holdQueueKey, List<String> customerIds) {
+        Map<String, QueueStatusResponse> statuses =
+                insertAll(QueueEntry.arrivals(customerIds, System.currentTimeMillis()), holdQueueKey);
+        return customerIds.stream().distinct().map(statuses::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<QueueStatusResponse> requeueAll(List<QueueEntry> requested) {
+        Map<String, QueueStatusResponse> statuses = insertAll(requested, null);
+        return requested.stream().map(entry -> statuses.get(entry.customerId())).toList();
+    }
+
+    /**
+     * 여러 고객을 쓰기 잠금 1회로 등록 (점수 위치에 1명씩 O(log N)으로 삽입)
+     * @param sourceKey 옮겨올 원본 ZSET (null이 아니면 잠금 안에서 여기서 빠진 고객만 등록)
+     */
+    private Map<String, QueueStatusResponse> insertAll(List<QueueEntry> requested, String sourceKey) {
+        if (requested.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, QueueStatusResponse> statuses = new HashMap<>();
+        Map<String, Long> addedRanks = new LinkedHashMap<>();
+        List<Long> insertedRanks = new ArrayList<>();
+        Snapshot snapshot;
+        long stamp = lock.writeLock();
+        try {
+            if (sourceKey != null) {
+                requested = claimFrom(sourceKey, requested);
+            }
+            for (QueueEntry queueEntry : requested) {
+                if (entries.containsKey(queueEntry.customerId())) {
+                    continue;
+                }
+                Entry entry = insertEntry(new Entry(queueEntry.customerId(), ++arrivalSequence,
+                        queueEntry.arrivedAt(), queueEntry.score(), queueEntry.queueType()));
+                addedRanks.put(entry.customerId(), 0L);
+            }
+            if (!addedRanks.isEmpty()) {
+                epoch++;
+            }
+
+            for (QueueEntry queueEntry : requested) {
+                Entry current = entries.get(queueEntry.customerId());
+                long rank = rankOf(current);
+                statuses.put(current.customerId(),
+                        QueueStatusResponse.of(current.customerId(), rank, current.type().name(), epoch));
+                if (addedRanks.containsKey(current.customerId())) {
+                    addedRanks.put(current.customerId(), rank);
+                }
+            }
+            insertedRanks.addAll(addedRanks.values());
+            Collections.sort(insertedRanks);
+            snapshot = snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (!addedRanks.isEmpty()) {
+            log.info("[대기열] 고객 {}명 일괄 등록 (요청 {}명)", addedRanks.size(), statuses.size());
+            publishRankShift(snapshot, List.of(), insertedRanks);
+            addedRanks.forEach((customerId, rank) ->
+                    queueEventPublisher.sendRankUpdate(customerId, rank, snapshot.epoch()));
+        }
+
+        return statuses;
+    }
+
+    /**
+     * 원본 ZSET에서 ZREM에 성공한 항목만 남김 (파이프라인 1회, 호출자가 쓰기 잠금을 잡고 있어야 함)
+     */
+    private List<QueueEntry> claimFrom(String sourceKey, List<QueueEntry> requested) {
+        // QueueEntry.arrivals가 중복을 없애므로 고객당 ZREM 1번
+        List<Object> removed = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                requested.forEach(entry -> operations.opsForZSet().remove(sourceKey, entry.customerId()));
+                return null;
+            }
+        });
+
+        List<QueueEntry> claimed = new ArrayList<>();
+        for (int i = 0; i < requested.size(); i++) {
+            if (removed.get(i) instanceof Long count && count > 0) {
+                claimed.add(requested.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public Optional<Long> getWaitingRank(String customerId) {
+        long stamp = lock.readLock();
+        try {
+            Entry entry = entries.get(customerId);
+            return entry != null ? Optional.of(rankOf(entry)) : Optional.empty();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Optional<QueueStatusResponse> getStatus(String customerId) {
+        long stamp = lock.readLock();
+        try {
+            Entry entry = entries.get(customerId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            return Optional.of(QueueStatusResponse.of(customerId, rankOf(entry), entry.type().name(), epoch));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean moveToBlacklistQueue(String customerId) {
+        long oldRank;
+        long newRank;
+        Snapshot snapshot;
+        long stamp = lock.writeLock();
+        try {
+            Entry entry = entries.get(customerId);
+            if (entry == null || entry.type() != QueueType.NORMAL) {
+                log.warn("고객 {}이(가) Normal Queue에 없음", customerId);
+                return false;
+            }
+
+            oldRank = rankOf(entry);
+            reposition(List.of(entry.withScore(queuePriority.afterMove(entry.score()), QueueType.BLACKLIST)));
+            newRank = rankOf(entries.get(customerId));
+            epoch++;
+            snapshot = snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        log.info("고객 {}을(를) Blacklist Queue로 이동", customerId);
+
+        // 원래 자리가 빠지고 낮아진 점수의 새 자리에 들어감
+        publishRankShift(snapshot, List.of(oldRank), List.of(newRank));
+        // 이동한 고객은 이벤트만으로 새 순위를 알 수 없으므로 직접 전송
+        queueEventPublisher.sendRankUpdate(customerId, newRank, snapshot.epoch());
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(String customerId) {
+        Removal removal = removeCustomer(customerId);
+        if (removal == null) {
+            return false;
+        }
+
+        log.info("고객 {}을(를) 대기열에서 제거", customerId);
+
+        // 제거된 자리 이후의 고객들은 이벤트를 보고 한 칸씩 당긴다
+        publishRankShift(removal.snapshot(), List.of(removal.oldRank()), List.of());
+
+        return true;
+    }
+
+    @Override
+    public Optional<String> pop() {
+        // 점수가 가장 작은 고객
+        Entry popped;
+        Snapshot snapshot;
+        long stamp = lock.writeLock();
+        try {
+            popped = queue.get(1);
+            if (popped == null) {
+                return Optional.empty();
+            }
+            removeEntry(popped);
+            epoch++;
+            snapshot = snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        log.info("{} Queue에서 고객 {} 추출",
+                popped.type() == QueueType.BLACKLIST ? "Blacklist" : "Normal", popped.customerId());
+
+        // 1위 자리가 빠짐 - 모든 고객이 이벤트를 보고 한 칸씩 당긴다
+        publishRankShift(snapshot, List.of(1L), List.of());
+
+        return Optional.of(popped.customerId());
+    }
+
+    @Override
+    public AgingResult ageUnmatchable(Set<Long> availableCounselorIds) {
+        if (availableCounselorIds == null || availableCounselorIds.isEmpty()) {
+            return AgingResult.empty();
+        }
+
+        MatchScanResult scan = runMatchScan(availableCounselorIds, 0);
+        return new AgingResult(scan.skipped(), scan.moved());
+    }
+
+    @Override
+    public List<MatchCandidate> peekMatchable(Set<Long> availableCounselorIds, int limit) {
+        if (availableCounselorIds == null || availableCounselorIds.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        MatchScanResult scan = runMatchScan(availableCounselorIds, limit);
+        log.info("[대기열] 매칭 후보 {}명 조회", scan.candidates().size());
+        return scan.candidates();
+    }
+
+    @Override
+    public boolean claim(String customerId) {
+        Removal removal = removeCustomer(customerId);
+        if (removal == null) {
+            log.info("[대기열] 고객 {} 추출 실패 (이미 대기열에 없음)", customerId);
+            return false;
+        }
+
+        log.info("[대기열] 고객 {} 매칭 대상으로 추출 ({}에서)",
+                customerId, removal.type() == QueueType.BLACKLIST ? "Blacklist" : "Normal");
+        publishRankShift(removal.snapshot(), List.of(removal.oldRank()), List.of());
+        return true;
+    }
+
+    @Override
+    public List<String> evictExpiredLeases(int limit) {
+        List<String> expired = queueLeaseService.releaseExpiredLeases(limit);
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> evicted = new ArrayList<>();
+        List<Long> removedRanks = new ArrayList<>();
+        Snapshot snapshot;
+        long stamp = lock.writeLock();
+        try {
+            List<Entry> targets = new ArrayList<>();
+            for (String customerId : expired) {
+                Entry entry = entries.get(customerId);
+                if (entry != null) {
+                    targets.add(entry);
+                }
+            }
+            // 순위는 제거 전에 모두 계산
+            for (Entry entry : targets) {
+                removedRanks.add(rankOf(entry));
+            }
+            for (Entry entry : targets) {
+                removeEntry(entry);
+                evicted.add(entry.customerId());
+            }
+            if (!targets.isEmpty()) {
+                epoch++;
+            }
+            snapshot = snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (!evicted.isEmpty()) {
+            log.warn("[대기열] 유령고객 {}명 제거 (lease 만료): {}", evicted.size(), evicted);
+            // 제거 인원과 무관하게 순위 변경 이벤트는 1건
+            publishRankShift(snapshot, removedRanks, List.of());
+        }
+        if (expired.size() > evicted.size()) {
+            log.debug("[대기열] 대기열에 없는 만료 lease {}건 정리", expired.size() - evicted.size());
+        }
+        return evicted;
+    }
+
+    @Override
+    public QueueSizes getQueueSizes() {
+        // 낙관적 읽기: 쓰기와 겹치지 않았으면 잠금 없이 반환
+        long stamp = lock.tryOptimisticRead();
+        long total = queue.size();
+        long blacklist = blacklistSize;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                total = queue.size();
+                blacklist = blacklistSize;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return new QueueSizes(total - blacklist, blacklist);
+    }
+
+    @Override
+    public boolean isInQueue(String customerId) {
+        return getQueueType(customerId).isPresent();
+    }
+
+    @Override
+    public Optional<QueueType> getQueueType(String customerId) {
+        long stamp = lock.readLock();
+        try {
+            Entry entry = entries.get(customerId);
+            return entry != null ? Optional.of(entry.type()) : Optional.empty();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCustomersFromRank(long fromRank) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long stamp = lock.readLock();
+        try {
+            long rank = Math.max(fromRank, 1);
+            if (rank > queue.size()) {
+                return result;
+            }
+            for (Iterator<Entry> it = queue.iteratorFrom((int) rank); it.hasNext(); rank++) {
+                result.put(it.next().customerId(), rank);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getAllCustomersWithRanks() {
+        return getCustomersFromRank(1);
+    }
+
+    /**
+     * 매칭 탐색 (pop-matchable.lua와 같은 규칙)
+     *
+     * 1. lease 만료 고객을 먼저 정리 대상으로 잡는다
+     * 2. 읽기 잠금 안에서 대기열 앞부분(scanLimit명)을 복사한다
+     * 3. 잠금 밖에서 lease(ZMSCORE 1회)와 차단 상담원을 확인해 유령고객/aging/조회 대상을 결정한다
+     * 4. 쓰기 잠금 안에서 복사 시점과 같은 항목만 반영한다
+     *
+     * @param peekLimit 0이면 aging만 수행, 1 이상이면 그 인원까지 조회만 함
+     */
+    private MatchScanResult runMatchScan(Set<Long> availableCounselorIds, int peekLimit) {
+        blacklistIndex.ensureLoaded();
+
+        // 1. lease 만료 고객
+        List<String> expired = queueLeaseService.releaseExpiredLeases(scanLimit);
+        Set<String> expiredSet = new HashSet<>(expired);
+
+        // 2. 앞부분 복사
+        List<Entry> scanned = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            collectHead(expiredSet, scanned);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        // 3. 잠금 밖에서 결정
+        Set<String> alive = queueLeaseService.findAliveCustomers(scanned.stream().map(Entry::customerId).toList());
+        long now = System.currentTimeMillis();
+
+        List<Entry> ghosts = new ArrayList<>();
+        List<Entry> blocked = new ArrayList<>();
+        List<MatchCandidate> candidates = new ArrayList<>();
+
+        for (Entry entry : scanned) {
+            if (!alive.contains(entry.customerId()) || now - entry.enqueuedAt() > QUEUE_ENTRY_TIMEOUT_MS) {
+                ghosts.add(entry);
+                continue;
+            }
+
+            Set<Long> matchable = findMatchableCounselors(entry.customerId(), availableCounselorIds);
+            if (!matchable.isEmpty()) {
+                if (peekLimit > 0) {
+                    // peek 모드: 꺼내지 않고 기록만
+                    candidates.add(new MatchCandidate(entry.customerId(), matchable));
+                    if (candidates.size() >= peekLimit) {
+                        break;
+                    }
+                }
+            } else if (peekLimit == 0) {
+                // 매칭 불가 → 꺼내지 않고 점수만 낮춤 (Normal 고객은 Blacklist 고객이 됨)
+                blocked.add(entry);
+            }
+        }
+
+        // 4. 복사 시점과 같은 항목만 반영 (순위는 모두 변경 전 기준으로 먼저 계산)
+        List<String> ghostIds = new ArrayList<>();
+        List<String> removedGhostIds = new ArrayList<>();
+        List<String> movedIds = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        List<Long> removedRanks = new ArrayList<>();
+        List<Long> insertedRanks = new ArrayList<>();
+        Map<String, Long> movedRanks = new LinkedHashMap<>();
+        Snapshot snapshot;
+
+        stamp = lock.writeLock();
+        try {
+            List<Entry> removals = new ArrayList<>();
+            for (String customerId : expired) {
+                Entry current = entries.get(customerId);
+                if (current != null) {
+                    removals.add(current);
+                }
+            }
+            for (Entry entry : ghosts) {
+                if (isUnchanged(entry)) {
+                    removals.add(entries.get(entry.customerId()));
+                    removedGhostIds.add(entry.customerId());
+                }
+            }
+            List<Entry> agedEntries = new ArrayList<>();
+            for (Entry entry : blocked) {
+                if (!isUnchanged(entry)) {
+                    continue;
+                }
+                if (entry.type() == QueueType.NORMAL) {
+                    movedIds.add(entry.customerId());
+                } else {
+                    skipped.add(entry.customerId());
+                }
+                double score = queuePriority.afterSkip(entry.score(), entry.enqueuedAt(), entry.type());
+                if (score < entry.score() || entry.type() == QueueType.NORMAL) {
+                    agedEntries.add(entry.withScore(Math.min(score, entry.score()), QueueType.BLACKLIST));
+                }
+            }
+
+            for (Entry entry : removals) {
+                removedRanks.add(rankOf(entry));
+            }
+            for (Entry entry : agedEntries) {
+                removedRanks.add(rankOf(entries.get(entry.customerId())));
+            }
+
+            for (Entry entry : removals) {
+                removeEntry(entry);
+                ghostIds.add(entry.customerId());
+            }
+            reposition(agedEntries);
+            for (Entry entry : agedEntries) {
+                long rank = rankOf(entries.get(entry.customerId()));
+                insertedRanks.add(rank);
+                movedRanks.put(entry.customerId(), rank);
+            }
+            Collections.sort(insertedRanks);
+
+            if (!removedRanks.isEmpty()) {
+                epoch++;
+            }
+            snapshot = snapshot();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        // 탐색 중 발견해 실제로 제거한 유령고객의 lease만 정리 (만료 lease는 1단계에서 이미 정리됨)
+        // 그 사이 재등록한 고객은 제거하지 않았으므로 새 lease도 건드리지 않는다
+        for (String customerId : removedGhostIds) {
+            queueLeaseService.deleteLeaseByCustomerId(customerId);
+        }
+
+        if (!ghostIds.isEmpty()) {
+            log.warn("[대기열] 유령고객 제거: {} (lease 만료 또는 대기시간 초과)", ghostIds);
+        }
+        if (!movedIds.isEmpty()) {
+            log.info("[대기열] {}명 Normal → Blacklist 전환: {}", movedIds.size(), movedIds);
+        }
+        if (!skipped.isEmpty()) {
+            log.debug("[대기열] Blacklist 고객 {}명 스킵 (aging 적용): {}", skipped.size(), skipped);
+        }
+
+        if (!removedRanks.isEmpty()) {
+            publishRankShift(snapshot, removedRanks, insertedRanks);
+            // 점수가 바뀐 고객은 이벤트만으로 새 순위를 알 수 없으므로 직접 전송
+            movedRanks.forEach((customerId, rank) ->
+                    queueEventPublisher.sendRankUpdate(customerId, rank, snapshot.epoch()));
+        }
+
+        return new MatchScanResult(skipped, movedIds, candidates);
+    }
+
+    /**
+     * 대기열 앞에서부터 탐색 한도(scanLimit)까지 복사 (lease 만료 고객은 제외)
+     */
+    private void collectHead(Set<String> excluded, List<Entry> scanned) {
+        for (Iterator<Entry> it = queue.iteratorFrom(1); it.hasNext() && scanned.size() < scanLimit; ) {
+            Entry entry = it.next();
+            if (!excluded.contains(entry.customerId())) {
+                scanned.add(entry);
+            }
+        }
+    }
+
+    /**
+     * 복사 시점 이후 제거/재등록/점수 변경되지 않았는지 (쓰기 잠금 안에서 호출)
+     */
+    private boolean isUnchanged(Entry copied) {
+        Entry current = entries.get(copied.customerId());
+        return current != null && current.arrival() == copied.arrival() && current.type() == copied.type()
+                && current.score() == copied.score();
+    }
+
+    /**
+     * 고객과 매칭 가능한 상담원 ID 목록 조회
+     */
+    private Set<Long> findMatchableCounselors(String customerId, Set<Long> availableCounselorIds) {
+        try {
+            Set<Long> blockedCounselorIds = blacklistIndex.findBlockedCounselorIds(Integer.parseInt(customerId));
+            Set<Long> matchable = new HashSet<>(availableCounselorIds);
+            matchable.removeAll(blockedCounselorIds);
+            return matchable;
+        } catch (NumberFormatException e) {
+            // customerId가 숫자가 아닌 경우 (mock 테스트 등) - 모든 상담원과 매칭 가능
+            log.debug("customerId '{}'가 숫자가 아님, 블랙리스트 체크 스킵", customerId);
+            return availableCounselorIds;
+        }
+    }
+
+    private Removal removeCustomer(String customerId) {
+        long stamp = lock.writeLock();
+        try {
+            Entry entry = entries.get(customerId);
+            if (entry == null) {
+                return null;
+            }
+            long oldRank = rankOf(entry);
+            removeEntry(entry);
+            epoch++;
+            return new Removal(entry.type(), oldRank, snapshot());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ===== 아래는 모두 쓰기 잠금 안에서 호출 =====
+
+    private void removeEntry(Entry entry) {
+        queue.remove(entry);
+        entries.remove(entry.customerId());
+        if (entry.type() == QueueType.BLACKLIST) {
+            blacklistSize--;
+        }
+    }
+
+    /**
+     * 새 항목을 점수 위치에 등록 (O(log N))
+     */
+    private Entry insertEntry(Entry entry) {
+        queue.add(entry);
+        entries.put(entry.customerId(), entry);
+        if (entry.type() == QueueType.BLACKLIST) {
+            blacklistSize++;
+        }
+        return entry;
+    }
+
+    /**
+     * 점수/큐 종류가 바뀐 항목 반영 (기존 위치에서 빼고 새 점수 위치에 넣음, 1명당 O(log N))
+     */
+    private void reposition(List<Entry> updated) {
+        for (Entry entry : updated) {
+            removeEntry(entries.get(entry.customerId()));
+            insertEntry(entry);
+        }
+    }
+
+    /**
+     * 대기열 기준 1-indexed 순위
+     */
+    private long rankOf(Entry entry) {
+        return queue.rank(entry);
+    }
+
+    private Snapshot snapshot() {
+        return new Snapshot(epoch, queue.size() - blacklistSize, blacklistSize);
+    }
+
+    private void publishRankShift(Snapshot snapshot, List<Long> removedRanks, List<Long> insertedRanks) {
+        queueEventPublisher.publishQueueUpdate(
+                snapshot.normalSize(), snapshot.blacklistSize(), snapshot.epoch(), removedRanks, insertedRanks);
+    }
+
+    // 대기 순서: 점수, 같으면 먼저 등록한 고객
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingDouble(Entry::score).thenComparingLong(Entry::arrival);
+
+    /**
+     * 대기열 항목
+     * @param arrival 등록 순번 (같은 점수일 때 순서, 복사 후 변경 여부 비교용)
+     * @param enqueuedAt 등록 시각 (ms, 대기시간 초과 확인과 aging 하한 계산용)
+     * @param score 우선순위 점수 (QueuePriority, 작을수록 앞)
+     */
+    private record Entry(String customerId, long arrival, long enqueuedAt, double score, QueueType type) {
+
+        Entry withScore(double newScore, QueueType newType) {
+            return new Entry(customerId, arrival, enqueuedAt, newScore, newType);
+        }
+    }
+
+    /**
+     * 변경 직후의 epoch와 큐 크기 (잠금 밖에서 이벤트 전송용)
+     */
+    private record Snapshot(long epoch, long normalSize, long blacklistSize) {}
+
+    private record Removal(QueueType type, long oldRank, Snapshot snapshot) {}
+
+    private record MatchScanResult(List<String> skipped, List<String> moved, List<MatchCandidate> candidates) {}
+}
@@ -0,0 +1,222 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * 정렬 순서 위의 순서 통계 트리 (treap, 노드마다 부분 트리 크기 유지)
+ *
+ * 대기열을 (점수, 등록 순번) 같은 정렬 기준으로 두고 등록/제거/순위 조회/k번째 항목 조회를 모두 O(log N)(기대값)으로 처리한다.
+ * 점수가 바뀐 항목(aging, Blacklist 전환)은 제거 후 다시 등록하면 되므로 전체를 다시 정렬할 일이 없다.
+ *
+ * 정렬 기준(order)에서 같다고 비교되는 항목은 같은 항목으로 본다 (기준에 고객마다 다른 값을 포함해야 함).
+ * 동기화하지 않으므로 호출 측이 잠금으로 보호해야 한다.
+ */
+final class OrderStatisticTreap<E> {
+
+    private final Comparator<? super E> order;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<E> root;
+
+    OrderStatisticTreap(Comparator<? super E> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * 항목 등록
+     * @return 같은 위치의 항목이 이미 있으면 false
+     */
+    boolean add(E element) {
+        if (rank(element) > 0) {
+            return false;
+        }
+        Node<E> node = new Node<>(element, random.nextInt());
+        Node<E>[] parts = split(root, element);
+        root = merge(merge(parts[0], node), parts[1]);
+        return true;
+    }
+
+    /**
+     * 항목 제거
+     * @return 없으면 false
+     */
+    boolean remove(E element) {
+        int before = size(root);
+        root = remove(root, element);
+        return size(root) != before;
+    }
+
+    /**
+     * 항목의 1-indexed 순위
+     * @return 없으면 0
+     */
+    int rank(E element) {
+        Node<E> node = root;
+        int before = 0;
+        while (node != null) {
+            int compared = order.compare(element, node.element);
+            if (compared < 0) {
+                node = node.left;
+            } else if (compared > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left) + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * k번째(1-indexed) 항목
+     * @return 범위를 벗어나면 null
+     */
+    E get(int k) {
+        if (k < 1 || k > size(root)) {
+            return null;
+        }
+        Node<E> node = root;
+        int remaining = k;
+        while (true) {
+            int leftSize = size(node.left);
+            if (remaining <= leftSize) {
+                node = node.left;
+            } else if (remaining == leftSize + 1) {
+                return node.element;
+            } else {
+                remaining -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * k번째(1-indexed) 항목부터 순서대로 순회 (시작 위치 찾기 O(log N), 이후 항목당 상수 시간)
+     * 순회 중 등록/제거하면 안 된다.
+     */
+    Iterator<E> iteratorFrom(int k) {
+        Deque<Node<E>> path = new ArrayDeque<>();
+        Node<E> node = root;
+        int remaining = Math.max(k, 1);
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (remaining <= leftSize + 1) {
+                // 이 노드도 순회 대상 - 돌아올 수 있도록 쌓아두고 왼쪽으로
+                path.push(node);
+                node = node.left;
+            } else {
+                remaining -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> current = path.pop();
+                for (Node<E> next = current.right; next != null; next = next.left) {
+                    path.push(next);
+                }
+                return current.element;
+            }
+        };
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * element보다 앞의 항목과 그 외 항목으로 나눔
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E>[] split(Node<E> node, E element) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (order.compare(node.element, element) < 0) {
+            Node<E>[] parts = split(node.right, element);
+            node.right = parts[0];
+            node.update();
+            return new Node[]{node, parts[1]};
+        }
+        Node<E>[] parts = split(node.left, element);
+        node.left = parts[1];
+        node.update();
+        return new Node[]{parts[0], node};
+    }
+
+    /**
+     * left의 모든 항목이 right보다 앞일 때 합침
+     */
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node<E> remove(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int compared = order.compare(element, node.element);
+        if (compared == 0) {
+            return merge(node.left, node.right);
+        }
+        if (compared < 0) {
+            node.left = remove(node.left, element);
+        } else {
+            node.right = remove(node.right, element);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Node<E> {
+
+        private final E element;
+        private final int priority;
+        private int size = 1;
+        private Node<E> left;
+        private Node<E> right;
+
+        private Node(E element, int priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.matching.service.MatchingLeaderElection;
+import com.ssafy.hearo.domain.matching.service.MatchingTrigger.MatchingRequestedEvent;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueSizes;
+import com.ssafy.hearo.domain.queue.service.WaitTimeEstimator.Estimate;
+import com.ssafy.hearo.domain.user.service.HeartbeatService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 대기열 진입 제어 (과부하 시 콜백 대기)
+ *
+ * 새 고객이 대기열 맨 뒤에서 기다릴 예상 시간이 queue.admission.max-wait-seconds를 넘으면
+ * 실시간 대기열 대신 콜백 대기열(queue:hold, 도착 시각 순 ZSET)에 넣는다.
+ * 콜백 대기 고객은 lease/heartbeat와 순위 메시지 없이 기다리므로, 실시간 대기열 크기(순위 전송 비용)가 제한된다.
+ * - 순위 1칸당 시간은 예상 대기 시간 추정값과 평균 상담 시간 ÷ 접속 상담원 수 중 작은 값
+ *   (매칭 이력이 없을 때의 기본 상담 시간이 상담원 한 명 기준이어서 실시간 대기열이 몇 명으로 묶이지 않도록)
+ * - 실시간 대기열 항목은 도착 후 QUEUE_ENTRY_TIMEOUT_MS가 지나면 제거되므로 max-wait-seconds는 그보다 작아야 한다
+ * - 콜백 대기 고객이 있으면 새 고객도 콜백 대기열로 보낸다 (도착 순서 유지)
+ * - 매칭 리더가 주기적으로(queue.admission.promote-interval-ms) 예상 대기 시간이
+ *   max-wait-seconds × resume-ratio 아래로 내려갈 만큼 콜백 대기 고객에게 lease를 발급하고 실시간 대기열로 옮긴 뒤
+ *   ADMITTED 메시지를 보낸다 (고객은 /status 응답으로 queueTicket을 받아 heartbeat 시작)
+ * - queue.admission.hold-ttl-ms 이상 기다린 콜백 대기 고객은 버린다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueAdmissionService {
+
+    public static final String HOLD_QUEUE_KEY = "queue:hold";
+    public static final String HOLD_QUEUE_TYPE = "HOLD";
+
+    private final QueueService queueService;
+    private final QueueLeaseService queueLeaseService;
+    private final QueueStatusReader queueStatusReader;
+    private final WaitTimeEstimator waitTimeEstimator;
+    private final QueueEventPublisher queueEventPublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MatchingLeaderElection leaderElection;
+    private final HeartbeatService heartbeatService;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${queue.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${queue.admission.max-wait-seconds:240}")
+    private long maxWaitSeconds;
+
+    @Value("${queue.admission.resume-ratio:0.8}")
+    private double resumeRatio;
+
+    @Value("${queue.admission.promote-batch-size:100}")
+    private int promoteBatchSize;
+
+    @Value("${queue.admission.hold-ttl-ms:3600000}")
+    private long holdTtlMs;
+
+    @PostConstruct
+    void validateMaxWait() {
+        long entryTimeoutSeconds = QueueService.QUEUE_ENTRY_TIMEOUT_MS / 1000;
+        if (maxWaitSeconds >= entryTimeoutSeconds) {
+            long adjusted = entryTimeoutSeconds * 4 / 5;
+            log.warn("[대기열] max-wait-seconds({}초)가 대기열 항목 만료 시간({}초) 이상 → {}초로 조정",
+                    maxWaitSeconds, entryTimeoutSeconds, adjusted);
+            maxWaitSeconds = adjusted;
+        }
+    }
+
+    /**
+     * 고객 대기열 진입
+     * 실시간 대기열에 넣으면 lease를 발급하고 매칭을 요청한다.
+     */
+    public Admission admit(String customerId) {
+        if (enabled && !queueService.isInQueue(customerId)) {
+            Optional<QueueStatusResponse> held = findHoldStatus(customerId);
+            if (held.isPresent()) {
+                return new Admission(held.get(), null);
+            }
+            if (shouldHold()) {
+                redisTemplate.opsForZSet().addIfAbsent(HOLD_QUEUE_KEY, customerId, System.currentTimeMillis());
+                log.info("[대기열] 예상 대기 시간 초과 → 고객 {} 콜백 대기", customerId);
+                return new Admission(findHoldStatus(customerId)
+                        .orElseGet(() -> QueueStatusResponse.of(customerId, null, HOLD_QUEUE_TYPE)), null);
+            }
+        }
+
+        QueueStatusResponse status = waitTimeEstimator.withEstimate(queueService.enqueue(customerId));
+
+        // lease 생성 (heartbeat용 queueTicket 발급)
+        String queueTicket = queueLeaseService.createLease(customerId);
+        log.info("Lease 발급: customerId={}, ticket={}", customerId, queueTicket);
+
+        // lease까지 발급된 뒤 매칭 요청 (lease 없는 고객은 매칭 시 유령고객으로 제거됨)
+        eventPublisher.publishEvent(new MatchingRequestedEvent("enqueue:" + customerId));
+        return new Admission(status, queueTicket);
+    }
+
+    /**
+     * 콜백 대기 고객의 상태 (순위는 실시간 대기열 인원 + 콜백 대기 순서)
+     */
+    public Optional<QueueStatusResponse> findHoldStatus(String customerId) {
+        Long holdRank = redisTemplate.opsForZSet().rank(HOLD_QUEUE_KEY, customerId);
+        if (holdRank == null) {
+            return Optional.empty();
+        }
+        long rank = queueStatusReader.getQueueSizes().totalSize() + holdRank + 1;
+        return Optional.of(waitTimeEstimator.withEstimate(QueueStatusResponse.of(customerId, rank, HOLD_QUEUE_TYPE)));
+    }
+
+    /**
+     * 콜백 대기 취소
+     * @return 콜백 대기 중이었으면 true
+     */
+    public boolean cancelHold(String customerId) {
+        Long removed = redisTemplate.opsForZSet().remove(HOLD_QUEUE_KEY, customerId);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * 여유가 생긴 만큼 콜백 대기 고객을 실시간 대기열로 이동 (매칭 리더만 실행)
+     * fencing token을 붙여 실행하므로 리더가 바뀐 뒤 늦게 도착한 이동은 대기열 스크립트가 거부한다.
+     */
+    @Scheduled(fixedDelayString = "${queue.admission.promote-interval-ms:2000}")
+    public void promote() {
+        if (!enabled || !leaderElection.isLeader()) {
+            return;
+        }
+        try {
+            leaderElection.runAsLeader(() -> {
+                int promoted = promoteHeld();
+                if (promoted > 0) {
+                    eventPublisher.publishEvent(new MatchingRequestedEvent("promote:" + promoted));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("[대기열] 콜백 대기 고객 이동 실패: {}", e.getMessage());
+        }
+    }
+
+    int promoteHeld() {
+        long now = System.currentTimeMillis();
+        Long expired = redisTemplate.opsForZSet().removeRangeByScore(HOLD_QUEUE_KEY, 0, now - holdTtlMs);
+        if (expired != null && expired > 0) {
+            log.info("[대기열] 콜백 대기 시간 초과 고객 {}명 제거", expired);
+        }
+
+        Long holdSize = redisTemplate.opsForZSet().zCard(HOLD_QUEUE_KEY);
+        if (holdSize == null || holdSize == 0) {
+            return 0;
+        }
+
+        QueueSizes sizes = queueService.getQueueSizes();
+        long target = (long) Math.floor(maxWaitSeconds * resumeRatio / secondsPerRank());
+        long capacity = Math.min(target - sizes.totalSize(), promoteBatchSize);
+        if (capacity <= 0) {
+            return 0;
+        }
+
+        Set<TypedTuple<String>> head = redisTemplate.opsForZSet().rangeWithScores(HOLD_QUEUE_KEY, 0, capacity - 1);
+        if (head == null || head.isEmpty()) {
+            return 0;
+        }
+        List<String> customerIds = head.stream().map(TypedTuple::getValue).toList();
+
+        // lease를 먼저 일괄 발급한 뒤(Redis 왕복 1회, 살아있는 lease가 있는 고객은 기존 ticket 유지)
+        // 콜백 대기열에서 빼기와 대기열 등록을 스크립트 1회로 함께 수행한다.
+        // - 이동이 실패(리더 교체로 fencing 거부, Redis 오류, 노드 중단)하면 고객은 콜백 대기열에 남아 다음 주기에 다시 옮겨진다
+        // - 읽은 뒤 콜백 대기를 취소한 고객은 콜백 대기열에 없으므로 등록되지 않는다 (먼저 받은 lease는 대기열 항목 없이 만료 후 정리됨)
+        queueLeaseService.createLeases(customerIds);
+        List<QueueStatusResponse> enqueued = queueService.enqueueAllFromHold(HOLD_QUEUE_KEY, customerIds);
+
+        // queueTicket은 공개 순위 토픽으로 보내지 않음 (고객이 /status로 받음)
+        for (QueueStatusResponse status : enqueued) {
+            queueEventPublisher.sendAdmitted(status.getCustomerId(), waitTimeEstimator.withEstimate(status));
+        }
+        log.info("[대기열] 콜백 대기 고객 {}명 → 실시간 대기열 (이미 빠진 고객 {}명 제외, 남은 콜백 대기 {}명)",
+                enqueued.size(), customerIds.size() - enqueued.size(), holdSize - customerIds.size());
+        return enqueued.size();
+    }
+
+    /**
+     * 필요한 상태에서만 콜백 대기: 이미 콜백 대기 고객이 있거나, 맨 뒤 예상 대기 시간이 기준을 넘을 때
+     */
+    private boolean shouldHold() {
+        Long holdSize = redisTemplate.opsForZSet().zCard(HOLD_QUEUE_KEY);
+        if (holdSize != null && holdSize > 0) {
+            return true;
+        }
+        long liveSize = queueStatusReader.getQueueSizes().totalSize();
+        return (liveSize + 1) * secondsPerRank() > maxWaitSeconds;
+    }
+
+    /**
+     * 진입 판단에 쓰는 순위 1칸당 시간 (초)
+     * 매칭 속도가 낮은 것이 상담원이 아니라 고객이 적어서일 수 있으므로 접속 상담원 수 기준 처리량으로 상한을 둔다.
+     */
+    double secondsPerRank() {
+        Estimate estimate = waitTimeEstimator.getEstimate();
+        int counselors = Math.max(1, heartbeatService.getActiveHeartbeatCounselorIds().size());
+        return Math.min(estimate.secondsPerRank(), estimate.avgHandleSeconds() / counselors);
+    }
+
+    /**
+     * 진입 결과
+     * @param status 대기 상태 (queueType이 HOLD면 콜백 대기)
+     * @param queueTicket heartbeat용 티켓 (콜백 대기면 null, 실시간 대기열로 옮겨진 뒤 /status 응답으로 전달)
+     */
+    public record Admission(QueueStatusResponse status, String queueTicket) {
+
+        public boolean held() {
+            return HOLD_QUEUE_TYPE.equals(status.getQueueType());
+        }
+    }
+}
@@ -1,96 +1,124 @@
 package com.ssafy.hearo.domain.queue.service;
 
 import com.ssafy.hearo.domain.matching.dto.MatchingNotification;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
 import com.ssafy.hearo.domain.queue.dto.QueueUpdateMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class QueueEventPublisher {
 
-    private static final String QUEUE_TOPIC = "/topic/queue-updates";
     private static final String RANK_TOPIC_PREFIX = "/topic/queue-rank/";
     private static final String COUNSELOR_TOPIC_PREFIX = "/topic/counselor/";
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final RankUpdateDispatcher rankUpdateDispatcher;
+    private final WaitTimeEstimator waitTimeEstimator;
 
     /**
-     * 대기열 변경 브로드캐스트
+     * 대기열 변경 브로드캐스트 (변경 1건당 1회)
+     * 고객은 이 메시지의 빠진 자리/새로 들어간 자리로 자기 순위를 직접 계산한다.
+     * 실제 전송은 RankUpdateDispatcher가 짧은 구간 단위로 합쳐서 수행한다.
      * @param normalSize Normal Queue 크기
      * @param blacklistSize Blacklist Queue 크기
+     * @param epoch 대기열 변경 순번
+     * @param removedRanks 대기열에서 빠진 자리 (변경 전 순위)
+     * @param insertedRanks 새로 들어간 자리 (변경 후 순위)
      */
-    @Async
-    public void publishQueueUpdate(long normalSize, long blacklistSize) {
+    public void publishQueueUpdate(long normalSize, long blacklistSize, long epoch,
+                                   List<Long> removedRanks, List<Long> insertedRanks) {
         QueueUpdateMessage message = QueueUpdateMessage.of(
             normalSize,
             blacklistSize,
-            System.currentTimeMillis()
+            epoch,
+            removedRanks,
+            insertedRanks,
+            System.currentTimeMillis(),
+            waitTimeEstimator.secondsPerRank()
         );
 
-        log.debug("대기열 업데이트 브로드캐스트: normal={}, blacklist={}", normalSize, blacklistSize);
-        messagingTemplate.convertAndSend(QUEUE_TOPIC, message);
+        log.debug("대기열 업데이트 브로드캐스트: epoch={}, normal={}, blacklist={}, removed={}, inserted={}",
+                epoch, normalSize, blacklistSize, removedRanks, insertedRanks);
+        rankUpdateDispatcher.submitShift(message);
     }
 
     /**
      * 특정 고객에게 순위 업데이트 전송
+     * 순위 변경 이벤트만으로 알 수 없는 경우(본인이 새로 들어가거나 자리를 옮긴 경우)에만 사용
      * @param customerId 고객 식별자
      * @param rank 현재 대기 순위 (null이면 대기열에서 제거됨)
+     * @param epoch rank가 기준으로 하는 대기열 변경 순번
      */
-    @Async
-    public void sendRankUpdate(String customerId, Long rank) {
-        String userTopic = RANK_TOPIC_PREFIX + customerId;
+    public void sendRankUpdate(String customerId, Long rank, long epoch) {
         RankUpdateMessage message = new RankUpdateMessage(
                 customerId,
                 rank,
                 rank != null ? "WAITING" : "REMOVED",
+                epoch,
                 System.currentTimeMillis()
         );
 
-        log.debug("순위 업데이트 전송: customerId={}, rank={}, status={}", customerId, rank, message.status());
-        messagingTemplate.convertAndSend(userTopic, message);
+        log.debug("순위 업데이트 전송: customerId={}, rank={}, status={}, epoch={}",
+                customerId, rank, message.status(), epoch);
+        rankUpdateDispatcher.submitRank(message);
     }
 
     /**
-     * 여러 고객에게 순위 업데이트 일괄 전송
-     * @param rankUpdates customerId -> rank 맵
+     * 순위 업데이트 메시지
+     * @param customerId 고객 ID
+     * @param rank 대기 순위 (null이면 대기열에서 제거됨)
+     * @param status WAITING(대기중), REMOVED(대기열에서 제거됨), MATCHED(매칭완료)
+     * @param epoch rank가 기준으로 하는 대기열 변경 순번
+     * @param timestamp 타임스탬프
+     * @param estimatedWaitSeconds 예상 대기 시간 (초, 전송 시점의 순위 기준)
      */
-    @Async
-    public void sendBatchRankUpdates(java.util.Map<String, Long> rankUpdates) {
-        if (rankUpdates == null || rankUpdates.isEmpty()) {
-            return;
-        }
+    public record RankUpdateMessage(String customerId, Long rank, String status, Long epoch, Long timestamp,
+                                    Long estimatedWaitSeconds) {
 
-        long timestamp = System.currentTimeMillis();
-        log.debug("배치 순위 업데이트 전송: {}명", rankUpdates.size());
-
-        for (java.util.Map.Entry<String, Long> entry : rankUpdates.entrySet()) {
-            String customerId = entry.getKey();
-            Long rank = entry.getValue();
-            String userTopic = RANK_TOPIC_PREFIX + customerId;
-
-            RankUpdateMessage message = new RankUpdateMessage(
-                    customerId,
-                    rank,
-                    "WAITING",
-                    timestamp
-            );
-            messagingTemplate.convertAndSend(userTopic, message);
+        public RankUpdateMessage(String customerId, Long rank, String status, Long epoch, Long timestamp) {
+            this(customerId, rank, status, epoch, timestamp, null);
         }
     }
 
     /**
-     * 순위 업데이트 메시지
+     * 콜백 대기 고객에게 실시간 대기열 진입 알림 전송
+     * 순위 토픽은 고객 ID만 알면 구독할 수 있으므로 queueTicket은 싣지 않는다.
+     * 고객은 이 메시지를 받으면 /status를 조회해 본인 인증된 응답으로 queueTicket을 받고 heartbeat를 시작한다.
+     * @param customerId 고객 식별자
+     * @param status 진입 직후 대기 상태
+     */
+    public void sendAdmitted(String customerId, QueueStatusResponse status) {
+        AdmittedMessage message = new AdmittedMessage(
+                customerId,
+                "ADMITTED",
+                status.getWaitingRank(),
+                status.getRankEpoch(),
+                status.getEstimatedWaitSeconds(),
+                System.currentTimeMillis()
+        );
+
+        log.debug("대기열 진입 알림 전송: customerId={}, rank={}", customerId, status.getWaitingRank());
+        messagingTemplate.convertAndSend(RANK_TOPIC_PREFIX + customerId, message);
+    }
+
+    /**
+     * 실시간 대기열 진입 메시지
      * @param customerId 고객 ID
-     * @param rank 대기 순위 (null이면 대기열에서 제거됨)
-     * @param status WAITING(대기중), REMOVED(대기열에서 제거됨), MATCHED(매칭완료)
+     * @param status ADMITTED
+     * @param rank 진입 직후 대기 순위
+     * @param epoch rank가 기준으로 하는 대기열 변경 순번
+     * @param estimatedWaitSeconds 예상 대기 시간 (초)
      * @param timestamp 타임스탬프
      */
-    public record RankUpdateMessage(String customerId, Long rank, String status, Long timestamp) {}
+    public record AdmittedMessage(String customerId, String status, Long rank, Long epoch,
+                                  Long estimatedWaitSeconds, Long timestamp) {}
 
     /**
      * 고객에게 매칭 완료 알림 전송
@@ -99,7 +127,6 @@ public class QueueEventPublisher {
      * @param roomName LiveKit 방 이름
      */
     public void sendMatchingToCustomer(String customerId, String identity, String roomName) {
-        String userTopic = RANK_TOPIC_PREFIX + customerId;
         MatchingNotification.CustomerNotification notification = MatchingNotification.CustomerNotification.builder()
                 .customerId(customerId)
                 .status("MATCHED")
@@ -110,7 +137,8 @@ public class QueueEventPublisher {
 
         log.info("[WebSocket] 고객 {} 에게 MATCHED 알림 전송 (방: {}, identity: {})",
                 customerId, roomName, identity);
-        messagingTemplate.convertAndSend(userTopic, notification);
+        // 아직 전송되지 않은 대기 순위는 폐기하고, 이미 전송 중인 순위 메시지 뒤에 보낸다
+        rankUpdateDispatcher.sendFinal(customerId, notification);
     }
 
     /**
@@ -0,0 +1,186 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.global.config.BoundedExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 대기 고객용 SSE 스트림 (GET /api/v1/queue/stream)
+ *
+ * 대기 고객은 받기만 하므로 SockJS/STOMP 세션 대신 SSE로도 같은 이벤트를 받을 수 있게 한다.
+ * WebSocket 구독자와 같은 출처를 쓴다: brokerChannel로 들어오는 메시지를 복사해 흘려보내므로
+ * RankUpdateDispatcher의 순위/예상 대기 시간, ADMITTED, MATCHED, 다른 노드에서 전달된 메시지가 모두 포함된다.
+ *
+ * - queue-rank: /topic/queue-rank/{customerId} (본인 순위, 상태 변경), MATCHED를 보내면 스트림 종료
+ * - queue-updates: /topic/queue-updates (대기열 변경 브로드캐스트)
+ *
+ * 논블로킹 팬아웃:
+ * - brokerChannel 스레드는 메시지를 팬아웃 스레드(sse-fanout, 1개)에 넘기기만 한다.
+ *   팬아웃 대기열(queue.stream.fanout-queue-capacity)이 가득 차면 그 메시지는 SSE로 보내지 않는다 (queue.stream.dropped)
+ * - 실제 응답 쓰기는 SSE 전용 실행기(sseExecutor)에서 하며, 이벤트를 보낸 스레드에서 쓰지 않는다
+ * - 브로드캐스트와 keep-alive는 모든 연결이 sink/interval 하나를 공유한다
+ * - 고객별 sink는 SSE 연결이 있는 고객만 만들고 마지막 연결이 끊기면 제거한다
+ * - 연결마다 버퍼(queue.stream.buffer-size)를 두고, 넘치면 가장 오래된 이벤트를 버린다 (queue.stream.dropped)
+ */
+@Component
+@Slf4j
+public class QueueEventStream implements ChannelInterceptor {
+
+    static final String RANK_EVENT = "queue-rank";
+    static final String UPDATE_EVENT = "queue-updates";
+    private static final String RANK_TOPIC_PREFIX = "/topic/queue-rank/";
+    private static final String QUEUE_TOPIC = "/topic/queue-updates";
+    private static final String MATCHED_STATUS = "\"status\":\"MATCHED\"";
+    private static final ServerSentEvent<String> KEEP_ALIVE =
+            ServerSentEvent.<String>builder().comment("keep-alive").build();
+
+    private final AbstractSubscribableChannel brokerChannel;
+    private final Counter droppedCounter;
+    private final ThreadPoolTaskExecutor fanout;
+
+    private final Sinks.Many<ServerSentEvent<String>> updates = Sinks.many().multicast().directBestEffort();
+    private final Flux<ServerSentEvent<String>> keepAlive;
+    private final ConcurrentHashMap<String, CustomerSink> customers = new ConcurrentHashMap<>();
+
+    @Value("${queue.stream.buffer-size:64}")
+    private int bufferSize;
+
+    public QueueEventStream(@Qualifier("brokerChannel") AbstractSubscribableChannel brokerChannel,
+                            MeterRegistry meterRegistry,
+                            @Value("${queue.stream.keep-alive-ms:15000}") long keepAliveMs,
+                            @Value("${queue.stream.fanout-queue-capacity:1000}") int fanoutQueueCapacity) {
+        this.brokerChannel = brokerChannel;
+        this.droppedCounter = meterRegistry.counter("queue.stream.dropped");
+        // 스레드 1개: 같은 고객/브로드캐스트 이벤트의 순서를 유지하고 sink에 동시에 emit하지 않음
+        this.fanout = BoundedExecutors.create("sse-fanout", 1, fanoutQueueCapacity,
+                BoundedExecutors.Overflow.REJECT, meterRegistry);
+        this.fanout.initialize();
+        this.keepAlive = Flux.interval(Duration.ofMillis(keepAliveMs))
+                .map(tick -> KEEP_ALIVE)
+                .share();
+        Gauge.builder("queue.stream.customers", customers, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        brokerChannel.addInterceptor(this);
+        log.info("[대기열] SSE 스트림 시작");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        brokerChannel.removeInterceptor(this);
+        fanout.shutdown();
+    }
+
+    /**
+     * 고객 이벤트 스트림 (본인 순위 + 대기열 변경 브로드캐스트 + keep-alive)
+     */
+    public Flux<ServerSentEvent<String>> stream(String customerId) {
+        Flux<ServerSentEvent<String>> personal = Flux.defer(() -> {
+            CustomerSink sink = customers.compute(customerId, (id, existing) -> {
+                CustomerSink acquired = existing != null ? existing : new CustomerSink();
+                acquired.connections++;
+                return acquired;
+            });
+            return sink.events.asFlux()
+                    .doFinally(signal -> customers.computeIfPresent(customerId,
+                            (id, existing) -> existing != sink || --existing.connections > 0 ? existing : null));
+        });
+
+        // 첫 이벤트가 있어야 응답 헤더가 나가므로 연결 직후 keep-alive 1건을 먼저 보낸다
+        return Flux.merge(buffered(personal), buffered(updates.asFlux()), keepAlive.onBackpressureLatest())
+                .startWith(KEEP_ALIVE)
+                .takeUntil(QueueEventStream::isMatched);
+    }
+
+    private Flux<ServerSentEvent<String>> buffered(Flux<ServerSentEvent<String>> events) {
+        return events.onBackpressureBuffer(bufferSize, dropped -> droppedCounter.increment(),
+                BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private static boolean isMatched(ServerSentEvent<String> event) {
+        return RANK_EVENT.equals(event.event()) && event.data() != null && event.data().contains(MATCHED_STATUS);
+    }
+
+    /**
+     * brokerChannel로 들어온 대기열 메시지를 SSE 구독자에게 복사 (원본은 그대로 브로커로 전달)
+     * 구독자에게 보내는 일은 팬아웃 스레드에서 한다 (이 메서드는 brokerChannel 전송 스레드에서 실행됨)
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!(message.getPayload() instanceof byte[] payload)
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return message;
+        }
+
+        if (destination.startsWith(RANK_TOPIC_PREFIX)) {
+            String customerId = destination.substring(RANK_TOPIC_PREFIX.length());
+            if (customers.containsKey(customerId)) {
+                fanOut(() -> {
+                    CustomerSink sink = customers.get(customerId);
+                    if (sink != null) {
+                        sink.events.tryEmitNext(event(RANK_EVENT, payload));
+                    }
+                });
+            }
+        } else if (destination.equals(QUEUE_TOPIC) && updates.currentSubscriberCount() > 0) {
+            fanOut(() -> updates.tryEmitNext(event(UPDATE_EVENT, payload)));
+        }
+        return message;
+    }
+
+    private void fanOut(Runnable task) {
+        try {
+            fanout.execute(task);
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+        }
+    }
+
+    private static ServerSentEvent<String> event(String name, byte[] payload) {
+        return ServerSentEvent.<String>builder()
+                .event(name)
+                .data(new String(payload, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    /**
+     * 고객별 sink (같은 고객의 여러 연결이 공유, connections는 customers.compute 안에서만 변경)
+     * emit은 팬아웃 스레드에서만 한다
+     */
+    private static final class CustomerSink {
+
+        private final Sinks.Many<ServerSentEvent<String>> events = Sinks.many().multicast().directBestEffort();
+        private int connections;
+    }
+}
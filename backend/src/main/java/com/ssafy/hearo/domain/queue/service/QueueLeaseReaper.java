@@ -0,0 +1,44 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * lease 만료 고객(유령고객) 정리
+ *
+ * 매칭 탐색에 걸릴 때까지 기다리지 않고, 일정 주기(queue.lease.reaper.interval-ms)마다
+ * lease 만료 시각 ZSET에서 만료된 고객을 찾아 대기열에서 제거한다.
+ * 유령고객이 대기열 크기와 다른 고객의 순위를 부풀리거나, 끊긴 세션에 순위 메시지가 나가는 일을 줄인다.
+ *
+ * 한 번의 정리는 Lua 스크립트 1회 호출이고 순위 변경 이벤트도 1건만 전송한다.
+ * 스크립트가 원자적이므로 여러 인스턴스에서 동시에 돌아도 같은 고객을 두 번 제거하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueLeaseReaper {
+
+    private final QueueService queueService;
+
+    @Value("${queue.lease.reaper.enabled:true}")
+    private boolean enabled;
+
+    // 한 번에 정리하는 최대 인원 (남은 인원은 다음 주기에 정리)
+    @Value("${queue.lease.reaper.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${queue.lease.reaper.interval-ms:2000}")
+    public void evictExpiredCustomers() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            queueService.evictExpiredLeases(batchSize);
+        } catch (Exception e) {
+            log.error("[대기열] lease 만료 정리 중 오류", e);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.ssafy.hearo.domain.queue.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 대기열 lease 관리 서비스
@@ -15,6 +19,14 @@ public interface QueueLeaseService {
      */
     String createLease(String customerId);
 
+    /**
+     * 여러 고객의 lease를 한 번에 생성 (Redis 왕복 1회)
+     * 살아있는 lease가 있는 고객은 건너뛰고 기존 ticket을 유지한다.
+     * @param customerIds 고객 ID 목록
+     * @return 새로 생성한 고객 ID → queueTicket
+     */
+    Map<String, String> createLeases(Collection<String> customerIds);
+
     /**
      * heartbeat 수신 시 TTL 갱신
      * @param queueTicket 발급받은 티켓
@@ -29,6 +41,13 @@ public interface QueueLeaseService {
      */
     Optional<String> validateLease(String queueTicket);
 
+    /**
+     * 고객의 현재 queueTicket 조회 (본인 인증된 상태 조회 응답에만 사용)
+     * @param customerId 고객 ID
+     * @return lease가 있으면 queueTicket, 없으면 empty
+     */
+    Optional<String> findTicket(String customerId);
+
     /**
      * customerId로 lease가 유효한지 확인
      * @param customerId 고객 ID
@@ -36,6 +55,20 @@ public interface QueueLeaseService {
      */
     boolean isLeaseAlive(String customerId);
 
+    /**
+     * 여러 고객의 lease 유효성을 한 번에 확인
+     * @param customerIds 고객 ID 목록
+     * @return 그중 lease가 살아있는 고객 ID
+     */
+    Set<String> findAliveCustomers(Collection<String> customerIds);
+
+    /**
+     * 만료 시각이 지난 lease를 최대 limit건 정리
+     * @param limit 한 번에 정리하는 최대 인원
+     * @return lease가 정리된 고객 ID 목록
+     */
+    List<String> releaseExpiredLeases(int limit);
+
     /**
      * lease 삭제 (취소, 매칭 성공 시 호출)
      * @param queueTicket 발급받은 티켓
@@ -48,6 +81,14 @@ public interface QueueLeaseService {
      */
     void deleteLeaseByCustomerId(String customerId);
 
+    /**
+     * 스냅샷에서 복원한 고객의 lease를 원래 ticket으로 다시 생성 (TTL은 새로 시작)
+     * 이미 lease가 있는 고객은 건너뛴다.
+     * @param ticketsByCustomer 고객 ID → queueTicket
+     * @return 다시 생성한 lease 수
+     */
+    int restoreLeases(Map<String, String> ticketsByCustomer);
+
     /**
      * 남은 TTL 조회
      * @param queueTicket 발급받은 티켓
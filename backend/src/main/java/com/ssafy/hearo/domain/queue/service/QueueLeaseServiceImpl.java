@@ -2,50 +2,112 @@ package com.ssafy.hearo.domain.queue.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
 
 /**
  * Redis 기반 lease 관리 구현
  *
- * 저장 구조:
- * - queue:lease:{queueTicket} -> customerId (TTL 40초)
- * - queue:ticket:{customerId} -> queueTicket (역참조용)
+ * 저장 구조 (고객별 키를 만들지 않고 전체 고객이 키 3개를 공유):
+ * - queue:lease:deadlines (ZSET) -> customerId : 만료 시각(ms)
+ * - queue:lease:tickets (HASH) -> queueTicket : customerId
+ * - queue:lease:owners (HASH) -> customerId : queueTicket (역참조용, 교체/고객 ID 기준 삭제에 사용)
+ *
+ * 만료는 Redis TTL이 아니라 만료 시각으로 판단한다.
+ * 만료된 lease는 매칭 탐색 스크립트(pop-matchable.lua)가 ZRANGEBYSCORE로 한꺼번에 정리한다.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class QueueLeaseServiceImpl implements QueueLeaseService {
 
-    private static final String LEASE_KEY_PREFIX = "queue:lease:";
-    private static final String TICKET_KEY_PREFIX = "queue:ticket:";
+    // 매칭 탐색 스크립트(QueueServiceImpl)에서도 동일한 키 구조를 사용
+    static final String DEADLINE_KEY = "queue:lease:deadlines";
+    static final String TICKET_KEY = "queue:lease:tickets";
+    static final String OWNER_KEY = "queue:lease:owners";
+
+    private static final long LEASE_TTL_MS = DEFAULT_LEASE_TTL_SECONDS * 1000L;
+
+    /**
+     * lease 생성/갱신/조회/삭제를 한 번의 호출로 수행하는 스크립트
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> QUEUE_LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/queue-lease.lua"), List.class);
+
+    /**
+     * 만료된 lease를 한꺼번에 정리하는 스크립트 (대기열은 건드리지 않음)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RELEASE_EXPIRED_LEASES_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/release-expired-leases.lua"), List.class);
+
+    /**
+     * 여러 고객의 lease를 한꺼번에 생성하는 스크립트 (살아있는 lease는 유지)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CREATE_LEASES_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/create-leases.lua"), List.class);
+
+    /**
+     * 스냅샷 복원 시 lease를 원래 ticket으로 한꺼번에 다시 생성하는 스크립트
+     */
+    private static final RedisScript<Long> RESTORE_LEASES_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/restore-leases.lua"), Long.class);
+
+    private static final List<String> LEASE_KEYS = List.of(DEADLINE_KEY, TICKET_KEY, OWNER_KEY);
 
     private final RedisTemplate<String, String> redisTemplate;
 
     @Override
     public String createLease(String customerId) {
         String queueTicket = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
 
-        String leaseKey = LEASE_KEY_PREFIX + queueTicket;
-        String ticketKey = TICKET_KEY_PREFIX + customerId;
+        // 기존 lease가 있으면 스크립트 안에서 교체
+        execute("CREATE", now, customerId, queueTicket, now + LEASE_TTL_MS);
 
-        // 기존 lease가 있으면 삭제
-        String existingTicket = redisTemplate.opsForValue().get(ticketKey);
-        if (existingTicket != null) {
-            redisTemplate.delete(LEASE_KEY_PREFIX + existingTicket);
-            log.debug("기존 lease 삭제: customerId={}", customerId);
+        log.info("[Lease] 생성: 고객 {} (ticket: {}, TTL: {}초)", customerId, queueTicket, DEFAULT_LEASE_TTL_SECONDS);
+        return queueTicket;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> createLeases(Collection<String> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            return Map.of();
         }
 
-        // 새 lease 생성
-        redisTemplate.opsForValue().set(leaseKey, customerId, DEFAULT_LEASE_TTL_SECONDS, TimeUnit.SECONDS);
-        redisTemplate.opsForValue().set(ticketKey, queueTicket, DEFAULT_LEASE_TTL_SECONDS, TimeUnit.SECONDS);
+        Map<String, String> tickets = new LinkedHashMap<>();
+        for (String customerId : customerIds) {
+            tickets.putIfAbsent(customerId, UUID.randomUUID().toString());
+        }
 
-        log.info("[Lease] 생성: 고객 {} (ticket: {}, TTL: {}초)", customerId, queueTicket, DEFAULT_LEASE_TTL_SECONDS);
-        return queueTicket;
+        long now = System.currentTimeMillis();
+        List<String> args = new ArrayList<>(2 + tickets.size() * 2);
+        args.add(String.valueOf(now));
+        args.add(String.valueOf(now + LEASE_TTL_MS));
+        tickets.forEach((customerId, ticket) -> {
+            args.add(customerId);
+            args.add(ticket);
+        });
+
+        List<String> created = redisTemplate.execute(CREATE_LEASES_SCRIPT, LEASE_KEYS, args.toArray());
+        if (created == null) {
+            return Map.of();
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String customerId : created) {
+            result.put(customerId, tickets.get(customerId));
+        }
+        log.info("[Lease] 일괄 생성: {}명 (기존 lease 유지 {}명, TTL: {}초)",
+                result.size(), tickets.size() - result.size(), DEFAULT_LEASE_TTL_SECONDS);
+        return result;
     }
 
     @Override
@@ -54,19 +116,15 @@ public class QueueLeaseServiceImpl implements QueueLeaseService {
             return false;
         }
 
-        String leaseKey = LEASE_KEY_PREFIX + queueTicket;
-        String customerId = redisTemplate.opsForValue().get(leaseKey);
+        long now = System.currentTimeMillis();
+        LeaseReply reply = execute("RENEW", now, queueTicket, "", now + LEASE_TTL_MS);
 
-        if (customerId == null) {
+        if (reply.customerId() == null) {
             log.warn("[Lease] 갱신 실패: 유효하지 않은 ticket {}", queueTicket);
             return false;
         }
 
-        // TTL 갱신
-        redisTemplate.expire(leaseKey, DEFAULT_LEASE_TTL_SECONDS, TimeUnit.SECONDS);
-        redisTemplate.expire(TICKET_KEY_PREFIX + customerId, DEFAULT_LEASE_TTL_SECONDS, TimeUnit.SECONDS);
-
-        log.debug("Lease 갱신: customerId={}, ticket={}", customerId, queueTicket);
+        log.debug("Lease 갱신: customerId={}, ticket={}", reply.customerId(), queueTicket);
         return true;
     }
 
@@ -76,9 +134,18 @@ public class QueueLeaseServiceImpl implements QueueLeaseService {
             return Optional.empty();
         }
 
-        String leaseKey = LEASE_KEY_PREFIX + queueTicket;
-        String customerId = redisTemplate.opsForValue().get(leaseKey);
-        return Optional.ofNullable(customerId);
+        LeaseReply reply = execute("LOOKUP", System.currentTimeMillis(), queueTicket, "", 0);
+        return Optional.ofNullable(reply.customerId());
+    }
+
+    @Override
+    public Optional<String> findTicket(String customerId) {
+        if (customerId == null || customerId.isBlank()) {
+            return Optional.empty();
+        }
+
+        Object ticket = redisTemplate.opsForHash().get(OWNER_KEY, customerId);
+        return Optional.ofNullable(ticket).map(Object::toString);
     }
 
     @Override
@@ -87,16 +154,40 @@ public class QueueLeaseServiceImpl implements QueueLeaseService {
             return false;
         }
 
-        String ticketKey = TICKET_KEY_PREFIX + customerId;
-        String queueTicket = redisTemplate.opsForValue().get(ticketKey);
+        Double deadline = redisTemplate.opsForZSet().score(DEADLINE_KEY, customerId);
+        return deadline != null && deadline > System.currentTimeMillis();
+    }
 
-        if (queueTicket == null) {
-            return false;
+    @Override
+    public Set<String> findAliveCustomers(Collection<String> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            return Set.of();
+        }
+
+        // ZMSCORE 한 번으로 조회
+        List<String> ids = List.copyOf(customerIds);
+        List<Double> deadlines = redisTemplate.opsForZSet().score(DEADLINE_KEY, ids.toArray());
+        if (deadlines == null) {
+            return Set.of();
+        }
+
+        long now = System.currentTimeMillis();
+        Set<String> alive = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Double deadline = deadlines.get(i);
+            if (deadline != null && deadline > now) {
+                alive.add(ids.get(i));
+            }
         }
+        return alive;
+    }
 
-        // ticket이 있으면 lease도 확인
-        String leaseKey = LEASE_KEY_PREFIX + queueTicket;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey));
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> releaseExpiredLeases(int limit) {
+        List<String> released = redisTemplate.execute(RELEASE_EXPIRED_LEASES_SCRIPT, LEASE_KEYS,
+                String.valueOf(System.currentTimeMillis()), String.valueOf(limit));
+        return released != null ? released : List.of();
     }
 
     @Override
@@ -105,15 +196,9 @@ public class QueueLeaseServiceImpl implements QueueLeaseService {
             return;
         }
 
-        String leaseKey = LEASE_KEY_PREFIX + queueTicket;
-        String customerId = redisTemplate.opsForValue().get(leaseKey);
-
-        redisTemplate.delete(leaseKey);
-        if (customerId != null) {
-            redisTemplate.delete(TICKET_KEY_PREFIX + customerId);
-        }
+        LeaseReply reply = execute("DELETE_TICKET", System.currentTimeMillis(), queueTicket, "", 0);
 
-        log.info("[Lease] 삭제: 고객 {} (ticket: {})", customerId, queueTicket);
+        log.info("[Lease] 삭제: 고객 {} (ticket: {})", reply.customerId(), queueTicket);
     }
 
     @Override
@@ -122,15 +207,25 @@ public class QueueLeaseServiceImpl implements QueueLeaseService {
             return;
         }
 
-        String ticketKey = TICKET_KEY_PREFIX + customerId;
-        String queueTicket = redisTemplate.opsForValue().get(ticketKey);
+        LeaseReply reply = execute("DELETE_CUSTOMER", System.currentTimeMillis(), customerId, "", 0);
+
+        log.info("[Lease] 삭제 (매칭 완료): 고객 {} (ticket: {})", customerId, reply.ticket());
+    }
 
-        redisTemplate.delete(ticketKey);
-        if (queueTicket != null) {
-            redisTemplate.delete(LEASE_KEY_PREFIX + queueTicket);
+    @Override
+    public int restoreLeases(Map<String, String> ticketsByCustomer) {
+        if (ticketsByCustomer.isEmpty()) {
+            return 0;
         }
 
-        log.info("[Lease] 삭제 (매칭 완료): 고객 {} (ticket: {})", customerId, queueTicket);
+        List<String> args = new ArrayList<>(1 + ticketsByCustomer.size() * 2);
+        args.add(String.valueOf(System.currentTimeMillis() + LEASE_TTL_MS));
+        ticketsByCustomer.forEach((customerId, ticket) -> {
+            args.add(customerId);
+            args.add(ticket);
+        });
+        Long restored = redisTemplate.execute(RESTORE_LEASES_SCRIPT, LEASE_KEYS, args.toArray());
+        return restored != null ? restored.intValue() : 0;
     }
 
     @Override
@@ -139,8 +234,33 @@ public class QueueLeaseServiceImpl implements QueueLeaseService {
             return -1;
         }
 
-        String leaseKey = LEASE_KEY_PREFIX + queueTicket;
-        Long ttl = redisTemplate.getExpire(leaseKey, TimeUnit.SECONDS);
-        return ttl != null ? ttl : -1;
+        long now = System.currentTimeMillis();
+        LeaseReply reply = execute("LOOKUP", now, queueTicket, "", 0);
+        if (reply.customerId() == null) {
+            return -1;
+        }
+        // 남은 시간을 초 단위로 올림 (EXPIRE 기반 TTL과 같은 범위: 1 ~ DEFAULT_LEASE_TTL_SECONDS)
+        return (reply.deadline() - now + 999) / 1000;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LeaseReply execute(String op, long now, String target, String ticket, long deadline) {
+        List<Object> reply = redisTemplate.execute(QUEUE_LEASE_SCRIPT, LEASE_KEYS,
+                op, String.valueOf(now), target, ticket, String.valueOf(deadline));
+        if (reply == null || reply.size() < 3) {
+            log.error("[Lease] 스크립트 응답 이상: op={}, reply={}", op, reply);
+            return new LeaseReply(null, 0, null);
+        }
+
+        String customerId = (String) reply.get(0);
+        String replyTicket = (String) reply.get(2);
+        return new LeaseReply(customerId.isEmpty() ? null : customerId, (Long) reply.get(1),
+                replyTicket.isEmpty() ? null : replyTicket);
+    }
+
+    /**
+     * lease 스크립트 결과 (고객 ID는 lease가 없거나 만료되면 null)
+     */
+    private record LeaseReply(String customerId, long deadline, String ticket) {
     }
 }
@@ -0,0 +1,335 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueSizes;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 노드별 대기열 읽기 미러
+ *
+ * Redis 대기열(queue:waiting + queue:blacklisted)을 메모리에 복제해 순위/큐 종류/크기 조회를 Redis 없이 처리한다.
+ * 쓰기는 계속 Redis(QueueServiceImpl)만 수행한다.
+ *
+ * - 적재: 시작 시 스냅샷 스크립트로 epoch와 대기열을 한 번에 읽는다 (버전 = epoch)
+ * - 갱신: 대기열 변경 스크립트가 발행하는 변경 내역(queue:changes)을 epoch 순서대로 반영한다
+ * - 확인: 일정 주기(queue.mirror.verify-interval-ms)마다 Redis epoch와 비교한다.
+ *   epoch가 건너뛰었거나(유실) 직전 확인 때보다도 뒤처져 있으면 스냅샷을 다시 읽는다.
+ *   epoch는 잠금 밖에서 읽으므로 미러가 앞서 보이는 것은 그 사이 변경 내역이 도착한 것일 수 있다.
+ *   다음 확인에서도 직전 확인 때의 미러 버전보다 낮을 때만 Redis 초기화로 보고 다시 읽는다
+ * - 조회: 마지막으로 Redis와 같음이 확인된 지 queue.mirror.max-staleness-ms가 지났으면 사용하지 않는다(호출 측이 Redis 조회)
+ *
+ * 순서는 Redis ZSET과 같은 (score, 고객 ID) 순서이며 순서 통계 트리(OrderStatisticTreap)로 관리한다.
+ * 점수가 바뀐 고객(aging 등)도 그 고객만 옮기므로 변경 1건당 O(log N)이다 (스냅샷 적재 때만 전체를 다시 구성).
+ */
+@Component
+@ConditionalOnProperty(name = "queue.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class QueueMirror implements MessageListener {
+
+    public static final String CHANGE_CHANNEL = "queue:changes";
+
+    /**
+     * epoch와 대기열 전체를 원자적으로 읽는 스크립트
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SNAPSHOT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/queue-snapshot.lua"), List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${queue.mirror.enabled:true}")
+    private boolean enabled;
+
+    // 마지막 확인 후 이 시간(ms)이 지나면 미러를 사용하지 않음
+    @Value("${queue.mirror.max-staleness-ms:1000}")
+    private long maxStalenessMs;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Position> positions = new HashMap<>();
+    private final OrderStatisticTreap<Position> queue = new OrderStatisticTreap<>(ORDER);
+    private int blacklistSize;
+
+    // 반영된 epoch (-1: 스냅샷 전)
+    private long version = -1;
+    // 마지막으로 Redis와 같음이 확인된 시각 (ms)
+    private long freshAt;
+    // 변경 내역 유실 (epoch가 건너뜀)
+    private boolean gap;
+    // 직전 확인에서 본, 미러보다 앞선 Redis epoch (-1: 없음)
+    private long behindEpoch = -1;
+    // 직전 확인에서 Redis epoch보다 앞서 있던 미러 버전 (-1: 없음)
+    private long aheadVersion = -1;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // 구독을 먼저 시작한 뒤 스냅샷을 읽어, 스냅샷 이후 변경은 변경 내역으로 이어 받는다
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGE_CHANNEL));
+        try {
+            resync();
+        } catch (Exception e) {
+            log.warn("[대기열] 읽기 미러 초기 적재 실패 (다음 확인 주기에 재시도): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Redis epoch와 비교해 미러가 최신인지 확인하고, 뒤처졌으면 스냅샷을 다시 읽는다
+     */
+    @Scheduled(fixedDelayString = "${queue.mirror.verify-interval-ms:500}")
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long checkedAt = System.currentTimeMillis();
+            String raw = redisTemplate.opsForValue().get(QueueServiceImpl.RANK_EPOCH_KEY);
+            long epoch = raw != null ? Long.parseLong(raw) : 0;
+
+            if (checkEpoch(epoch, checkedAt)) {
+                resync();
+            }
+        } catch (Exception e) {
+            log.warn("[대기열] 읽기 미러 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 고객의 순위/큐 종류 조회
+     * @return 미러가 최신이 아니거나 미러에 없는 고객이면 empty (호출 측이 Redis에서 조회)
+     */
+    public Optional<MirrorRank> findRank(String customerId) {
+        long stamp = lock.readLock();
+        try {
+            if (!isFresh()) {
+                return Optional.empty();
+            }
+            Position position = positions.get(customerId);
+            if (position == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new MirrorRank(rankOf(position), position.type(), version));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 큐 크기 조회
+     * @return 미러가 최신이 아니면 empty
+     */
+    public Optional<QueueSizes> findSizes() {
+        long stamp = lock.readLock();
+        try {
+            if (!isFresh()) {
+                return Optional.empty();
+            }
+            return Optional.of(new QueueSizes(queue.size() - blacklistSize, blacklistSize));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            applyChanges(objectMapper.readTree(message.getBody()), System.currentTimeMillis());
+        } catch (IOException e) {
+            log.warn("[대기열] 읽기 미러 변경 내역 해석 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 변경 내역 1건(한 번의 스크립트 실행분) 반영
+     * { "epoch": n, "changes": [ ["N"|"B", 고객 ID, score] | ["R", 고객 ID], ... ] }
+     */
+    void applyChanges(JsonNode message, long receivedAt) {
+        long epoch = message.path("epoch").asLong();
+        long stamp = lock.writeLock();
+        try {
+            if (version < 0 || epoch <= version) {
+                // 스냅샷 전이거나 스냅샷에 이미 포함된 변경
+                return;
+            }
+            if (epoch != version + 1) {
+                gap = true;
+                log.debug("[대기열] 읽기 미러 변경 내역 유실 감지: 반영 {} → 수신 {}", version, epoch);
+                return;
+            }
+
+            for (JsonNode change : message.path("changes")) {
+                String customerId = change.path(1).asText();
+                switch (change.path(0).asText()) {
+                    case "R" -> remove(customerId);
+                    case "N" -> place(customerId, change.path(2).asDouble(), QueueType.NORMAL);
+                    case "B" -> place(customerId, change.path(2).asDouble(), QueueType.BLACKLIST);
+                    default -> log.warn("[대기열] 읽기 미러 알 수 없는 변경: {}", change);
+                }
+            }
+            version = epoch;
+            if (!gap) {
+                freshAt = receivedAt;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Redis epoch와 비교
+     * @return 스냅샷을 다시 읽어야 하면 true
+     */
+    boolean checkEpoch(long epoch, long checkedAt) {
+        long stamp = lock.writeLock();
+        try {
+            if (version == epoch && !gap) {
+                freshAt = checkedAt;
+                behindEpoch = -1;
+                aheadVersion = -1;
+                return false;
+            }
+            if (version < 0 || gap || (behindEpoch >= 0 && version < behindEpoch)
+                    || (aheadVersion >= 0 && epoch < aheadVersion)) {
+                // 스냅샷 전 / 유실 / 직전 확인 이후에도 따라잡지 못함 / Redis 초기화(epoch 감소)
+                return true;
+            }
+            if (version > epoch) {
+                // epoch를 읽은 뒤 변경 내역이 먼저 반영됐을 수 있으므로 다음 확인에서 다시 비교
+                // (초기화가 아니라면 다음에 읽는 epoch는 지금의 미러 버전 이상이다)
+                aheadVersion = version;
+                return false;
+            }
+            aheadVersion = -1;
+            // 변경 내역이 아직 도착하지 않았을 수 있으므로 다음 확인까지 기다림
+            behindEpoch = epoch;
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resync() {
+        long startedAt = System.currentTimeMillis();
+        List<Object> reply = redisTemplate.execute(SNAPSHOT_SCRIPT,
+                List.of(QueueServiceImpl.WAITING_QUEUE_KEY, QueueServiceImpl.BLACKLISTED_KEY,
+                        QueueServiceImpl.RANK_EPOCH_KEY));
+        if (reply == null || reply.size() < 3) {
+            log.error("[대기열] 읽기 미러 스냅샷 응답 이상: {}", reply);
+            return;
+        }
+        loadSnapshot((Long) reply.get(0), (List<String>) reply.get(1), (List<String>) reply.get(2), startedAt);
+    }
+
+    /**
+     * 스냅샷으로 전체 교체
+     * @param waiting 대기열 (고객 ID, score 반복)
+     * @param blacklisted Blacklist 고객 ID 목록
+     * @param readAt 스냅샷을 읽기 시작한 시각 (ms)
+     */
+    void loadSnapshot(long epoch, List<String> waiting, Collection<String> blacklisted, long readAt) {
+        Set<String> blacklistSet = new HashSet<>(blacklisted);
+        List<Placement> placements = new ArrayList<>(waiting.size() / 2);
+        for (int i = 0; i + 1 < waiting.size(); i += 2) {
+            String customerId = waiting.get(i);
+            placements.add(new Placement(customerId, Double.parseDouble(waiting.get(i + 1)),
+                    blacklistSet.contains(customerId) ? QueueType.BLACKLIST : QueueType.NORMAL));
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            long previous = version;
+            positions.clear();
+            queue.clear();
+            blacklistSize = 0;
+            for (Placement placement : placements) {
+                place(placement.customerId(), placement.score(), placement.type());
+            }
+            version = epoch;
+            freshAt = readAt;
+            gap = false;
+            behindEpoch = -1;
+            aheadVersion = -1;
+            if (previous >= 0) {
+                log.info("[대기열] 읽기 미러 재적재: epoch {} → {}, {}명", previous, epoch, placements.size());
+            } else {
+                log.info("[대기열] 읽기 미러 적재: epoch {}, {}명", epoch, placements.size());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ===== 아래는 모두 잠금 안에서 호출 =====
+
+    private boolean isFresh() {
+        return enabled && version >= 0 && !gap && System.currentTimeMillis() - freshAt <= maxStalenessMs;
+    }
+
+    private long rankOf(Position position) {
+        return queue.rank(position);
+    }
+
+    private void remove(String customerId) {
+        Position position = positions.remove(customerId);
+        if (position == null) {
+            return;
+        }
+        queue.remove(position);
+        if (position.type() == QueueType.BLACKLIST) {
+            blacklistSize--;
+        }
+    }
+
+    /**
+     * 고객을 score 위치에 등록 (이미 있으면 옮김, O(log N))
+     */
+    private void place(String customerId, double score, QueueType type) {
+        remove(customerId);
+        Position position = new Position(customerId, score, type);
+        positions.put(customerId, position);
+        queue.add(position);
+        if (type == QueueType.BLACKLIST) {
+            blacklistSize++;
+        }
+    }
+
+    /**
+     * 미러 조회 결과
+     * @param rank 대기열 기준 1-indexed 순위
+     * @param epoch 미러에 반영된 대기열 변경 순번
+     */
+    public record MirrorRank(long rank, QueueType queueType, long epoch) {}
+
+    private record Position(String customerId, double score, QueueType type) {}
+
+    // Redis ZSET 순서: score, 같으면 고객 ID 사전순
+    private static final Comparator<Position> ORDER =
+            Comparator.comparingDouble(Position::score).thenComparing(Position::customerId);
+
+    private record Placement(String customerId, double score, QueueType type) {}
+}
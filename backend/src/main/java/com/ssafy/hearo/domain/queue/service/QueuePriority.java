@@ -0,0 +1,68 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대기열 우선순위 점수 규칙 (작을수록 앞)
+ *
+ * 점수 = 도착 시각(ms) − Blacklist 보정 − 스킵 보정
+ * - 등록 시 점수는 도착 시각
+ * - 매칭 탐색에서 건너뛸 때마다 aging-step-ms만큼 점수를 낮춘다 (그만큼 일찍 온 것으로 취급)
+ * - Normal 고객이 처음 건너뛰어지면 Blacklist 고객이 되고 blacklist-boost-ms만큼 더 낮춘다
+ * - 스킵 보정은 max-aging-ms를 넘지 않는다 (점수 하한 = 도착 시각 − Blacklist 보정 − max-aging-ms)
+ *
+ * 기본 blacklist-boost-ms(5분)는 대기열 항목 만료 시간과 같으므로 Blacklist 고객은 항상 Normal 고객보다 앞선다.
+ * 이 값을 줄이면 오래 기다린 Normal 고객이 최근 Blacklist 고객보다 앞설 수 있다.
+ *
+ * Redis 구현(pop-matchable.lua, queue-mutation.lua)과 메모리 구현(InMemoryQueueService)이 같은 값을 사용한다.
+ */
+@Component
+public class QueuePriority {
+
+    private final long blacklistBoostMs;
+    private final long agingStepMs;
+    private final long maxAgingMs;
+
+    public QueuePriority(@Value("${queue.priority.blacklist-boost-ms:300000}") long blacklistBoostMs,
+                         @Value("${queue.priority.aging-step-ms:5000}") long agingStepMs,
+                         @Value("${queue.priority.max-aging-ms:120000}") long maxAgingMs) {
+        if (blacklistBoostMs < 0 || agingStepMs < 0 || maxAgingMs < 0) {
+            throw new IllegalArgumentException("우선순위 보정값은 0 이상이어야 합니다");
+        }
+        this.blacklistBoostMs = blacklistBoostMs;
+        this.agingStepMs = agingStepMs;
+        this.maxAgingMs = maxAgingMs;
+    }
+
+    public long getBlacklistBoostMs() {
+        return blacklistBoostMs;
+    }
+
+    public long getAgingStepMs() {
+        return agingStepMs;
+    }
+
+    public long getMaxAgingMs() {
+        return maxAgingMs;
+    }
+
+    /**
+     * 매칭 탐색에서 건너뛴 고객의 새 점수 (건너뛴 뒤에는 항상 Blacklist 고객)
+     * @param score 현재 점수
+     * @param arrivedAt 도착 시각 (ms)
+     * @param type 건너뛰기 전 큐 종류
+     */
+    public double afterSkip(double score, long arrivedAt, QueueType type) {
+        double target = score - agingStepMs - (type == QueueType.NORMAL ? blacklistBoostMs : 0);
+        return Math.max(target, (double) arrivedAt - blacklistBoostMs - maxAgingMs);
+    }
+
+    /**
+     * Blacklist로 직접 옮긴 고객의 새 점수 (moveToBlacklistQueue)
+     */
+    public double afterMove(double score) {
+        return score - blacklistBoostMs;
+    }
+}
@@ -2,30 +2,97 @@ package com.ssafy.hearo.domain.queue.service;
 
 import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+/**
+ * 대기열
+ *
+ * 모든 고객이 하나의 우선순위 순서(QueuePriority의 점수, 작을수록 앞)에 선다.
+ * 큐 종류(NORMAL/BLACKLIST)는 점수 보정과 통계를 위한 고객 분류이며 별도의 큐가 아니다.
+ */
 public interface QueueService {
 
     /**
-     * 고객을 Normal Queue에 추가
+     * 대기열 항목 만료 시간 (ms, 도착 시각 기준). 이보다 오래 기다린 고객은 매칭 탐색 시 제거된다.
+     */
+    long QUEUE_ENTRY_TIMEOUT_MS = 5 * 60 * 1000;
+
+    /**
+     * 고객을 Normal 고객으로 대기열에 추가 (점수 = 도착 시각)
      * @param customerId 고객 식별자
      * @return QueueStatusResponse 초기 대기 순위 포함
      */
     QueueStatusResponse enqueue(String customerId);
 
     /**
-     * 현재 대기 순위 조회
-     * Rank = (Blacklist Queue 크기) + (Normal Queue 순위) + 1
+     * 여러 고객을 한 번에 Normal 고객으로 대기열에 추가 (요청 순서대로 뒤에 선다)
+     * Redis 구현은 왕복 1회로 등록하고 순위를 함께 돌려주며, 순위 변경 이벤트도 1건만 전송한다.
+     * @param customerIds 고객 식별자 (중복은 한 번만 등록)
+     * @return 요청 순서와 같은 순서의 대기 상태 (이미 대기 중이면 기존 상태)
+     */
+    List<QueueStatusResponse> enqueueAll(List<String> customerIds);
+
+    /**
+     * 콜백 대기열에 아직 남아 있는 고객만 빼서 Normal 고객으로 대기열에 추가 (enqueueAll과 같은 순서 규칙)
+     * 콜백 대기열에서 빼기와 등록을 한 번에 수행하므로, 읽은 뒤 콜백 대기를 취소한 고객은 다시 들어가지 않는다.
+     * @param holdQueueKey 콜백 대기열 ZSET 키
+     * @param customerIds 옮길 고객 (콜백 대기 순서)
+     * @return 콜백 대기열에서 빠져 대기열에 들어간 고객의 대기 상태 (요청 순서, 이미 빠진 고객은 제외)
+     */
+    List<QueueStatusResponse> enqueueAllFromHold(String holdQueueKey, List<String> customerIds);
+
+    /**
+     * 대기열 밖에 있던 고객을 원래 도착 시각/점수/큐 종류로 한 번에 되돌림
+     * 대기시간 초과는 원래 도착 시각 기준으로 판단한다. 이미 대기 중인 고객은 그대로 둔다.
+     * @param entries 되돌릴 항목
+     * @return entries와 같은 순서의 대기 상태 (이미 대기 중이면 기존 상태)
+     */
+    List<QueueStatusResponse> requeueAll(List<QueueEntry> entries);
+
+    /**
+     * 대기열 항목
+     * @param arrivedAt 도착 시각 (ms, 대기시간 초과/aging 하한 기준)
+     * @param score 우선순위 점수 (QueuePriority, 작을수록 앞)
+     */
+    record QueueEntry(String customerId, long arrivedAt, double score, QueueType queueType) {
+
+        /**
+         * 같은 시각에 도착한 Normal 고객 항목 (중복 제거)
+         * 1ms 안의 소수 점수를 더해 요청 순서를 유지한다 (Redis는 같은 점수를 고객 ID 순으로 정렬).
+         */
+        public static List<QueueEntry> arrivals(List<String> customerIds, long now) {
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(customerIds));
+            List<QueueEntry> entries = new ArrayList<>(distinct.size());
+            for (int i = 0; i < distinct.size(); i++) {
+                entries.add(new QueueEntry(distinct.get(i), now, now + (double) i / distinct.size(), QueueType.NORMAL));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * 현재 대기 순위 조회 (우선순위 점수 순서의 1-indexed 순위)
      * @param customerId 고객 식별자
      * @return Optional<Long> 순위 (대기열에 없으면 empty)
      */
     Optional<Long> getWaitingRank(String customerId);
 
     /**
-     * Normal Queue에서 Blacklist Queue로 이동
+     * 현재 대기 상태 조회 (순위, 큐 종류, 순위 기준 epoch를 한 번에 원자적으로 조회)
+     * 클라이언트는 rankEpoch 이후의 대기열 변경 이벤트만 순위에 반영한다
+     * @param customerId 고객 식별자
+     * @return Optional<QueueStatusResponse> (대기열에 없으면 empty)
+     */
+    Optional<QueueStatusResponse> getStatus(String customerId);
+
+    /**
+     * Normal 고객을 Blacklist 고객으로 전환 (Blacklist 보정만큼 앞으로 이동)
      * @param customerId 고객 식별자
-     * @return 이동 성공 여부
+     * @return 전환 성공 여부 (대기열에 없거나 이미 Blacklist 고객이면 false)
      */
     boolean moveToBlacklistQueue(String customerId);
 
@@ -37,50 +104,72 @@ public interface QueueService {
     boolean remove(String customerId);
 
     /**
-     * 다음 고객 추출 (Blacklist Queue 우선, 그 다음 Normal Queue)
+     * 다음 고객 추출 (점수가 가장 작은 고객)
      * @return Optional<String> 고객 ID (대기열이 비어있으면 empty)
      */
     Optional<String> pop();
 
     /**
-     * 매칭 가능한 다음 고객 추출 (블랙리스트 관계 고려)
+     * 매칭 불가 고객 aging (매칭 사이클마다 한 번 호출)
      *
      * 로직:
-     * 1. Blacklist Queue에서 가용 상담원과 매칭 가능한 고객 탐색
-     *    - 매칭 불가능한 고객은 임시 스택에 보관
-     * 2. Blacklist Queue에서 매칭 실패 시 Normal Queue 탐색
-     *    - Normal Queue에서 매칭 불가능한 고객은 Blacklist Queue로 이동
-     * 3. 매칭 성공 시 임시 스택의 고객들을 Blacklist Queue로 복원
+     * 1. 대기열 앞부분(탐색 한도)에서 lease 만료/대기시간 초과 고객은 제거
+     * 2. 가용 상담원 누구와도 매칭할 수 없는 고객은 꺼내지 않고 점수만 한 번 낮춘다
+     *    (Normal 고객은 Blacklist 고객으로 전환)
      *
-     * @param availableCounselorIds 현재 가용한 상담원 ID 목록
-     * @return PopResult 매칭된 고객 ID와 매칭 가능한 상담원 ID 목록
+     * peekMatchable은 점수를 바꾸지 않으므로 한 사이클에 여러 번 조회해도 aging은 이 호출의 한 번뿐이다.
+     * Redis 구현은 위 과정을 Lua 스크립트 1회 호출로 원자적으로 수행한다.
+     *
+     * @param availableCounselorIds 사이클 시작 시점의 가용 상담원 ID 목록 (비어 있으면 아무것도 하지 않음)
+     * @return AgingResult 스킵된 Blacklist 고객과 Blacklist 고객으로 전환된 Normal 고객
      */
-    PopResult popMatchable(Set<Long> availableCounselorIds);
+    AgingResult ageUnmatchable(Set<Long> availableCounselorIds);
 
     /**
-     * 매칭 결과
-     * @param customerId 매칭된 고객 ID (없으면 null)
-     * @param matchableCounselorIds 해당 고객과 매칭 가능한 상담원 ID 목록
-     * @param skippedCount Blacklist Queue에서 스킵된 고객 수
-     * @param movedToBlacklistCount Normal Queue에서 Blacklist Queue로 이동된 고객 수
-     */
-    record PopResult(
-            String customerId,
-            Set<Long> matchableCounselorIds,
-            int skippedCount,
-            int movedToBlacklistCount
-    ) {
-        public boolean hasMatch() {
-            return customerId != null;
-        }
+     * aging 결과
+     * @param skippedCustomerIds 스킵된 Blacklist 고객 ID 목록
+     * @param movedCustomerIds Blacklist 고객으로 전환된 Normal 고객 ID 목록
+     */
+    record AgingResult(List<String> skippedCustomerIds, List<String> movedCustomerIds) {
 
-        public static PopResult empty() {
-            return new PopResult(null, Set.of(), 0, 0);
+        public static AgingResult empty() {
+            return new AgingResult(List.of(), List.of());
         }
     }
 
     /**
-     * 양 큐의 크기 조회
+     * 매칭 가능한 고객을 대기 순서대로 최대 limit명 조회 (큐에서 꺼내지 않음)
+     * 유령고객은 제거하지만, 매칭 불가 고객은 건너뛰기만 하고 점수를 바꾸지 않는다 (aging은 ageUnmatchable).
+     * @param availableCounselorIds 현재 가용한 상담원 ID 목록
+     * @param limit 최대 조회 인원
+     * @return 대기 순서대로 정렬된 매칭 후보 목록
+     */
+    List<MatchCandidate> peekMatchable(Set<Long> availableCounselorIds, int limit);
+
+    /**
+     * 매칭이 확정된 고객을 대기열에서 꺼냄 (peekMatchable 이후 사용)
+     * @param customerId 고객 식별자
+     * @return 꺼냈으면 true, 그 사이 이탈했거나 다른 매칭에 먼저 꺼내졌으면 false
+     */
+    boolean claim(String customerId);
+
+    /**
+     * 매칭 후보
+     * @param customerId 고객 ID
+     * @param matchableCounselorIds 해당 고객과 매칭 가능한 상담원 ID 목록
+     */
+    record MatchCandidate(String customerId, Set<Long> matchableCounselorIds) {}
+
+    /**
+     * lease가 만료된 고객을 대기열에서 한꺼번에 제거 (lease 정리 포함)
+     * 제거가 있으면 순위 변경 이벤트를 1건만 전송한다.
+     * @param limit 한 번에 정리하는 최대 인원
+     * @return 대기열에서 제거된 고객 ID 목록
+     */
+    List<String> evictExpiredLeases(int limit);
+
+    /**
+     * 큐 종류별 대기 인원 조회
      * @return QueueSizes
      */
     QueueSizes getQueueSizes();
@@ -93,7 +182,7 @@ public interface QueueService {
     boolean isInQueue(String customerId);
 
     /**
-     * 고객이 어느 큐에 있는지 확인
+     * 고객의 큐 종류 확인
      * @param customerId 고객 식별자
      * @return Optional<QueueType> (NORMAL 또는 BLACKLIST)
      */
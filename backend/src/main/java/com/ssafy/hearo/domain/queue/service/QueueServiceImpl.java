@@ -1,189 +1,250 @@
 package com.ssafy.hearo.domain.queue.service;
 
-import com.ssafy.hearo.domain.customer.repository.BlacklistRepository;
+import com.ssafy.hearo.domain.customer.service.BlacklistIndex;
+import com.ssafy.hearo.domain.matching.service.MatchingLeaderElection;
 import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@ConditionalOnProperty(name = "queue.store", havingValue = "redis", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class QueueServiceImpl implements QueueService {
 
-    private static final String NORMAL_QUEUE_KEY = "queue:normal";
-    private static final String BLACKLIST_QUEUE_KEY = "queue:blacklist";
-    private static final String TEMP_STACK_KEY = "queue:temp-stack"; // 임시 스택
+    // 읽기 미러(QueueMirror)의 스냅샷에서도 동일한 키를 사용
+    static final String WAITING_QUEUE_KEY = "queue:waiting"; // 우선순위 점수 ZSET (작을수록 앞)
+    static final String BLACKLISTED_KEY = "queue:blacklisted"; // Blacklist 고객 SET
+    static final String ARRIVAL_KEY = "queue:arrivals"; // 고객 ID → 도착 시각 HASH
+    static final String RANK_EPOCH_KEY = "queue:rank-epoch"; // 대기열 변경 순번
+    // 블랙리스트 인덱스가 없을 때 매칭 탐색 스크립트가 반환하는 오류
+    private static final String INDEX_NOT_READY = "BLACKLIST_INDEX_NOT_READY";
+    // 매칭 리더 자격을 잃은 노드의 대기열 변경을 스크립트가 거부할 때의 오류
+    private static final String MATCHING_FENCED = "MATCHING_FENCED";
+
+    /**
+     * 매칭 가능한 고객 조회(peek) 또는 매칭 불가 고객 aging을 Redis 안에서 한 번에 수행하는 스크립트
+     * (유령고객 제거까지 원자적으로 처리)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POP_MATCHABLE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/pop-matchable.lua"), List.class);
+
+    /**
+     * 대기열 단건 변경(등록/제거/추출/이동)과 epoch 증가를 함께 수행하는 스크립트
+     * 변경 전후 순위를 같이 돌려주므로 순위 변경 이벤트를 O(1) 크기로 만들 수 있다
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> QUEUE_MUTATION_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/queue-mutation.lua"), List.class);
+
+    /**
+     * 여러 고객 등록/복원을 한 번에 수행하는 스크립트 (호출 1회로 등록하고 순위를 함께 돌려줌)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> QUEUE_BULK_INSERT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/queue-bulk-insert.lua"), List.class);
+
+    /**
+     * lease 만료 고객을 대기열/lease에서 한꺼번에 제거하는 스크립트
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REAP_EXPIRED_LEASES_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/reap-expired-leases.lua"), List.class);
 
     private final RedisTemplate<String, String> redisTemplate;
     private final QueueEventPublisher queueEventPublisher;
-    private final BlacklistRepository blacklistRepository;
-    private final QueueLeaseService queueLeaseService;
+    private final BlacklistIndex blacklistIndex;
+    private final QueuePriority queuePriority;
+
+    // 원자적 탐색 시 한 번에 확인하는 최대 고객 수
+    @Value("${queue.matching.scan-limit:200}")
+    private int scanLimit;
 
     @Override
     public QueueStatusResponse enqueue(String customerId) {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-
-        // 이미 대기열에 있는지 확인
-        Optional<QueueType> existingQueue = getQueueType(customerId);
-        if (existingQueue.isPresent()) {
-            Optional<Long> rank = getWaitingRank(customerId);
-            return QueueStatusResponse.of(customerId, rank.orElse(0L), existingQueue.get().name());
+        // 도착 시각을 첫 점수로 추가, 이미 대기열에 있으면 기존 상태 반환
+        MutationResult result = mutate("ENQUEUE", customerId, String.valueOf(System.currentTimeMillis()));
+        if (!result.changed()) {
+            return QueueStatusResponse.of(customerId, result.newRank(), result.queueType(), result.epoch());
         }
 
-        // Normal Queue에 추가 (timestamp를 score로 사용)
-        double score = System.currentTimeMillis();
-        zSetOps.add(NORMAL_QUEUE_KEY, customerId, score);
+        log.info("[대기열] 고객 {} Normal Queue에 등록 (순위: {}위)", customerId, result.newRank());
 
-        Long rank = getWaitingRank(customerId).orElse(1L);
+        // 맨 뒤에 추가되므로 다른 고객의 순위는 바뀌지 않음 - 변경 이벤트만 전송
+        publishRankShift(result, List.of(), List.of(result.newRank()));
+        queueEventPublisher.sendRankUpdate(customerId, result.newRank(), result.epoch());
 
-        log.info("[대기열] 고객 {} Normal Queue에 등록 (순위: {}위)", customerId, rank);
+        return QueueStatusResponse.of(customerId, result.newRank(), QueueType.NORMAL.name(), result.epoch());
+    }
 
-        // 대기열 변경 알림
-        QueueSizes sizes = getQueueSizes();
-        queueEventPublisher.publishQueueUpdate(sizes.normalQueueSize(), sizes.blacklistQueueSize());
+    @Override
+    public List<QueueStatusResponse> enqueueAll(List<String> customerIds) {
+        Map<String, QueueStatusResponse> statuses =
+                insertAll(QueueEntry.arrivals(customerIds, System.currentTimeMillis()), null);
+        return customerIds.stream().map(statuses::get).toList();
+    }
 
-        return QueueStatusResponse.of(customerId, rank, QueueType.NORMAL.name());
+    @Override
+    public List<QueueStatusResponse> enqueueAllFromHold(String holdQueueKey, List<String> customerIds) {
+        // 콜백 대기열 ZREM에 성공한 고객만 같은 스크립트 안에서 등록
+        Map<String, QueueStatusResponse> statuses =
+                insertAll(QueueEntry.arrivals(customerIds, System.currentTimeMillis()), holdQueueKey);
+        return customerIds.stream().distinct().map(statuses::get).filter(Objects::nonNull).toList();
     }
 
     @Override
-    public Optional<Long> getWaitingRank(String customerId) {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+    public List<QueueStatusResponse> requeueAll(List<QueueEntry> entries) {
+        Map<String, QueueStatusResponse> statuses = insertAll(entries, null);
+        return entries.stream().map(entry -> statuses.get(entry.customerId())).toList();
+    }
+
+    /**
+     * 여러 고객을 스크립트 1회로 등록하고 순위 변경 이벤트 1건 + 새로 들어간 고객별 순위를 전송
+     * @param sourceKey 옮겨올 원본 ZSET (null이 아니면 여기서 빠진 고객만 등록)
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, QueueStatusResponse> insertAll(List<QueueEntry> entries, String sourceKey) {
+        if (entries.isEmpty()) {
+            return Map.of();
+        }
+
+        List<String> args = new ArrayList<>(2 + entries.size() * 4);
+        args.add(QueueMirror.CHANGE_CHANNEL);
+        args.add(MatchingLeaderElection.currentFencingToken());
+        for (QueueEntry entry : entries) {
+            args.add(entry.customerId());
+            args.add(String.valueOf(entry.arrivedAt()));
+            args.add(String.valueOf(entry.score()));
+            args.add(entry.queueType().name());
+        }
+
+        List<String> keys = new ArrayList<>(List.of(WAITING_QUEUE_KEY, ARRIVAL_KEY, BLACKLISTED_KEY,
+                RANK_EPOCH_KEY, MatchingLeaderElection.LEADER_KEY));
+        if (sourceKey != null) {
+            keys.add(sourceKey);
+        }
 
-        // Blacklist Queue 확인
-        Long blacklistRank = zSetOps.rank(BLACKLIST_QUEUE_KEY, customerId);
-        if (blacklistRank != null) {
-            return Optional.of(blacklistRank + 1); // 0-indexed -> 1-indexed
+        List<Object> reply;
+        try {
+            reply = redisTemplate.execute(QUEUE_BULK_INSERT_SCRIPT, keys, args.toArray());
+        } catch (DataAccessException e) {
+            rejectIfFenced(e);
+            throw e;
+        }
+        if (reply == null || reply.size() < 8) {
+            throw new IllegalStateException("대기열 일괄 등록 스크립트 응답 이상: " + reply);
         }
 
-        // Normal Queue 확인
-        Long normalRank = zSetOps.rank(NORMAL_QUEUE_KEY, customerId);
-        if (normalRank != null) {
-            Long blacklistSize = zSetOps.zCard(BLACKLIST_QUEUE_KEY);
-            // Rank = Blacklist 크기 + Normal Queue 순위 + 1 (1-indexed)
-            return Optional.of((blacklistSize != null ? blacklistSize : 0) + normalRank + 1);
+        List<String> ids = (List<String>) reply.get(0);
+        List<Long> ranks = (List<Long>) reply.get(1);
+        List<String> types = (List<String>) reply.get(2);
+        List<Long> inserted = (List<Long>) reply.get(3);
+        List<Long> insertedRanks = (List<Long>) reply.get(4);
+        long epoch = (Long) reply.get(5);
+
+        Map<String, QueueStatusResponse> byId = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            byId.put(ids.get(i), QueueStatusResponse.of(ids.get(i), ranks.get(i), types.get(i), epoch));
         }
 
-        return Optional.empty();
+        if (!insertedRanks.isEmpty()) {
+            log.info("[대기열] 고객 {}명 일괄 등록 (요청 {}명)", insertedRanks.size(), ids.size());
+            queueEventPublisher.publishQueueUpdate(
+                    (Long) reply.get(6), (Long) reply.get(7), epoch, List.of(), insertedRanks);
+            for (int i = 0; i < ids.size(); i++) {
+                if (inserted.get(i) == 1L) {
+                    queueEventPublisher.sendRankUpdate(ids.get(i), ranks.get(i), epoch);
+                }
+            }
+        }
+
+        return byId;
     }
 
     @Override
-    public boolean moveToBlacklistQueue(String customerId) {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+    public Optional<QueueStatusResponse> getStatus(String customerId) {
+        MutationResult result = mutate("RANK", customerId, "");
+        if (result.oldRank() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(QueueStatusResponse.of(customerId, result.oldRank(), result.queueType(), result.epoch()));
+    }
+
+    @Override
+    public Optional<Long> getWaitingRank(String customerId) {
+        Long rank = redisTemplate.opsForZSet().rank(WAITING_QUEUE_KEY, customerId);
+        return rank != null ? Optional.of(rank + 1) : Optional.empty(); // 0-indexed -> 1-indexed
+    }
 
-        // Normal Queue에서 score 조회
-        Double score = zSetOps.score(NORMAL_QUEUE_KEY, customerId);
-        if (score == null) {
+    @Override
+    public boolean moveToBlacklistQueue(String customerId) {
+        // Blacklist 고객으로 전환 (Blacklist 보정만큼 점수를 낮춤)
+        MutationResult result = mutate("MOVE", customerId, "");
+        if (!result.changed()) {
             log.warn("고객 {}이(가) Normal Queue에 없음", customerId);
             return false;
         }
 
-        // 이동 전 순위 조회 (영향받는 고객 알림용)
-        Optional<Long> rankBefore = getWaitingRank(customerId);
-
-        // Blacklist Queue로 이동 (원래 timestamp 유지)
-        zSetOps.remove(NORMAL_QUEUE_KEY, customerId);
-        zSetOps.add(BLACKLIST_QUEUE_KEY, customerId, score);
-
         log.info("고객 {}을(를) Blacklist Queue로 이동", customerId);
 
-        // 대기열 변경 알림
-        QueueSizes sizes = getQueueSizes();
-        queueEventPublisher.publishQueueUpdate(sizes.normalQueueSize(), sizes.blacklistQueueSize());
+        // 원래 자리가 빠지고 낮아진 점수의 새 자리에 들어감
+        publishRankShift(result, List.of(result.oldRank()), List.of(result.newRank()));
 
-        // 이동한 고객의 새 순위 전송
-        Optional<Long> newRank = getWaitingRank(customerId);
-        newRank.ifPresent(rank -> queueEventPublisher.sendRankUpdate(customerId, rank));
-
-        // 이동 후 영향받는 고객들에게 순위 업데이트 전송
-        // Blacklist로 이동 시 기존 위치 이후의 Normal Queue 고객들 순위가 당겨짐
-        rankBefore.ifPresent(this::notifyAffectedCustomers);
+        // 이동한 고객은 이벤트만으로 새 순위를 알 수 없으므로 직접 전송
+        queueEventPublisher.sendRankUpdate(customerId, result.newRank(), result.epoch());
 
         return true;
     }
 
     @Override
     public boolean remove(String customerId) {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-
-        // 제거 전 순위 조회 (영향받는 고객 알림용)
-        Optional<Long> rankBefore = getWaitingRank(customerId);
-
-        Long removedFromNormal = zSetOps.remove(NORMAL_QUEUE_KEY, customerId);
-        Long removedFromBlacklist = zSetOps.remove(BLACKLIST_QUEUE_KEY, customerId);
-
-        boolean removed = (removedFromNormal != null && removedFromNormal > 0)
-                       || (removedFromBlacklist != null && removedFromBlacklist > 0);
-
-        if (removed) {
-            log.info("고객 {}을(를) 대기열에서 제거", customerId);
+        MutationResult result = mutate("REMOVE", customerId, "");
+        if (!result.changed()) {
+            return false;
+        }
 
-            // 대기열 변경 알림
-            QueueSizes sizes = getQueueSizes();
-            queueEventPublisher.publishQueueUpdate(sizes.normalQueueSize(), sizes.blacklistQueueSize());
+        log.info("고객 {}을(를) 대기열에서 제거", customerId);
 
-            // 제거된 고객 위치 이후의 고객들에게 순위 업데이트 전송
-            rankBefore.ifPresent(this::notifyAffectedCustomers);
-        }
+        // 제거된 자리 이후의 고객들은 이벤트를 보고 한 칸씩 당긴다
+        publishRankShift(result, List.of(result.oldRank()), List.of());
 
-        return removed;
+        return true;
     }
 
     @Override
     public Optional<String> pop() {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-
-        // Blacklist Queue 우선 처리
-        Set<String> blacklistFirst = zSetOps.range(BLACKLIST_QUEUE_KEY, 0, 0);
-        if (blacklistFirst != null && !blacklistFirst.isEmpty()) {
-            String customerId = blacklistFirst.iterator().next();
-            zSetOps.remove(BLACKLIST_QUEUE_KEY, customerId);
-            log.info("Blacklist Queue에서 고객 {} 추출", customerId);
-
-            // 대기열 변경 알림
-            QueueSizes sizes = getQueueSizes();
-            queueEventPublisher.publishQueueUpdate(sizes.normalQueueSize(), sizes.blacklistQueueSize());
-
-            // 순위 1부터 모든 고객에게 업데이트 전송
-            notifyAffectedCustomers(1);
-
-            return Optional.of(customerId);
+        // 점수가 가장 작은 고객
+        MutationResult result = mutate("POP", "", "");
+        if (!result.changed()) {
+            return Optional.empty();
         }
 
-        // Normal Queue 처리
-        Set<String> normalFirst = zSetOps.range(NORMAL_QUEUE_KEY, 0, 0);
-        if (normalFirst != null && !normalFirst.isEmpty()) {
-            String customerId = normalFirst.iterator().next();
-            zSetOps.remove(NORMAL_QUEUE_KEY, customerId);
-            log.info("Normal Queue에서 고객 {} 추출", customerId);
-
-            // 대기열 변경 알림
-            QueueSizes sizes = getQueueSizes();
-            queueEventPublisher.publishQueueUpdate(sizes.normalQueueSize(), sizes.blacklistQueueSize());
+        log.info("{} Queue에서 고객 {} 추출",
+                QueueType.BLACKLIST.name().equals(result.queueType()) ? "Blacklist" : "Normal", result.customerId());
 
-            // 순위 1부터 모든 고객에게 업데이트 전송
-            notifyAffectedCustomers(1);
+        // 1위 자리가 빠짐 - 모든 고객이 이벤트를 보고 한 칸씩 당긴다
+        publishRankShift(result, List.of(1L), List.of());
 
-            return Optional.of(customerId);
-        }
-
-        return Optional.empty();
+        return Optional.of(result.customerId());
     }
 
     @Override
     public QueueSizes getQueueSizes() {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-        Long normalSize = zSetOps.zCard(NORMAL_QUEUE_KEY);
-        Long blacklistSize = zSetOps.zCard(BLACKLIST_QUEUE_KEY);
-        return new QueueSizes(
-            normalSize != null ? normalSize : 0,
-            blacklistSize != null ? blacklistSize : 0
-        );
+        Long total = redisTemplate.opsForZSet().zCard(WAITING_QUEUE_KEY);
+        Long blacklistSize = redisTemplate.opsForSet().size(BLACKLISTED_KEY);
+        long blacklist = blacklistSize != null ? blacklistSize : 0;
+        return new QueueSizes(Math.max((total != null ? total : 0) - blacklist, 0), blacklist);
     }
 
     @Override
@@ -193,256 +254,258 @@ public class QueueServiceImpl implements QueueService {
 
     @Override
     public Optional<QueueType> getQueueType(String customerId) {
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-
-        if (zSetOps.score(BLACKLIST_QUEUE_KEY, customerId) != null) {
-            return Optional.of(QueueType.BLACKLIST);
+        if (redisTemplate.opsForZSet().score(WAITING_QUEUE_KEY, customerId) == null) {
+            return Optional.empty();
         }
-        if (zSetOps.score(NORMAL_QUEUE_KEY, customerId) != null) {
-            return Optional.of(QueueType.NORMAL);
-        }
-        return Optional.empty();
+        return Optional.of(Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(BLACKLISTED_KEY, customerId))
+                ? QueueType.BLACKLIST : QueueType.NORMAL);
     }
 
+    /**
+     * 매칭 불가 고객 aging을 Lua 스크립트로 원자적으로 수행
+     *
+     * 스크립트 1회 호출로 lease 검증과 aging을 처리한다.
+     * 건너뛴 고객은 꺼내지 않고 점수만 낮추므로 임시 보관/복원 없이 같은 ZSET 안에서 앞으로 올라간다.
+     */
     @Override
-    public PopResult popMatchable(Set<Long> availableCounselorIds) {
+    public AgingResult ageUnmatchable(Set<Long> availableCounselorIds) {
         if (availableCounselorIds == null || availableCounselorIds.isEmpty()) {
-            log.warn("가용 상담원이 없습니다");
-            return PopResult.empty();
+            return AgingResult.empty();
         }
 
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-        List<CustomerWithScore> tempStack = new ArrayList<>();
-        int skippedCount = 0;
-        int movedToBlacklistCount = 0;
+        MatchScanResult scan = runMatchScan(availableCounselorIds, 0);
+        if (scan == null) {
+            return AgingResult.empty();
+        }
+        return new AgingResult(scan.skipped(), scan.moved());
+    }
 
-        try {
-            // 1. Blacklist Queue에서 매칭 가능한 고객 탐색
-            PopResult blacklistResult = findMatchableFromQueue(
-                    BLACKLIST_QUEUE_KEY, availableCounselorIds, tempStack, false);
-
-            if (blacklistResult.hasMatch()) {
-                skippedCount = tempStack.size();
-                restoreTempStack(tempStack, BLACKLIST_QUEUE_KEY);
-                publishQueueUpdate();
-                // 순위 1부터 모든 고객에게 업데이트 전송
-                notifyAffectedCustomers(1);
-                return new PopResult(
-                        blacklistResult.customerId(),
-                        blacklistResult.matchableCounselorIds(),
-                        skippedCount,
-                        0
-                );
-            }
+    @Override
+    public List<MatchCandidate> peekMatchable(Set<Long> availableCounselorIds, int limit) {
+        if (availableCounselorIds == null || availableCounselorIds.isEmpty() || limit <= 0) {
+            return List.of();
+        }
 
-            // Blacklist Queue에서 못 찾음 - 스킵된 고객들 복원
-            skippedCount = tempStack.size();
-            restoreTempStack(tempStack, BLACKLIST_QUEUE_KEY);
-            tempStack.clear();
-
-            // 2. Normal Queue에서 매칭 가능한 고객 탐색
-            PopResult normalResult = findMatchableFromQueue(
-                    NORMAL_QUEUE_KEY, availableCounselorIds, tempStack, true);
-
-            if (normalResult.hasMatch()) {
-                // Normal Queue에서 스킵된 고객들은 Blacklist Queue로 이동
-                movedToBlacklistCount = tempStack.size();
-                moveTempStackToBlacklistQueue(tempStack);
-                publishQueueUpdate();
-                // 순위 1부터 모든 고객에게 업데이트 전송
-                notifyAffectedCustomers(1);
-                return new PopResult(
-                        normalResult.customerId(),
-                        normalResult.matchableCounselorIds(),
-                        skippedCount,
-                        movedToBlacklistCount
-                );
-            }
+        MatchScanResult scan = runMatchScan(availableCounselorIds, limit);
+        if (scan == null) {
+            return List.of();
+        }
+        log.info("[대기열] 매칭 후보 {}명 조회", scan.candidates().size());
+        return scan.candidates();
+    }
 
-            // Normal Queue에서도 못 찾음 - Blacklist Queue로 이동
-            movedToBlacklistCount = tempStack.size();
-            moveTempStackToBlacklistQueue(tempStack);
-            publishQueueUpdate();
-            // Blacklist로 이동된 고객들도 순위 변경이 있으므로 전체 알림
-            if (movedToBlacklistCount > 0) {
-                notifyAffectedCustomers(1);
-            }
+    @Override
+    public boolean claim(String customerId) {
+        MutationResult result = mutate("REMOVE", customerId, "");
+        if (!result.changed()) {
+            log.info("[대기열] 고객 {} 추출 실패 (이미 대기열에 없음)", customerId);
+            return false;
+        }
 
-            log.info("매칭 가능한 고객 없음. Blacklist 스킵: {}, Normal→Blacklist 이동: {}",
-                    skippedCount, movedToBlacklistCount);
+        log.info("[대기열] 고객 {} 매칭 대상으로 추출 ({}에서)",
+                customerId, QueueType.BLACKLIST.name().equals(result.queueType()) ? "Blacklist" : "Normal");
+        publishRankShift(result, List.of(result.oldRank()), List.of());
+        return true;
+    }
 
-            return new PopResult(null, Set.of(), skippedCount, movedToBlacklistCount);
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> evictExpiredLeases(int limit) {
+        List<Object> reply = redisTemplate.execute(REAP_EXPIRED_LEASES_SCRIPT,
+                List.of(WAITING_QUEUE_KEY, ARRIVAL_KEY, BLACKLISTED_KEY, RANK_EPOCH_KEY,
+                        QueueLeaseServiceImpl.DEADLINE_KEY, QueueLeaseServiceImpl.TICKET_KEY, QueueLeaseServiceImpl.OWNER_KEY),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(limit), QueueMirror.CHANGE_CHANNEL);
+        if (reply == null || reply.size() < 6) {
+            log.error("[대기열] lease 만료 정리 스크립트 응답 이상: {}", reply);
+            return List.of();
+        }
 
-        } catch (Exception e) {
-            // 오류 발생 시 임시 스택 복원
-            log.error("popMatchable 중 오류 발생, 임시 스택 복원", e);
-            restoreTempStack(tempStack, BLACKLIST_QUEUE_KEY);
-            throw e;
+        List<String> evicted = (List<String>) reply.get(0);
+        List<Long> removedRanks = (List<Long>) reply.get(1);
+        long leaseOnly = (Long) reply.get(5);
+
+        if (!evicted.isEmpty()) {
+            log.warn("[대기열] 유령고객 {}명 제거 (lease 만료): {}", evicted.size(), evicted);
+            // 제거 인원과 무관하게 순위 변경 이벤트는 1건
+            queueEventPublisher.publishQueueUpdate(
+                    (Long) reply.get(3), (Long) reply.get(4), (Long) reply.get(2), removedRanks, List.of());
+        }
+        if (leaseOnly > 0) {
+            log.debug("[대기열] 대기열에 없는 만료 lease {}건 정리", leaseOnly);
         }
+        return evicted;
     }
 
     /**
-     * 지정된 큐에서 매칭 가능한 고객을 찾아 추출
+     * 매칭 탐색 스크립트 실행 후 유령고객/aging 고객 로그와 순위 변경 알림까지 처리
+     * @param peekLimit 0이면 aging만 수행, 1 이상이면 그 인원까지 조회만 함
+     * @return 탐색 결과 (응답 이상이면 null)
      */
-    private PopResult findMatchableFromQueue(
-            String queueKey,
-            Set<Long> availableCounselorIds,
-            List<CustomerWithScore> tempStack,
-            boolean isNormalQueue) {
-
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-        // 대기열 항목 만료 시간 (5분)
-        final long QUEUE_ENTRY_TIMEOUT_MS = 5 * 60 * 1000;
-
-        while (true) {
-            // 큐의 첫 번째 고객 조회
-            Set<ZSetOperations.TypedTuple<String>> firstSet = zSetOps.rangeWithScores(queueKey, 0, 0);
-            if (firstSet == null || firstSet.isEmpty()) {
-                break; // 큐가 비었음
-            }
+    @SuppressWarnings("unchecked")
+    private MatchScanResult runMatchScan(Set<Long> availableCounselorIds, int peekLimit) {
+        List<Object> reply = executeMatchScript(availableCounselorIds, peekLimit);
+        if (reply == null || reply.size() < 12) {
+            log.error("[대기열] 매칭 탐색 스크립트 응답 이상: {}", reply);
+            return null;
+        }
 
-            ZSetOperations.TypedTuple<String> first = firstSet.iterator().next();
-            String customerId = first.getValue();
-            Double score = first.getScore();
+        List<String> skipped = (List<String>) reply.get(0);
+        List<String> moved = (List<String>) reply.get(1);
+        List<String> ghosts = (List<String>) reply.get(2);
+        List<Long> removedRanks = (List<Long>) reply.get(3);
+        List<Long> insertedRanks = (List<Long>) reply.get(4);
+        long epoch = (Long) reply.get(5);
+        List<String> peeked = (List<String>) reply.get(8);
+        List<String> peekedCounselors = (List<String>) reply.get(9);
+        List<String> reordered = (List<String>) reply.get(10);
+        List<Long> reorderedRanks = (List<Long>) reply.get(11);
+
+        if (!ghosts.isEmpty()) {
+            log.warn("[대기열] 유령고객 제거: {} (lease 만료 또는 대기시간 초과)", ghosts);
+        }
+        if (!moved.isEmpty()) {
+            log.info("[대기열] {}명 Normal → Blacklist 전환: {}", moved.size(), moved);
+        }
+        if (!skipped.isEmpty()) {
+            log.debug("[대기열] Blacklist 고객 {}명 스킵 (aging 적용): {}", skipped.size(), skipped);
+        }
 
-            if (customerId == null || score == null) {
-                break;
+        if (!removedRanks.isEmpty()) {
+            queueEventPublisher.publishQueueUpdate(
+                    (Long) reply.get(6), (Long) reply.get(7), epoch, removedRanks, insertedRanks);
+            // 점수가 바뀐 고객은 이벤트만으로 새 순위를 알 수 없으므로 직접 전송
+            for (int i = 0; i < reordered.size(); i++) {
+                queueEventPublisher.sendRankUpdate(reordered.get(i), reorderedRanks.get(i), epoch);
             }
+        }
 
-            // 큐에서 제거
-            zSetOps.remove(queueKey, customerId);
+        List<MatchCandidate> peekedCandidates = new ArrayList<>();
+        for (int i = 0; i < peeked.size(); i++) {
+            peekedCandidates.add(new MatchCandidate(peeked.get(i), parseIds(peekedCounselors.get(i))));
+        }
 
-            // 1. lease 검증 - heartbeat가 끊긴 고객인지 확인
-            if (!queueLeaseService.isLeaseAlive(customerId)) {
-                log.warn("[대기열] 유령고객 제거: {} ({}에서, lease 만료)",
-                        customerId, isNormalQueue ? "Normal" : "Blacklist");
-                // lease가 없으면 유령 고객 - 큐에서 제거하고 스킵
-                continue;
-            }
+        return new MatchScanResult(skipped, moved, peekedCandidates);
+    }
 
-            // 2. 대기열 항목이 너무 오래되었는지 확인 (백업 필터링)
-            long now = System.currentTimeMillis();
-            long entryAge = now - score.longValue();
-            if (entryAge > QUEUE_ENTRY_TIMEOUT_MS) {
-                log.warn("[대기열] 유령고객 제거: {} ({}에서, 대기시간 {}초 초과)",
-                        customerId, isNormalQueue ? "Normal" : "Blacklist", entryAge / 1000);
-                // 오래된 항목 - lease도 삭제
-                queueLeaseService.deleteLeaseByCustomerId(customerId);
-                continue;
-            }
+    /**
+     * 매칭 탐색 스크립트 결과
+     */
+    private record MatchScanResult(List<String> skipped, List<String> moved, List<MatchCandidate> candidates) {}
 
-            // 매칭 가능한 상담원 확인
-            Set<Long> matchableCounselors = findMatchableCounselors(customerId, availableCounselorIds);
+    /**
+     * 매칭 탐색 스크립트 호출
+     * 차단 관계는 스크립트가 블랙리스트 인덱스(Redis SET)에서 직접 읽는다.
+     * 인덱스가 없으면(Redis 초기화 등) 다시 적재한 뒤 한 번 더 시도한다.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> executeMatchScript(Set<Long> availableCounselorIds, int peekLimit) {
+        Object[] args = {
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(QUEUE_ENTRY_TIMEOUT_MS),
+                joinIds(availableCounselorIds),
+                String.valueOf(scanLimit),
+                String.valueOf(peekLimit),
+                BlacklistIndex.KEY_PREFIX,
+                QueueMirror.CHANGE_CHANNEL,
+                MatchingLeaderElection.currentFencingToken(),
+                String.valueOf(queuePriority.getBlacklistBoostMs()),
+                String.valueOf(queuePriority.getAgingStepMs()),
+                String.valueOf(queuePriority.getMaxAgingMs())
+        };
+        List<String> keys = List.of(WAITING_QUEUE_KEY, ARRIVAL_KEY, BLACKLISTED_KEY, RANK_EPOCH_KEY, BlacklistIndex.READY_KEY,
+                QueueLeaseServiceImpl.DEADLINE_KEY, QueueLeaseServiceImpl.TICKET_KEY, QueueLeaseServiceImpl.OWNER_KEY,
+                MatchingLeaderElection.LEADER_KEY);
 
-            if (!matchableCounselors.isEmpty()) {
-                // 매칭 성공
-                log.info("[대기열] 고객 {} 매칭 후보 발견 ({}에서) → 가능한 상담원: {}",
-                        customerId, isNormalQueue ? "Normal" : "Blacklist", matchableCounselors);
-                return new PopResult(customerId, matchableCounselors, 0, 0);
+        try {
+            return redisTemplate.execute(POP_MATCHABLE_SCRIPT, keys, args);
+        } catch (DataAccessException e) {
+            rejectIfFenced(e);
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains(INDEX_NOT_READY)) {
+                throw e;
             }
-
-            // 매칭 실패 - 임시 스택에 보관
-            tempStack.add(new CustomerWithScore(customerId, score));
-            log.info("[대기열] 고객 {} 매칭 불가 (가용 상담원 {} 모두 블랙리스트) → 임시 보관",
-                    customerId, availableCounselorIds);
+            log.warn("[대기열] 블랙리스트 인덱스 없음 → 다시 적재 후 재시도");
+            blacklistIndex.rebuild();
+            return redisTemplate.execute(POP_MATCHABLE_SCRIPT, keys, args);
         }
-
-        return PopResult.empty();
     }
 
     /**
-     * 고객과 매칭 가능한 상담원 ID 목록 조회
+     * 매칭 리더 자격을 잃은 노드의 변경이 거부되었으면 매칭 사이클을 중단시킨다
      */
-    private Set<Long> findMatchableCounselors(String customerId, Set<Long> availableCounselorIds) {
-        try {
-            Integer customerIdInt = Integer.parseInt(customerId);
-            Set<Long> blockedCounselorIds = blacklistRepository.findBlockedCounselorIdsByCustomerId(customerIdInt);
-
-            return availableCounselorIds.stream()
-                    .filter(counselorId -> !blockedCounselorIds.contains(counselorId))
-                    .collect(Collectors.toSet());
-        } catch (NumberFormatException e) {
-            // customerId가 숫자가 아닌 경우 (mock 테스트 등) - 모든 상담원과 매칭 가능
-            log.debug("customerId '{}'가 숫자가 아님, 블랙리스트 체크 스킵", customerId);
-            return availableCounselorIds;
+    private static void rejectIfFenced(DataAccessException e) {
+        if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(MATCHING_FENCED)) {
+            throw new IllegalStateException("매칭 리더 자격을 잃어 대기열 변경이 거부되었습니다 (fencing token "
+                    + MatchingLeaderElection.currentFencingToken() + ")", e);
         }
     }
 
-    /**
-     * 임시 스택의 고객들을 원래 큐로 복원 (원래 순서 유지)
-     */
-    private void restoreTempStack(List<CustomerWithScore> tempStack, String queueKey) {
-        if (tempStack.isEmpty()) return;
+    private static String joinIds(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
 
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-        for (CustomerWithScore item : tempStack) {
-            zSetOps.add(queueKey, item.customerId, item.score);
+    private static Set<Long> parseIds(String csv) {
+        if (csv == null || csv.isEmpty()) {
+            return Set.of();
         }
-        log.debug("임시 스택 {}명을 {}로 복원", tempStack.size(), queueKey);
+        return Arrays.stream(csv.split(","))
+                .map(Long::parseLong)
+                .collect(Collectors.toSet());
     }
 
     /**
-     * 임시 스택의 고객들을 Blacklist Queue로 이동
+     * 단건 변경 후 순위 변경 이벤트 전송 (대기 고객 수와 무관하게 메시지 1건)
      */
-    private void moveTempStackToBlacklistQueue(List<CustomerWithScore> tempStack) {
-        if (tempStack.isEmpty()) return;
-
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-        for (CustomerWithScore item : tempStack) {
-            zSetOps.add(BLACKLIST_QUEUE_KEY, item.customerId, item.score);
-        }
-        log.info("[대기열] {}명 Normal → Blacklist 이동: {}",
-                tempStack.size(), tempStack.stream().map(CustomerWithScore::customerId).toList());
+    private void publishRankShift(MutationResult result, List<Long> removedRanks, List<Long> insertedRanks) {
+        queueEventPublisher.publishQueueUpdate(
+                result.normalSize(), result.blacklistSize(), result.epoch(), removedRanks, insertedRanks);
     }
 
-    private void publishQueueUpdate() {
-        QueueSizes sizes = getQueueSizes();
-        queueEventPublisher.publishQueueUpdate(sizes.normalQueueSize(), sizes.blacklistQueueSize());
+    private MutationResult mutate(String op, String customerId, String score) {
+        List<?> reply;
+        try {
+            reply = redisTemplate.execute(
+                    QUEUE_MUTATION_SCRIPT,
+                    List.of(WAITING_QUEUE_KEY, ARRIVAL_KEY, BLACKLISTED_KEY, RANK_EPOCH_KEY,
+                            MatchingLeaderElection.LEADER_KEY),
+                    op, customerId, score, QueueMirror.CHANGE_CHANNEL, MatchingLeaderElection.currentFencingToken(),
+                    String.valueOf(queuePriority.getBlacklistBoostMs()));
+        } catch (DataAccessException e) {
+            rejectIfFenced(e);
+            throw e;
+        }
+        if (reply == null || reply.size() < 8) {
+            throw new IllegalStateException("대기열 변경 스크립트 응답 이상: " + reply);
+        }
+        String id = (String) reply.get(0);
+        String queueType = (String) reply.get(1);
+        return new MutationResult(
+                id.isEmpty() ? null : id,
+                queueType.isEmpty() ? null : queueType,
+                (Long) reply.get(2),
+                (Long) reply.get(3),
+                (Long) reply.get(4),
+                (Long) reply.get(5),
+                (Long) reply.get(6),
+                (Long) reply.get(7) == 1L
+        );
     }
 
     /**
-     * 고객 ID와 score를 함께 저장하는 내부 클래스
+     * 대기열 변경 스크립트 결과 (순위는 전체 대기열 기준, 없으면 0)
      */
-    private record CustomerWithScore(String customerId, double score) {}
+    private record MutationResult(String customerId, String queueType, long oldRank, long newRank,
+                                  long epoch, long normalSize, long blacklistSize, boolean changed) {}
 
     @Override
     public Map<String, Long> getCustomersFromRank(long fromRank) {
         Map<String, Long> result = new LinkedHashMap<>();
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-
-        Long blacklistSize = zSetOps.zCard(BLACKLIST_QUEUE_KEY);
-        blacklistSize = blacklistSize != null ? blacklistSize : 0;
-
-        // fromRank가 Blacklist 범위 내인 경우
-        if (fromRank <= blacklistSize) {
-            // Blacklist에서 fromRank-1 인덱스부터 끝까지 조회
-            Set<String> blacklistCustomers = zSetOps.range(BLACKLIST_QUEUE_KEY, fromRank - 1, -1);
-            if (blacklistCustomers != null) {
-                long rank = fromRank;
-                for (String customerId : blacklistCustomers) {
-                    result.put(customerId, rank++);
-                }
-            }
-            // Normal Queue 전체 조회
-            Set<String> normalCustomers = zSetOps.range(NORMAL_QUEUE_KEY, 0, -1);
-            if (normalCustomers != null) {
-                long rank = blacklistSize + 1;
-                for (String customerId : normalCustomers) {
-                    result.put(customerId, rank++);
-                }
-            }
-        } else {
-            // fromRank가 Normal Queue 범위인 경우
-            long normalStartIndex = fromRank - blacklistSize - 1;
-            Set<String> normalCustomers = zSetOps.range(NORMAL_QUEUE_KEY, normalStartIndex, -1);
-            if (normalCustomers != null) {
-                long rank = fromRank;
-                for (String customerId : normalCustomers) {
-                    result.put(customerId, rank++);
-                }
+        Set<String> customers = redisTemplate.opsForZSet().range(WAITING_QUEUE_KEY, Math.max(fromRank, 1) - 1, -1);
+        if (customers != null) {
+            long rank = Math.max(fromRank, 1);
+            for (String customerId : customers) {
+                result.put(customerId, rank++);
             }
         }
-
         return result;
     }
 
@@ -450,20 +513,4 @@ public class QueueServiceImpl implements QueueService {
     public Map<String, Long> getAllCustomersWithRanks() {
         return getCustomersFromRank(1);
     }
-
-    /**
-     * 대기열 변경 후 영향받는 고객들에게 순위 업데이트 전송
-     * @param affectedFromRank 이 순위부터 영향을 받음 (이전에 이 순위에 있던 고객부터)
-     */
-    private void notifyAffectedCustomers(long affectedFromRank) {
-        if (affectedFromRank <= 0) {
-            return;
-        }
-
-        Map<String, Long> affectedCustomers = getCustomersFromRank(affectedFromRank);
-        if (!affectedCustomers.isEmpty()) {
-            log.debug("순위 변경 알림 전송: {}명 (순위 {}부터)", affectedCustomers.size(), affectedFromRank);
-            queueEventPublisher.sendBatchRankUpdates(affectedCustomers);
-        }
-    }
 }
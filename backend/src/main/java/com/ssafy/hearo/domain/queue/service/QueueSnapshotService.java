@@ -0,0 +1,265 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.matching.service.MatchingLeaderElection;
+import com.ssafy.hearo.domain.queue.entity.QueueSnapshotEntry;
+import com.ssafy.hearo.domain.queue.repository.QueueSnapshotEntryRepository;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueEntry;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * 대기열 스냅샷 저장/복원 (Redis 유실 대비)
+ *
+ * 대기열 상태(순서, 점수, 큐 종류, lease ticket)는 Redis에만 있으므로 Redis 초기화/장애 조치 시
+ * 모든 고객이 자리를 잃고 다시 등록해야 한다. 이를 막기 위해 Postgres(queue_snapshot_entries)에 사본을 둔다.
+ *
+ * - 저장: 매칭 리더가 queue.snapshot.interval-ms마다 대기열 epoch를 확인하고, 바뀌었으면
+ *   대기열 전체를 스크립트 1회로 읽어 마지막 저장본과 다른 항목만 upsert/delete 한다
+ * - 복원: 시작 시(@Scheduled 작업과 매칭 사이클이 시작되기 전) Redis epoch가 없고 스냅샷이 있으면 복원한다.
+ *   실행 중에 Redis epoch가 마지막 저장 epoch보다 작아진 것을 발견해도 복원한다
+ * - 복원은 lease를 원래 ticket으로 먼저 만든 뒤(heartbeat 유지) requeueAll로 원래 점수/큐 종류에 한 번에 넣는다.
+ *   도착 후 대기열 항목 만료 시간이 지난 고객은 복원하지 않는다
+ *
+ * 의도적으로 Redis 대기열을 비울 때는 스냅샷도 같이 비워야 한다(queue.snapshot.enabled=false 또는 테이블 삭제).
+ */
+@Component
+@ConditionalOnProperty(name = "queue.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class QueueSnapshotService implements SmartInitializingSingleton {
+
+    /**
+     * 대기열 전체(순서, 점수, 도착 시각, 큐 종류, ticket)를 epoch와 함께 조회하는 스크립트
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> QUEUE_EXPORT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/queue-export.lua"), List.class);
+
+    private final QueueService queueService;
+    private final QueueLeaseService queueLeaseService;
+    private final QueueSnapshotEntryRepository snapshotRepository;
+    private final MatchingLeaderElection leaderElection;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${queue.snapshot.enabled:true}")
+    private boolean enabled;
+
+    // 마지막으로 저장한 항목 (null이면 아직 DB에서 읽지 않음, 스케줄러 스레드에서만 접근)
+    private Map<String, SnapshotRow> persisted;
+    private long persistedEpoch = -1;
+
+    /**
+     * 시작 시 복원 (모든 빈 생성 직후, @Scheduled 작업 시작 전)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(QueueServiceImpl.RANK_EPOCH_KEY))) {
+                restore();
+            }
+        } catch (Exception e) {
+            log.warn("[대기열] 시작 시 스냅샷 복원 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 주기 저장 (매칭 리더만 실행)
+     */
+    @Scheduled(fixedDelayString = "${queue.snapshot.interval-ms:5000}")
+    public void snapshot() {
+        if (!enabled || !leaderElection.isLeader()) {
+            return;
+        }
+        try {
+            saveChanges();
+        } catch (Exception e) {
+            log.warn("[대기열] 스냅샷 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 바뀐 항목만 저장 (Redis 유실을 발견하면 저장 대신 복원)
+     * @return upsert/delete 한 항목 수
+     */
+    int saveChanges() {
+        if (persisted == null) {
+            loadPersisted();
+        }
+
+        long epoch = currentEpoch();
+        if (epoch == persistedEpoch) {
+            return 0;
+        }
+        if (epoch < persistedEpoch && !persisted.isEmpty()) {
+            log.warn("[대기열] Redis 대기열 epoch 감소 ({} → {}) → 유실로 보고 스냅샷에서 복원", persistedEpoch, epoch);
+            restore();
+            return 0;
+        }
+
+        Export export = export();
+        List<Map.Entry<String, SnapshotRow>> upserts = new ArrayList<>();
+        for (Map.Entry<String, SnapshotRow> entry : export.rows().entrySet()) {
+            if (!entry.getValue().equals(persisted.get(entry.getKey()))) {
+                upserts.add(entry);
+            }
+        }
+        List<String> deletes = new ArrayList<>();
+        for (String customerId : persisted.keySet()) {
+            if (!export.rows().containsKey(customerId)) {
+                deletes.add(customerId);
+            }
+        }
+
+        if (!upserts.isEmpty() || !deletes.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (Map.Entry<String, SnapshotRow> entry : upserts) {
+                    SnapshotRow row = entry.getValue();
+                    snapshotRepository.upsert(entry.getKey(), row.arrivedAt(), row.score(), row.queueType().name(),
+                            row.queueTicket(), export.epoch());
+                }
+                if (!deletes.isEmpty()) {
+                    snapshotRepository.deleteAllByIdInBatch(deletes);
+                }
+            });
+            log.debug("[대기열] 스냅샷 저장: epoch {}, 변경 {}건, 삭제 {}건", export.epoch(), upserts.size(), deletes.size());
+        }
+
+        persisted = export.rows();
+        persistedEpoch = export.epoch();
+        return upserts.size() + deletes.size();
+    }
+
+    /**
+     * 스냅샷으로 대기열과 lease 복원
+     * 이미 대기 중인 고객과 lease가 있는 고객은 그대로 두므로 여러 노드가 동시에 실행해도 된다.
+     * 만료된 항목은 스냅샷에서 지우고, 복원 후에는 현재 Redis epoch를 저장 기준으로 삼아
+     * 다음 저장 주기가 같은 스냅샷으로 다시 복원하지 않게 한다.
+     * @return 대기열에 다시 넣은 고객 수
+     */
+    int restore() {
+        List<QueueSnapshotEntry> rows = snapshotRepository.findAll();
+        long now = System.currentTimeMillis();
+        List<QueueEntry> entries = new ArrayList<>();
+        Map<String, String> tickets = new LinkedHashMap<>();
+        Map<String, SnapshotRow> kept = new HashMap<>();
+        List<String> expired = new ArrayList<>();
+        long latestEpoch = 0;
+        for (QueueSnapshotEntry row : rows) {
+            latestEpoch = Math.max(latestEpoch, row.getSnapshotEpoch());
+            if (now - row.getArrivedAt() > QueueService.QUEUE_ENTRY_TIMEOUT_MS) {
+                expired.add(row.getCustomerId());
+                continue;
+            }
+            entries.add(new QueueEntry(row.getCustomerId(), row.getArrivedAt(), row.getScore(), row.getQueueType()));
+            kept.put(row.getCustomerId(), new SnapshotRow(row.getArrivedAt(), row.getScore(), row.getQueueType(),
+                    row.getQueueTicket()));
+            if (row.getQueueTicket() != null) {
+                tickets.put(row.getCustomerId(), row.getQueueTicket());
+            }
+        }
+        if (!expired.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> snapshotRepository.deleteAllByIdInBatch(expired));
+        }
+
+        // 순위 epoch가 이전 값보다 뒤로 가지 않도록 (클라이언트가 가진 epoch 기준, 키가 남아 있어도 작으면 올림)
+        raiseEpoch(latestEpoch);
+
+        int leases = 0;
+        if (entries.isEmpty()) {
+            log.info("[대기열] 복원할 스냅샷 항목 없음 (전체 {}건, 만료 {}건 삭제)", rows.size(), expired.size());
+        } else {
+            // lease 먼저 (lease 없는 고객은 매칭 탐색에서 유령고객으로 제거됨)
+            leases = queueLeaseService.restoreLeases(tickets);
+            entries.sort(Comparator.comparingDouble(QueueEntry::score));
+            queueService.requeueAll(entries);
+
+            log.warn("[대기열] 스냅샷 복원: 대기열 {}명, lease {}건 (스냅샷 {}건, 만료 {}건 삭제, epoch {})",
+                    entries.size(), leases, rows.size(), expired.size(), latestEpoch);
+        }
+
+        // 다음 저장은 남은 스냅샷 항목과 복원 직후의 Redis epoch 기준으로 비교
+        persisted = kept;
+        persistedEpoch = currentEpoch();
+        return entries.size();
+    }
+
+    /**
+     * Redis 순위 epoch를 floor 이상으로 올림 (이미 크면 그대로)
+     * 사이에 다른 노드가 epoch를 올려도 INCRBY라 floor 아래로 내려가지 않는다.
+     */
+    private void raiseEpoch(long floor) {
+        long current = currentEpoch();
+        if (current < floor) {
+            redisTemplate.opsForValue().increment(QueueServiceImpl.RANK_EPOCH_KEY, floor - current);
+        }
+    }
+
+    private long currentEpoch() {
+        String rawEpoch = redisTemplate.opsForValue().get(QueueServiceImpl.RANK_EPOCH_KEY);
+        return rawEpoch != null ? Long.parseLong(rawEpoch) : 0;
+    }
+
+    private void loadPersisted() {
+        Map<String, SnapshotRow> rows = new HashMap<>();
+        long epoch = 0;
+        for (QueueSnapshotEntry row : snapshotRepository.findAll()) {
+            rows.put(row.getCustomerId(), new SnapshotRow(row.getArrivedAt(), row.getScore(), row.getQueueType(),
+                    row.getQueueTicket()));
+            epoch = Math.max(epoch, row.getSnapshotEpoch());
+        }
+        persisted = rows;
+        persistedEpoch = rows.isEmpty() ? -1 : epoch;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Export export() {
+        List<Object> reply = redisTemplate.execute(QUEUE_EXPORT_SCRIPT,
+                List.of(QueueServiceImpl.WAITING_QUEUE_KEY, QueueServiceImpl.ARRIVAL_KEY,
+                        QueueServiceImpl.BLACKLISTED_KEY, QueueServiceImpl.RANK_EPOCH_KEY,
+                        QueueLeaseServiceImpl.OWNER_KEY));
+        if (reply == null || reply.size() < 6) {
+            throw new IllegalStateException("대기열 조회 스크립트 응답 이상: " + reply);
+        }
+
+        List<String> ids = (List<String>) reply.get(1);
+        List<String> scores = (List<String>) reply.get(2);
+        List<String> arrivals = (List<String>) reply.get(3);
+        List<String> types = (List<String>) reply.get(4);
+        List<String> tickets = (List<String>) reply.get(5);
+
+        Map<String, SnapshotRow> rows = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rows.put(ids.get(i), new SnapshotRow(
+                    (long) Double.parseDouble(arrivals.get(i)),
+                    Double.parseDouble(scores.get(i)),
+                    QueueType.valueOf(types.get(i)),
+                    tickets.get(i).isEmpty() ? null : tickets.get(i)));
+        }
+        return new Export((Long) reply.get(0), rows);
+    }
+
+    /**
+     * 저장 단위 (고객 ID 제외)
+     */
+    private record SnapshotRow(long arrivedAt, double score, QueueType queueType, String queueTicket) {}
+
+    private record Export(long epoch, Map<String, SnapshotRow> rows) {}
+}
@@ -0,0 +1,67 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueSizes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 고객/대시보드 폴링용 대기열 조회
+ *
+ * 노드별 읽기 미러(QueueMirror)가 최신이면 메모리에서 바로 응답하고,
+ * 미러가 없거나(queue.store=memory, 미러 비활성) 오래되었거나 미러에 없는 고객이면 QueueService로 조회한다.
+ * 미러에 없는 고객을 Redis에서 다시 확인하므로 방금 등록한 고객이 "대기열에 없음"으로 보이지 않는다.
+ *
+ * 응답의 예상 대기 시간은 WaitTimeEstimator로 채운다.
+ *
+ * 매칭처럼 최신 상태가 필요한 경로는 이 클래스가 아니라 QueueService를 직접 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueStatusReader {
+
+    private final QueueService queueService;
+    private final ObjectProvider<QueueMirror> queueMirror;
+    private final WaitTimeEstimator waitTimeEstimator;
+
+    public Optional<QueueStatusResponse> getStatus(String customerId) {
+        return findStatus(customerId).map(waitTimeEstimator::withEstimate);
+    }
+
+    private Optional<QueueStatusResponse> findStatus(String customerId) {
+        QueueMirror mirror = queueMirror.getIfAvailable();
+        if (mirror != null) {
+            Optional<QueueMirror.MirrorRank> cached = mirror.findRank(customerId);
+            if (cached.isPresent()) {
+                QueueMirror.MirrorRank rank = cached.get();
+                return Optional.of(QueueStatusResponse.of(customerId, rank.rank(), rank.queueType().name(), rank.epoch()));
+            }
+        }
+        return queueService.getStatus(customerId);
+    }
+
+    public Optional<Long> getWaitingRank(String customerId) {
+        QueueMirror mirror = queueMirror.getIfAvailable();
+        if (mirror != null) {
+            Optional<QueueMirror.MirrorRank> cached = mirror.findRank(customerId);
+            if (cached.isPresent()) {
+                return Optional.of(cached.get().rank());
+            }
+        }
+        return queueService.getWaitingRank(customerId);
+    }
+
+    public QueueSizes getQueueSizes() {
+        QueueMirror mirror = queueMirror.getIfAvailable();
+        if (mirror != null) {
+            Optional<QueueSizes> cached = mirror.findSizes();
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        return queueService.getQueueSizes();
+    }
+}
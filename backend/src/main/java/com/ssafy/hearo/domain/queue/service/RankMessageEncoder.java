@@ -0,0 +1,176 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.queue.service.QueueEventPublisher.RankUpdateMessage;
+import com.ssafy.hearo.global.websocket.EncodedJson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 고객별 순위 메시지(RankUpdateMessage) JSON 인코더
+ *
+ * 순위 메시지는 필드 구성이 고정되어 있고 매칭 사이클마다 대기 인원만큼 전송되므로,
+ * Jackson(리플렉션, 중간 버퍼, 문자열 변환) 대신 스레드별 작업 버퍼에 바이트를 직접 쓴다.
+ * 할당은 메시지가 소유할 최종 byte[] 1개뿐이다 (브로커가 비동기로 전송하므로 작업 버퍼를 그대로 넘길 수 없음).
+ *
+ * 출력은 Jackson 기본 설정과 같다 (필드 순서, null 포함, 제어 문자/따옴표/역슬래시 이스케이프, 그 외 UTF-8 그대로).
+ */
+final class RankMessageEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private static final byte[] CUSTOMER_ID = ascii("{\"customerId\":");
+    private static final byte[] RANK = ascii(",\"rank\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] EPOCH = ascii(",\"epoch\":");
+    private static final byte[] TIMESTAMP = ascii(",\"timestamp\":");
+    private static final byte[] ESTIMATED_WAIT_SECONDS = ascii(",\"estimatedWaitSeconds\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] MIN_LONG = ascii(String.valueOf(Long.MIN_VALUE));
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private RankMessageEncoder() {
+    }
+
+    static EncodedJson encode(RankUpdateMessage message) {
+        Buffer buffer = BUFFER.get();
+        buffer.length = 0;
+        buffer.write(CUSTOMER_ID);
+        buffer.writeString(message.customerId());
+        buffer.write(RANK);
+        buffer.writeLong(message.rank());
+        buffer.write(STATUS);
+        buffer.writeString(message.status());
+        buffer.write(EPOCH);
+        buffer.writeLong(message.epoch());
+        buffer.write(TIMESTAMP);
+        buffer.writeLong(message.timestamp());
+        buffer.write(ESTIMATED_WAIT_SECONDS);
+        buffer.writeLong(message.estimatedWaitSeconds());
+        buffer.writeByte('}');
+        return new EncodedJson(Arrays.copyOf(buffer.bytes, buffer.length));
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 스레드별 작업 버퍼 (필요할 때만 늘어남)
+     */
+    private static final class Buffer {
+
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private void writeByte(int b) {
+            ensure(1);
+            bytes[length++] = (byte) b;
+        }
+
+        private void write(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        private void writeLong(Long value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            long v = value;
+            if (v == Long.MIN_VALUE) {
+                write(MIN_LONG);
+                return;
+            }
+            ensure(20);
+            if (v < 0) {
+                bytes[length++] = '-';
+                v = -v;
+            }
+            int start = length;
+            do {
+                bytes[length++] = (byte) ('0' + (v % 10));
+                v /= 10;
+            } while (v != 0);
+            // 뒤집기 (낮은 자리부터 썼으므로)
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = tmp;
+            }
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            // 문자 1개는 최대 6바이트 (\\u00XX)
+            ensure(value.length() * 6 + 2);
+            bytes[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    writeAscii(c);
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | (cp >> 18));
+                    bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // 짝이 없는 surrogate는 UTF-8로 표현할 수 없음
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xE0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            bytes[length++] = '"';
+        }
+
+        private void writeAscii(char c) {
+            switch (c) {
+                case '"' -> escape('"');
+                case '\\' -> escape('\\');
+                case '\b' -> escape('b');
+                case '\t' -> escape('t');
+                case '\n' -> escape('n');
+                case '\f' -> escape('f');
+                case '\r' -> escape('r');
+                default -> {
+                    if (c < 0x20) {
+                        bytes[length++] = '\\';
+                        bytes[length++] = 'u';
+                        bytes[length++] = '0';
+                        bytes[length++] = '0';
+                        bytes[length++] = HEX[c >> 4];
+                        bytes[length++] = HEX[c & 0xF];
+                    } else {
+                        bytes[length++] = (byte) c;
+                    }
+                }
+            }
+        }
+
+        private void escape(char c) {
+            bytes[length++] = '\\';
+            bytes[length++] = (byte) c;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.queue.dto.QueueUpdateMessage;
+import com.ssafy.hearo.domain.queue.service.QueueEventPublisher.RankUpdateMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 순위 관련 메시지를 일정 시간(queue.rank-dispatch.window-ms) 모아서 한 번에 전송
+ *
+ * - 대기열 변경 이벤트: epoch가 이어지는 변경들을 하나의 메시지로 합친다
+ * - 고객별 순위 메시지: 고객마다 가장 최신 순위 하나만 남기고,
+ *   같은 구간에 합쳐 보내는 변경 이벤트의 마지막 epoch 기준으로 순위를 다시 계산해 보낸다
+ *
+ * 고객별 순위 메시지에는 다시 계산한 순위 기준의 예상 대기 시간(WaitTimeEstimator)을 채워 보낸다.
+ * 고객별 순위 메시지는 RankMessageEncoder로 직접 직렬화해 보낸다 (Jackson 변환 생략).
+ *
+ * 매칭 사이클처럼 짧은 시간에 변경이 몰릴 때 같은 고객에게 낡은 순위가 여러 번 가지 않도록 한다.
+ * 전송/생략된 메시지 수는 queue.rank.dispatch.sent / queue.rank.dispatch.suppressed 로 집계된다.
+ *
+ * 매칭 완료 같은 종료 상태도 sendFinal로 이 디스패처를 거쳐 보낸다.
+ * flush 전송 구간과 같은 잠금(sendLock)을 잡으므로, 이미 꺼내 전송 중인 순위 메시지보다 먼저 나가지 않는다.
+ */
+@Component
+@Slf4j
+public class RankUpdateDispatcher {
+
+    private static final String QUEUE_TOPIC = "/topic/queue-updates";
+    private static final String RANK_TOPIC_PREFIX = "/topic/queue-rank/";
+
+    // 늦게 도착한 고객별 순위 메시지를 최신 epoch로 맞추기 위해 보관하는 최근 변경 수
+    private static final int RECENT_SHIFT_LIMIT = 256;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WaitTimeEstimator waitTimeEstimator;
+
+    private final Counter shiftSentCounter;
+    private final Counter shiftSuppressedCounter;
+    private final Counter rankSentCounter;
+    private final Counter rankSuppressedCounter;
+
+    private final Object lock = new Object();
+    // flush 전송과 종료 상태 전송을 직렬화 (항상 sendLock -> lock 순서로 잡는다)
+    private final Object sendLock = new Object();
+    private final TreeMap<Long, QueueUpdateMessage> pendingShifts = new TreeMap<>(); // epoch -> 변경
+    private final Map<String, RankUpdateMessage> pendingRanks = new LinkedHashMap<>(); // customerId -> 최신 순위
+    private final TreeMap<Long, QueueUpdateMessage> recentShifts = new TreeMap<>(); // 전송 완료된 최근 변경
+
+    public RankUpdateDispatcher(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry,
+                                WaitTimeEstimator waitTimeEstimator) {
+        this.messagingTemplate = messagingTemplate;
+        this.waitTimeEstimator = waitTimeEstimator;
+        this.shiftSentCounter = counter(meterRegistry, "queue.rank.dispatch.sent", "shift");
+        this.shiftSuppressedCounter = counter(meterRegistry, "queue.rank.dispatch.suppressed", "shift");
+        this.rankSentCounter = counter(meterRegistry, "queue.rank.dispatch.sent", "rank");
+        this.rankSuppressedCounter = counter(meterRegistry, "queue.rank.dispatch.suppressed", "rank");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String type) {
+        return Counter.builder(name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 대기열 변경 이벤트 등록
+     */
+    public void submitShift(QueueUpdateMessage message) {
+        synchronized (lock) {
+            pendingShifts.put(message.getEpoch(), message);
+        }
+    }
+
+    /**
+     * 고객별 순위 메시지 등록 (같은 고객의 이전 메시지는 대체됨)
+     */
+    public void submitRank(RankUpdateMessage message) {
+        synchronized (lock) {
+            RankUpdateMessage previous = pendingRanks.get(message.customerId());
+            if (previous != null && previous.epoch() > message.epoch()) {
+                // 이미 더 최신 순위가 대기 중
+                rankSuppressedCounter.increment();
+                return;
+            }
+            pendingRanks.put(message.customerId(), message);
+            if (previous != null) {
+                rankSuppressedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * 고객의 대기 중인 순위 메시지 폐기 (매칭 완료 등으로 더 이상 필요 없는 경우)
+     */
+    public void discard(String customerId) {
+        synchronized (lock) {
+            if (pendingRanks.remove(customerId) != null) {
+                rankSuppressedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * 고객에게 종료 상태(MATCHED 등) 전송
+     * 대기 중인 순위 메시지는 폐기하고, 진행 중인 flush가 끝난 뒤에 보내 종료 상태가 항상 마지막 메시지가 된다.
+     */
+    public void sendFinal(String customerId, Object message) {
+        synchronized (sendLock) {
+            discard(customerId);
+            messagingTemplate.convertAndSend(RANK_TOPIC_PREFIX + customerId, message);
+        }
+    }
+
+    /**
+     * 모아둔 메시지 전송
+     * 변경 이벤트를 먼저 보내고 고객별 순위를 보내므로, 순위 메시지는 항상 앞서 보낸 변경 이후 기준이다.
+     */
+    @Scheduled(fixedDelayString = "${queue.rank-dispatch.window-ms:200}")
+    public void flush() {
+        synchronized (sendLock) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        List<QueueUpdateMessage> shifts;
+        List<RankUpdateMessage> ranks;
+        TreeMap<Long, QueueUpdateMessage> knownShifts;
+        synchronized (lock) {
+            if (pendingShifts.isEmpty() && pendingRanks.isEmpty()) {
+                return;
+            }
+            shifts = new ArrayList<>(pendingShifts.values());
+            ranks = new ArrayList<>(pendingRanks.values());
+            pendingShifts.clear();
+            pendingRanks.clear();
+
+            shifts.forEach(shift -> recentShifts.put(shift.getEpoch(), shift));
+            while (recentShifts.size() > RECENT_SHIFT_LIMIT) {
+                recentShifts.pollFirstEntry();
+            }
+            knownShifts = new TreeMap<>(recentShifts);
+        }
+
+        List<QueueUpdateMessage> merged = mergeContiguous(shifts);
+        for (QueueUpdateMessage message : merged) {
+            messagingTemplate.convertAndSend(QUEUE_TOPIC, message);
+        }
+        shiftSentCounter.increment(merged.size());
+        shiftSuppressedCounter.increment(shifts.size() - merged.size());
+
+        double secondsPerRank = waitTimeEstimator.secondsPerRank();
+        for (RankUpdateMessage message : ranks) {
+            messagingTemplate.convertAndSend(RANK_TOPIC_PREFIX + message.customerId(),
+                    RankMessageEncoder.encode(withEstimate(rebase(message, knownShifts), secondsPerRank)));
+        }
+        rankSentCounter.increment(ranks.size());
+
+        log.debug("순위 메시지 전송: 변경 {}건 → {}건, 고객별 순위 {}건", shifts.size(), merged.size(), ranks.size());
+    }
+
+    /**
+     * epoch가 이어지는 변경끼리 합침 (중간에 빠진 epoch가 있으면 거기서 끊는다)
+     */
+    private static List<QueueUpdateMessage> mergeContiguous(List<QueueUpdateMessage> shifts) {
+        List<QueueUpdateMessage> merged = new ArrayList<>();
+        QueueUpdateMessage current = null;
+        for (QueueUpdateMessage shift : shifts) {
+            if (current != null && shift.getFromEpoch() == current.getEpoch() + 1) {
+                current = current.then(shift);
+            } else {
+                if (current != null) {
+                    merged.add(current);
+                }
+                current = shift;
+            }
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged;
+    }
+
+    private static RankUpdateMessage withEstimate(RankUpdateMessage message, double secondsPerRank) {
+        if (message.rank() == null) {
+            return message;
+        }
+        return new RankUpdateMessage(message.customerId(), message.rank(), message.status(), message.epoch(),
+                message.timestamp(), Math.round(message.rank() * secondsPerRank));
+    }
+
+    /**
+     * 순위 메시지를 그 이후에 이어진 변경까지 반영한 순위로 갱신
+     */
+    private static RankUpdateMessage rebase(RankUpdateMessage message, TreeMap<Long, QueueUpdateMessage> knownShifts) {
+        if (message.rank() == null) {
+            return message;
+        }
+        long rank = message.rank();
+        long epoch = message.epoch();
+        QueueUpdateMessage next;
+        while ((next = knownShifts.get(epoch + 1)) != null) {
+            rank = next.shiftRank(rank);
+            epoch = next.getEpoch();
+        }
+        if (epoch == message.epoch()) {
+            return message;
+        }
+        return new RankUpdateMessage(message.customerId(), rank, message.status(), epoch, message.timestamp());
+    }
+}
@@ -0,0 +1,221 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.matching.service.MatchingScheduler.MatchingCompletedEvent;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 예상 대기 시간 추정
+ *
+ * 최근 처리 속도를 지수 감쇠 구간(queue.eta.half-life-ms)으로 유지한다. 값 몇 개만 보관하므로 메모리는 일정하다.
+ * - 매칭 속도: 매칭 완료마다 1씩 더하고 시간에 따라 감쇠시킨 값 ÷ 구간 길이 → 분당 매칭 수
+ * - 평균 상담 시간: 상담 종료 시 Consultation.durationSeconds의 감쇠 가중 평균
+ *
+ * 순위 1칸당 대기 시간(secondsPerRank)은 최근 매칭이 충분하면(MIN_MATCH_WEIGHT) 1 ÷ 매칭 속도,
+ * 아니면 평균 상담 시간(이력이 없으면 queue.eta.default-handle-seconds)이다.
+ * 순위별 예상 대기 시간은 순위 × secondsPerRank로 O(1)에 계산한다.
+ *
+ * 매칭 완료는 매칭 리더에서만, 상담 종료는 요청을 받은 노드에서만 발생하므로 감쇠 집계는 Redis(queue:eta)에 둔다.
+ * 기록할 때 스크립트로 Redis 집계를 갱신하고, 모든 노드가 queue.eta.refresh-interval-ms마다 집계를 다시 읽어
+ * 어느 노드가 응답해도 같은 예상 대기 시간을 낸다. Redis 오류 시에는 이 노드의 값만 갱신한다.
+ */
+@Component
+@Slf4j
+public class WaitTimeEstimator {
+
+    public static final String AGGREGATE_KEY = "queue:eta";
+
+    /**
+     * 감쇠 집계 갱신/조회 스크립트
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> AGGREGATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/wait-time-aggregate.lua"), List.class);
+
+    // 이 값 이상의 (감쇠된) 매칭 수가 있어야 매칭 속도를 사용
+    private static final double MIN_MATCH_WEIGHT = 3.0;
+
+    // null이면 이 노드에서만 집계 (테스트용)
+    private final RedisTemplate<String, String> redisTemplate;
+    private final double tauMs;
+    private final double defaultHandleSeconds;
+    private long startedAt;
+
+    private double matchWeight;
+    private long lastMatchAt;
+    private double handleWeight;
+    private double handleSum;
+    private long lastHandleAt;
+
+    @Autowired
+    public WaitTimeEstimator(RedisTemplate<String, String> redisTemplate,
+                             @Value("${queue.eta.half-life-ms:600000}") long halfLifeMs,
+                             @Value("${queue.eta.default-handle-seconds:300}") double defaultHandleSeconds) {
+        this(redisTemplate, halfLifeMs, defaultHandleSeconds, System.currentTimeMillis());
+    }
+
+    WaitTimeEstimator(long halfLifeMs, double defaultHandleSeconds) {
+        this(null, halfLifeMs, defaultHandleSeconds, System.currentTimeMillis());
+    }
+
+    WaitTimeEstimator(long halfLifeMs, double defaultHandleSeconds, long startedAt) {
+        this(null, halfLifeMs, defaultHandleSeconds, startedAt);
+    }
+
+    private WaitTimeEstimator(RedisTemplate<String, String> redisTemplate, long halfLifeMs,
+                              double defaultHandleSeconds, long startedAt) {
+        if (halfLifeMs <= 0) {
+            throw new IllegalArgumentException("half-life는 0보다 커야 합니다: " + halfLifeMs);
+        }
+        this.redisTemplate = redisTemplate;
+        this.tauMs = halfLifeMs / Math.log(2);
+        this.defaultHandleSeconds = defaultHandleSeconds;
+        this.startedAt = startedAt;
+        this.lastMatchAt = startedAt;
+        this.lastHandleAt = startedAt;
+    }
+
+    @EventListener
+    public void onMatchingCompleted(MatchingCompletedEvent event) {
+        long now = System.currentTimeMillis();
+        if (!updateShared("MATCH", 0, now)) {
+            recordMatch(now);
+        }
+    }
+
+    /**
+     * 상담 종료 시 상담 시간 반영
+     */
+    public void recordHandleTime(Integer durationSeconds) {
+        if (durationSeconds != null && durationSeconds > 0) {
+            long now = System.currentTimeMillis();
+            if (!updateShared("HANDLE", durationSeconds, now)) {
+                recordHandleTime(durationSeconds, now);
+            }
+        }
+    }
+
+    /**
+     * 다른 노드가 기록한 매칭/상담 시간을 반영하도록 Redis 집계를 다시 읽음
+     */
+    @Scheduled(fixedDelayString = "${queue.eta.refresh-interval-ms:1000}")
+    public void refresh() {
+        updateShared("READ", 0, System.currentTimeMillis());
+    }
+
+    /**
+     * 순위의 예상 대기 시간 (초)
+     */
+    public long estimateWaitSeconds(long rank) {
+        return Math.round(rank * secondsPerRank());
+    }
+
+    /**
+     * 순위 1칸당 예상 대기 시간 (초)
+     */
+    public double secondsPerRank() {
+        return snapshot(System.currentTimeMillis()).secondsPerRank();
+    }
+
+    /**
+     * 대기 순위에 예상 대기 시간을 채운 응답
+     */
+    public QueueStatusResponse withEstimate(QueueStatusResponse status) {
+        if (status.getWaitingRank() == null) {
+            return status;
+        }
+        return status.withEstimatedWaitSeconds(estimateWaitSeconds(status.getWaitingRank()));
+    }
+
+    /**
+     * 현재 처리 속도 (인력 배치 판단 등에 같은 값을 사용)
+     */
+    public Estimate getEstimate() {
+        return snapshot(System.currentTimeMillis());
+    }
+
+    synchronized void recordMatch(long now) {
+        matchWeight = decay(matchWeight, lastMatchAt, now) + 1;
+        lastMatchAt = Math.max(lastMatchAt, now);
+    }
+
+    synchronized void recordHandleTime(double seconds, long now) {
+        handleWeight = decay(handleWeight, lastHandleAt, now) + 1;
+        handleSum = decay(handleSum, lastHandleAt, now) + seconds;
+        lastHandleAt = Math.max(lastHandleAt, now);
+    }
+
+    /**
+     * Redis 집계(스크립트 응답)로 교체
+     * @param values { matchWeight, lastMatchAt, handleWeight, handleSum, lastHandleAt, startedAt }
+     */
+    synchronized void load(List<?> values) {
+        matchWeight = Double.parseDouble(values.get(0).toString());
+        handleWeight = Double.parseDouble(values.get(2).toString());
+        handleSum = Double.parseDouble(values.get(3).toString());
+        long sharedStartedAt = (long) Double.parseDouble(values.get(5).toString());
+        if (sharedStartedAt > 0) {
+            startedAt = sharedStartedAt;
+        }
+        lastMatchAt = Math.max((long) Double.parseDouble(values.get(1).toString()), startedAt);
+        lastHandleAt = Math.max((long) Double.parseDouble(values.get(4).toString()), startedAt);
+    }
+
+    synchronized Estimate snapshot(long now) {
+        double weight = decay(matchWeight, lastMatchAt, now);
+        // 시작 직후에는 구간이 덜 찼으므로 지난 시간만큼만 나눔
+        double windowMs = tauMs * -Math.expm1(-Math.max(now - startedAt, 1) / tauMs);
+        double matchesPerMinute = weight / windowMs * 60_000;
+
+        double avgHandleSeconds = handleWeight > 0 ? handleSum / handleWeight : defaultHandleSeconds;
+        double secondsPerRank = weight >= MIN_MATCH_WEIGHT
+                ? 60.0 / matchesPerMinute
+                : avgHandleSeconds;
+        return new Estimate(matchesPerMinute, avgHandleSeconds, secondsPerRank);
+    }
+
+    /**
+     * Redis 집계를 갱신(또는 조회)하고 이 노드의 값을 그 결과로 교체
+     * @return Redis에 반영했으면 true (false면 호출 측이 이 노드 값만 갱신)
+     */
+    private boolean updateShared(String op, double seconds, long now) {
+        if (redisTemplate == null) {
+            return false;
+        }
+        try {
+            List<?> reply = redisTemplate.execute(AGGREGATE_SCRIPT, List.of(AGGREGATE_KEY),
+                    op, String.valueOf(now), String.valueOf(tauMs), String.valueOf(seconds));
+            if (reply == null || reply.size() < 6) {
+                log.warn("[대기열] 예상 대기 시간 집계 응답 이상: {}", reply);
+                return false;
+            }
+            load(reply);
+            return true;
+        } catch (Exception e) {
+            log.warn("[대기열] 예상 대기 시간 집계 {} 실패 (이 노드 값만 사용): {}", op, e.getMessage());
+            return false;
+        }
+    }
+
+    private double decay(double value, long since, long now) {
+        return now > since ? value * Math.exp(-(now - since) / tauMs) : value;
+    }
+
+    /**
+     * 처리 속도 추정값
+     * @param matchesPerMinute 최근 분당 매칭 수
+     * @param avgHandleSeconds 최근 평균 상담 시간 (초)
+     * @param secondsPerRank 순위 1칸당 예상 대기 시간 (초)
+     */
+    public record Estimate(double matchesPerMinute, double avgHandleSeconds, double secondsPerRank) {}
+}
@@ -1,6 +1,7 @@
 package com.ssafy.hearo.domain.queue.websocket;
 
 import com.ssafy.hearo.domain.queue.service.QueueService;
+import com.ssafy.hearo.domain.queue.service.QueueStatusReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -19,10 +20,10 @@ import java.util.Map;
 @Slf4j
 public class QueueWebSocketHandler {
 
-    private final QueueService queueService;
+    private final QueueStatusReader queueStatusReader;
 
     /**
-     * 클라이언트 순위 조회 요청 처리
+     * 클라이언트 순위 조회 요청 처리 (노드별 읽기 미러 우선)
      * 클라이언트 전송: /app/queue/rank
      * 응답: /user/queue/rank (요청한 사용자에게만 전송)
      */
@@ -47,7 +48,7 @@ public class QueueWebSocketHandler {
             );
         }
 
-        return queueService.getWaitingRank(customerId)
+        return queueStatusReader.getWaitingRank(customerId)
             .map(rank -> {
                 log.debug("순위 조회 요청: customerId={}, rank={}", customerId, rank);
                 return Map.<String, Object>of(
@@ -73,7 +74,7 @@ public class QueueWebSocketHandler {
     @MessageMapping("/queue/status")
     @SendTo("/topic/queue-updates")
     public Map<String, Object> handleStatusRequest() {
-        QueueService.QueueSizes sizes = queueService.getQueueSizes();
+        QueueService.QueueSizes sizes = queueStatusReader.getQueueSizes();
         return Map.of(
             "normalQueueSize", sizes.normalQueueSize(),
             "blacklistQueueSize", sizes.blacklistQueueSize(),
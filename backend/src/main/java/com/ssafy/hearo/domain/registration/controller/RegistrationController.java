@@ -1,10 +1,9 @@
 package com.ssafy.hearo.domain.registration.controller;
 
-import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.service.QueueAdmissionService;
+import com.ssafy.hearo.domain.queue.service.QueueAdmissionService.Admission;
 import com.ssafy.hearo.domain.registration.dto.RegistrationRequest;
 import com.ssafy.hearo.domain.registration.dto.RegistrationResponse;
-import com.ssafy.hearo.domain.queue.service.QueueLeaseService;
-import com.ssafy.hearo.domain.queue.service.QueueService;
 import com.ssafy.hearo.domain.registration.dto.RegistrationDetailResponse;
 import com.ssafy.hearo.domain.registration.service.RegistrationService;
 import com.ssafy.hearo.global.common.response.BaseResponse; // BaseResponse 임포트!
@@ -23,13 +22,13 @@ import org.springframework.web.bind.annotation.*;
 public class RegistrationController {
 
     private final RegistrationService registrationService;
-    private final QueueService queueService;
-    private final QueueLeaseService queueLeaseService;
+    private final QueueAdmissionService queueAdmissionService;
     private final MockUserIdExtractor userIdExtractor;
 
     /**
      * 상담 접수 등록 및 대기열 진입
      * queueTicket 발급하여 heartbeat 기반 유령 회원 제거 지원
+     * 예상 대기 시간이 기준을 넘으면 콜백 대기(queueType=HOLD, queueTicket 없음)로 접수된다.
      */
     @PostMapping
     public ResponseEntity<BaseResponse<RegistrationResponse>> createRegistration(
@@ -51,14 +50,11 @@ public class RegistrationController {
             log.error("접수 저장 중 예외 발생", e);
         }
 
-        QueueStatusResponse queueStatus = queueService.enqueue(customerIdStr);
-
-        // lease 생성 (heartbeat용 queueTicket 발급)
-        String queueTicket = queueLeaseService.createLease(customerIdStr);
-        log.info("Lease 발급: customerId={}, ticket={}", customerIdStr, queueTicket);
+        // 대기열 진입 (lease 발급 + 매칭 요청, 과부하 시 콜백 대기)
+        Admission admission = queueAdmissionService.admit(customerIdStr);
 
         return ResponseEntity.ok(BaseResponse.success(
-                RegistrationResponse.of(registrationId, queueStatus, queueTicket)));
+                RegistrationResponse.of(registrationId, admission.status(), admission.queueTicket())));
     }
 
     /**
@@ -4,6 +4,8 @@ import com.ssafy.hearo.domain.registration.entity.Registration;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RegistrationRepository extends JpaRepository<Registration, Integer> {
@@ -31,4 +33,21 @@ public interface RegistrationRepository extends JpaRepository<Registration, Inte
            limit 1
            """)
     Optional<Registration> findLatestByCustomerIdWithProduct(Integer customerId);
-}
\ No newline at end of file
+
+    /**
+     * 여러 고객의 최신 접수 상품 카테고리 조회 (매칭 파티션 분류용, 접수가 없는 고객은 결과에 없음)
+     */
+    @Query("""
+           select r.customer.id as customerId, p.category as category
+           from Registration r
+           join r.product p
+           where r.customer.id in :customerIds
+             and r.createdAt = (select max(r2.createdAt) from Registration r2 where r2.customer.id = r.customer.id)
+           """)
+    List<CustomerCategory> findLatestCategories(Collection<Integer> customerIds);
+
+    interface CustomerCategory {
+        Integer getCustomerId();
+        String getCategory();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ssafy.hearo.domain.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 하트비트 만료 처리
+ *
+ * 일정 주기(heartbeat.reaper.interval-ms)마다 만료된 상담원을 한꺼번에 꺼내
+ * 비가용 처리 + REST 상태 전환을 한다.
+ * 꺼내기는 Lua 스크립트로 원자적으로 수행하므로 여러 인스턴스에서 동시에 돌아도 상담원마다 한 번만 처리된다.
+ * 매칭은 처리 주기와 무관하게 마지막 하트비트 시각으로 활성 여부를 판단하므로, 처리가 늦어도 만료된 상담원이 매칭되지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HeartbeatReaper {
+
+    private final HeartbeatService heartbeatService;
+    private final UserStateService userStateService;
+
+    // 한 번에 꺼내는 최대 상담원 수
+    @Value("${heartbeat.reaper.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${heartbeat.reaper.interval-ms:5000}")
+    public void reapExpiredHeartbeats() {
+        Set<Long> expired;
+        do {
+            expired = heartbeatService.reapExpiredHeartbeats(batchSize);
+            expired.forEach(this::handleExpired);
+        } while (expired.size() >= batchSize);
+    }
+
+    private void handleExpired(Long userId) {
+        try {
+            // 꺼낸 직후 하트비트가 다시 들어왔으면 만료로 보지 않음
+            if (heartbeatService.isHeartbeatActive(userId)) {
+                log.info("[하트비트] 상담원 {} 만료 직후 하트비트 재수신 → 만료 처리 생략", userId);
+                return;
+            }
+
+            log.warn("[하트비트] ⚠ 상담원 {} 하트비트 만료! (30초간 갱신 없음)", userId);
+
+            // 1. 하트비트 비활성화 + 비가용 전환
+            heartbeatService.setHeartbeat(userId, false);
+
+            // 2. 사용자 상태를 REST로 변경하고 에너지 히스토리 저장
+            log.info("[하트비트] 상담원 {} → REST 상태로 전환", userId);
+            userStateService.switchToRestOnHeartbeatTimeout(userId);
+
+        } catch (Exception e) {
+            log.error("[하트비트] 만료 처리 중 오류: 상담원 {}", userId, e);
+        }
+    }
+}
@@ -26,4 +26,13 @@ public interface HeartbeatService {
      * @return set of counselor IDs
      */
     Set<Long> getActiveHeartbeatCounselorIds();
+
+    /**
+     * Remove counselors whose heartbeat has expired and return their IDs.
+     * Each expired counselor is returned to exactly one caller, even across instances.
+     *
+     * @param limit maximum number of counselors to remove in one call
+     * @return set of removed counselor IDs
+     */
+    Set<Long> reapExpiredHeartbeats(int limit);
 }
@@ -1,52 +1,77 @@
 package com.ssafy.hearo.domain.user.service;
 
 import com.ssafy.hearo.domain.matching.service.CounselorAvailabilityService;
-import lombok.RequiredArgsConstructor;
+import com.ssafy.hearo.domain.matching.service.MatchingTrigger.MatchingRequestedEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * 상담원 하트비트 관리
+ *
+ * 하트비트는 ZSET(heartbeat:counselors) 하나에 상담원 ID → 마지막 하트비트 시각(ms)으로 보관한다.
+ * - 활성 여부: 마지막 하트비트가 HEARTBEAT_TTL_SECONDS 이내인지로 판단 (만료 처리 전이라도 바로 비활성으로 본다)
+ * - 활성 상담원 조회: ZRANGEBYSCORE 한 번 (키 전체를 훑지 않음)
+ * - 만료 처리: HeartbeatReaper가 주기적으로 만료된 상담원을 한꺼번에 꺼내 처리
+ */
 @Slf4j
 @Service
 public class HeartbeatServiceImpl implements HeartbeatService {
 
-    private static final String HEARTBEAT_KEY_PREFIX = "heartbeat:counselor:";
-    private static final String HEARTBEAT_KEY_PATTERN = "heartbeat:counselor:*";
+    public static final String HEARTBEAT_KEY = "heartbeat:counselors";
     private static final long HEARTBEAT_TTL_SECONDS = 30;
-    private static final String HEARTBEAT_VALUE = "active";
+    private static final long HEARTBEAT_TTL_MS = HEARTBEAT_TTL_SECONDS * 1000;
+
+    /**
+     * 만료된 하트비트 조회 + 제거를 원자적으로 수행하는 스크립트
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REAP_HEARTBEATS_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/reap-heartbeats.lua"), List.class);
 
     private final RedisTemplate<String, String> redisTemplate;
     private final CounselorAvailabilityService counselorAvailabilityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public HeartbeatServiceImpl(
             RedisTemplate<String, String> redisTemplate,
-            @Lazy CounselorAvailabilityService counselorAvailabilityService
+            @Lazy CounselorAvailabilityService counselorAvailabilityService,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.redisTemplate = redisTemplate;
         this.counselorAvailabilityService = counselorAvailabilityService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public void setHeartbeat(Long userId, boolean isActive) {
-        String key = HEARTBEAT_KEY_PREFIX + userId;
         boolean currentlyAvailable = counselorAvailabilityService.isAvailable(userId);
 
         if (isActive) {
-            // Set heartbeat with TTL
-            redisTemplate.opsForValue().set(key, HEARTBEAT_VALUE, HEARTBEAT_TTL_SECONDS, TimeUnit.SECONDS);
+            boolean wasActive = isHeartbeatActive(userId);
+            // 마지막 하트비트 시각 갱신
+            redisTemplate.opsForZSet().add(HEARTBEAT_KEY, userId.toString(), System.currentTimeMillis());
             // 상담 가능 버튼 클릭 시 가용 상태로 전환
             log.info("[하트비트] 상담원 {} 하트비트 갱신 (TTL: {}초) | 현재 가용: {} → setAvailable 호출",
                     userId, HEARTBEAT_TTL_SECONDS, currentlyAvailable);
             counselorAvailabilityService.setAvailable(userId);
+
+            // 하트비트가 새로 켜진 경우 매칭 가능 상담원이 생겼을 수 있으므로 매칭 요청
+            if (!wasActive) {
+                eventPublisher.publishEvent(new MatchingRequestedEvent("heartbeat:" + userId));
+            }
         } else {
             // Remove heartbeat
-            redisTemplate.delete(key);
+            redisTemplate.opsForZSet().remove(HEARTBEAT_KEY, userId.toString());
             // 상담 불가능 상태로 전환
             log.info("[하트비트] 상담원 {} 하트비트 비활성화 | 현재 가용: {} → setUnavailable 호출",
                     userId, currentlyAvailable);
@@ -56,24 +81,44 @@ public class HeartbeatServiceImpl implements HeartbeatService {
 
     @Override
     public boolean isHeartbeatActive(Long userId) {
-        String key = HEARTBEAT_KEY_PREFIX + userId;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        Double lastSeen = redisTemplate.opsForZSet().score(HEARTBEAT_KEY, userId.toString());
+        return lastSeen != null && lastSeen > expiryCutoff();
     }
 
     @Override
     public Set<Long> getActiveHeartbeatCounselorIds() {
-        // Use KEYS command to find all heartbeat keys
-        // Note: In production with large datasets, consider using SCAN instead
-        Set<String> keys = redisTemplate.keys(HEARTBEAT_KEY_PATTERN);
+        // 마지막 하트비트가 TTL 이내인 상담원만 조회 (만료 처리 전인 상담원은 제외)
+        Set<String> members = redisTemplate.opsForZSet()
+                .rangeByScore(HEARTBEAT_KEY, Math.nextUp((double) expiryCutoff()), Double.POSITIVE_INFINITY);
 
-        if (keys == null || keys.isEmpty()) {
+        if (members == null || members.isEmpty()) {
             return Collections.emptySet();
         }
 
-        // Extract user IDs from keys
-        return keys.stream()
-                .map(key -> key.substring(HEARTBEAT_KEY_PREFIX.length()))
+        return members.stream()
                 .map(Long::parseLong)
                 .collect(Collectors.toSet());
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Long> reapExpiredHeartbeats(int limit) {
+        List<String> expired = redisTemplate.execute(REAP_HEARTBEATS_SCRIPT,
+                List.of(HEARTBEAT_KEY), String.valueOf(expiryCutoff()), String.valueOf(limit));
+
+        if (expired == null || expired.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return expired.stream()
+                .map(Long::parseLong)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 이 시각 이하로 갱신이 없으면 만료 (ms, 하트비트를 직접 확인하는 스크립트 인자로도 사용)
+     */
+    public static long expiryCutoff() {
+        return System.currentTimeMillis() - HEARTBEAT_TTL_MS;
+    }
 }
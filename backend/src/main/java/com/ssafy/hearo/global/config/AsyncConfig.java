@@ -1,7 +1,15 @@
 package com.ssafy.hearo.global.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
 
 /**
  * 스프링에서 비동기 처리 기능을 활성화함
@@ -12,5 +20,45 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @Configuration // 스프링 서버가 뜰 때 이 클래스를 설정 정보로 읽어들이겠다는 선언
 @EnableAsync // 이 파일의 핵심 ! 스프링의 비동기 실행 기능을 켬 .
 // 이 애노테이션이 있어야 나중에 service method 위에 @Async를 붙였을 때 그 로직이 별도의 스레드에서 돌아감
-public class AsyncConfig {
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${async.pool-size:8}")
+    private int poolSize;
+
+    @Value("${async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${queue.stream.pool-size:4}")
+    private int ssePoolSize;
+
+    @Value("${queue.stream.queue-capacity:10000}")
+    private int sseQueueCapacity;
+
+    /**
+     * @Async 실행기 (대기열 크기 제한, 가득 차면 호출한 스레드가 직접 실행)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor asyncExecutor() {
+        return BoundedExecutors.create("async", poolSize, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * SSE 스트림(Flux) 이벤트 쓰기 전용 실행기 (@Async 작업과 분리, 가득 차면 거부)
+     *
+     * 연결마다 쓰기 작업은 최대 1개만 대기하므로 대기열 크기 = 쓰기가 밀린 연결 수 상한.
+     * 넘치면 그 연결의 구독을 취소해 내보낸다 (응답은 비동기 제한 시간에 닫힘, 제출한 스레드에서 쓰지 않음).
+     */
+    @Bean
+    public ThreadPoolTaskExecutor sseExecutor() {
+        return BoundedExecutors.create("sse", ssePoolSize, sseQueueCapacity,
+                BoundedExecutors.Overflow.REJECT, meterRegistry);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
 }
@@ -0,0 +1,88 @@
+package com.ssafy.hearo.global.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 크기가 정해진 작업 대기열을 가진 스레드 풀 생성
+ *
+ * 기본 실행기(대기열 무제한) 대신 사용해, 느린 소비자가 있어도 대기 작업이 메모리를 무한히 차지하지 않게 한다.
+ * 대기열이 가득 찼을 때 (Overflow):
+ * - CALLER_RUNS: 작업을 버리지 않고 제출한 스레드가 직접 실행한다 (제출 측 속도가 자연스럽게 늦춰짐)
+ * - REJECT: RejectedExecutionException을 던진다 (제출 측이 버리거나 연결을 끊음, 제출한 스레드는 막히지 않음)
+ *
+ * 측정값 (tag name = 실행기 이름):
+ * - executor.bounded.queued: 대기 중인 작업 수
+ * - executor.bounded.active: 실행 중인 스레드 수
+ * - executor.bounded.rejected: 대기열이 가득 차 제출한 스레드가 직접 실행했거나 거부한 횟수
+ */
+@Slf4j
+public final class BoundedExecutors {
+
+    /**
+     * 대기열이 가득 찼을 때 처리 방식
+     */
+    public enum Overflow {
+        CALLER_RUNS,
+        REJECT
+    }
+
+    private BoundedExecutors() {
+    }
+
+    /**
+     * 대기열이 가득 차면 제출한 스레드가 직접 실행하는 실행기
+     *
+     * @see #create(String, int, int, Overflow, MeterRegistry)
+     */
+    public static ThreadPoolTaskExecutor create(String name, int poolSize, int queueCapacity,
+                                                MeterRegistry meterRegistry) {
+        return create(name, poolSize, queueCapacity, Overflow.CALLER_RUNS, meterRegistry);
+    }
+
+    /**
+     * @param name 실행기 이름 (스레드 이름 접두사, 측정값 tag)
+     * @param poolSize 스레드 수 (고정)
+     * @param queueCapacity 대기열 크기
+     * @param overflow 대기열이 가득 찼을 때 처리 방식
+     * @return 초기화 전 실행기 (빈으로 등록하거나 initialize() 호출 필요)
+     */
+    public static ThreadPoolTaskExecutor create(String name, int poolSize, int queueCapacity,
+                                                Overflow overflow, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+
+        Counter rejected = Counter.builder("executor.bounded.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            if (pool.isShutdown()) {
+                log.warn("[실행기] {} 종료 중 작업 제출 → 버림", name);
+                return;
+            }
+            if (overflow == Overflow.REJECT) {
+                throw new RejectedExecutionException(name + " 실행기 대기열 가득 참 (" + queueCapacity + ")");
+            }
+            task.run();
+        });
+
+        Gauge.builder("executor.bounded.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("executor.bounded.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("name", name)
+                .register(meterRegistry);
+        return executor;
+    }
+}
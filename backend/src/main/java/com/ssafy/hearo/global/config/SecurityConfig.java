@@ -67,6 +67,8 @@ public class SecurityConfig {
                     .requestMatchers("/api/v1/queue/cancel").permitAll()
                     .requestMatchers("/api/v1/queue/stats").permitAll()
                     .requestMatchers("/api/v1/queue/heartbeat").permitAll()
+                    // SSE 스트림은 컨트롤러에서 queueTicket(또는 JWT)으로 고객 확인
+                    .requestMatchers("/api/v1/queue/stream").permitAll()
                     // Calls endpoint
                     .requestMatchers("/api/v1/calls/**").permitAll()
                     // Product endpoints (for customers - public access)
@@ -74,8 +76,10 @@ public class SecurityConfig {
                     // Consultation rating endpoints (for customers - public access)
                     .requestMatchers("/api/v1/consultations/*/rating").permitAll()
                     .requestMatchers("/api/v1/consultations/latest").permitAll()
-                    // Actuator endpoints
-                    .requestMatchers("/actuator/**").permitAll()
+                    // Actuator endpoints - health는 로드밸런서/컨테이너 헬스체크용으로 공개
+                    .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                    // metrics(대기열/매칭 지표), matchingleader(노드 이름/fencing token)는 관리자만
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     // Swagger UI
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                     // User endpoints require authentication
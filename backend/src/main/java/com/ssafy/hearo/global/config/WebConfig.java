@@ -1,12 +1,29 @@
 package com.ssafy.hearo.global.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ThreadPoolTaskExecutor sseExecutor;
+
+    public WebConfig(@Qualifier("sseExecutor") ThreadPoolTaskExecutor sseExecutor) {
+        this.sseExecutor = sseExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // SSE 스트림(Flux) 이벤트 쓰기용 실행기
+        // WebSocket 실행기 빈 때문에 Boot 기본 실행기가 없으면 전송마다 새 스레드를 만들므로 명시적으로 지정
+        // 가득 차면 거부 → 해당 연결만 구독 취소 (느린 연결의 쓰기가 이벤트를 보낸 스레드로 넘어오지 않음)
+        configurer.setTaskExecutor(sseExecutor);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**") // 모든 경로에 대해
@@ -0,0 +1,48 @@
+package com.ssafy.hearo.global.config;
+
+import com.ssafy.hearo.global.websocket.ConflatingWebSocketSessionDecorator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP 브로커 설정 (@EnableWebSocketMessageBroker 대신 직접 등록)
+ *
+ * 세부 설정은 WebSocketConfig(WebSocketMessageBrokerConfigurer)에서 하고,
+ * 여기서는 세션 전송 버퍼만 순위 메시지를 합치는 ConflatingWebSocketSessionDecorator로 바꾼다.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final Counter conflatedCounter;
+
+    public WebSocketBrokerConfig(MeterRegistry meterRegistry) {
+        this.conflatedCounter = meterRegistry.counter("websocket.session.conflated");
+    }
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+
+        SubProtocolWebSocketHandler handler = new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                // 전송 한도는 WebSocketConfig.configureWebSocketTransport 값이 적용됨
+                return new ConflatingWebSocketSessionDecorator(
+                        session, getSendTimeLimit(), getSendBufferSizeLimit(), conflatedCounter);
+            }
+        };
+        handler.setPhase(getPhase());
+        // decorator factory(SessionEvictionMonitor)는 기본 구현처럼 stompWebSocketHandlerMapping에서 적용됨
+        return handler;
+    }
+}
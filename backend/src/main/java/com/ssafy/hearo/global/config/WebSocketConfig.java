@@ -1,19 +1,48 @@
 package com.ssafy.hearo.global.config;
 
 import com.ssafy.hearo.domain.queue.websocket.QueueHandshakeInterceptor;
+import com.ssafy.hearo.global.websocket.EncodedJsonMessageConverter;
+import com.ssafy.hearo.global.websocket.SessionEvictionMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
-@Configuration
-@EnableWebSocketMessageBroker
+import java.util.List;
+
+@Configuration // 브로커 등록은 WebSocketBrokerConfig
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final QueueHandshakeInterceptor handshakeInterceptor;
+    private final MeterRegistry meterRegistry;
+
+    // 클라이언트 → 서버 메시지 처리 스레드 풀
+    @Value("${websocket.inbound.pool-size:8}")
+    private int inboundPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    // 서버 → 클라이언트 전송 스레드 풀 (순위 메시지 폭주 시 대기열이 커지는 쪽)
+    @Value("${websocket.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // 세션별 전송 한도 (넘으면 세션 종료)
+    @Value("${websocket.session.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.session.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -23,6 +52,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setApplicationDestinationPrefixes("/app");
         // 개인 메시지 prefix (기본값이지만 명시적으로 설정)
         config.setUserDestinationPrefix("/user");
+        // ws-outbound 스레드가 여러 개라도 같은 세션에는 발행 순서대로 전송 (순위 메시지 뒤 MATCHED 보장)
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // 미리 직렬화한 JSON(EncodedJson)은 Jackson 변환 없이 전송 (나머지는 기본 변환기 사용)
+        // Jackson은 모든 타입을 변환하므로 Boot가 먼저 넣은 Jackson 변환기보다 앞에 둔다
+        messageConverters.add(0, new EncodedJsonMessageConverter());
+        return true;
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(BoundedExecutors.create(
+                "ws-inbound", inboundPoolSize, inboundQueueCapacity, meterRegistry));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(BoundedExecutors.create(
+                "ws-outbound", outboundPoolSize, outboundQueueCapacity, meterRegistry));
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 느린 클라이언트(모바일 SockJS 등)는 전송이 이 시간/버퍼를 넘게 밀리면 끊는다 (websocket.session.evicted)
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(new SessionEvictionMonitor(meterRegistry));
     }
 
     @Override
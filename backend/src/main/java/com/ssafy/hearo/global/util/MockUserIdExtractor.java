@@ -7,6 +7,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * HTTP 요청에서 사용자 ID를 추출하는 유틸리티
@@ -24,11 +25,9 @@ public class MockUserIdExtractor {
      */
     public String extract(HttpServletRequest request) {
         // 1. Try SecurityContext first (JWT authenticated user)
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated()
-                && !(auth instanceof AnonymousAuthenticationToken)) {
-            // SecurityContext의 principal name은 userId
-            return auth.getName();
+        Optional<String> authenticated = extractAuthenticated();
+        if (authenticated.isPresent()) {
+            return authenticated.get();
         }
 
         // 2. Fallback to X-User-ID header (backward compatibility)
@@ -41,6 +40,20 @@ public class MockUserIdExtractor {
         return DEFAULT_USER_ID;
     }
 
+    /**
+     * JWT 인증된 사용자 ID만 추출 (X-User-ID 헤더는 누구나 보낼 수 있으므로 제외)
+     * 본인에게만 돌려줘야 하는 값(queueTicket 등)을 응답할 때 사용
+     */
+    public Optional<String> extractAuthenticated() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated()
+                && !(auth instanceof AnonymousAuthenticationToken)) {
+            // SecurityContext의 principal name은 userId
+            return Optional.of(auth.getName());
+        }
+        return Optional.empty();
+    }
+
     /**
      * WebSocket 세션 속성에서 사용자 ID 추출
      */
@@ -0,0 +1,271 @@
+package com.ssafy.hearo.global.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 순위 메시지를 합치는 WebSocket 세션 전송 버퍼 (ConcurrentWebSocketSessionDecorator 대체)
+ *
+ * 전송 동시성 처리와 세션 한도(send-time-limit, send-buffer-size-limit 초과 시 SESSION_NOT_RELIABLE 종료)는
+ * ConcurrentWebSocketSessionDecorator와 같다. 차이는 버퍼에 아직 전송되지 않은 순위 프레임
+ * (/topic/queue-rank/{customerId}, status WAITING)이 있으면 새 순위 프레임이 그 자리를 덮어쓴다는 점이다.
+ * 느린 세션이라도 구독마다 대기 중인 순위 프레임은 최대 1개 (websocket.session.conflated로 집계).
+ *
+ * MATCHED, ADMITTED, REMOVED 등 다른 상태 프레임은 합치지 않고 순서대로 전송하며,
+ * 그 뒤에 온 순위 프레임은 앞선 순위 프레임을 덮어쓰지 않는다 (같은 구독 안의 순서 유지).
+ */
+public class ConflatingWebSocketSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final String MESSAGE_FRAME = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "\ndestination:";
+    private static final String SUBSCRIPTION_HEADER = "\nsubscription:";
+    private static final String RANK_DESTINATION_HEADER = DESTINATION_HEADER + "/topic/queue-rank/";
+    private static final String CONFLATABLE_STATUS = "\"status\":\"WAITING\"";
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final Counter conflatedCounter;
+
+    // buffer, pending, bufferSize는 buffer 락으로 보호
+    private final ArrayDeque<Entry> buffer = new ArrayDeque<>();
+    private final Map<String, Entry> pending = new HashMap<>();
+    private int bufferSize;
+
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+    private volatile boolean closeInProgress;
+
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock closeLock = new ReentrantLock();
+
+    /**
+     * @param sendTimeLimit 전송 1건이 이 시간(ms)을 넘기면 세션 종료
+     * @param bufferSizeLimit 전송 대기 버퍼가 이 크기(byte)를 넘으면 세션 종료
+     * @param conflatedCounter 덮어쓴 순위 프레임 수
+     */
+    public ConflatingWebSocketSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                               Counter conflatedCounter) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.conflatedCounter = conflatedCounter;
+    }
+
+    public int getBufferSize() {
+        synchronized (buffer) {
+            return bufferSize;
+        }
+    }
+
+    public long getTimeSinceSendStarted() {
+        long start = sendStartTime;
+        return start > 0 ? System.currentTimeMillis() - start : 0;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (shouldNotSend()) {
+            return;
+        }
+
+        enqueue(message);
+
+        do {
+            if (!tryFlushBuffer()) {
+                checkSessionLimits();
+                break;
+            }
+        } while (hasBufferedMessages() && !shouldNotSend());
+    }
+
+    private void enqueue(WebSocketMessage<?> message) {
+        String key = subscriptionKey(message);
+        boolean conflatable = key != null && isConflatable((TextMessage) message);
+
+        synchronized (buffer) {
+            bufferSize += message.getPayloadLength();
+            if (!conflatable) {
+                if (key != null) {
+                    // 순위 외 프레임 뒤의 순위 프레임은 새 자리에 쌓는다
+                    pending.remove(key);
+                }
+                buffer.add(new Entry(message, null));
+                return;
+            }
+
+            Entry entry = pending.get(key);
+            if (entry != null) {
+                bufferSize -= entry.message.getPayloadLength();
+                entry.message = message;
+                conflatedCounter.increment();
+                return;
+            }
+            entry = new Entry(message, key);
+            buffer.add(entry);
+            pending.put(key, entry);
+        }
+    }
+
+    private WebSocketMessage<?> poll() {
+        synchronized (buffer) {
+            Entry entry = buffer.poll();
+            if (entry == null) {
+                return null;
+            }
+            if (entry.key != null && pending.get(entry.key) == entry) {
+                pending.remove(entry.key);
+            }
+            bufferSize -= entry.message.getPayloadLength();
+            return entry.message;
+        }
+    }
+
+    private boolean hasBufferedMessages() {
+        synchronized (buffer) {
+            return !buffer.isEmpty();
+        }
+    }
+
+    private boolean shouldNotSend() {
+        return limitExceeded || closeInProgress;
+    }
+
+    private boolean tryFlushBuffer() throws IOException {
+        if (!flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            while (!shouldNotSend()) {
+                WebSocketMessage<?> message = poll();
+                if (message == null) {
+                    break;
+                }
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(message);
+                sendStartTime = 0;
+            }
+        } finally {
+            sendStartTime = 0;
+            flushLock.unlock();
+        }
+        return true;
+    }
+
+    private void checkSessionLimits() {
+        if (shouldNotSend() || !closeLock.tryLock()) {
+            return;
+        }
+        try {
+            long sendTime = getTimeSinceSendStarted();
+            if (sendTime > sendTimeLimit) {
+                limitExceeded(String.format("Send time %d (ms) for session '%s' exceeded the allowed limit %d",
+                        sendTime, getId(), sendTimeLimit));
+            }
+            int size = getBufferSize();
+            if (size > bufferSizeLimit) {
+                limitExceeded(String.format("Buffer size %d bytes for session '%s' exceeds the allowed limit %d",
+                        size, getId(), bufferSizeLimit));
+            }
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    private void limitExceeded(String reason) {
+        limitExceeded = true;
+        throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closeLock.lock();
+        try {
+            if (closeInProgress) {
+                return;
+            }
+            if (!CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+                try {
+                    checkSessionLimits();
+                } catch (SessionLimitExceededException ex) {
+                    // 아래에서 상태만 바꿔 종료
+                }
+                if (limitExceeded) {
+                    status = CloseStatus.SESSION_NOT_RELIABLE;
+                }
+            }
+            closeInProgress = true;
+            super.close(status);
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    /**
+     * 순위 토픽 MESSAGE 프레임이면 구독 키 (destination + subscription), 아니면 null
+     */
+    static String subscriptionKey(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return null;
+        }
+        String frame = text.getPayload();
+        if (!frame.startsWith(MESSAGE_FRAME)) {
+            return null;
+        }
+        int headerEnd = frame.indexOf("\n\n");
+        if (headerEnd < 0 || !hasHeader(frame, RANK_DESTINATION_HEADER, headerEnd)) {
+            return null;
+        }
+        return headerValue(frame, DESTINATION_HEADER, headerEnd) + '\n'
+                + headerValue(frame, SUBSCRIPTION_HEADER, headerEnd);
+    }
+
+    private static boolean isConflatable(TextMessage message) {
+        String frame = message.getPayload();
+        return frame.indexOf(CONFLATABLE_STATUS, frame.indexOf("\n\n")) >= 0;
+    }
+
+    private static boolean hasHeader(String frame, String header, int headerEnd) {
+        int start = frame.indexOf(header, MESSAGE_FRAME.length() - 1);
+        return start >= 0 && start < headerEnd;
+    }
+
+    private static String headerValue(String frame, String header, int headerEnd) {
+        int start = frame.indexOf(header, MESSAGE_FRAME.length() - 1);
+        if (start < 0 || start >= headerEnd) {
+            return "";
+        }
+        start += header.length();
+        return frame.substring(start, frame.indexOf('\n', start));
+    }
+
+    @Override
+    public String toString() {
+        return getDelegate().toString();
+    }
+
+    /**
+     * 버퍼 항목 (순위 프레임은 전송 전까지 message가 최신 프레임으로 바뀔 수 있음)
+     */
+    private static final class Entry {
+
+        private WebSocketMessage<?> message;
+        private final String key;
+
+        private Entry(WebSocketMessage<?> message, String key) {
+            this.message = message;
+            this.key = key;
+        }
+    }
+}
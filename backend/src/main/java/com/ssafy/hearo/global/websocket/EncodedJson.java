@@ -0,0 +1,9 @@
+package com.ssafy.hearo.global.websocket;
+
+/**
+ * 이미 JSON으로 직렬화된 STOMP 메시지 본문
+ * convertAndSend에 넘기면 EncodedJsonMessageConverter가 Jackson 변환 없이 그대로 본문으로 사용한다.
+ * @param bytes UTF-8 JSON (전송 후에는 수정하지 않는다)
+ */
+public record EncodedJson(byte[] bytes) {
+}
@@ -0,0 +1,43 @@
+package com.ssafy.hearo.global.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * EncodedJson 본문용 STOMP 메시지 변환기 (기본 변환기보다 먼저 등록)
+ *
+ * SimpMessagingTemplate이 만든 헤더가 아직 수정 가능하면 복사하지 않고 content-type만 채워 그대로 사용한다.
+ * 다른 타입은 null을 반환해 기본 변환기(Jackson 등)에 넘긴다.
+ */
+public class EncodedJsonMessageConverter implements MessageConverter {
+
+    @Override
+    public Object fromMessage(Message<?> message, Class<?> targetClass) {
+        return null;
+    }
+
+    @Override
+    public Message<?> toMessage(Object payload, MessageHeaders headers) {
+        if (!(payload instanceof EncodedJson json)) {
+            return null;
+        }
+
+        MessageHeaderAccessor accessor = headers != null
+                ? MessageHeaderAccessor.getAccessor(headers, MessageHeaderAccessor.class)
+                : null;
+        if (accessor != null && accessor.isMutable()) {
+            accessor.setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON);
+            return MessageBuilder.createMessage(json.bytes(), accessor.getMessageHeaders());
+        }
+
+        MessageBuilder<byte[]> builder = MessageBuilder.withPayload(json.bytes());
+        if (headers != null) {
+            builder.copyHeaders(headers);
+        }
+        return builder.setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON).build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ssafy.hearo.global.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * 전송 한도를 넘어 끊긴 WebSocket 세션 집계 (websocket.session.evicted)
+ *
+ * 세션별 전송 한도(send-time-limit, send-buffer-size-limit)를 넘으면 STOMP 처리기가
+ * SESSION_NOT_RELIABLE 상태로 세션을 닫는다. CONNECT 없이 오래 연결만 유지한 세션도 같은 상태로 닫히므로 함께 집계된다.
+ */
+@Slf4j
+public class SessionEvictionMonitor implements WebSocketHandlerDecoratorFactory {
+
+    private final Counter evictedCounter;
+
+    public SessionEvictionMonitor(MeterRegistry meterRegistry) {
+        this.evictedCounter = meterRegistry.counter("websocket.session.evicted");
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    evictedCounter.increment();
+                    log.warn("[WebSocket] 전송 지연 세션 종료: {} ({})", session.getId(), closeStatus.getReason());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+}
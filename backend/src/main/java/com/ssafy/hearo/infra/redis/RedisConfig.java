@@ -4,7 +4,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -33,15 +32,13 @@ public class RedisConfig {
     }
 
     /**
-     * Redis Key Expiration 이벤트를 수신하기 위한 리스너 컨테이너
+     * Redis Pub/Sub 메시지를 수신하기 위한 리스너 컨테이너
+     * (하트비트 만료는 키 만료 이벤트 대신 HeartbeatReaper가 주기적으로 처리하므로 notify-keyspace-events 설정 불필요)
      */
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
-        // 키 만료 이벤트 패턴 구독 (__keyevent@*__:expired)
-        // 주의: Redis 설정에서 notify-keyspace-events Ex 가 활성화되어 있어야 함
-        container.addMessageListener((message, pattern) -> {}, new PatternTopic("__keyevent@*__:expired"));
         return container;
     }
 }
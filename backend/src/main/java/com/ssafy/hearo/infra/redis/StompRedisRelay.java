@@ -0,0 +1,222 @@
+package com.ssafy.hearo.infra.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * STOMP /topic 메시지를 Redis Pub/Sub으로 다른 노드에 전달 (여러 인스턴스 운영 시 WebSocket 전송)
+ *
+ * 각 노드는 내장 Simple Broker를 그대로 쓰므로 convertAndSend는 같은 노드에 연결된 세션에만 전달된다.
+ * 이 클래스는 brokerChannel을 지나는 /topic 메시지(이미 직렬화된 byte[])를 그대로 로컬 브로커에 넘기고,
+ * 복사본을 모아서 websocket.relay.flush-interval-ms마다 Redis 채널(ws:topic-relay)로 한 번에(pipeline) 발행한다.
+ * 다른 노드는 받은 메시지를 자기 brokerChannel에 넣어 자기 노드 구독자에게만 전달한다 (자기가 보낸 메시지는 무시).
+ *
+ * - 로컬 구독자는 Redis를 거치지 않으므로 Redis 장애 시에도 같은 노드 전송은 유지된다
+ * - /queue, /user 대상(세션별 메시지)은 세션이 있는 노드에서만 의미가 있으므로 전달하지 않는다
+ * - 전송 대기 메시지가 websocket.relay.buffer-size를 넘으면 다른 노드 전달분을 버린다 (websocket.relay.dropped)
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StompRedisRelay implements ChannelInterceptor, MessageListener {
+
+    public static final String RELAY_CHANNEL = "ws:topic-relay";
+    private static final String TOPIC_PREFIX = "/topic/";
+    // 다른 노드에서 전달받은 메시지 표시 (다시 발행하지 않도록)
+    static final String RELAYED_HEADER = "hearoRelayed";
+
+    private static final byte SEPARATOR = '\n';
+    private static final byte[] RELAY_CHANNEL_BYTES = RELAY_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private final AbstractSubscribableChannel brokerChannel;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter droppedCounter;
+
+    // 노드 식별자 (자기가 발행한 메시지를 구분)
+    private final String nodeId = UUID.randomUUID().toString();
+    private final byte[] nodeIdBytes = nodeId.getBytes(StandardCharsets.UTF_8);
+
+    private final Object lock = new Object();
+    private List<byte[]> pending = new ArrayList<>();
+
+    @Value("${websocket.relay.buffer-size:10000}")
+    private int bufferSize;
+
+    public StompRedisRelay(@Qualifier("brokerChannel") AbstractSubscribableChannel brokerChannel,
+                           RedisTemplate<String, String> redisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           MeterRegistry meterRegistry) {
+        this.brokerChannel = brokerChannel;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.publishedCounter = meterRegistry.counter("websocket.relay.published");
+        this.receivedCounter = meterRegistry.counter("websocket.relay.received");
+        this.droppedCounter = meterRegistry.counter("websocket.relay.dropped");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // 구독을 먼저 시작한 뒤 발행을 시작한다
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELAY_CHANNEL));
+        brokerChannel.addInterceptor(this);
+        log.info("[WebSocket] /topic 메시지 노드 간 전달 시작 (node: {})", nodeId);
+    }
+
+    /**
+     * brokerChannel로 들어온 /topic 메시지의 복사본을 발행 대기열에 넣음 (원본은 로컬 브로커로 그대로 전달)
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (isRelayable(message)) {
+            byte[] body = encode(message);
+            synchronized (lock) {
+                if (pending.size() < bufferSize) {
+                    pending.add(body);
+                    return message;
+                }
+            }
+            droppedCounter.increment();
+        }
+        return message;
+    }
+
+    /**
+     * 모아둔 메시지를 한 번의 왕복으로 발행
+     */
+    @Scheduled(fixedDelayString = "${websocket.relay.flush-interval-ms:20}")
+    public void flush() {
+        List<byte[]> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (byte[] body : batch) {
+                    connection.publish(RELAY_CHANNEL_BYTES, body);
+                }
+                return null;
+            });
+            publishedCounter.increment(batch.size());
+        } catch (Exception e) {
+            droppedCounter.increment(batch.size());
+            log.warn("[WebSocket] 다른 노드 전달 실패 ({}건): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드가 발행한 메시지를 이 노드의 구독자에게 전달
+     */
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        Message<byte[]> relayed = decode(message.getBody());
+        if (relayed == null) {
+            return;
+        }
+        receivedCounter.increment();
+        brokerChannel.send(relayed);
+    }
+
+    private static boolean isRelayable(Message<?> message) {
+        if (message.getHeaders().containsKey(RELAYED_HEADER) || !(message.getPayload() instanceof byte[])) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                && destination != null && destination.startsWith(TOPIC_PREFIX);
+    }
+
+    /**
+     * 노드 ID, 목적지, content-type, payload 순서로 직렬화 (앞의 세 값은 줄바꿈으로 구분)
+     */
+    byte[] encode(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        byte[] payload = (byte[]) message.getPayload();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + 128);
+        out.writeBytes(nodeIdBytes);
+        out.write(SEPARATOR);
+        out.writeBytes(destination.getBytes(StandardCharsets.UTF_8));
+        out.write(SEPARATOR);
+        if (contentType != null) {
+            out.writeBytes(contentType.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(SEPARATOR);
+        out.writeBytes(payload);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return 로컬 brokerChannel로 보낼 메시지 (자기가 발행했거나 형식이 잘못되었으면 null)
+     */
+    Message<byte[]> decode(byte[] body) {
+        int nodeEnd = indexOf(body, 0);
+        int destinationEnd = nodeEnd < 0 ? -1 : indexOf(body, nodeEnd + 1);
+        int contentTypeEnd = destinationEnd < 0 ? -1 : indexOf(body, destinationEnd + 1);
+        if (contentTypeEnd < 0) {
+            log.warn("[WebSocket] 잘못된 노드 간 전달 메시지 무시 ({} bytes)", body.length);
+            return null;
+        }
+        if (new String(body, 0, nodeEnd, StandardCharsets.UTF_8).equals(nodeId)) {
+            return null;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(new String(body, nodeEnd + 1, destinationEnd - nodeEnd - 1, StandardCharsets.UTF_8));
+        if (contentTypeEnd > destinationEnd + 1) {
+            accessor.setContentType(MimeType.valueOf(
+                    new String(body, destinationEnd + 1, contentTypeEnd - destinationEnd - 1, StandardCharsets.UTF_8)));
+        }
+        accessor.setHeader(RELAYED_HEADER, nodeId);
+
+        byte[] payload = new byte[body.length - contentTypeEnd - 1];
+        System.arraycopy(body, contentTypeEnd + 1, payload, 0, payload.length);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private static int indexOf(byte[] body, int from) {
+        for (int i = from; i < body.length; i++) {
+            if (body[i] == SEPARATOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,28 @@
+-- 매칭 배정을 취소하고 상담원을 가용 목록에 되돌리기 (매칭 리더 fencing + 하트비트 검사 포함)
+--
+-- KEYS[1] = 가용 상담원 SET (counselors:available)
+-- KEYS[2] = 매칭 리더 lease HASH (matching:leader)
+-- KEYS[3] = 하트비트 ZSET (heartbeat:counselors, member = 상담원 ID, score = 마지막 하트비트 시각 ms)
+--
+-- ARGV[1] = 상담원 ID
+-- ARGV[2] = 매칭 리더 fencing token ("" 이면 검사하지 않음)
+-- ARGV[3] = 하트비트 만료 기준 시각 (ms, 이 시각 이하로 갱신이 없으면 만료)
+--
+-- 반환: 가용 목록에 되돌렸으면 1, 하트비트가 없거나 만료되어 되돌리지 않았으면 0
+--
+-- fencing token이 현재 매칭 리더의 token과 다르면 아무것도 변경하지 않고 MATCHING_FENCED 오류를 반환한다.
+-- 배정 후 로그아웃/하트비트 만료로 비가용이 된 상담원을 취소가 다시 가용으로 되살리지 않도록
+-- 하트비트 확인과 SADD를 한 번에 수행한다.
+
+local fencingToken = ARGV[2]
+if fencingToken and fencingToken ~= '' and redis.call('HGET', KEYS[2], 'token') ~= fencingToken then
+    return redis.error_reply('MATCHING_FENCED')
+end
+
+local lastSeen = redis.call('ZSCORE', KEYS[3], ARGV[1])
+if not lastSeen or tonumber(lastSeen) <= tonumber(ARGV[3]) then
+    return 0
+end
+
+redis.call('SADD', KEYS[1], ARGV[1])
+return 1
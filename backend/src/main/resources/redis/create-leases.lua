@@ -0,0 +1,39 @@
+-- 여러 고객의 lease를 한 번에 생성 (콜백 대기 고객을 실시간 대기열로 옮길 때)
+--
+-- KEYS[1] = lease 만료 시각 ZSET (queue:lease:deadlines)
+-- KEYS[2] = ticket → 고객 ID HASH (queue:lease:tickets)
+-- KEYS[3] = 고객 ID → ticket HASH (queue:lease:owners)
+--
+-- ARGV[1] = 현재 시각 (ms)
+-- ARGV[2] = 새 만료 시각 (ms)
+-- ARGV[3..] = 고객 ID, 새 ticket 2개씩 반복
+--
+-- 반환: lease를 새로 생성한 고객 ID 목록
+--
+-- 살아있는 lease가 있는 고객은 건너뛴다 (이전 이동이 중간에 멈춘 뒤 다시 옮길 때 이미 받은 ticket을 유지).
+-- 만료된 lease는 정리 전이라도 없는 것으로 보고 새 ticket으로 교체한다.
+
+local deadlineKey = KEYS[1]
+local ticketKey = KEYS[2]
+local ownerKey = KEYS[3]
+local now = tonumber(ARGV[1])
+local deadline = tonumber(ARGV[2])
+
+local created = {}
+for i = 3, #ARGV, 2 do
+    local customerId = ARGV[i]
+    local ticket = ARGV[i + 1]
+    local current = tonumber(redis.call('ZSCORE', deadlineKey, customerId))
+    if not current or current <= now then
+        local oldTicket = redis.call('HGET', ownerKey, customerId)
+        if oldTicket then
+            redis.call('HDEL', ticketKey, oldTicket)
+        end
+        redis.call('HSET', ticketKey, ticket, customerId)
+        redis.call('HSET', ownerKey, customerId, ticket)
+        redis.call('ZADD', deadlineKey, deadline, customerId)
+        created[#created + 1] = customerId
+    end
+end
+
+return created
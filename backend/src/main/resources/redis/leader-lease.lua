@@ -0,0 +1,57 @@
+-- 매칭 리더 lease 획득/갱신/반납
+--
+-- KEYS[1] = 리더 lease HASH (matching:leader, 필드: node, token, PEXPIRE로 만료)
+-- KEYS[2] = fencing token 카운터 (matching:leader:fencing)
+--
+-- ARGV[1] = 작업 종류 (ACQUIRE | RELEASE | STATUS)
+-- ARGV[2] = 노드 ID
+-- ARGV[3] = lease 시간 (ms, ACQUIRE 전용)
+--
+-- 반환: { 현재 리더 노드 ID(없으면 ""), fencing token(없으면 0), 남은 lease 시간(ms, 없으면 0) }
+--
+-- ACQUIRE: 자신이 리더면 lease를 연장하고, 리더가 없으면 새 fencing token을 발급받아 리더가 된다.
+-- fencing token은 리더가 바뀔 때마다 증가하므로, lease를 잃은 이전 리더의 쓰기는 대기열 스크립트가 거부한다.
+
+local leaderKey = KEYS[1]
+local fencingKey = KEYS[2]
+
+local op = ARGV[1]
+local nodeId = ARGV[2]
+
+local holder = redis.call('HGET', leaderKey, 'node')
+
+local function current()
+    if not holder then
+        return { '', 0, 0 }
+    end
+    return { holder, tonumber(redis.call('HGET', leaderKey, 'token')), redis.call('PTTL', leaderKey) }
+end
+
+if op == 'ACQUIRE' then
+    local leaseMs = tonumber(ARGV[3])
+    if holder == nodeId then
+        redis.call('PEXPIRE', leaderKey, leaseMs)
+        return { nodeId, tonumber(redis.call('HGET', leaderKey, 'token')), leaseMs }
+    end
+    if not holder then
+        local token = redis.call('INCR', fencingKey)
+        redis.call('HSET', leaderKey, 'node', nodeId, 'token', token)
+        redis.call('PEXPIRE', leaderKey, leaseMs)
+        return { nodeId, token, leaseMs }
+    end
+    return current()
+end
+
+if op == 'RELEASE' then
+    if holder == nodeId then
+        redis.call('DEL', leaderKey)
+        return { '', 0, 0 }
+    end
+    return current()
+end
+
+if op == 'STATUS' then
+    return current()
+end
+
+return redis.error_reply('UNKNOWN_LEADER_OP')
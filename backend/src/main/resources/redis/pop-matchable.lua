@@ -0,0 +1,257 @@
+-- 매칭 가능한 고객을 추출 없이 앞에서부터 최대 N명 조회 (peek, 추출은 매칭 확정 후 queue-mutation.lua)
+-- 또는 매칭 불가 고객의 점수를 낮춤 (aging, 매칭 사이클마다 한 번)
+--
+-- KEYS[1] = 대기열 ZSET (queue:waiting, score = 우선순위 점수, 작을수록 앞)
+-- KEYS[2] = 도착 시각 HASH (queue:arrivals, 고객 ID → ms)
+-- KEYS[3] = Blacklist 고객 SET (queue:blacklisted)
+-- KEYS[4] = 순위 epoch (queue:rank-epoch)
+-- KEYS[5] = 블랙리스트 인덱스 준비 표시 (blacklist:customer-index:ready)
+-- KEYS[6] = lease 만료 시각 ZSET (queue:lease:deadlines)
+-- KEYS[7] = lease ticket → 고객 ID HASH (queue:lease:tickets)
+-- KEYS[8] = lease 고객 ID → ticket HASH (queue:lease:owners)
+-- KEYS[9] = 매칭 리더 lease HASH (matching:leader)
+--
+-- ARGV[1] = 현재 시각 (ms)
+-- ARGV[2] = 대기열 항목 만료 시간 (ms, 도착 시각 기준)
+-- ARGV[3] = 가용 상담원 ID 목록 (콤마 구분)
+-- ARGV[4] = 최대 탐색 인원 (lease 만료 고객 일괄 정리 인원도 같은 값으로 제한)
+-- ARGV[5] = peek 인원 (0이면 aging만 수행, 1 이상이면 점수를 바꾸지 않고 그 인원까지 조회)
+-- ARGV[6] = 고객별 차단 상담원 SET 키 prefix (blacklist:customer:)
+-- ARGV[7] = 변경 내역 채널 (queue:changes, 노드별 읽기 미러용)
+-- ARGV[8] = 매칭 리더 fencing token ("" 이면 검사하지 않음)
+-- ARGV[9] = Blacklist 보정 (ms)
+-- ARGV[10] = 스킵 1회당 보정 (ms)
+-- ARGV[11] = 스킵 보정 상한 (ms)
+--
+-- 블랙리스트 인덱스가 준비되지 않았으면(Redis 초기화 등) 아무것도 변경하지 않고
+-- BLACKLIST_INDEX_NOT_READY 오류를 반환한다.
+-- fencing token이 현재 매칭 리더의 token과 다르면(lease를 잃은 이전 리더) 아무것도 변경하지 않고
+-- MATCHING_FENCED 오류를 반환한다.
+--
+-- 반환: { Blacklist 스킵 고객 목록, Normal→Blacklist 이동 고객 목록, 유령고객 목록,
+--         빠진 자리의 변경 전 순위 목록, 새로 들어간 자리의 변경 후 순위 목록,
+--         epoch, Normal 크기, Blacklist 크기,
+--         peek 고객 목록, peek 고객별 매칭 가능 상담원 목록(콤마 구분),
+--         자리가 바뀐 고객 목록, 자리가 바뀐 고객별 변경 후 순위 목록 }
+--
+-- 탐색 전에 lease 만료 시각이 지난 고객을 ZRANGEBYSCORE로 한꺼번에 찾아 큐와 lease에서 제거한다(유령고객).
+-- aging 모드에서는 매칭 가능한 상담원이 없는 고객을 꺼내지 않고 점수만 낮춘다(aging, QueuePriority 참고).
+-- Normal 고객은 이때 Blacklist 고객이 된다. 점수가 하한에 닿아 바뀌지 않으면 자리도 그대로다.
+-- peek 모드는 매칭 불가 고객을 건너뛰기만 하므로, 한 사이클에 여러 번 조회해도 aging은 사이클당 한 번이다.
+-- 유령고객 제거는 두 모드 모두 수행한다.
+--
+-- 순위 변화(빠진 자리/새로 들어간 자리)는 1-indexed 순위로 돌려주며(빠진 자리는 변경 전, 새 자리는 변경 후 기준),
+-- 변경이 있었을 때만 epoch를 증가시키고, 변경 내역을 queue-mutation.lua와 같은 형식으로 발행한다.
+--
+-- 주의: 차단 상담원 키는 고객별로 동적으로 접근하므로 단일 Redis(비클러스터) 환경을 전제로 한다.
+
+local waitingKey = KEYS[1]
+local arrivalKey = KEYS[2]
+local blacklistedKey = KEYS[3]
+local epochKey = KEYS[4]
+local indexReadyKey = KEYS[5]
+local deadlineKey = KEYS[6]
+local leaseTicketKey = KEYS[7]
+local leaseOwnerKey = KEYS[8]
+local leaderKey = KEYS[9]
+
+local fencingToken = ARGV[8]
+if fencingToken and fencingToken ~= '' and redis.call('HGET', leaderKey, 'token') ~= fencingToken then
+    return redis.error_reply('MATCHING_FENCED')
+end
+
+if redis.call('EXISTS', indexReadyKey) == 0 then
+    return redis.error_reply('BLACKLIST_INDEX_NOT_READY')
+end
+
+local now = tonumber(ARGV[1])
+local entryTimeout = tonumber(ARGV[2])
+local scanLimit = tonumber(ARGV[4])
+local peekLimit = tonumber(ARGV[5])
+local blockedPrefix = ARGV[6]
+local changeChannel = ARGV[7]
+local blacklistBoost = tonumber(ARGV[9])
+local agingStep = tonumber(ARGV[10])
+local maxAging = tonumber(ARGV[11])
+
+local function split(csv)
+    local result = {}
+    if csv == nil or csv == '' then
+        return result
+    end
+    for token in string.gmatch(csv, '[^,]+') do
+        result[#result + 1] = token
+    end
+    return result
+end
+
+local available = split(ARGV[3])
+
+local skipped = {}
+local moved = {}
+local ghosts = {}
+local removedRanks = {}
+local peeked = {}
+local peekedCounselors = {}
+local reordered = {}
+local changes = {}
+
+local function isLeaseAlive(customerId)
+    local deadline = redis.call('ZSCORE', deadlineKey, customerId)
+    return deadline ~= false and tonumber(deadline) > now
+end
+
+local function releaseLease(customerId)
+    local ticket = redis.call('HGET', leaseOwnerKey, customerId)
+    if ticket then
+        redis.call('HDEL', leaseTicketKey, ticket)
+    end
+    redis.call('HDEL', leaseOwnerKey, customerId)
+    redis.call('ZREM', deadlineKey, customerId)
+end
+
+local function removeEntry(customerId)
+    redis.call('ZREM', waitingKey, customerId)
+    redis.call('HDEL', arrivalKey, customerId)
+    redis.call('SREM', blacklistedKey, customerId)
+end
+
+-- 1. lease 만료 고객 일괄 정리
+-- 순위는 모두 변경 전 기준으로 먼저 계산한 뒤 제거한다.
+-- 이후 탐색에서는 남은 큐의 위치를 변경 전 순위로 되돌리기 위해 제거된 순위를 보관한다.
+local expiredRanks = {}
+local expired = redis.call('ZRANGEBYSCORE', deadlineKey, '-inf', now, 'LIMIT', 0, scanLimit)
+local expiredInQueue = {}
+for _, customerId in ipairs(expired) do
+    local rank = redis.call('ZRANK', waitingKey, customerId)
+    if rank then
+        expiredRanks[#expiredRanks + 1] = rank + 1
+        expiredInQueue[#expiredInQueue + 1] = { customerId, rank + 1 }
+    end
+end
+for _, customerId in ipairs(expired) do
+    releaseLease(customerId)
+end
+for _, entry in ipairs(expiredInQueue) do
+    removeEntry(entry[1])
+    ghosts[#ghosts + 1] = entry[1]
+    removedRanks[#removedRanks + 1] = entry[2]
+    changes[#changes + 1] = { 'R', entry[1] }
+end
+table.sort(expiredRanks)
+
+-- 일괄 정리 후 큐 위치(1-indexed) → 변경 전 순위
+local function originalRank(position)
+    local rank = position
+    for _, removedRank in ipairs(expiredRanks) do
+        if removedRank <= rank then
+            rank = rank + 1
+        end
+    end
+    return rank
+end
+
+local function matchableCounselors(customerId)
+    local blockedSet = {}
+    for _, counselorId in ipairs(redis.call('SMEMBERS', blockedPrefix .. customerId)) do
+        blockedSet[counselorId] = true
+    end
+    local result = {}
+    for _, counselorId in ipairs(available) do
+        if not blockedSet[counselorId] then
+            result[#result + 1] = counselorId
+        end
+    end
+    return result
+end
+
+-- 2. 큐를 앞에서부터 탐색 (탐색 중 점수가 바뀐 고객이 있어도 처음 읽은 순서대로 확인)
+local entries = redis.call('ZRANGE', waitingKey, 0, scanLimit - 1, 'WITHSCORES')
+for i = 1, #entries, 2 do
+    local customerId = entries[i]
+    local score = tonumber(entries[i + 1])
+    local arrivedAt = tonumber(redis.call('HGET', arrivalKey, customerId) or score)
+    local rank = originalRank((i + 1) / 2)
+
+    if not isLeaseAlive(customerId) or (now - arrivedAt) > entryTimeout then
+        -- 유령고객: 큐와 lease 모두 제거
+        removeEntry(customerId)
+        releaseLease(customerId)
+        ghosts[#ghosts + 1] = customerId
+        removedRanks[#removedRanks + 1] = rank
+        changes[#changes + 1] = { 'R', customerId }
+    else
+        local counselors = matchableCounselors(customerId)
+        if #counselors > 0 then
+            if peekLimit > 0 then
+                -- peek 모드: 꺼내지 않고 기록만
+                peeked[#peeked + 1] = customerId
+                peekedCounselors[#peekedCounselors + 1] = table.concat(counselors, ',')
+                if #peeked >= peekLimit then
+                    break
+                end
+            end
+        elseif peekLimit == 0 then
+            -- 매칭 불가 → 꺼내지 않고 점수만 낮춤 (Normal 고객은 Blacklist 고객이 됨)
+            local wasNormal = redis.call('SADD', blacklistedKey, customerId) == 1
+            local target = score - agingStep
+            if wasNormal then
+                target = target - blacklistBoost
+                moved[#moved + 1] = customerId
+            else
+                skipped[#skipped + 1] = customerId
+            end
+            local floor = arrivedAt - blacklistBoost - maxAging
+            if target < floor then
+                target = floor
+            end
+            if target < score or wasNormal then
+                if target < score then
+                    redis.call('ZADD', waitingKey, target, customerId)
+                else
+                    target = score
+                end
+                reordered[#reordered + 1] = customerId
+                removedRanks[#removedRanks + 1] = rank
+                changes[#changes + 1] = { 'B', customerId, target }
+            end
+        end
+    end
+end
+
+-- 자리가 바뀐 고객의 새 순위 (모든 변경 후 기준)
+local reorderedRanks = {}
+local insertedRanks = {}
+for _, customerId in ipairs(reordered) do
+    local newRank = redis.call('ZRANK', waitingKey, customerId) + 1
+    reorderedRanks[#reorderedRanks + 1] = newRank
+    insertedRanks[#insertedRanks + 1] = newRank
+end
+table.sort(insertedRanks)
+
+local epoch
+if #removedRanks > 0 then
+    epoch = redis.call('INCR', epochKey)
+    if changeChannel then
+        redis.call('PUBLISH', changeChannel, cjson.encode({ epoch = epoch, changes = changes }))
+    end
+else
+    epoch = tonumber(redis.call('GET', epochKey) or '0')
+end
+
+local total = redis.call('ZCARD', waitingKey)
+local blacklistSize = redis.call('SCARD', blacklistedKey)
+return {
+    skipped,
+    moved,
+    ghosts,
+    removedRanks,
+    insertedRanks,
+    epoch,
+    total - blacklistSize,
+    blacklistSize,
+    peeked,
+    peekedCounselors,
+    reordered,
+    reorderedRanks
+}
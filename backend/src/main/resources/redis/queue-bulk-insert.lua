@@ -0,0 +1,111 @@
+-- 여러 고객 등록/복원 + 순위 epoch 증가를 원자적으로 수행 (호출 1회)
+--
+-- KEYS[1] = 대기열 ZSET (queue:waiting, score = 우선순위 점수, 작을수록 앞)
+-- KEYS[2] = 도착 시각 HASH (queue:arrivals, 고객 ID → ms)
+-- KEYS[3] = Blacklist 고객 SET (queue:blacklisted)
+-- KEYS[4] = 순위 epoch (queue:rank-epoch)
+-- KEYS[5] = 매칭 리더 lease HASH (matching:leader)
+-- KEYS[6] = (선택) 옮겨올 원본 ZSET (queue:hold). 있으면 여기서 ZREM에 성공한 고객만 처리하고,
+--           이미 빠진 고객(콜백 대기 취소 등)은 등록하지 않고 결과에서도 뺀다
+--
+-- ARGV[1] = 변경 내역 채널 (queue:changes, 노드별 읽기 미러용)
+-- ARGV[2] = 매칭 리더 fencing token ("" 이면 검사하지 않음)
+-- ARGV[3..] = 고객 ID, 도착 시각(ms), 점수, 큐 종류(NORMAL|BLACKLIST) 4개씩 반복
+--
+-- 반환: { 고객 ID 목록, 순위 목록, 큐 종류 목록, 등록 여부 목록(1/0),
+--         새로 들어간 고객의 순위(오름차순), epoch, Normal 크기, Blacklist 크기 }
+--
+-- 이미 대기 중인 고객은 그대로 두고 현재 순위를 돌려준다.
+-- 등록은 ZADD/HSET/SADD 각 1회(UNPACK_CHUNK 단위)로 처리하고, 순위는 모두 등록한 뒤 계산한다.
+-- 변경이 있으면 { epoch, changes = { {"N"|"B", 고객 ID, score}, ... } } JSON을 변경 내역 채널로 1건 발행한다.
+
+local waitingKey = KEYS[1]
+local arrivalKey = KEYS[2]
+local blacklistedKey = KEYS[3]
+local epochKey = KEYS[4]
+local sourceKey = KEYS[6]
+
+local changeChannel = ARGV[1]
+
+local fencingToken = ARGV[2]
+if fencingToken and fencingToken ~= '' and redis.call('HGET', KEYS[5], 'token') ~= fencingToken then
+    return redis.error_reply('MATCHING_FENCED')
+end
+
+-- unpack 인자 수 제한(Lua 스택) 때문에 나눠서 호출
+local UNPACK_CHUNK = 1000
+
+local function callChunked(command, key, args, width)
+    local step = UNPACK_CHUNK * width
+    for i = 1, #args, step do
+        redis.call(command, key, unpack(args, i, math.min(i + step - 1, #args)))
+    end
+end
+
+local ids = {}
+local types = {}
+local inserted = {}
+local seen = {}
+local zaddArgs = {}
+local hsetArgs = {}
+local blacklisted = {}
+local changes = {}
+
+for i = 3, #ARGV, 4 do
+    local id = ARGV[i]
+    if not seen[id] then
+        seen[id] = true
+        if not sourceKey or redis.call('ZREM', sourceKey, id) == 1 then
+            local current = redis.call('ZSCORE', waitingKey, id)
+            ids[#ids + 1] = id
+            if current then
+                inserted[#ids] = 0
+                types[#ids] = redis.call('SISMEMBER', blacklistedKey, id) == 1 and 'BLACKLIST' or 'NORMAL'
+            else
+                local queueType = ARGV[i + 3]
+                inserted[#ids] = 1
+                types[#ids] = queueType
+                zaddArgs[#zaddArgs + 1] = ARGV[i + 2]
+                zaddArgs[#zaddArgs + 1] = id
+                hsetArgs[#hsetArgs + 1] = id
+                hsetArgs[#hsetArgs + 1] = ARGV[i + 1]
+                if queueType == 'BLACKLIST' then
+                    blacklisted[#blacklisted + 1] = id
+                end
+                changes[#changes + 1] = { queueType == 'BLACKLIST' and 'B' or 'N', id, tonumber(ARGV[i + 2]) }
+            end
+        end
+    end
+end
+
+if #zaddArgs > 0 then
+    callChunked('ZADD', waitingKey, zaddArgs, 2)
+    callChunked('HSET', arrivalKey, hsetArgs, 2)
+    if #blacklisted > 0 then
+        callChunked('SADD', blacklistedKey, blacklisted, 1)
+    end
+end
+
+local ranks = {}
+local insertedRanks = {}
+for k, id in ipairs(ids) do
+    ranks[k] = redis.call('ZRANK', waitingKey, id) + 1
+    if inserted[k] == 1 then
+        insertedRanks[#insertedRanks + 1] = ranks[k]
+    end
+end
+table.sort(insertedRanks)
+
+local epoch
+if #changes > 0 then
+    epoch = redis.call('INCR', epochKey)
+    if changeChannel then
+        redis.call('PUBLISH', changeChannel, cjson.encode({ epoch = epoch, changes = changes }))
+    end
+else
+    epoch = tonumber(redis.call('GET', epochKey) or '0')
+end
+
+local total = redis.call('ZCARD', waitingKey)
+local blacklistSize = redis.call('SCARD', blacklistedKey)
+return { ids, ranks, types, inserted, insertedRanks, epoch, total - blacklistSize, blacklistSize }
@@ -0,0 +1,31 @@
+-- 대기열 스냅샷 저장(QueueSnapshotService)용으로 대기열 전체를 epoch와 함께 원자적으로 조회
+--
+-- KEYS[1] = 대기열 ZSET (queue:waiting)
+-- KEYS[2] = 도착 시각 HASH (queue:arrivals)
+-- KEYS[3] = Blacklist 고객 SET (queue:blacklisted)
+-- KEYS[4] = 순위 epoch (queue:rank-epoch)
+-- KEYS[5] = lease 고객 ID → ticket HASH (queue:lease:owners)
+--
+-- 반환: { epoch, 고객 ID 목록, score 목록(문자열), 도착 시각 목록, 큐 종류 목록, ticket 목록(없으면 "") }
+--       (목록은 모두 대기 순서)
+
+local entries = redis.call('ZRANGE', KEYS[1], 0, -1, 'WITHSCORES')
+
+local ids = {}
+local scores = {}
+local arrivals = {}
+local types = {}
+local tickets = {}
+for i = 1, #entries, 2 do
+    local id = entries[i]
+    local k = #ids + 1
+    ids[k] = id
+    -- Lua 숫자로 돌려주면 소수점이 잘리므로 ZRANGE가 준 문자열 그대로 반환
+    scores[k] = entries[i + 1]
+    -- 도착 시각이 없으면(이전 형식) score를 도착 시각으로 사용
+    arrivals[k] = redis.call('HGET', KEYS[2], id) or entries[i + 1]
+    types[k] = redis.call('SISMEMBER', KEYS[3], id) == 1 and 'BLACKLIST' or 'NORMAL'
+    tickets[k] = redis.call('HGET', KEYS[5], id) or ''
+end
+
+return { tonumber(redis.call('GET', KEYS[4]) or '0'), ids, scores, arrivals, types, tickets }
@@ -0,0 +1,90 @@
+-- 대기열 lease 단건 작업 (생성/갱신/조회/삭제)을 한 번의 호출로 원자적으로 수행
+--
+-- KEYS[1] = lease 만료 시각 ZSET (queue:lease:deadlines, member = 고객 ID, score = 만료 시각 ms)
+-- KEYS[2] = ticket → 고객 ID HASH (queue:lease:tickets)
+-- KEYS[3] = 고객 ID → ticket HASH (queue:lease:owners)
+--
+-- ARGV[1] = 작업 종류 (CREATE | RENEW | LOOKUP | DELETE_TICKET | DELETE_CUSTOMER)
+-- ARGV[2] = 현재 시각 (ms)
+-- ARGV[3] = 대상 (CREATE/DELETE_CUSTOMER는 고객 ID, 나머지는 ticket)
+-- ARGV[4] = 새 ticket (CREATE 전용)
+-- ARGV[5] = 새 만료 시각 (ms, CREATE/RENEW 전용)
+--
+-- 반환: { 고객 ID(없거나 만료면 ""), 만료 시각(없으면 0), ticket(없으면 "") }
+--
+-- 만료 시각이 지난 lease는 정리 전이라도 없는 것으로 본다.
+-- 만료된 lease의 정리는 매칭 탐색 스크립트(pop-matchable.lua)가 한꺼번에 수행한다.
+
+local deadlineKey = KEYS[1]
+local ticketKey = KEYS[2]
+local ownerKey = KEYS[3]
+
+local op = ARGV[1]
+local now = tonumber(ARGV[2])
+local target = ARGV[3]
+
+-- ticket이 가리키는 살아있는 lease (고객 ID, 만료 시각)
+-- (교체된 이전 ticket은 고객의 현재 ticket과 달라 무효)
+local function aliveLease(ticket)
+    local customerId = redis.call('HGET', ticketKey, ticket)
+    if not customerId or redis.call('HGET', ownerKey, customerId) ~= ticket then
+        return nil, 0
+    end
+    local deadline = tonumber(redis.call('ZSCORE', deadlineKey, customerId))
+    if not deadline or deadline <= now then
+        return nil, 0
+    end
+    return customerId, deadline
+end
+
+local function release(customerId)
+    local ticket = redis.call('HGET', ownerKey, customerId)
+    if ticket then
+        redis.call('HDEL', ticketKey, ticket)
+    end
+    redis.call('HDEL', ownerKey, customerId)
+    redis.call('ZREM', deadlineKey, customerId)
+end
+
+if op == 'CREATE' then
+    -- 기존 lease가 있으면 교체
+    release(target)
+    local deadline = tonumber(ARGV[5])
+    redis.call('HSET', ticketKey, ARGV[4], target)
+    redis.call('HSET', ownerKey, target, ARGV[4])
+    redis.call('ZADD', deadlineKey, deadline, target)
+    return { target, deadline, ARGV[4] }
+end
+
+if op == 'RENEW' then
+    local customerId = aliveLease(target)
+    if not customerId then
+        return { '', 0, target }
+    end
+    local deadline = tonumber(ARGV[5])
+    redis.call('ZADD', deadlineKey, 'XX', deadline, customerId)
+    return { customerId, deadline, target }
+end
+
+if op == 'LOOKUP' then
+    local customerId, deadline = aliveLease(target)
+    return { customerId or '', deadline, target }
+end
+
+if op == 'DELETE_TICKET' then
+    local customerId = redis.call('HGET', ticketKey, target)
+    redis.call('HDEL', ticketKey, target)
+    if customerId and redis.call('HGET', ownerKey, customerId) == target then
+        redis.call('HDEL', ownerKey, customerId)
+        redis.call('ZREM', deadlineKey, customerId)
+    end
+    return { customerId or '', 0, target }
+end
+
+if op == 'DELETE_CUSTOMER' then
+    local ticket = redis.call('HGET', ownerKey, target)
+    release(target)
+    return { target, 0, ticket or '' }
+end
+
+return redis.error_reply('UNKNOWN_LEASE_OP')
@@ -0,0 +1,126 @@
+-- 대기열 단건 변경 + 순위 epoch 증가를 원자적으로 수행
+--
+-- KEYS[1] = 대기열 ZSET (queue:waiting, score = 우선순위 점수, 작을수록 앞)
+-- KEYS[2] = 도착 시각 HASH (queue:arrivals, 고객 ID → ms)
+-- KEYS[3] = Blacklist 고객 SET (queue:blacklisted)
+-- KEYS[4] = 순위 epoch (queue:rank-epoch)
+-- KEYS[5] = 매칭 리더 lease HASH (matching:leader)
+--
+-- ARGV[1] = 작업 종류 (ENQUEUE | REMOVE | POP | MOVE | RANK)
+-- ARGV[2] = 고객 ID (POP은 사용하지 않음)
+-- ARGV[3] = 도착 시각 (ENQUEUE 전용, ms, 첫 점수로도 사용)
+-- ARGV[4] = 변경 내역 채널 (queue:changes, 노드별 읽기 미러용)
+-- ARGV[5] = 매칭 리더 fencing token (매칭 사이클 안의 변경만 전달, "" 이면 검사하지 않음)
+-- ARGV[6] = Blacklist 보정 (MOVE 전용, ms)
+--
+-- 반환: { 고객 ID(없으면 ""), 큐 종류(NORMAL/BLACKLIST/""), 변경 전 순위(없으면 0),
+--         변경 후 순위(없으면 0), epoch, Normal 크기, Blacklist 크기, 변경 여부(1/0) }
+--
+-- 순위는 대기열 ZSET 안의 1-indexed 순위이며, 큐 종류는 Blacklist 고객 SET 포함 여부로 정한다.
+-- fencing token이 현재 매칭 리더의 token과 다르면 아무것도 변경하지 않고 MATCHING_FENCED 오류를 반환한다.
+-- 변경이 있으면 { epoch, changes = { {"N"|"B", 고객 ID, score} | {"R", 고객 ID} } } JSON을 변경 내역 채널로 발행한다.
+
+local waitingKey = KEYS[1]
+local arrivalKey = KEYS[2]
+local blacklistedKey = KEYS[3]
+local epochKey = KEYS[4]
+
+local op = ARGV[1]
+local customerId = ARGV[2]
+local changeChannel = ARGV[4]
+
+local fencingToken = ARGV[5]
+if fencingToken and fencingToken ~= '' and redis.call('HGET', KEYS[5], 'token') ~= fencingToken then
+    return redis.error_reply('MATCHING_FENCED')
+end
+
+local function queueTypeOf(id)
+    return redis.call('SISMEMBER', blacklistedKey, id) == 1 and 'BLACKLIST' or 'NORMAL'
+end
+
+-- 반환: 순위(없으면 0), 큐 종류
+local function rankOf(id)
+    local rank = redis.call('ZRANK', waitingKey, id)
+    if rank then
+        return rank + 1, queueTypeOf(id)
+    end
+    return 0, ''
+end
+
+local function removeEntry(id)
+    redis.call('ZREM', waitingKey, id)
+    redis.call('HDEL', arrivalKey, id)
+    redis.call('SREM', blacklistedKey, id)
+end
+
+-- change: 변경 내역 1건 (변경이 없으면 nil)
+local function reply(id, queueType, oldRank, newRank, change)
+    local epoch
+    if change then
+        epoch = redis.call('INCR', epochKey)
+        if changeChannel then
+            redis.call('PUBLISH', changeChannel, cjson.encode({ epoch = epoch, changes = { change } }))
+        end
+    else
+        epoch = tonumber(redis.call('GET', epochKey) or '0')
+    end
+    local total = redis.call('ZCARD', waitingKey)
+    local blacklistSize = redis.call('SCARD', blacklistedKey)
+    return {
+        id or '',
+        queueType,
+        oldRank,
+        newRank,
+        epoch,
+        total - blacklistSize,
+        blacklistSize,
+        change and 1 or 0
+    }
+end
+
+if op == 'ENQUEUE' then
+    local rank, queueType = rankOf(customerId)
+    if rank > 0 then
+        -- 이미 대기 중 - 변경 없음
+        return reply(customerId, queueType, rank, rank, nil)
+    end
+    redis.call('ZADD', waitingKey, ARGV[3], customerId)
+    redis.call('HSET', arrivalKey, customerId, ARGV[3])
+    local newRank = rankOf(customerId)
+    return reply(customerId, 'NORMAL', 0, newRank, { 'N', customerId, tonumber(ARGV[3]) })
+
+elseif op == 'REMOVE' then
+    local rank, queueType = rankOf(customerId)
+    if rank == 0 then
+        return reply(customerId, '', 0, 0, nil)
+    end
+    removeEntry(customerId)
+    return reply(customerId, queueType, rank, 0, { 'R', customerId })
+
+elseif op == 'POP' then
+    -- 점수가 가장 작은 고객
+    local head = redis.call('ZRANGE', waitingKey, 0, 0)
+    if #head == 0 then
+        return reply(nil, '', 0, 0, nil)
+    end
+    local queueType = queueTypeOf(head[1])
+    removeEntry(head[1])
+    return reply(head[1], queueType, 1, 0, { 'R', head[1] })
+
+elseif op == 'MOVE' then
+    -- Normal → Blacklist (Blacklist 보정만큼 점수를 낮춤)
+    local oldRank, queueType = rankOf(customerId)
+    if oldRank == 0 or queueType == 'BLACKLIST' then
+        return reply(customerId, queueType, oldRank, oldRank, nil)
+    end
+    local score = tonumber(redis.call('ZINCRBY', waitingKey, -tonumber(ARGV[6]), customerId))
+    redis.call('SADD', blacklistedKey, customerId)
+    local newRank = rankOf(customerId)
+    return reply(customerId, 'BLACKLIST', oldRank, newRank, { 'B', customerId, score })
+
+elseif op == 'RANK' then
+    local rank, queueType = rankOf(customerId)
+    return reply(customerId, queueType, rank, rank, nil)
+end
+
+return redis.error_reply('unknown queue mutation: ' .. tostring(op))
@@ -0,0 +1,14 @@
+-- 노드별 읽기 미러(QueueMirror)용 대기열 전체 스냅샷을 epoch와 함께 원자적으로 조회
+--
+-- KEYS[1] = 대기열 ZSET (queue:waiting)
+-- KEYS[2] = Blacklist 고객 SET (queue:blacklisted)
+-- KEYS[3] = 순위 epoch (queue:rank-epoch)
+--
+-- 반환: { epoch, 대기열 고객/score 목록, Blacklist 고객 목록 }
+--       (대기열 목록은 ZRANGE WITHSCORES 형식: 고객 ID, score, 고객 ID, score, ...)
+
+return {
+    tonumber(redis.call('GET', KEYS[3]) or '0'),
+    redis.call('ZRANGE', KEYS[1], 0, -1, 'WITHSCORES'),
+    redis.call('SMEMBERS', KEYS[2])
+}
@@ -0,0 +1,93 @@
+-- lease가 만료된 고객(유령고객)을 대기열과 lease에서 한꺼번에 제거
+--
+-- KEYS[1] = 대기열 ZSET (queue:waiting)
+-- KEYS[2] = 도착 시각 HASH (queue:arrivals)
+-- KEYS[3] = Blacklist 고객 SET (queue:blacklisted)
+-- KEYS[4] = 순위 epoch (queue:rank-epoch)
+-- KEYS[5] = lease 만료 시각 ZSET (queue:lease:deadlines)
+-- KEYS[6] = lease ticket → 고객 ID HASH (queue:lease:tickets)
+-- KEYS[7] = lease 고객 ID → ticket HASH (queue:lease:owners)
+--
+-- ARGV[1] = 현재 시각 (ms)
+-- ARGV[2] = 한 번에 정리하는 최대 인원
+-- ARGV[3] = 변경 내역 채널 (queue:changes, 노드별 읽기 미러용)
+--
+-- 반환: { 대기열에서 제거된 고객 목록, 제거된 고객의 변경 전 순위 목록, epoch, Normal 크기, Blacklist 크기,
+--         lease만 정리된 인원(대기열에 없던 고객) }
+--
+-- 순위는 변경 전 대기열 기준 1-indexed 순위이며, 대기열에서 제거된 고객이 있을 때만 epoch를 증가시키고
+-- 변경 내역을 queue-mutation.lua와 같은 형식으로 발행한다.
+
+local waitingKey = KEYS[1]
+local arrivalKey = KEYS[2]
+local blacklistedKey = KEYS[3]
+local epochKey = KEYS[4]
+local deadlineKey = KEYS[5]
+local leaseTicketKey = KEYS[6]
+local leaseOwnerKey = KEYS[7]
+
+local now = tonumber(ARGV[1])
+local limit = tonumber(ARGV[2])
+local changeChannel = ARGV[3]
+
+local expired = redis.call('ZRANGEBYSCORE', deadlineKey, '-inf', now, 'LIMIT', 0, limit)
+local function sizes()
+    local total = redis.call('ZCARD', waitingKey)
+    local blacklistSize = redis.call('SCARD', blacklistedKey)
+    return total - blacklistSize, blacklistSize
+end
+
+if #expired == 0 then
+    local normalSize, blacklistSize = sizes()
+    return { {}, {}, tonumber(redis.call('GET', epochKey) or '0'), normalSize, blacklistSize, 0 }
+end
+
+-- 순위는 제거 전에 모두 계산
+local evicted = {}
+local removedRanks = {}
+for _, customerId in ipairs(expired) do
+    local rank = redis.call('ZRANK', waitingKey, customerId)
+    if rank then
+        evicted[#evicted + 1] = customerId
+        removedRanks[#removedRanks + 1] = rank + 1
+    end
+end
+
+for _, customerId in ipairs(evicted) do
+    redis.call('ZREM', waitingKey, customerId)
+    redis.call('HDEL', arrivalKey, customerId)
+    redis.call('SREM', blacklistedKey, customerId)
+end
+
+for _, customerId in ipairs(expired) do
+    local ticket = redis.call('HGET', leaseOwnerKey, customerId)
+    if ticket then
+        redis.call('HDEL', leaseTicketKey, ticket)
+    end
+    redis.call('HDEL', leaseOwnerKey, customerId)
+end
+redis.call('ZREM', deadlineKey, unpack(expired))
+
+local epoch
+if #removedRanks > 0 then
+    epoch = redis.call('INCR', epochKey)
+    if changeChannel then
+        local changes = {}
+        for _, customerId in ipairs(evicted) do
+            changes[#changes + 1] = { 'R', customerId }
+        end
+        redis.call('PUBLISH', changeChannel, cjson.encode({ epoch = epoch, changes = changes }))
+    end
+else
+    epoch = tonumber(redis.call('GET', epochKey) or '0')
+end
+
+local normalSize, blacklistSize = sizes()
+return {
+    evicted,
+    removedRanks,
+    epoch,
+    normalSize,
+    blacklistSize,
+    #expired - #evicted
+}
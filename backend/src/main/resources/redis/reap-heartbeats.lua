@@ -0,0 +1,21 @@
+-- 만료된 상담원 하트비트를 꺼내 제거 (조회 + 제거를 원자적으로 수행)
+--
+-- KEYS[1] = 하트비트 ZSET (heartbeat:counselors, member = 상담원 ID, score = 마지막 하트비트 시각 ms)
+--
+-- ARGV[1] = 만료 기준 시각 (ms, 이 시각 이하로 갱신이 없으면 만료)
+-- ARGV[2] = 한 번에 꺼낼 최대 상담원 수
+--
+-- 반환: 제거된 상담원 ID 목록
+--
+-- 여러 인스턴스가 동시에 실행해도 같은 상담원은 한 인스턴스에만 반환된다.
+-- 조회와 제거 사이에 하트비트가 갱신되어 제거되는 일은 없다.
+
+local heartbeatKey = KEYS[1]
+local cutoff = ARGV[1]
+local limit = tonumber(ARGV[2])
+
+local expired = redis.call('ZRANGEBYSCORE', heartbeatKey, '-inf', cutoff, 'LIMIT', 0, limit)
+if #expired > 0 then
+    redis.call('ZREM', heartbeatKey, unpack(expired))
+end
+return expired
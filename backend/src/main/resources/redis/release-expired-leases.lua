@@ -0,0 +1,31 @@
+-- 만료 시각이 지난 lease를 한꺼번에 정리하고 해당 고객 목록을 반환
+-- (대기열을 Redis 밖에 두는 InMemoryQueueService용, 대기열에서의 제거는 호출 측이 수행)
+--
+-- KEYS[1] = lease 만료 시각 ZSET (queue:lease:deadlines)
+-- KEYS[2] = lease ticket → 고객 ID HASH (queue:lease:tickets)
+-- KEYS[3] = lease 고객 ID → ticket HASH (queue:lease:owners)
+--
+-- ARGV[1] = 현재 시각 (ms)
+-- ARGV[2] = 한 번에 정리하는 최대 인원
+--
+-- 반환: lease가 정리된 고객 ID 목록
+
+local deadlineKey = KEYS[1]
+local leaseTicketKey = KEYS[2]
+local leaseOwnerKey = KEYS[3]
+
+local expired = redis.call('ZRANGEBYSCORE', deadlineKey, '-inf', tonumber(ARGV[1]), 'LIMIT', 0, tonumber(ARGV[2]))
+if #expired == 0 then
+    return {}
+end
+
+for _, customerId in ipairs(expired) do
+    local ticket = redis.call('HGET', leaseOwnerKey, customerId)
+    if ticket then
+        redis.call('HDEL', leaseTicketKey, ticket)
+    end
+    redis.call('HDEL', leaseOwnerKey, customerId)
+end
+redis.call('ZREM', deadlineKey, unpack(expired))
+
+return expired
@@ -0,0 +1,19 @@
+-- 매칭할 상담원을 가용 목록에서 원자적으로 빼기 (매칭 리더 fencing 검사 포함)
+--
+-- KEYS[1] = 가용 상담원 SET (counselors:available)
+-- KEYS[2] = 매칭 리더 lease HASH (matching:leader)
+--
+-- ARGV[1] = 상담원 ID
+-- ARGV[2] = 매칭 리더 fencing token ("" 이면 검사하지 않음)
+--
+-- 반환: 가용 목록에서 뺐으면 1, 이미 비가용이면 0
+--
+-- fencing token이 현재 매칭 리더의 token과 다르면 아무것도 변경하지 않고 MATCHING_FENCED 오류를 반환한다.
+-- lease를 잃은 이전 리더가 새 리더와 같은 상담원을 동시에 배정하지 못하게 한다.
+
+local fencingToken = ARGV[2]
+if fencingToken and fencingToken ~= '' and redis.call('HGET', KEYS[2], 'token') ~= fencingToken then
+    return redis.error_reply('MATCHING_FENCED')
+end
+
+return redis.call('SREM', KEYS[1], ARGV[1])
@@ -0,0 +1,30 @@
+-- 스냅샷에서 복원한 고객의 lease를 원래 ticket으로 한꺼번에 다시 생성
+-- (고객은 기존 queueTicket으로 heartbeat를 이어서 보낼 수 있음)
+--
+-- KEYS[1] = lease 만료 시각 ZSET (queue:lease:deadlines)
+-- KEYS[2] = ticket → 고객 ID HASH (queue:lease:tickets)
+-- KEYS[3] = 고객 ID → ticket HASH (queue:lease:owners)
+--
+-- ARGV[1] = 새 만료 시각 (ms)
+-- ARGV[2..] = 고객 ID, ticket 2개씩 반복
+--
+-- 반환: 다시 생성한 lease 수 (이미 lease가 있는 고객은 건너뜀)
+
+local deadlineKey = KEYS[1]
+local ticketKey = KEYS[2]
+local ownerKey = KEYS[3]
+local deadline = tonumber(ARGV[1])
+
+local restored = 0
+for i = 2, #ARGV, 2 do
+    local customerId = ARGV[i]
+    local ticket = ARGV[i + 1]
+    if redis.call('HEXISTS', ownerKey, customerId) == 0 and redis.call('HEXISTS', ticketKey, ticket) == 0 then
+        redis.call('HSET', ticketKey, ticket, customerId)
+        redis.call('HSET', ownerKey, customerId, ticket)
+        redis.call('ZADD', deadlineKey, deadline, customerId)
+        restored = restored + 1
+    end
+end
+
+return restored
@@ -0,0 +1,59 @@
+-- 예상 대기 시간 집계(지수 감쇠) 갱신/조회 - 모든 노드가 같은 값으로 추정하도록 Redis에 공유
+--
+-- KEYS[1] = 집계 HASH (queue:eta, 필드: matchWeight, lastMatchAt, handleWeight, handleSum, lastHandleAt, startedAt)
+--
+-- ARGV[1] = 작업 종류 (MATCH | HANDLE | READ)
+-- ARGV[2] = 현재 시각 (ms)
+-- ARGV[3] = 감쇠 시간 상수 tau (ms, 반감기 / ln 2)
+-- ARGV[4] = 상담 시간 (초, HANDLE 전용)
+--
+-- 반환: { matchWeight, lastMatchAt, handleWeight, handleSum, lastHandleAt, startedAt } (모두 문자열)
+--
+-- MATCH: 매칭 가중치를 감쇠한 뒤 1을 더한다
+-- HANDLE: 상담 시간 가중치/합을 감쇠한 뒤 1과 상담 시간을 더한다
+-- 처음 사용할 때 startedAt을 기록해 모든 노드가 같은 구간 길이를 쓴다.
+
+local key = KEYS[1]
+local op = ARGV[1]
+local now = tonumber(ARGV[2])
+local tau = tonumber(ARGV[3])
+
+redis.call('HSETNX', key, 'startedAt', ARGV[2])
+
+local function num(field)
+    return tonumber(redis.call('HGET', key, field) or '0') or 0
+end
+
+local function decay(value, since)
+    if now > since then
+        return value * math.exp(-(now - since) / tau)
+    end
+    return value
+end
+
+local function fmt(value)
+    return string.format('%.17g', value)
+end
+
+if op == 'MATCH' then
+    local lastAt = num('lastMatchAt')
+    redis.call('HSET', key,
+        'matchWeight', fmt(decay(num('matchWeight'), lastAt) + 1),
+        'lastMatchAt', fmt(math.max(lastAt, now)))
+elseif op == 'HANDLE' then
+    local lastAt = num('lastHandleAt')
+    redis.call('HSET', key,
+        'handleWeight', fmt(decay(num('handleWeight'), lastAt) + 1),
+        'handleSum', fmt(decay(num('handleSum'), lastAt) + tonumber(ARGV[4])),
+        'lastHandleAt', fmt(math.max(lastAt, now)))
+elseif op ~= 'READ' then
+    return redis.error_reply('UNKNOWN_ETA_OP')
+end
+
+local values = redis.call('HMGET', key, 'matchWeight', 'lastMatchAt', 'handleWeight', 'handleSum', 'lastHandleAt', 'startedAt')
+for i = 1, #values do
+    if not values[i] then
+        values[i] = '0'
+    end
+end
+return values
@@ -25,7 +25,6 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
-import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -53,6 +52,8 @@ class CounselorControllerIntegrationTest {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 
     @Autowired
@@ -96,14 +97,12 @@ class CounselorControllerIntegrationTest {
     }
 
     void clearRedis() {
-        redisTemplate.delete("queue:normal");
-        redisTemplate.delete("queue:blacklist");
+        redisTemplate.delete("queue:waiting");
+        redisTemplate.delete("queue:arrivals");
+        redisTemplate.delete("queue:blacklisted");
         redisTemplate.delete("counselors:available");
-        // Clear heartbeat keys
-        Set<String> heartbeatKeys = redisTemplate.keys("heartbeat:counselor:*");
-        if (heartbeatKeys != null && !heartbeatKeys.isEmpty()) {
-            redisTemplate.delete(heartbeatKeys);
-        }
+        // Clear heartbeats
+        redisTemplate.delete("heartbeat:counselors");
     }
 
     private CustomUserDetails createUserDetails(Long userId) {
@@ -0,0 +1,156 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.ssafy.hearo.domain.matching.service.AssignmentSolver.FORBIDDEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("일괄 매칭 배정(AssignmentSolver) 테스트")
+class AssignmentSolverTest {
+
+    @Test
+    @DisplayName("앞 고객이 뒤 고객에게 꼭 필요한 상담원을 가져가지 않도록 배정한다")
+    void solve_GreedyStealsCounselor_ShouldMatchBoth() {
+        // given: 고객0은 상담원0/1 모두 가능(상담원0 선호), 고객1은 상담원0만 가능
+        double[][] scores = {
+                {15.0, 5.0},
+                {3.0, FORBIDDEN}
+        };
+
+        // when
+        int[] greedy = AssignmentSolver.greedy(scores);
+        int[] solved = AssignmentSolver.solve(scores);
+
+        // then
+        assertThat(greedy).containsExactly(0, -1);
+        assertThat(solved).containsExactly(1, 0);
+    }
+
+    @Test
+    @DisplayName("점수가 더 높아도 뒤 고객을 앞 고객보다 먼저 매칭하지 않는다")
+    void solve_LaterCustomerHigherScore_ShouldKeepWaitOrder() {
+        // given: 상담원 1명, 고객1의 점수가 훨씬 높음
+        double[][] scores = {
+                {-10.0},
+                {35.0}
+        };
+
+        // when
+        int[] solved = AssignmentSolver.solve(scores);
+
+        // then
+        assertThat(solved).containsExactly(0, -1);
+    }
+
+    @Test
+    @DisplayName("매칭 가능한 상담원이 없는 고객은 배정하지 않는다")
+    void solve_NoMatchableCounselor_ShouldLeaveUnassigned() {
+        // given
+        double[][] scores = {
+                {FORBIDDEN, FORBIDDEN},
+                {1.0, 2.0}
+        };
+
+        // when
+        int[] solved = AssignmentSolver.solve(scores);
+
+        // then
+        assertThat(solved).containsExactly(-1, 1);
+    }
+
+    @Test
+    @DisplayName("무작위 행렬에서 대기 순서 우선 조건을 지키는 배정 중 점수 합이 최대다")
+    void solve_RandomMatrices_ShouldMatchBruteForce() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 500; round++) {
+            int rows = 1 + random.nextInt(6);
+            int cols = 1 + random.nextInt(5);
+            double[][] scores = new double[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    scores[i][j] = random.nextInt(4) == 0 ? FORBIDDEN : random.nextInt(56) - 20;
+                }
+            }
+
+            int[] solved = AssignmentSolver.solve(scores);
+            int[] best = bruteForce(scores);
+
+            assertThat(isValid(scores, solved)).as("round %d", round).isTrue();
+            assertThat(matchedRows(solved)).as("round %d", round).isEqualTo(matchedRows(best));
+            assertThat(AssignmentSolver.totalScore(scores, solved)).as("round %d", round)
+                    .isEqualTo(AssignmentSolver.totalScore(scores, best));
+            // 순차 매칭보다 매칭 인원이 적지 않음
+            assertThat(Integer.bitCount(matchedRows(solved)))
+                    .isGreaterThanOrEqualTo(Integer.bitCount(matchedRows(AssignmentSolver.greedy(scores))));
+        }
+    }
+
+    /**
+     * 전수 탐색: 매칭 고객 집합이 대기 순서상 가장 앞선 배정 중 점수 합 최대
+     */
+    private int[] bruteForce(double[][] scores) {
+        int[] current = new int[scores.length];
+        int[][] best = {null};
+        search(scores, 0, current, new boolean[scores[0].length], best);
+        return best[0];
+    }
+
+    private void search(double[][] scores, int row, int[] current, boolean[] taken, int[][] best) {
+        if (row == scores.length) {
+            if (best[0] == null || isBetter(scores, current, best[0])) {
+                best[0] = current.clone();
+            }
+            return;
+        }
+        current[row] = -1;
+        search(scores, row + 1, current, taken, best);
+        for (int col = 0; col < taken.length; col++) {
+            if (!taken[col] && scores[row][col] != FORBIDDEN) {
+                taken[col] = true;
+                current[row] = col;
+                search(scores, row + 1, current, taken, best);
+                taken[col] = false;
+            }
+        }
+        current[row] = -1;
+    }
+
+    private boolean isBetter(double[][] scores, int[] candidate, int[] best) {
+        for (int i = 0; i < candidate.length; i++) {
+            boolean candidateMatched = candidate[i] >= 0;
+            boolean bestMatched = best[i] >= 0;
+            if (candidateMatched != bestMatched) {
+                return candidateMatched;
+            }
+        }
+        return AssignmentSolver.totalScore(scores, candidate) > AssignmentSolver.totalScore(scores, best);
+    }
+
+    private boolean isValid(double[][] scores, int[] assignment) {
+        boolean[] taken = new boolean[scores[0].length];
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] < 0) {
+                continue;
+            }
+            if (taken[assignment[i]] || scores[i][assignment[i]] == FORBIDDEN) {
+                return false;
+            }
+            taken[assignment[i]] = true;
+        }
+        return true;
+    }
+
+    private int matchedRows(int[] assignment) {
+        int mask = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+}
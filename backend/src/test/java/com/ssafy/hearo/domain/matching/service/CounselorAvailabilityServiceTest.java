@@ -1,5 +1,6 @@
 package com.ssafy.hearo.domain.matching.service;
 
+import com.ssafy.hearo.domain.user.service.HeartbeatServiceImpl;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -54,11 +55,13 @@ class CounselorAvailabilityServiceTest {
     @BeforeEach
     void setup() {
         availabilityService.clearAll();
+        redisTemplate.delete(HeartbeatServiceImpl.HEARTBEAT_KEY);
     }
 
     @AfterEach
     void cleanup() {
         availabilityService.clearAll();
+        redisTemplate.delete(HeartbeatServiceImpl.HEARTBEAT_KEY);
     }
 
     @Test
@@ -230,4 +233,40 @@ class CounselorAvailabilityServiceTest {
         assertThat(availabilityService.isAvailable(3L)).isTrue();
         assertThat(availabilityService.getAvailableCount()).isEqualTo(2);
     }
+
+    @Test
+    @Order(12)
+    @DisplayName("cancelReservation: 하트비트가 살아 있는 상담원은 다시 가용 목록에 넣는다")
+    void cancelReservation_HeartbeatAlive_ShouldRestore() {
+        // given: 배정으로 가용 목록에서 빠진 상담원
+        Long counselorId = 21L;
+        availabilityService.setAvailable(counselorId);
+        redisTemplate.opsForZSet().add(HeartbeatServiceImpl.HEARTBEAT_KEY, counselorId.toString(), System.currentTimeMillis());
+        assertThat(availabilityService.reserveForMatching(counselorId)).isTrue();
+
+        // when
+        boolean restored = availabilityService.cancelReservation(counselorId);
+
+        // then
+        assertThat(restored).isTrue();
+        assertThat(availabilityService.isAvailable(counselorId)).isTrue();
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("cancelReservation: 배정 후 하트비트가 끊긴 상담원은 다시 가용으로 되살리지 않는다")
+    void cancelReservation_HeartbeatGone_ShouldKeepUnavailable() {
+        // given: 22는 배정 후 로그아웃(하트비트 제거), 23은 하트비트 만료
+        availabilityService.setAvailable(22L);
+        availabilityService.setAvailable(23L);
+        assertThat(availabilityService.reserveForMatching(22L)).isTrue();
+        assertThat(availabilityService.reserveForMatching(23L)).isTrue();
+        redisTemplate.opsForZSet().add(HeartbeatServiceImpl.HEARTBEAT_KEY, "23", System.currentTimeMillis() - 31_000);
+
+        // when & then
+        assertThat(availabilityService.cancelReservation(22L)).isFalse();
+        assertThat(availabilityService.cancelReservation(23L)).isFalse();
+        assertThat(availabilityService.isAvailable(22L)).isFalse();
+        assertThat(availabilityService.isAvailable(23L)).isFalse();
+    }
 }
@@ -0,0 +1,239 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.consultation.dto.ConsultationRatingDto;
+import com.ssafy.hearo.domain.consultation.dto.ConsultationStartRequest;
+import com.ssafy.hearo.domain.consultation.entity.Consultation;
+import com.ssafy.hearo.domain.consultation.entity.ConsultationRating;
+import com.ssafy.hearo.domain.consultation.service.ConsultationRatingService;
+import com.ssafy.hearo.domain.consultation.service.ConsultationService;
+import com.ssafy.hearo.domain.customer.entity.Customer;
+import com.ssafy.hearo.domain.product.entity.Product;
+import com.ssafy.hearo.domain.registration.entity.Registration;
+import com.ssafy.hearo.domain.user.entity.User;
+import com.ssafy.hearo.domain.user.entity.UserRole;
+import com.ssafy.hearo.support.IntegrationTestSupport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("상담원 매칭 점수 계산 테스트")
+class CounselorScoreServiceTest extends IntegrationTestSupport {
+
+    private static final String CATEGORY = "냉장고";
+    private static final int COUNSELOR_COUNT = 100;
+
+    @Autowired
+    private CounselorScoreService counselorScoreService;
+
+    @Autowired
+    private CounselorAffinityService counselorAffinityService;
+
+    @Autowired
+    private ConsultationService consultationService;
+
+    @Autowired
+    private ConsultationRatingService consultationRatingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    private Integer customerId;
+    private Integer registrationId;
+    private List<Long> counselorIds;
+
+    @BeforeEach
+    void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        seed();
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.execute(status -> {
+            entityManager.createNativeQuery("DELETE FROM counselor_customer_affinities").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM counselor_category_experiences").executeUpdate();
+            // FK 제약조건 순서대로 삭제
+            entityManager.createNativeQuery("DELETE FROM consultation_ratings").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM voice_recordings").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM consultations").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM registrations").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM blacklists").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM customers").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM users").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM products").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("과거 평점과 카테고리 경험이 상담원별 점수에 반영된다")
+    void scoreCandidates_ShouldApplyRatingAndCategoryWeights() {
+        // given: 상담원0 - 평점 4.5 상담 1회 + 같은 카테고리 1회
+        //        상담원1 - 평점 2.0 상담 1회 + 같은 카테고리 1회
+        //        상담원2 - 평가 없는 상담 1회 + 같은 카테고리 1회
+        //        상담원3 - 이력 없음
+        Set<Long> candidates = new LinkedHashSet<>(counselorIds.subList(0, 4));
+
+        // when
+        Map<Long, Double> scores = counselorScoreService.scoreCandidates(customerId.toString(), candidates);
+
+        // then
+        assertThat(scores.get(counselorIds.get(0))).isCloseTo(15.0 + 3.0, within(0.001));
+        assertThat(scores.get(counselorIds.get(1))).isCloseTo(-10.0 + 3.0, within(0.001));
+        assertThat(scores.get(counselorIds.get(2))).isCloseTo(3.0, within(0.001));
+        assertThat(scores.get(counselorIds.get(3))).isZero();
+        assertThat(counselorScoreService.selectBestCounselor(customerId.toString(), candidates))
+                .isEqualTo(counselorIds.get(0));
+    }
+
+    @Test
+    @DisplayName("후보 상담원 수가 늘어나도 점수 계산 쿼리 수는 일정하다")
+    void scoreCandidates_QueryCountShouldNotGrowWithCandidates() {
+        List<Long> statementCounts = new ArrayList<>();
+
+        for (int size : new int[]{5, 20, 50, 100}) {
+            Set<Long> candidates = new HashSet<>(counselorIds.subList(0, size));
+
+            statistics.clear();
+            counselorScoreService.scoreCandidates(customerId.toString(), candidates);
+            statementCounts.add(statistics.getPrepareStatementCount());
+        }
+
+        // 접수 조회 1회 + 상담원-고객 통계 1회 + 카테고리 통계 1회
+        assertThat(statementCounts).containsOnly(3L);
+    }
+
+    @Test
+    @DisplayName("상담 생성과 평점 등록/수정/삭제가 매칭 점수에 바로 반영된다")
+    void scoreCandidates_ShouldFollowConsultationAndRatingChanges() {
+        // given: 이력 없는 상담원3
+        Long counselorId = counselorIds.get(3);
+        Set<Long> candidates = Set.of(counselorId);
+        assertThat(counselorScoreService.scoreCandidates(customerId.toString(), candidates).get(counselorId)).isZero();
+
+        // when & then: 상담 생성 → 카테고리 경험 1회
+        ConsultationStartRequest request = new ConsultationStartRequest();
+        ReflectionTestUtils.setField(request, "customerId", customerId);
+        ReflectionTestUtils.setField(request, "registrationId", registrationId);
+        Integer consultationId = consultationService.startConsultation(counselorId, request).getConsultationId();
+        assertThat(counselorScoreService.scoreCandidates(customerId.toString(), candidates).get(counselorId))
+                .isCloseTo(3.0, within(0.001));
+
+        // 평점 5.0 등록 → (5.0 - 3.0) * 10 + 3
+        consultationRatingService.createRating(consultationId, ratingRequest("5.0"));
+        assertThat(counselorScoreService.scoreCandidates(customerId.toString(), candidates).get(counselorId))
+                .isCloseTo(23.0, within(0.001));
+
+        // 평점 1.0으로 수정 → (1.0 - 3.0) * 10 + 3
+        consultationRatingService.updateRatingByConsultationId(consultationId, ratingRequest("1.0"));
+        assertThat(counselorScoreService.scoreCandidates(customerId.toString(), candidates).get(counselorId))
+                .isCloseTo(-17.0, within(0.001));
+
+        // 평점 삭제 → 평가 없는 상담만 남음
+        consultationRatingService.deleteRatingByConsultationId(consultationId);
+        assertThat(counselorScoreService.scoreCandidates(customerId.toString(), candidates).get(counselorId))
+                .isCloseTo(3.0, within(0.001));
+    }
+
+    private ConsultationRatingDto.Request ratingRequest(String value) {
+        BigDecimal rating = new BigDecimal(value);
+        return new ConsultationRatingDto.Request(rating, rating, rating, "후기");
+    }
+
+    /**
+     * 상담원 100명, 고객 1명, 상담원마다 해당 고객/카테고리 상담 이력 생성
+     */
+    private void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = Product.builder()
+                    .name("테스트 냉장고")
+                    .code("SCORE-" + UUID.randomUUID().toString().substring(0, 8))
+                    .category(CATEGORY)
+                    .build();
+            entityManager.persist(product);
+
+            Customer customer = Customer.builder().name("점수고객").phone("010-5555-0000").build();
+            entityManager.persist(customer);
+
+            Registration registration = Registration.builder()
+                    .customer(customer)
+                    .product(product)
+                    .symptom("냉각 불량")
+                    .build();
+            entityManager.persist(registration);
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < COUNSELOR_COUNT; i++) {
+                User counselor = User.builder()
+                        .email("score-counselor" + i + "@test.com")
+                        .password("password")
+                        .name("상담원" + i)
+                        .role(UserRole.USER)
+                        .build();
+                entityManager.persist(counselor);
+                ids.add(counselor.getId());
+
+                if (i == 3) {
+                    continue; // 이력 없는 상담원
+                }
+                Consultation consultation = Consultation.builder()
+                        .user(counselor)
+                        .customer(customer)
+                        .registration(registration)
+                        .title("상담")
+                        .build();
+                entityManager.persist(consultation);
+
+                BigDecimal rating = switch (i) {
+                    case 0 -> new BigDecimal("4.5");
+                    case 1 -> new BigDecimal("2.0");
+                    case 2 -> null;
+                    default -> BigDecimal.valueOf(1 + i % 5);
+                };
+                if (rating != null) {
+                    entityManager.persist(ConsultationRating.builder()
+                            .consultation(consultation)
+                            .processRating(rating)
+                            .solutionRating(rating)
+                            .kindnessRating(rating)
+                            .build());
+                }
+            }
+            entityManager.flush();
+
+            customerId = customer.getId();
+            registrationId = registration.getId();
+            counselorIds = ids;
+        });
+        // 엔티티를 직접 저장했으므로 통계 테이블은 상담 이력으로 다시 집계
+        counselorAffinityService.rebuild();
+    }
+}
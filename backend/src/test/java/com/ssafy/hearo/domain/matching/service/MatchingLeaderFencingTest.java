@@ -0,0 +1,137 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.queue.service.QueueAdmissionService;
+import com.ssafy.hearo.domain.queue.service.QueueService;
+import com.ssafy.hearo.domain.user.service.HeartbeatServiceImpl;
+import com.ssafy.hearo.support.IntegrationTestSupport;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 매칭 리더 fencing 통합 테스트
+ * 통합 테스트 컨텍스트는 리더 선출을 끄므로, 노드 두 개를 직접 만들어 리더를 넘겨받게 한다.
+ */
+@DisplayName("매칭 리더 fencing 테스트")
+class MatchingLeaderFencingTest extends IntegrationTestSupport {
+
+    private static final String CUSTOMER_ID = "fenced-customer-1";
+    private static final String HELD_CUSTOMER_ID = "fenced-held-1";
+    private static final long COUNSELOR_ID = 9001L;
+    private static final long RESERVED_COUNSELOR_ID = 9002L;
+    private static final long LEASE_MS = 300;
+
+    @Autowired
+    private QueueService queueService;
+
+    @Autowired
+    private CounselorAvailabilityService availabilityService;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @MockBean
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    private MatchingLeaderElection oldLeader;
+    private MatchingLeaderElection newLeader;
+
+    @BeforeEach
+    void setup() {
+        clearRedis();
+        oldLeader = election("node-a");
+        newLeader = election("node-b");
+    }
+
+    @AfterEach
+    void cleanup() {
+        clearRedis();
+    }
+
+    void clearRedis() {
+        redisTemplate.delete(MatchingLeaderElection.LEADER_KEY);
+        redisTemplate.delete("queue:waiting");
+        redisTemplate.delete("queue:arrivals");
+        redisTemplate.delete("queue:blacklisted");
+        redisTemplate.delete("counselors:available");
+        redisTemplate.delete(QueueAdmissionService.HOLD_QUEUE_KEY);
+        redisTemplate.delete(HeartbeatServiceImpl.HEARTBEAT_KEY);
+    }
+
+    @Test
+    @DisplayName("lease를 잃은 이전 리더의 고객 추출/매칭 탐색/콜백 대기 이동/상담원 배정과 배정 취소는 거부되고 새 리더는 처리한다")
+    void staleLeader_ShouldBeFenced() {
+        // given
+        queueService.enqueue(CUSTOMER_ID);
+        redisTemplate.opsForZSet().add(QueueAdmissionService.HOLD_QUEUE_KEY, HELD_CUSTOMER_ID, 1);
+        availabilityService.setAvailable(COUNSELOR_ID);
+        // 이전 리더가 배정해 가용 목록에서 빠진 상태의 상담원 (하트비트는 살아 있음)
+        redisTemplate.opsForZSet().add(HeartbeatServiceImpl.HEARTBEAT_KEY,
+                String.valueOf(RESERVED_COUNSELOR_ID), System.currentTimeMillis());
+        AtomicBoolean oldLeaderRan = new AtomicBoolean();
+
+        // when: 이전 리더가 사이클 도중 멈춘 사이 lease가 만료되고 다른 노드가 리더가 됨
+        boolean ran = oldLeader.runAsLeader(() -> {
+            oldLeaderRan.set(true);
+            sleep(LEASE_MS + 100);
+            newLeader.renew();
+            assertThat(newLeader.isLeader()).isTrue();
+
+            // then: 이전 token의 쓰기는 모두 거부
+            assertThatThrownBy(() -> queueService.claim(CUSTOMER_ID))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> queueService.peekMatchable(Set.of(COUNSELOR_ID), 1))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> queueService.ageUnmatchable(Set.of(COUNSELOR_ID)))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> queueService.enqueueAllFromHold(
+                    QueueAdmissionService.HOLD_QUEUE_KEY, List.of(HELD_CUSTOMER_ID)))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> availabilityService.reserveForMatching(COUNSELOR_ID))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> availabilityService.cancelReservation(RESERVED_COUNSELOR_ID))
+                    .isInstanceOf(IllegalStateException.class);
+        });
+
+        assertThat(ran).isTrue();
+        assertThat(oldLeaderRan).isTrue();
+        assertThat(newLeader.getStatus().fencingToken()).isGreaterThan(0);
+        assertThat(queueService.isInQueue(CUSTOMER_ID)).isTrue();
+        assertThat(queueService.isInQueue(HELD_CUSTOMER_ID)).isFalse();
+        assertThat(redisTemplate.opsForZSet().rank(QueueAdmissionService.HOLD_QUEUE_KEY, HELD_CUSTOMER_ID)).isZero();
+        assertThat(availabilityService.isAvailable(COUNSELOR_ID)).isTrue();
+        assertThat(availabilityService.isAvailable(RESERVED_COUNSELOR_ID)).isFalse();
+
+        // 새 리더의 token으로는 배정과 추출이 성공
+        assertThat(newLeader.runAsLeader(() -> {
+            assertThat(availabilityService.reserveForMatching(COUNSELOR_ID)).isTrue();
+            assertThat(queueService.claim(CUSTOMER_ID)).isTrue();
+        })).isTrue();
+    }
+
+    private MatchingLeaderElection election(String nodeName) {
+        MatchingLeaderElection election = new MatchingLeaderElection(redisTemplate);
+        ReflectionTestUtils.setField(election, "enabled", true);
+        ReflectionTestUtils.setField(election, "leaseMs", LEASE_MS);
+        ReflectionTestUtils.setField(election, "nodeName", nodeName);
+        return election;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.matching.service.MatchingPartitioner.Partition;
+import com.ssafy.hearo.domain.queue.service.QueueService.MatchCandidate;
+import com.ssafy.hearo.domain.registration.repository.RegistrationRepository;
+import com.ssafy.hearo.domain.registration.repository.RegistrationRepository.CustomerCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("카테고리 매칭 파티션 테스트")
+class MatchingPartitionerTest {
+
+    private RegistrationRepository registrationRepository;
+    private CounselorAffinityService affinityService;
+    private MatchingPartitioner partitioner;
+
+    @BeforeEach
+    void setUp() {
+        registrationRepository = mock(RegistrationRepository.class);
+        affinityService = mock(CounselorAffinityService.class);
+        partitioner = new MatchingPartitioner(registrationRepository, affinityService, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        partitioner.shutdown();
+    }
+
+    @Test
+    @DisplayName("고객은 접수 카테고리, 상담원은 주 카테고리로 나뉘고 고객의 대기 순서는 유지된다")
+    void partition_ShouldGroupByCategoryKeepingOrder() {
+        // given: 대기 순서 1 → 2 → 3 → 4 (4는 접수 이력 없음)
+        List<MatchCandidate> candidates = List.of(
+                candidate("customer_1"), candidate("customer_2"), candidate("customer_3"), candidate("customer_4"));
+        List<CustomerCategory> categories = List.of(category(1, "TV"), category(2, "WASHER"), category(3, "TV"));
+        when(registrationRepository.findLatestCategories(anyCollection())).thenReturn(categories);
+        when(affinityService.findHomeCategories(anyCollection())).thenReturn(Map.of(10L, "TV", 20L, "AIRCON"));
+
+        // when
+        List<Partition> partitions = partitioner.partition(candidates, List.of(10L, 20L, 30L));
+
+        // then
+        Map<String, Partition> byCategory = partitions.stream()
+                .collect(Collectors.toMap(Partition::category, Function.identity()));
+        assertThat(byCategory.keySet()).containsExactlyInAnyOrder("TV", "WASHER", "AIRCON", MatchingPartitioner.DEFAULT_PARTITION);
+        assertThat(byCategory.get("TV").candidates()).extracting(MatchCandidate::customerId)
+                .containsExactly("customer_1", "customer_3");
+        assertThat(byCategory.get("TV").counselorIds()).containsExactly(10L);
+        assertThat(byCategory.get("WASHER").counselorIds()).isEmpty();
+        assertThat(byCategory.get("AIRCON").candidates()).isEmpty();
+        assertThat(byCategory.get(MatchingPartitioner.DEFAULT_PARTITION).candidates())
+                .extracting(MatchCandidate::customerId).containsExactly("customer_4");
+        assertThat(byCategory.get(MatchingPartitioner.DEFAULT_PARTITION).counselorIds()).containsExactly(30L);
+    }
+
+    @Test
+    @DisplayName("파티션 작업은 동시에 실행되고 결과는 작업 순서대로 반환된다")
+    void runAll_ShouldRunConcurrentlyInTaskOrder() {
+        // given: 두 작업이 서로를 기다림 (동시에 실행되지 않으면 시간 초과)
+        CountDownLatch latch = new CountDownLatch(2);
+        Callable<String> first = () -> {
+            latch.countDown();
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            return "first";
+        };
+        Callable<String> second = () -> {
+            latch.countDown();
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            return "second";
+        };
+
+        // when
+        List<String> results = partitioner.runAll(List.of(first, second));
+
+        // then
+        assertThat(results).containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("작업자 스레드도 매칭 사이클의 fencing token을 사용한다")
+    void runAll_ShouldPropagateFencingToken() {
+        // given: fencing token 7로 lease를 가진 리더
+        MatchingLeaderElection election = new MatchingLeaderElection(null);
+        ReflectionTestUtils.setField(election, "enabled", true);
+        ReflectionTestUtils.setField(election, "fencingToken", 7L);
+        ReflectionTestUtils.setField(election, "leaseValidUntilNanos", System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+        Callable<String> readToken = MatchingLeaderElection::currentFencingToken;
+
+        // when
+        List<List<String>> results = new ArrayList<>();
+        election.runAsLeader(() -> results.add(partitioner.runAll(List.of(readToken, readToken))));
+
+        // then
+        assertThat(results.get(0)).containsExactly("7", "7");
+        assertThat(partitioner.runAll(List.of(readToken, readToken))).containsExactly("", "");
+    }
+
+    @Test
+    @DisplayName("작업 하나가 실패하면 나머지 작업을 기다린 뒤 예외를 전달한다")
+    void runAll_Failure_ShouldPropagate() {
+        // given
+        Callable<String> failing = () -> {
+            throw new IllegalStateException("실패");
+        };
+        Callable<String> ok = () -> "ok";
+
+        // when & then
+        assertThatThrownBy(() -> partitioner.runAll(List.of(ok, failing)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("실패");
+    }
+
+    private static MatchCandidate candidate(String customerId) {
+        return new MatchCandidate(customerId, Set.of(10L, 20L, 30L));
+    }
+
+    private static CustomerCategory category(int customerId, String category) {
+        CustomerCategory row = mock(CustomerCategory.class);
+        when(row.getCustomerId()).thenReturn(customerId);
+        when(row.getCategory()).thenReturn(category);
+        return row;
+    }
+}
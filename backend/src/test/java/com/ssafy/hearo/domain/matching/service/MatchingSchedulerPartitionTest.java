@@ -0,0 +1,219 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.customer.service.BlacklistIndex;
+import com.ssafy.hearo.domain.matching.service.MatchingScheduler.MatchingCompletedEvent;
+import com.ssafy.hearo.domain.queue.service.InMemoryQueueService;
+import com.ssafy.hearo.domain.queue.service.QueueEventPublisher;
+import com.ssafy.hearo.domain.queue.service.QueueLeaseService;
+import com.ssafy.hearo.domain.queue.service.QueuePriority;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import com.ssafy.hearo.domain.registration.repository.RegistrationRepository;
+import com.ssafy.hearo.domain.registration.repository.RegistrationRepository.CustomerCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 파티션 매칭(MatchingScheduler.matchInPartitions) 테스트
+ * 대기열은 메모리 구현을, 상담원 가용 목록은 메모리 Set을 사용한다.
+ */
+@DisplayName("파티션 매칭 스케줄러 테스트")
+class MatchingSchedulerPartitionTest {
+
+    private InMemoryQueueService queueService;
+    private BlacklistIndex blacklistIndex;
+    private CounselorAvailabilityService availabilityService;
+    private CounselorScoreService scoreService;
+    private RegistrationRepository registrationRepository;
+    private CounselorAffinityService affinityService;
+    private MatchingPartitioner partitioner;
+    private MatchingScheduler scheduler;
+
+    // 가용 상담원 (reserveForMatching/cancelReservation이 변경)
+    private final Set<Long> available = ConcurrentHashMap.newKeySet();
+    private final List<MatchingCompletedEvent> events = Collections.synchronizedList(new ArrayList<>());
+    private final List<CustomerCategory> customerCategories = new ArrayList<>();
+    private final Map<Long, String> counselorCategories = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        QueueLeaseService leaseService = mock(QueueLeaseService.class);
+        when(leaseService.findAliveCustomers(anyCollection()))
+                .thenAnswer(invocation -> new HashSet<>((Collection<String>) invocation.getArgument(0)));
+        blacklistIndex = mock(BlacklistIndex.class);
+        // 사이클 안의 조회/aging 호출 횟수를 확인하기 위해 spy로 감쌈
+        queueService = spy(new InMemoryQueueService(mock(QueueEventPublisher.class), blacklistIndex,
+                leaseService, new QueuePriority(300_000, 5_000, 120_000), mock(RedisTemplate.class)));
+        ReflectionTestUtils.setField(queueService, "scanLimit", 200);
+
+        availabilityService = mock(CounselorAvailabilityService.class);
+        when(availabilityService.getMatchableCounselorIds()).thenAnswer(invocation -> new HashSet<>(available));
+        when(availabilityService.reserveForMatching(anyLong()))
+                .thenAnswer(invocation -> available.remove(invocation.<Long>getArgument(0)));
+        doAnswer(invocation -> available.add(invocation.getArgument(0)))
+                .when(availabilityService).cancelReservation(anyLong());
+
+        // 모든 조합 같은 점수 (대기 순서대로 배정)
+        scoreService = mock(CounselorScoreService.class);
+        when(scoreService.scoreCandidates(anyString(), anySet())).thenAnswer(invocation -> {
+            Map<Long, Double> scores = new HashMap<>();
+            for (Long counselorId : invocation.<Set<Long>>getArgument(1)) {
+                scores.put(counselorId, 1.0);
+            }
+            return scores;
+        });
+
+        registrationRepository = mock(RegistrationRepository.class);
+        when(registrationRepository.findLatestCategories(anyCollection())).thenReturn(customerCategories);
+        affinityService = mock(CounselorAffinityService.class);
+        when(affinityService.findHomeCategories(anyCollection())).thenReturn(counselorCategories);
+        partitioner = new MatchingPartitioner(registrationRepository, affinityService, 2);
+
+        MatchingLeaderElection leaderElection = mock(MatchingLeaderElection.class);
+        when(leaderElection.runAsLeader(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        doAnswer(invocation -> events.add(invocation.getArgument(0)))
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        scheduler = new MatchingScheduler(queueService, leaseService, availabilityService, scoreService,
+                mock(QueueEventPublisher.class), eventPublisher, registrationRepository, leaderElection, partitioner);
+        ReflectionTestUtils.setField(scheduler, "batchEnabled", true);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 5);
+        ReflectionTestUtils.setField(scheduler, "partitionEnabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        partitioner.shutdown();
+    }
+
+    @Test
+    @DisplayName("자기 카테고리 고객이 없는 상담원은 다른 파티션의 남은 고객을 가져간다")
+    void executeMatching_IdleCounselor_ShouldStealFromOtherPartition() {
+        // given: TV 고객 2명, TV 상담원 10 / 에어컨 상담원 20 (에어컨 고객 없음)
+        customer(1, "TV");
+        customer(2, "TV");
+        counselor(10L, "TV");
+        counselor(20L, "AIRCON");
+
+        // when
+        scheduler.executeMatching();
+
+        // then: 10은 자기 파티션에서, 20은 가져오기로 TV 고객을 배정받음
+        assertThat(events).hasSize(2);
+        assertThat(events).extracting(MatchingCompletedEvent::customerId)
+                .containsExactlyInAnyOrder("customer_1", "customer_2");
+        assertThat(events).extracting(MatchingCompletedEvent::counselorId).containsExactlyInAnyOrder(10L, 20L);
+        assertThat(queueService.getQueueSizes().totalSize()).isZero();
+        assertThat(available).isEmpty();
+    }
+
+    @Test
+    @DisplayName("여러 파티션이 동시에 배정해도 고객과 상담원은 한 번씩만 배정된다")
+    void executeMatching_ManyPartitions_ShouldAssignEachCustomerOnce() {
+        // given: 세 카테고리 고객 12명, 상담원 8명 (고객 없는 카테고리/미분류 상담원 포함)
+        String[] categories = {"TV", "WASHER", "FRIDGE"};
+        for (int i = 1; i <= 12; i++) {
+            customer(i, categories[i % categories.length]);
+        }
+        counselor(10L, "TV");
+        counselor(11L, "TV");
+        counselor(20L, "WASHER");
+        counselor(30L, "FRIDGE");
+        counselor(31L, "FRIDGE");
+        counselor(32L, "FRIDGE");
+        counselor(40L, "AIRCON");
+        counselor(50L, null);
+
+        // when
+        scheduler.executeMatching();
+
+        // then
+        List<String> customers = events.stream().map(MatchingCompletedEvent::customerId).toList();
+        List<Long> counselors = events.stream().map(MatchingCompletedEvent::counselorId).toList();
+        assertThat(customers).hasSize(8).doesNotHaveDuplicates();
+        assertThat(counselors).hasSize(8).doesNotHaveDuplicates();
+        assertThat(customers).noneMatch(queueService::isInQueue);
+        assertThat(queueService.getQueueSizes().totalSize()).isEqualTo(4);
+        assertThat(available).isEmpty();
+    }
+
+    @Test
+    @DisplayName("한 파티션의 배정이 실패해도 다른 파티션은 배정되고 실패한 파티션 고객은 가져오기로 배정된다")
+    void executeMatching_PartitionFailure_ShouldNotBlockOthers() {
+        // given: 세탁기 파티션의 점수 계산이 한 번 실패
+        customer(1, "TV");
+        customer(2, "WASHER");
+        counselor(10L, "TV");
+        counselor(20L, "WASHER");
+        when(scoreService.scoreCandidates(eq("customer_2"), anySet()))
+                .thenThrow(new IllegalStateException("점수 계산 실패"))
+                .thenReturn(Map.of(20L, 1.0));
+
+        // when
+        scheduler.executeMatching();
+
+        // then
+        assertThat(events).extracting(MatchingCompletedEvent::customerId)
+                .containsExactlyInAnyOrder("customer_1", "customer_2");
+        assertThat(events).filteredOn(event -> event.customerId().equals("customer_1"))
+                .extracting(MatchingCompletedEvent::counselorId).containsExactly(10L);
+        assertThat(events).filteredOn(event -> event.customerId().equals("customer_2"))
+                .extracting(MatchingCompletedEvent::counselorId).containsExactly(20L);
+        assertThat(queueService.getQueueSizes().totalSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("한 사이클에서 후보를 여러 번 조회해도 매칭 불가 고객의 aging은 한 번만 적용된다")
+    void executeMatching_MultipleWindows_ShouldAgeOncePerCycle() {
+        // given: 모든 상담원과 차단된 고객 99가 맨 앞, 그 뒤로 TV 고객 12명 / TV 상담원 12명
+        queueService.enqueue("99");
+        for (int i = 1; i <= 12; i++) {
+            customer(i, "TV");
+        }
+        for (long counselorId = 10; counselorId < 22; counselorId++) {
+            counselor(counselorId, "TV");
+        }
+        when(blacklistIndex.findBlockedCounselorIds(99)).thenReturn(new HashSet<>(available));
+
+        // when
+        scheduler.executeMatching();
+
+        // then: 후보 조회는 두 번(10명 + 2명), aging은 사이클 시작 시 한 번
+        assertThat(events).hasSize(12);
+        verify(queueService, times(2)).peekMatchable(anySet(), eq(10));
+        verify(queueService, times(1)).ageUnmatchable(anySet());
+        assertThat(queueService.getQueueType("99")).contains(QueueType.BLACKLIST);
+        assertThat(queueService.getQueueSizes().totalSize()).isEqualTo(1);
+    }
+
+    private void customer(int dbId, String category) {
+        queueService.enqueue("customer_" + dbId);
+        CustomerCategory row = mock(CustomerCategory.class);
+        when(row.getCustomerId()).thenReturn(dbId);
+        when(row.getCategory()).thenReturn(category);
+        customerCategories.add(row);
+    }
+
+    private void counselor(Long counselorId, String category) {
+        available.add(counselorId);
+        if (category != null) {
+            counselorCategories.put(counselorId, category);
+        }
+    }
+}
@@ -47,6 +47,12 @@ class MatchingSchedulerTest {
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         // 스케줄링 비활성화 (수동으로 호출할 것이므로)
         registry.add("spring.task.scheduling.pool.size", () -> "0");
+        // 이벤트 기반 매칭 비활성화 (수동으로 호출할 것이므로)
+        registry.add("queue.matching.event-trigger", () -> "false");
+        // 단일 노드로 실행 (다른 테스트 컨텍스트가 남긴 리더 lease에 막히지 않도록)
+        registry.add("matching.leader.enabled", () -> "false");
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 
     @Autowired
@@ -103,14 +109,12 @@ class MatchingSchedulerTest {
     }
 
     void clearRedis() {
-        redisTemplate.delete("queue:normal");
-        redisTemplate.delete("queue:blacklist");
+        redisTemplate.delete("queue:waiting");
+        redisTemplate.delete("queue:arrivals");
+        redisTemplate.delete("queue:blacklisted");
         redisTemplate.delete("counselors:available");
-        // Clear heartbeat keys
-        java.util.Set<String> heartbeatKeys = redisTemplate.keys("heartbeat:counselor:*");
-        if (heartbeatKeys != null && !heartbeatKeys.isEmpty()) {
-            redisTemplate.delete(heartbeatKeys);
-        }
+        // Clear heartbeats
+        redisTemplate.delete("heartbeat:counselors");
     }
 
     /**
@@ -0,0 +1,122 @@
+package com.ssafy.hearo.domain.matching.service;
+
+import com.ssafy.hearo.domain.matching.service.MatchingTrigger.MatchingRequestedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("이벤트 기반 매칭 트리거 테스트")
+class MatchingTriggerTest {
+
+    private MatchingScheduler matchingScheduler;
+    private TaskScheduler taskScheduler;
+    private MatchingLeaderElection leaderElection;
+    private RedisTemplate<String, String> redisTemplate;
+    private MatchingTrigger matchingTrigger;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        matchingScheduler = mock(MatchingScheduler.class);
+        taskScheduler = mock(TaskScheduler.class);
+        leaderElection = mock(MatchingLeaderElection.class);
+        redisTemplate = mock(RedisTemplate.class);
+        when(leaderElection.isLeader()).thenReturn(true);
+        matchingTrigger = new MatchingTrigger(matchingScheduler, taskScheduler, leaderElection,
+                redisTemplate, mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(matchingTrigger, "enabled", true);
+        ReflectionTestUtils.setField(matchingTrigger, "debounceMs", 50L);
+    }
+
+    @Test
+    @DisplayName("짧은 시간 안의 여러 요청은 한 번의 매칭 실행으로 합쳐진다")
+    void onMatchingRequested_Burst_ShouldScheduleOnce() {
+        // when
+        matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("enqueue:1"));
+        matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("enqueue:2"));
+        matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("available:3"));
+
+        // then
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(captor.capture(), any(Instant.class));
+
+        captor.getValue().run();
+        verify(matchingScheduler, times(1)).executeMatching();
+    }
+
+    @Test
+    @DisplayName("매칭 실행이 시작된 뒤 들어온 요청은 다음 실행으로 예약된다")
+    void onMatchingRequested_AfterRunStarted_ShouldScheduleAgain() {
+        // given
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("enqueue:1"));
+        verify(taskScheduler).schedule(captor.capture(), any(Instant.class));
+
+        // 실행 중에 새 요청이 들어옴
+        doAnswer(invocation -> {
+            matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("enqueue:2"));
+            return null;
+        }).when(matchingScheduler).executeMatching();
+
+        // when
+        captor.getValue().run();
+
+        // then
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("이벤트 트리거가 꺼져 있으면 매칭을 예약하지 않는다")
+    void onMatchingRequested_Disabled_ShouldNotSchedule() {
+        // given
+        ReflectionTestUtils.setField(matchingTrigger, "enabled", false);
+
+        // when
+        matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("enqueue:1"));
+
+        // then
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    @DisplayName("리더가 아닌 노드는 매칭 요청을 리더에게 전달한다")
+    void onMatchingRequested_NotLeader_ShouldForwardToLeader() {
+        // given
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        // when
+        matchingTrigger.onMatchingRequested(new MatchingRequestedEvent("enqueue:1"));
+
+        // then
+        verify(redisTemplate).convertAndSend(MatchingTrigger.TRIGGER_CHANNEL, "enqueue:1");
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    @DisplayName("리더는 전달받은 매칭 요청을 예약한다")
+    void onMessage_Leader_ShouldSchedule() {
+        // given
+        DefaultMessage message = new DefaultMessage(
+                MatchingTrigger.TRIGGER_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "enqueue:1".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        matchingTrigger.onMessage(message, null);
+
+        // then
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        verifyNoInteractions(redisTemplate);
+    }
+}
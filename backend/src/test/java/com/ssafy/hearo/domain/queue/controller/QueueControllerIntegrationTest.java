@@ -1,5 +1,7 @@
 package com.ssafy.hearo.domain.queue.controller;
 
+import com.ssafy.hearo.domain.queue.service.QueueLeaseService;
+import com.ssafy.hearo.domain.queue.service.QueueService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -18,7 +20,6 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
-import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +35,12 @@ class QueueControllerIntegrationTest {
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private QueueService queueService;
+
+    @Autowired
+    private QueueLeaseService queueLeaseService;
+
     @Container
     static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
             .withExposedPorts(6379);
@@ -48,18 +55,18 @@ class QueueControllerIntegrationTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 
     @BeforeEach
     void clearQueues() {
-        redisTemplate.delete("queue:normal");
-        redisTemplate.delete("queue:blacklist");
+        redisTemplate.delete("queue:waiting");
+        redisTemplate.delete("queue:arrivals");
+        redisTemplate.delete("queue:blacklisted");
         redisTemplate.delete("counselors:available");
-        // Clear heartbeat keys
-        Set<String> heartbeatKeys = redisTemplate.keys("heartbeat:counselor:*");
-        if (heartbeatKeys != null && !heartbeatKeys.isEmpty()) {
-            redisTemplate.delete(heartbeatKeys);
-        }
+        // Clear heartbeats
+        redisTemplate.delete("heartbeat:counselors");
     }
 
     // ==================== 고객용 Queue API 테스트 ====================
@@ -110,6 +117,49 @@ class QueueControllerIntegrationTest {
                 .andExpect(jsonPath("$.waitingRank").isNumber());
     }
 
+    @Test
+    @DisplayName("GET /api/v1/queue/status: queueTicket은 JWT 인증된 본인 요청에만 돌려준다")
+    void getStatus_ShouldReturnTicketOnlyToAuthenticatedOwner() throws Exception {
+        // given
+        queueService.enqueue("ticket-owner");
+        String ticket = queueLeaseService.createLease("ticket-owner");
+
+        // when/then - X-User-ID 헤더는 누구나 보낼 수 있으므로 ticket 없음
+        mockMvc.perform(get("/api/v1/queue/status")
+                        .header("X-User-ID", "ticket-owner"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queueTicket").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/queue/status")
+                        .with(user("ticket-owner")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queueTicket").value(ticket));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/queue/stream: 유효한 queueTicket이나 JWT 인증이 있어야 연결된다")
+    void stream_ShouldRequireTicketOrAuthentication() throws Exception {
+        // given
+        queueService.enqueue("stream-owner");
+        String ticket = queueLeaseService.createLease("stream-owner");
+
+        // when/then - 누구나 보낼 수 있는 userId/X-User-ID로는 연결 불가
+        mockMvc.perform(get("/api/v1/queue/stream")
+                        .param("userId", "stream-owner")
+                        .header("X-User-ID", "stream-owner"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/queue/stream")
+                        .param("queueTicket", "forged-ticket"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/v1/queue/stream")
+                        .param("queueTicket", ticket))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/v1/queue/stream")
+                        .with(user("stream-owner")))
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     @DisplayName("GET /api/v1/queue/status: 대기열에 없으면 404 반환")
     void getStatus_NotInQueue_ShouldReturn404() throws Exception {
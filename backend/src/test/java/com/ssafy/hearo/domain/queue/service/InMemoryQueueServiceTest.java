@@ -0,0 +1,323 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.customer.service.BlacklistIndex;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.service.QueueService.AgingResult;
+import com.ssafy.hearo.domain.queue.service.QueueService.MatchCandidate;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueEntry;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueSizes;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("메모리 대기열(InMemoryQueueService) 테스트")
+class InMemoryQueueServiceTest {
+
+    private QueueEventPublisher queueEventPublisher;
+    private BlacklistIndex blacklistIndex;
+    private QueueLeaseService queueLeaseService;
+    private RedisTemplate<String, String> redisTemplate;
+    private InMemoryQueueService queueService;
+
+    // lease가 만료된 고객 (findAliveCustomers에서 제외)
+    private final Set<String> deadCustomers = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        queueEventPublisher = mock(QueueEventPublisher.class);
+        blacklistIndex = mock(BlacklistIndex.class);
+        queueLeaseService = mock(QueueLeaseService.class);
+        redisTemplate = mock(RedisTemplate.class);
+        queueService = new InMemoryQueueService(queueEventPublisher, blacklistIndex, queueLeaseService,
+                new QueuePriority(300_000, 5_000, 120_000), redisTemplate);
+        ReflectionTestUtils.setField(queueService, "scanLimit", 200);
+
+        when(queueLeaseService.findAliveCustomers(anyCollection())).thenAnswer(invocation -> {
+            Set<String> alive = new HashSet<>((Collection<String>) invocation.getArgument(0));
+            alive.removeAll(deadCustomers);
+            return alive;
+        });
+    }
+
+    @Test
+    @DisplayName("등록 순서대로 순위가 매겨지고 이미 대기 중이면 기존 순위를 반환한다")
+    void enqueue_ShouldAssignRanksInArrivalOrder() {
+        // when
+        queueService.enqueue("1");
+        queueService.enqueue("2");
+        long epoch = queueService.enqueue("3").getRankEpoch();
+
+        // then
+        assertThat(queueService.getWaitingRank("3")).contains(3L);
+        assertThat(queueService.enqueue("2").getWaitingRank()).isEqualTo(2L);
+        assertThat(queueService.getStatus("2").orElseThrow().getRankEpoch()).isEqualTo(epoch);
+        verify(queueEventPublisher).publishQueueUpdate(3, 0, 3, List.of(), List.of(3L));
+        verify(queueEventPublisher).sendRankUpdate("3", 3L, 3);
+    }
+
+    @Test
+    @DisplayName("일괄 등록은 요청 순서대로 뒤에 붙고 순위 변경 이벤트는 1건만 전송한다")
+    void enqueueAll_ShouldAppendInRequestOrderWithSingleEvent() {
+        // given
+        queueService.enqueue("1");
+
+        // when
+        List<QueueStatusResponse> statuses = queueService.enqueueAll(List.of("9", "3", "1", "9"));
+
+        // then
+        assertThat(statuses).extracting(QueueStatusResponse::getWaitingRank).containsExactly(2L, 3L, 1L, 2L);
+        assertThat(queueService.getAllCustomersWithRanks().keySet()).containsExactly("1", "9", "3");
+        verify(queueEventPublisher).publishQueueUpdate(3, 0, 2, List.of(), List.of(2L, 3L));
+        verify(queueEventPublisher).sendRankUpdate("9", 2L, 2);
+        verify(queueEventPublisher).sendRankUpdate("3", 3L, 2);
+    }
+
+    @Test
+    @DisplayName("콜백 대기열 이동은 콜백 대기열에서 빠진 고객만 등록한다")
+    @SuppressWarnings("unchecked")
+    void enqueueAllFromHold_ShouldSkipCustomersNoLongerHeld() {
+        // given: 파이프라인 ZREM 결과 "3"은 이미 콜백 대기를 취소해 0
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(1L, 0L, 1L));
+
+        // when
+        List<QueueStatusResponse> statuses = queueService.enqueueAllFromHold("queue:hold", List.of("9", "3", "1"));
+
+        // then
+        assertThat(statuses).extracting(QueueStatusResponse::getCustomerId).containsExactly("9", "1");
+        assertThat(queueService.getAllCustomersWithRanks().keySet()).containsExactly("9", "1");
+        assertThat(queueService.isInQueue("3")).isFalse();
+        verify(queueEventPublisher).publishQueueUpdate(2, 0, 1, List.of(), List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("복원한 고객은 원래 점수와 큐 종류로 제자리에 들어간다")
+    void requeueAll_ShouldRestoreOriginalPositions() {
+        // given
+        long now = System.currentTimeMillis();
+        queueService.enqueue("1");
+        queueService.enqueue("2");
+
+        // when
+        List<QueueStatusResponse> statuses = queueService.requeueAll(List.of(
+                new QueueEntry("early", now - 1_000, now - 1_000, QueueType.NORMAL),
+                new QueueEntry("black", now - 500, now - 300_500, QueueType.BLACKLIST)));
+
+        // then
+        assertThat(statuses).extracting(QueueStatusResponse::getWaitingRank).containsExactly(2L, 1L);
+        assertThat(queueService.getAllCustomersWithRanks().keySet()).containsExactly("black", "early", "1", "2");
+        assertThat(queueService.getQueueSizes()).isEqualTo(new QueueSizes(3, 1));
+        verify(queueEventPublisher).publishQueueUpdate(3, 1, 3, List.of(), List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Blacklist Queue로 옮긴 고객은 도착 순서를 유지한 채 Normal Queue보다 앞선다")
+    void moveToBlacklistQueue_ShouldKeepArrivalOrder() {
+        // given
+        for (String id : List.of("1", "2", "3", "4")) {
+            queueService.enqueue(id);
+        }
+
+        // when
+        queueService.moveToBlacklistQueue("3");
+        queueService.moveToBlacklistQueue("2");
+
+        // then
+        assertThat(queueService.getAllCustomersWithRanks())
+                .containsExactly(Map.entry("2", 1L), Map.entry("3", 2L), Map.entry("1", 3L), Map.entry("4", 4L));
+        assertThat(queueService.getCustomersFromRank(3)).containsOnlyKeys("1", "4");
+        assertThat(queueService.getQueueType("2")).contains(QueueType.BLACKLIST);
+        assertThat(queueService.moveToBlacklistQueue("2")).isFalse();
+        // "2"는 Normal 2위 → Blacklist 1위
+        verify(queueEventPublisher).publishQueueUpdate(2, 2, 6, List.of(3L), List.of(1L));
+    }
+
+    @Test
+    @DisplayName("pop은 Blacklist Queue를 먼저 비운다")
+    void pop_ShouldPreferBlacklistQueue() {
+        // given
+        queueService.enqueue("1");
+        queueService.enqueue("2");
+        queueService.moveToBlacklistQueue("2");
+
+        // when & then
+        assertThat(queueService.pop()).contains("2");
+        assertThat(queueService.pop()).contains("1");
+        assertThat(queueService.pop()).isEmpty();
+        assertThat(queueService.getQueueSizes().totalSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("aging은 유령고객을 제거하고 매칭 불가 고객만 옮기며 매칭 가능 고객은 그대로 둔다")
+    void ageUnmatchable_ShouldDropGhostsAndMoveBlocked() {
+        // given: 1(유령), 2(상담원 10 차단), 3(매칭 가능), 4
+        for (String id : List.of("1", "2", "3", "4")) {
+            queueService.enqueue(id);
+        }
+        deadCustomers.add("1");
+        when(blacklistIndex.findBlockedCounselorIds(2)).thenReturn(Set.of(10L));
+
+        // when
+        AgingResult result = queueService.ageUnmatchable(Set.of(10L));
+
+        // then
+        assertThat(result.movedCustomerIds()).containsExactly("2");
+        assertThat(queueService.getAllCustomersWithRanks())
+                .containsExactly(Map.entry("2", 1L), Map.entry("3", 2L), Map.entry("4", 3L));
+        // 순위는 모두 변경 전 기준: 유령 1위, 이동 2위 / 이동 후 1위
+        verify(queueEventPublisher).publishQueueUpdate(2, 1, 5, List.of(1L, 2L), List.of(1L));
+        verify(queueEventPublisher).sendRankUpdate("2", 1L, 5);
+        verify(queueLeaseService).deleteLeaseByCustomerId("1");
+    }
+
+    @Test
+    @DisplayName("peek은 여러 번 호출해도 매칭 불가 고객을 건너뛰기만 하고 aging하지 않는다")
+    void peekMatchable_Repeated_ShouldNotAgeBlocked() {
+        // given: 1(상담원 10 차단), 2, 3
+        for (String id : List.of("1", "2", "3")) {
+            queueService.enqueue(id);
+        }
+        when(blacklistIndex.findBlockedCounselorIds(1)).thenReturn(Set.of(10L));
+        clearInvocations(queueEventPublisher);
+
+        // when: 한 사이클 안에서 여러 번 조회
+        for (int i = 0; i < 3; i++) {
+            assertThat(queueService.peekMatchable(Set.of(10L), 1))
+                    .extracting(MatchCandidate::customerId).containsExactly("2");
+        }
+
+        // then
+        assertThat(queueService.getQueueType("1")).contains(QueueType.NORMAL);
+        assertThat(queueService.getWaitingRank("1")).contains(1L);
+        verify(queueEventPublisher, never()).sendRankUpdate(eq("1"), anyLong(), anyLong());
+
+        // 사이클당 한 번의 aging에서만 Blacklist 고객으로 전환
+        assertThat(queueService.ageUnmatchable(Set.of(10L)).movedCustomerIds()).containsExactly("1");
+        verify(queueEventPublisher, times(1)).sendRankUpdate(eq("1"), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("탐색 중 재등록한 유령고객은 제거하지 않고 새 lease도 지우지 않는다")
+    @SuppressWarnings("unchecked")
+    void peekMatchable_GhostReRegisteredDuringScan_ShouldKeepLease() {
+        // given: 1은 유령, lease 확인(잠금 밖) 중에 재등록됨
+        queueService.enqueue("1");
+        queueService.enqueue("2");
+        when(queueLeaseService.findAliveCustomers(anyCollection())).thenAnswer(invocation -> {
+            queueService.remove("1");
+            queueService.enqueue("1");
+            Set<String> alive = new HashSet<>((Collection<String>) invocation.getArgument(0));
+            alive.remove("1");
+            return alive;
+        });
+
+        // when
+        List<MatchCandidate> candidates = queueService.peekMatchable(Set.of(10L), 1);
+
+        // then
+        assertThat(candidates).extracting(MatchCandidate::customerId).containsExactly("2");
+        assertThat(queueService.isInQueue("1")).isTrue();
+        verify(queueLeaseService, never()).deleteLeaseByCustomerId("1");
+    }
+
+    @Test
+    @DisplayName("peek은 매칭 가능 고객을 꺼내지 않고 순서대로 돌려준다")
+    void peekMatchable_ShouldNotRemoveCandidates() {
+        // given
+        for (String id : List.of("1", "2", "3")) {
+            queueService.enqueue(id);
+        }
+
+        // when
+        List<MatchCandidate> candidates = queueService.peekMatchable(Set.of(10L), 2);
+
+        // then
+        assertThat(candidates).extracting(MatchCandidate::customerId).containsExactly("1", "2");
+        assertThat(queueService.getQueueSizes().normalQueueSize()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("lease 만료 고객을 한꺼번에 제거하고 이벤트는 1건만 전송한다")
+    void evictExpiredLeases_ShouldRemoveWithSingleEvent() {
+        // given
+        for (String id : List.of("1", "2", "3", "4")) {
+            queueService.enqueue(id);
+        }
+        when(queueLeaseService.releaseExpiredLeases(10)).thenReturn(List.of("2", "4", "9"));
+
+        // when
+        List<String> evicted = queueService.evictExpiredLeases(10);
+
+        // then
+        assertThat(evicted).containsExactly("2", "4");
+        assertThat(queueService.getAllCustomersWithRanks())
+                .containsExactly(Map.entry("1", 1L), Map.entry("3", 2L));
+        verify(queueEventPublisher).publishQueueUpdate(2, 0, 5, List.of(2L, 4L), List.of());
+    }
+
+    @Test
+    @DisplayName("등록/제거를 많이 반복하고 점수가 바뀌어도 순위가 유지된다")
+    void enqueue_AfterManyChanges_ShouldKeepOrder() {
+        // given: 등록/제거 반복 후 첫 고객을 Blacklist로 전환
+        queueService.enqueue("keep-1");
+        for (int i = 0; i < 3000; i++) {
+            queueService.enqueue("tmp-" + i);
+            queueService.remove("tmp-" + i);
+        }
+        queueService.moveToBlacklistQueue("keep-1");
+
+        // when
+        queueService.enqueue("keep-2");
+
+        // then
+        assertThat(queueService.getWaitingRank("keep-1")).contains(1L);
+        assertThat(queueService.getWaitingRank("keep-2")).contains(2L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 조회/추출해도 같은 고객을 두 번 추출하지 않는다")
+    void peekAndClaim_Concurrent_ShouldClaimEachCustomerOnce() throws Exception {
+        // given
+        int customers = 300;
+        for (int i = 1; i <= customers; i++) {
+            queueService.enqueue(String.valueOf(i));
+        }
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                while (queueService.getQueueSizes().totalSize() > 0) {
+                    for (MatchCandidate candidate : queueService.peekMatchable(Set.of(1L), 1)) {
+                        String customerId = candidate.customerId();
+                        if (queueService.claim(customerId) && !claimed.add(customerId)) {
+                            duplicates.add(customerId);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(duplicates).isEmpty();
+        assertThat(claimed).hasSize(customers);
+    }
+}
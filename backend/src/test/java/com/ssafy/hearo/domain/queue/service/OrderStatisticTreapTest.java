@@ -0,0 +1,128 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("순서 통계 트리(OrderStatisticTreap) 테스트")
+class OrderStatisticTreapTest {
+
+    private record Item(String id, double score, long arrival) {}
+
+    // 점수, 같으면 등록 순번 (InMemoryQueueService와 같은 기준)
+    private static final Comparator<Item> ORDER =
+            Comparator.comparingDouble(Item::score).thenComparingLong(Item::arrival);
+
+    @Test
+    @DisplayName("등록/제거 후 순위와 k번째 항목이 (점수, 등록 순번) 순서를 따른다")
+    void rankAndGet_ShouldFollowScoreThenArrival() {
+        // given
+        OrderStatisticTreap<Item> treap = new OrderStatisticTreap<>(ORDER);
+        Item a = new Item("a", 10, 1);
+        Item b = new Item("b", 5, 2);
+        Item c = new Item("c", 10, 3);
+        Item d = new Item("d", 1, 4);
+        treap.add(a);
+        treap.add(b);
+        treap.add(c);
+        treap.add(d);
+
+        // when
+        treap.remove(b);
+
+        // then
+        assertThat(treap.size()).isEqualTo(3);
+        assertThat(treap.rank(d)).isEqualTo(1);
+        assertThat(treap.rank(a)).isEqualTo(2);
+        assertThat(treap.rank(c)).isEqualTo(3);
+        assertThat(treap.rank(b)).isZero();
+        assertThat(treap.get(2)).isEqualTo(a);
+        assertThat(treap.get(4)).isNull();
+        assertThat(treap.add(new Item("a", 10, 1))).isFalse();
+        assertThat(treap.remove(b)).isFalse();
+    }
+
+    @Test
+    @DisplayName("점수를 바꿔 다시 넣으면 그 항목만 옮겨지고 나머지 순서는 유지된다")
+    void reinsert_ChangedScore_ShouldMoveOnlyThatItem() {
+        // given
+        OrderStatisticTreap<Item> treap = new OrderStatisticTreap<>(ORDER);
+        List<Item> items = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Item item = new Item("c" + i, i * 100, i);
+            items.add(item);
+            treap.add(item);
+        }
+
+        // when: 1위 고객의 점수가 낮아져 맨 뒤로 (aging/Blacklist 전환)
+        treap.remove(items.get(0));
+        Item moved = new Item("c1", 1_000, 1);
+        treap.add(moved);
+
+        // then
+        assertThat(treap.rank(moved)).isEqualTo(5);
+        assertThat(treap.rank(items.get(1))).isEqualTo(1);
+        assertThat(treap.get(4)).isEqualTo(items.get(4));
+    }
+
+    @Test
+    @DisplayName("무작위 등록/제거/재배치에서도 정렬 집합과 같은 순위와 순회 결과를 낸다")
+    void randomOperations_ShouldMatchSortedSet() {
+        // given
+        OrderStatisticTreap<Item> treap = new OrderStatisticTreap<>(ORDER);
+        TreeSet<Item> reference = new TreeSet<>(ORDER);
+        List<Item> live = new ArrayList<>();
+        Random random = new Random(7);
+        long arrival = 0;
+
+        // when & then
+        for (int step = 0; step < 5000; step++) {
+            // 등록 40%, 제거 30%, 점수 변경 30%
+            int op = random.nextInt(10);
+            if (op < 4 || live.isEmpty()) {
+                Item item = new Item("c" + step, random.nextInt(50), ++arrival);
+                assertThat(treap.add(item)).isTrue();
+                reference.add(item);
+                live.add(item);
+            } else if (op < 7) {
+                Item item = live.remove(random.nextInt(live.size()));
+                assertThat(treap.remove(item)).isTrue();
+                reference.remove(item);
+            } else {
+                int index = random.nextInt(live.size());
+                Item item = live.get(index);
+                Item moved = new Item(item.id(), random.nextInt(50), item.arrival());
+                treap.remove(item);
+                reference.remove(item);
+                treap.add(moved);
+                reference.add(moved);
+                live.set(index, moved);
+            }
+
+            Item probe = live.isEmpty() ? null : live.get(random.nextInt(live.size()));
+            if (probe != null) {
+                assertThat(treap.rank(probe)).isEqualTo(reference.headSet(probe, true).size());
+            }
+        }
+
+        List<Item> ordered = new ArrayList<>(reference);
+        assertThat(treap.size()).isEqualTo(ordered.size());
+        for (int k = 1; k <= ordered.size(); k++) {
+            assertThat(treap.get(k)).isEqualTo(ordered.get(k - 1));
+        }
+        int from = Math.max(1, ordered.size() / 3);
+        List<Item> tail = new ArrayList<>();
+        for (Iterator<Item> it = treap.iteratorFrom(from); it.hasNext(); ) {
+            tail.add(it.next());
+        }
+        assertThat(tail).isEqualTo(ordered.subList(from - 1, ordered.size()));
+    }
+}
@@ -0,0 +1,261 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.matching.service.MatchingLeaderElection;
+import com.ssafy.hearo.domain.matching.service.MatchingTrigger.MatchingRequestedEvent;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.service.QueueAdmissionService.Admission;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueSizes;
+import com.ssafy.hearo.domain.user.service.HeartbeatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("대기열 진입 제어 테스트")
+class QueueAdmissionServiceTest {
+
+    private static final String HOLD_KEY = QueueAdmissionService.HOLD_QUEUE_KEY;
+
+    private QueueService queueService;
+    private QueueLeaseService queueLeaseService;
+    private QueueStatusReader queueStatusReader;
+    private QueueEventPublisher queueEventPublisher;
+    private ApplicationEventPublisher eventPublisher;
+    private HeartbeatService heartbeatService;
+    private ZSetOperations<String, String> zSetOps;
+    private MatchingLeaderElection leaderElection;
+    private QueueAdmissionService admissionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        queueService = mock(QueueService.class);
+        queueLeaseService = mock(QueueLeaseService.class);
+        queueStatusReader = mock(QueueStatusReader.class);
+        queueEventPublisher = mock(QueueEventPublisher.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        heartbeatService = mock(HeartbeatService.class);
+        zSetOps = mock(ZSetOperations.class);
+        leaderElection = mock(MatchingLeaderElection.class);
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+
+        // 매칭 이력이 없고 접속 상담원이 1명이므로 순위 1칸당 60초
+        WaitTimeEstimator estimator = new WaitTimeEstimator(600_000, 60);
+        when(heartbeatService.getActiveHeartbeatCounselorIds()).thenReturn(Set.of(1L));
+
+        admissionService = new QueueAdmissionService(queueService, queueLeaseService, queueStatusReader,
+                estimator, queueEventPublisher, eventPublisher, leaderElection,
+                heartbeatService, redisTemplate);
+        ReflectionTestUtils.setField(admissionService, "enabled", true);
+        ReflectionTestUtils.setField(admissionService, "maxWaitSeconds", 600L);
+        ReflectionTestUtils.setField(admissionService, "resumeRatio", 0.8);
+        ReflectionTestUtils.setField(admissionService, "promoteBatchSize", 100);
+        ReflectionTestUtils.setField(admissionService, "holdTtlMs", 3_600_000L);
+
+        when(queueLeaseService.createLease(anyString())).thenAnswer(inv -> "ticket-" + inv.getArgument(0));
+        when(queueService.enqueue(anyString()))
+                .thenAnswer(inv -> QueueStatusResponse.of(inv.getArgument(0), 5L, "NORMAL"));
+        when(queueService.enqueueAllFromHold(eq(HOLD_KEY), anyList()))
+                .thenAnswer(inv -> ((List<String>) inv.getArgument(1)).stream()
+                        .map(id -> QueueStatusResponse.of(id, 7L, "NORMAL"))
+                        .toList());
+        when(zSetOps.zCard(HOLD_KEY)).thenReturn(0L);
+        when(zSetOps.rank(eq(HOLD_KEY), anyString())).thenReturn(null);
+    }
+
+    @Test
+    @DisplayName("예상 대기 시간이 기준 이하이면 실시간 대기열에 넣고 lease를 발급한다")
+    void admit_UnderThreshold_ShouldEnqueue() {
+        // given: 대기 4명 → 5번째 예상 300초 (기준 600초)
+        when(queueStatusReader.getQueueSizes()).thenReturn(new QueueSizes(4, 0));
+
+        // when
+        Admission admission = admissionService.admit("customer_1");
+
+        // then
+        assertThat(admission.held()).isFalse();
+        assertThat(admission.queueTicket()).isEqualTo("ticket-customer_1");
+        assertThat(admission.status().getEstimatedWaitSeconds()).isEqualTo(300L);
+        verify(queueService).enqueue("customer_1");
+        verify(eventPublisher).publishEvent(any(MatchingRequestedEvent.class));
+        verify(zSetOps, never()).addIfAbsent(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("예상 대기 시간이 기준을 넘으면 콜백 대기열에 넣고 lease를 발급하지 않는다")
+    void admit_OverThreshold_ShouldHold() {
+        // given: 대기 10명 → 11번째 예상 660초
+        when(queueStatusReader.getQueueSizes()).thenReturn(new QueueSizes(8, 2));
+        when(zSetOps.rank(HOLD_KEY, "customer_1")).thenReturn(null, 0L);
+
+        // when
+        Admission admission = admissionService.admit("customer_1");
+
+        // then
+        assertThat(admission.held()).isTrue();
+        assertThat(admission.queueTicket()).isNull();
+        assertThat(admission.status().getWaitingRank()).isEqualTo(11L);
+        verify(zSetOps).addIfAbsent(eq(HOLD_KEY), eq("customer_1"), anyDouble());
+        verify(queueService, never()).enqueue(anyString());
+        verify(queueLeaseService, never()).createLease(anyString());
+    }
+
+    @Test
+    @DisplayName("접속 상담원이 많으면 그만큼 실시간 대기열에 더 받는다")
+    void admit_ManyCounselors_ShouldScaleThreshold() {
+        // given: 상담원 5명 → 순위 1칸당 12초, 대기 40명 → 41번째 예상 492초 (기준 600초)
+        when(heartbeatService.getActiveHeartbeatCounselorIds()).thenReturn(Set.of(1L, 2L, 3L, 4L, 5L));
+        when(queueStatusReader.getQueueSizes()).thenReturn(new QueueSizes(40, 0));
+
+        // when
+        Admission admission = admissionService.admit("customer_1");
+
+        // then
+        assertThat(admission.held()).isFalse();
+        verify(queueService).enqueue("customer_1");
+    }
+
+    @Test
+    @DisplayName("max-wait-seconds가 대기열 항목 만료 시간 이상이면 만료 전에 매칭될 수 있는 값으로 줄인다")
+    void validateMaxWait_OverEntryTimeout_ShouldClamp() {
+        // given
+        ReflectionTestUtils.setField(admissionService, "maxWaitSeconds", 1800L);
+
+        // when
+        admissionService.validateMaxWait();
+
+        // then
+        assertThat((Long) ReflectionTestUtils.getField(admissionService, "maxWaitSeconds"))
+                .isLessThan(QueueService.QUEUE_ENTRY_TIMEOUT_MS / 1000);
+    }
+
+    @Test
+    @DisplayName("콜백 대기 고객이 있으면 여유가 있어도 새 고객은 그 뒤에 선다")
+    void admit_HoldQueueNotEmpty_ShouldHold() {
+        // given
+        when(queueStatusReader.getQueueSizes()).thenReturn(new QueueSizes(0, 0));
+        when(zSetOps.zCard(HOLD_KEY)).thenReturn(3L);
+        when(zSetOps.rank(HOLD_KEY, "customer_4")).thenReturn(null, 3L);
+
+        // when
+        Admission admission = admissionService.admit("customer_4");
+
+        // then
+        assertThat(admission.held()).isTrue();
+        assertThat(admission.status().getWaitingRank()).isEqualTo(4L);
+        verify(queueService, never()).enqueue(anyString());
+    }
+
+    @Test
+    @DisplayName("예상 대기 시간이 재개 기준 아래가 될 만큼만 콜백 대기 고객에게 lease를 발급한 뒤 콜백 대기열에서 옮긴다")
+    void promoteHeld_ShouldFillUpToResumeThreshold() {
+        // given: 재개 기준 480초 = 8명, 현재 6명 → 2명 이동
+        when(zSetOps.zCard(HOLD_KEY)).thenReturn(5L);
+        when(queueService.getQueueSizes()).thenReturn(new QueueSizes(6, 0));
+        when(zSetOps.rangeWithScores(HOLD_KEY, 0, 1)).thenReturn(held("customer_1", "customer_2"));
+
+        // when
+        int promoted = admissionService.promoteHeld();
+
+        // then: lease 발급과 콜백 대기열 → 대기열 이동을 각각 한 번에 처리
+        assertThat(promoted).isEqualTo(2);
+        InOrder inOrder = inOrder(queueLeaseService, queueService);
+        inOrder.verify(queueLeaseService).createLeases(List.of("customer_1", "customer_2"));
+        inOrder.verify(queueService).enqueueAllFromHold(HOLD_KEY, List.of("customer_1", "customer_2"));
+        verify(zSetOps, never()).remove(anyString(), any(Object[].class));
+        verify(queueService, never()).enqueue(anyString());
+        verify(queueLeaseService, never()).createLease(anyString());
+        verify(queueEventPublisher).sendAdmitted(eq("customer_1"), any(QueueStatusResponse.class));
+        verify(queueEventPublisher).sendAdmitted(eq("customer_2"), any(QueueStatusResponse.class));
+    }
+
+    @Test
+    @DisplayName("읽은 뒤 콜백 대기를 취소한 고객은 옮기지 않고 ADMITTED도 보내지 않는다")
+    void promoteHeld_CancelledAfterRead_ShouldSkipCustomer() {
+        // given: customer_1이 이동 전에 콜백 대기를 취소해 콜백 대기열에서 빠짐
+        when(zSetOps.zCard(HOLD_KEY)).thenReturn(5L);
+        when(queueService.getQueueSizes()).thenReturn(new QueueSizes(6, 0));
+        when(zSetOps.rangeWithScores(HOLD_KEY, 0, 1)).thenReturn(held("customer_1", "customer_2"));
+        when(queueService.enqueueAllFromHold(HOLD_KEY, List.of("customer_1", "customer_2")))
+                .thenReturn(List.of(QueueStatusResponse.of("customer_2", 7L, "NORMAL")));
+
+        // when
+        int promoted = admissionService.promoteHeld();
+
+        // then
+        assertThat(promoted).isEqualTo(1);
+        verify(queueEventPublisher).sendAdmitted(eq("customer_2"), any(QueueStatusResponse.class));
+        verify(queueEventPublisher, never()).sendAdmitted(eq("customer_1"), any());
+    }
+
+    @Test
+    @DisplayName("대기열 이동이 fencing으로 거부되면 고객을 콜백 대기열에 남겨 다음 주기에 다시 옮긴다")
+    void promoteHeld_Fenced_ShouldKeepCustomersHeld() {
+        // given: 리더가 바뀌어 콜백 대기열 → 대기열 이동 스크립트가 거부됨
+        when(zSetOps.zCard(HOLD_KEY)).thenReturn(5L);
+        when(queueService.getQueueSizes()).thenReturn(new QueueSizes(6, 0));
+        when(zSetOps.rangeWithScores(HOLD_KEY, 0, 1)).thenReturn(held("customer_1", "customer_2"));
+        when(queueService.enqueueAllFromHold(eq(HOLD_KEY), anyList()))
+                .thenThrow(new IllegalStateException("MATCHING_FENCED"));
+
+        // when & then: 콜백 대기열에서 직접 빼지 않음 (빼기는 이동 스크립트 안에서만)
+        assertThatThrownBy(() -> admissionService.promoteHeld()).isInstanceOf(IllegalStateException.class);
+        verify(zSetOps, never()).remove(anyString(), any(Object[].class));
+        verify(queueEventPublisher, never()).sendAdmitted(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("콜백 대기 고객 이동은 리더 fencing token을 붙여 실행한다")
+    void promote_ShouldRunAsLeader() {
+        // given
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(leaderElection.runAsLeader(any(Runnable.class))).thenReturn(false);
+
+        // when
+        admissionService.promote();
+
+        // then: 리더 자격 확인에 실패하면 이동하지 않음
+        verify(leaderElection).runAsLeader(any(Runnable.class));
+        verify(zSetOps, never()).zCard(HOLD_KEY);
+        verify(queueService, never()).enqueueAllFromHold(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("실시간 대기열이 재개 기준 이상이면 옮기지 않는다")
+    void promoteHeld_NoCapacity_ShouldKeepHolding() {
+        // given
+        when(zSetOps.zCard(HOLD_KEY)).thenReturn(5L);
+        when(queueService.getQueueSizes()).thenReturn(new QueueSizes(9, 0));
+
+        // when
+        int promoted = admissionService.promoteHeld();
+
+        // then
+        assertThat(promoted).isZero();
+        verify(zSetOps, never()).rangeWithScores(anyString(), anyLong(), anyLong());
+        verify(queueService, never()).enqueueAllFromHold(anyString(), anyList());
+    }
+
+    private static Set<TypedTuple<String>> held(String... customerIds) {
+        Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+        for (int i = 0; i < customerIds.length; i++) {
+            tuples.add(new DefaultTypedTuple<>(customerIds[i], (double) i + 1));
+        }
+        return tuples;
+    }
+}
@@ -0,0 +1,183 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("대기 고객 SSE 스트림 테스트")
+class QueueEventStreamTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AbstractSubscribableChannel brokerChannel = mock(AbstractSubscribableChannel.class);
+    private QueueEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        eventStream = new QueueEventStream(brokerChannel, meterRegistry, 60_000, 2);
+        ReflectionTestUtils.setField(eventStream, "bufferSize", 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStream.shutdown();
+    }
+
+    @Test
+    @DisplayName("본인 순위와 대기열 변경만 받고, MATCHED를 받으면 스트림이 끝나며 고객 sink가 정리된다")
+    void stream_ShouldDeliverOwnEventsAndCompleteOnMatched() throws Exception {
+        // given
+        List<ServerSentEvent<String>> received = new CopyOnWriteArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Disposable subscription = eventStream.stream("customer_1")
+                .filter(event -> event.event() != null) // keep-alive 제외
+                .subscribe(received::add, error -> {}, () -> completed.set(true));
+        assertThat(gauge()).isEqualTo(1.0);
+
+        // when
+        send("/topic/queue-rank/customer_1", "{\"customerId\":\"customer_1\",\"rank\":3,\"status\":\"WAITING\"}");
+        send("/topic/queue-rank/customer_2", "{\"customerId\":\"customer_2\",\"rank\":1,\"status\":\"WAITING\"}");
+        send("/topic/queue-updates", "{\"epoch\":7}");
+        send("/topic/queue-rank/customer_1", "{\"customerId\":\"customer_1\",\"status\":\"MATCHED\"}");
+        send("/topic/queue-updates", "{\"epoch\":8}");
+        flush();
+
+        // then
+        assertThat(received).extracting(ServerSentEvent::event)
+                .containsExactly("queue-rank", "queue-updates", "queue-rank");
+        assertThat(received).extracting(ServerSentEvent::data).containsExactly(
+                "{\"customerId\":\"customer_1\",\"rank\":3,\"status\":\"WAITING\"}",
+                "{\"epoch\":7}",
+                "{\"customerId\":\"customer_1\",\"status\":\"MATCHED\"}");
+        assertThat(completed).isTrue();
+        assertThat(gauge()).isZero();
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("같은 고객의 연결이 여럿이면 sink를 공유하고, 마지막 연결이 끊길 때 정리된다")
+    void stream_MultipleConnections_ShouldShareSinkUntilLastDisconnect() throws Exception {
+        // given
+        List<ServerSentEvent<String>> first = new CopyOnWriteArrayList<>();
+        List<ServerSentEvent<String>> second = new CopyOnWriteArrayList<>();
+        Disposable a = eventStream.stream("customer_1").filter(event -> event.event() != null).subscribe(first::add);
+        Disposable b = eventStream.stream("customer_1").filter(event -> event.event() != null).subscribe(second::add);
+
+        // when
+        send("/topic/queue-rank/customer_1", "{\"rank\":2,\"status\":\"WAITING\"}");
+        flush();
+        a.dispose();
+
+        // then
+        assertThat(first).hasSize(1);
+        assertThat(second).hasSize(1);
+        assertThat(gauge()).isEqualTo(1.0);
+
+        b.dispose();
+        assertThat(gauge()).isZero();
+    }
+
+    @Test
+    @DisplayName("구독자에게 보내는 일은 broker 전송 스레드가 아닌 팬아웃 스레드에서 한다")
+    void preSend_ShouldEmitOffBrokerThread() throws Exception {
+        // given
+        List<String> threads = new CopyOnWriteArrayList<>();
+        Disposable subscription = eventStream.stream("customer_1")
+                .filter(event -> event.event() != null)
+                .subscribe(event -> threads.add(Thread.currentThread().getName()));
+
+        // when
+        send("/topic/queue-rank/customer_1", "{\"rank\":1,\"status\":\"WAITING\"}");
+        send("/topic/queue-updates", "{\"epoch\":1}");
+        flush();
+
+        // then
+        assertThat(threads).hasSize(2).allMatch(name -> name.startsWith("sse-fanout-"));
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("팬아웃 대기열이 가득 차면 broker 전송 스레드를 막지 않고 메시지를 버린다")
+    void preSend_FanoutSaturated_ShouldDropWithoutBlocking() throws Exception {
+        // given: 팬아웃 스레드가 막혀 있고 대기열(2개)도 가득 참
+        List<ServerSentEvent<String>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        Disposable subscription = eventStream.stream("customer_1")
+                .filter(event -> event.event() != null)
+                .subscribe(event -> {
+                    received.add(event);
+                    delivered.countDown();
+                });
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        fanout().execute(() -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            send("/topic/queue-updates", "{\"epoch\":" + i + "}");
+        }
+        release.countDown();
+
+        // then: 대기열에 들어간 2건만 전달
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(ServerSentEvent::data).containsExactly("{\"epoch\":0}", "{\"epoch\":1}");
+        assertThat(meterRegistry.get("queue.stream.dropped").counter().count()).isEqualTo(3.0);
+        subscription.dispose();
+    }
+
+    private void send(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(
+                json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+        assertThat(eventStream.preSend(message, brokerChannel)).isSameAs(message);
+    }
+
+    /**
+     * 팬아웃 스레드가 앞서 받은 메시지를 모두 처리할 때까지 대기 (스레드 1개라 순서대로 실행됨)
+     */
+    private void flush() throws Exception {
+        fanout().submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private ThreadPoolTaskExecutor fanout() {
+        return (ThreadPoolTaskExecutor) ReflectionTestUtils.getField(eventStream, "fanout");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double gauge() {
+        return meterRegistry.get("queue.stream.customers").gauge().value();
+    }
+}
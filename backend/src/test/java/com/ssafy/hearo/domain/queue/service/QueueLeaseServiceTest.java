@@ -14,6 +14,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -45,6 +46,8 @@ class QueueLeaseServiceTest {
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         // 스케줄링 비활성화
         registry.add("spring.task.scheduling.pool.size", () -> "0");
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 
     @Autowired
@@ -72,17 +75,13 @@ class QueueLeaseServiceTest {
 
     void clearAll() {
         // 모든 lease 관련 키 삭제
-        Set<String> leaseKeys = redisTemplate.keys("queue:lease:*");
-        Set<String> ticketKeys = redisTemplate.keys("queue:ticket:*");
-        if (leaseKeys != null && !leaseKeys.isEmpty()) {
-            redisTemplate.delete(leaseKeys);
-        }
-        if (ticketKeys != null && !ticketKeys.isEmpty()) {
-            redisTemplate.delete(ticketKeys);
-        }
+        redisTemplate.delete("queue:lease:deadlines");
+        redisTemplate.delete("queue:lease:tickets");
+        redisTemplate.delete("queue:lease:owners");
         // 큐 정리
-        redisTemplate.delete("queue:normal");
-        redisTemplate.delete("queue:blacklist");
+        redisTemplate.delete("queue:waiting");
+        redisTemplate.delete("queue:arrivals");
+        redisTemplate.delete("queue:blacklisted");
     }
 
     @Test
@@ -209,16 +208,15 @@ class QueueLeaseServiceTest {
         long ttl = queueLeaseService.getRemainingTtl(invalidTicket);
 
         // then
-        // Redis는 키가 없으면 -2, TTL이 없으면 -1 반환
         assertThat(ttl).isLessThan(0);
     }
 
-    // ==================== 통합 테스트: popMatchable에서 lease 검증 ====================
+    // ==================== 통합 테스트: peekMatchable에서 lease 검증 ====================
 
     @Test
     @Order(9)
-    @DisplayName("popMatchable: lease가 살아있는 고객만 매칭됨")
-    void popMatchable_ShouldOnlyMatchCustomersWithAliveLease() {
+    @DisplayName("peekMatchable: lease가 살아있는 고객만 매칭 후보가 됨")
+    void peekMatchable_ShouldOnlyReturnCustomersWithAliveLease() {
         // given
         String aliveCustomer = "alive-customer";
         String deadCustomer = "dead-customer";
@@ -233,19 +231,18 @@ class QueueLeaseServiceTest {
         Set<Long> availableCounselors = Set.of(1L, 2L);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
+        var candidates = queueService.peekMatchable(availableCounselors, 1);
 
         // then
-        assertThat(result.hasMatch()).isTrue();
-        assertThat(result.customerId()).isEqualTo(aliveCustomer);
+        assertThat(candidates).extracting(QueueService.MatchCandidate::customerId).containsExactly(aliveCustomer);
         // deadCustomer는 lease 없어서 스킵되고 큐에서도 제거됨
         assertThat(queueService.isInQueue(deadCustomer)).isFalse();
     }
 
     @Test
     @Order(10)
-    @DisplayName("popMatchable: lease 만료 고객은 큐에서 제거됨")
-    void popMatchable_ExpiredLease_ShouldBeRemovedFromQueue() throws InterruptedException {
+    @DisplayName("peekMatchable: lease 만료 고객은 큐에서 제거됨")
+    void peekMatchable_ExpiredLease_ShouldBeRemovedFromQueue() throws InterruptedException {
         // given
         String customerId = "expiring-customer";
         queueService.enqueue(customerId);
@@ -259,10 +256,10 @@ class QueueLeaseServiceTest {
         Set<Long> availableCounselors = Set.of(1L);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
+        var candidates = queueService.peekMatchable(availableCounselors, 1);
 
         // then
-        assertThat(result.hasMatch()).isFalse(); // 매칭 가능한 고객 없음
+        assertThat(candidates).isEmpty(); // 매칭 가능한 고객 없음
         assertThat(queueService.isInQueue(customerId)).isFalse(); // 큐에서도 제거됨
     }
 
@@ -284,4 +281,80 @@ class QueueLeaseServiceTest {
         assertThat(queueService.isInQueue(customerId)).isFalse();
         assertThat(queueLeaseService.isLeaseAlive(customerId)).isFalse();
     }
+
+    @Test
+    @Order(12)
+    @DisplayName("renewLease: 만료 시각이 지난 lease는 정리 전이라도 갱신 실패")
+    void renewLease_PastDeadline_ShouldFail() {
+        // given
+        String customerId = "customer-expired";
+        String queueTicket = queueLeaseService.createLease(customerId);
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", customerId, System.currentTimeMillis() - 1);
+
+        // when
+        boolean renewed = queueLeaseService.renewLease(queueTicket);
+
+        // then
+        assertThat(renewed).isFalse();
+        assertThat(queueLeaseService.isLeaseAlive(customerId)).isFalse();
+        assertThat(queueLeaseService.validateLease(queueTicket)).isEmpty();
+        assertThat(queueLeaseService.getRemainingTtl(queueTicket)).isLessThan(0);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("createLease로 교체된 이전 ticket은 갱신/삭제가 새 lease에 영향을 주지 않는다")
+    void oldTicket_AfterReplace_ShouldNotTouchNewLease() {
+        // given
+        String customerId = "customer-replaced";
+        String oldTicket = queueLeaseService.createLease(customerId);
+        String newTicket = queueLeaseService.createLease(customerId);
+
+        // when
+        boolean renewed = queueLeaseService.renewLease(oldTicket);
+        queueLeaseService.deleteLease(oldTicket);
+
+        // then
+        assertThat(renewed).isFalse();
+        assertThat(queueLeaseService.isLeaseAlive(customerId)).isTrue();
+        assertThat(queueLeaseService.validateLease(newTicket)).contains(customerId);
+        // 고객별 키를 만들지 않음 (lease 1건 = 키 3개에 항목 추가)
+        assertThat(redisTemplate.opsForHash().size("queue:lease:tickets")).isEqualTo(1);
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("findAliveCustomers: 여러 고객 중 lease가 살아있는 고객만 돌려준다")
+    void findAliveCustomers_ShouldReturnOnlyAlive() {
+        // given
+        queueLeaseService.createLease("alive-1");
+        queueLeaseService.createLease("alive-2");
+        queueLeaseService.createLease("expired-1");
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "expired-1", System.currentTimeMillis() - 1);
+
+        // when
+        Set<String> alive = queueLeaseService.findAliveCustomers(List.of("alive-1", "alive-2", "expired-1", "none"));
+
+        // then
+        assertThat(alive).containsExactlyInAnyOrder("alive-1", "alive-2");
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("releaseExpiredLeases: 만료된 lease만 ticket까지 정리하고 고객 목록을 돌려준다")
+    void releaseExpiredLeases_ShouldReleaseOnlyExpired() {
+        // given
+        String expiredTicket = queueLeaseService.createLease("expired-1");
+        queueLeaseService.createLease("alive-1");
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "expired-1", System.currentTimeMillis() - 1);
+
+        // when
+        List<String> released = queueLeaseService.releaseExpiredLeases(10);
+
+        // then
+        assertThat(released).containsExactly("expired-1");
+        assertThat(redisTemplate.opsForHash().hasKey("queue:lease:tickets", expiredTicket)).isFalse();
+        assertThat(queueLeaseService.isLeaseAlive("alive-1")).isTrue();
+        assertThat(queueLeaseService.releaseExpiredLeases(10)).isEmpty();
+    }
 }
@@ -0,0 +1,139 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.hearo.domain.queue.service.QueueMirror.MirrorRank;
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("대기열 읽기 미러(QueueMirror) 테스트")
+class QueueMirrorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private QueueMirror mirror;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mirror = new QueueMirror(mock(RedisTemplate.class), mock(RedisMessageListenerContainer.class), objectMapper);
+        ReflectionTestUtils.setField(mirror, "enabled", true);
+        ReflectionTestUtils.setField(mirror, "maxStalenessMs", 1000L);
+    }
+
+    @Test
+    @DisplayName("스냅샷과 이어지는 변경 내역을 반영해 Redis와 같은 순위를 낸다")
+    void applyChanges_Contiguous_ShouldFollowRedisOrder() throws Exception {
+        // given: [b1(Blacklist), n1, n2]
+        mirror.loadSnapshot(10, List.of("b1", "50", "n1", "100", "n2", "200"), List.of("b1"), now());
+
+        // when: n3 등록, n2 → Blacklist 전환(점수 낮아짐), b1 추출
+        mirror.applyChanges(json("{\"epoch\":11,\"changes\":[[\"N\",\"n3\",300]]}"), now());
+        mirror.applyChanges(json("{\"epoch\":12,\"changes\":[[\"B\",\"n2\",20],[\"R\",\"b1\"]]}"), now());
+
+        // then: [n2(Blacklist), n1, n3]
+        assertThat(mirror.findRank("n2")).contains(new MirrorRank(1, QueueType.BLACKLIST, 12));
+        assertThat(mirror.findRank("n1")).contains(new MirrorRank(2, QueueType.NORMAL, 12));
+        assertThat(mirror.findRank("n3")).contains(new MirrorRank(3, QueueType.NORMAL, 12));
+        assertThat(mirror.findRank("b1")).isEmpty();
+        assertThat(mirror.findSizes()).contains(new QueueService.QueueSizes(2, 1));
+    }
+
+    @Test
+    @DisplayName("score가 앞선 고객이 늦게 들어와도 score 순서로 끼워 넣는다")
+    void applyChanges_EarlierScore_ShouldInsertInOrder() throws Exception {
+        // given
+        mirror.loadSnapshot(1, List.of("a", "100", "c", "300"), List.of(), now());
+
+        // when: 다른 노드의 시계가 늦어 score가 중간인 고객 등록
+        mirror.applyChanges(json("{\"epoch\":2,\"changes\":[[\"N\",\"b\",200]]}"), now());
+
+        // then
+        assertThat(mirror.findRank("b").map(MirrorRank::rank)).contains(2L);
+        assertThat(mirror.findRank("c").map(MirrorRank::rank)).contains(3L);
+    }
+
+    @Test
+    @DisplayName("epoch가 건너뛴 변경 내역을 받으면 다시 적재할 때까지 미러를 사용하지 않는다")
+    void applyChanges_Gap_ShouldStopServingUntilResync() throws Exception {
+        // given
+        mirror.loadSnapshot(5, List.of("a", "100"), List.of(), now());
+
+        // when
+        mirror.applyChanges(json("{\"epoch\":7,\"changes\":[[\"R\",\"a\"]]}"), now());
+
+        // then
+        assertThat(mirror.findRank("a")).isEmpty();
+        assertThat(mirror.findSizes()).isEmpty();
+        assertThat(mirror.checkEpoch(7, now())).isTrue();
+    }
+
+    @Test
+    @DisplayName("허용 시간 동안 확인되지 않은 미러는 사용하지 않고, Redis epoch와 같으면 다시 사용한다")
+    void checkEpoch_ShouldBoundStaleness() {
+        // given: 2초 전에 읽은 스냅샷
+        mirror.loadSnapshot(3, List.of("a", "100"), List.of(), now() - 2000);
+        assertThat(mirror.findRank("a")).isEmpty();
+
+        // when
+        boolean resync = mirror.checkEpoch(3, now());
+
+        // then
+        assertThat(resync).isFalse();
+        assertThat(mirror.findRank("a").map(MirrorRank::rank)).contains(1L);
+    }
+
+    @Test
+    @DisplayName("다음 확인 때까지 Redis epoch를 따라잡지 못하면 다시 적재한다")
+    void checkEpoch_StillBehind_ShouldResync() {
+        // given
+        mirror.loadSnapshot(3, List.of(), List.of(), now());
+
+        // when & then: 처음 뒤처진 것은 변경 내역이 도착 중일 수 있으므로 기다림
+        assertThat(mirror.checkEpoch(4, now())).isFalse();
+        assertThat(mirror.checkEpoch(4, now())).isTrue();
+        // Redis 초기화로 epoch가 줄어든 경우도 다시 적재
+        assertThat(mirror.checkEpoch(0, now())).isTrue();
+    }
+
+    @Test
+    @DisplayName("epoch를 읽은 뒤 변경 내역이 먼저 반영돼 앞서 보이는 것은 다시 적재하지 않는다")
+    void checkEpoch_StaleRead_ShouldNotResync() throws Exception {
+        // given: epoch 5를 읽은 사이 변경 내역 6이 반영됨
+        mirror.loadSnapshot(5, List.of("a", "100"), List.of(), now());
+        mirror.applyChanges(json("{\"epoch\":6,\"changes\":[[\"N\",\"b\",200]]}"), now());
+
+        // when & then: 앞서 보여도 기다리고, 다음에 읽은 epoch가 따라오면 그대로 사용
+        assertThat(mirror.checkEpoch(5, now())).isFalse();
+        assertThat(mirror.checkEpoch(6, now())).isFalse();
+        assertThat(mirror.findRank("b").map(MirrorRank::rank)).contains(2L);
+    }
+
+    @Test
+    @DisplayName("다음 확인에서도 epoch가 직전 미러 버전보다 낮으면 Redis 초기화로 보고 다시 적재한다")
+    void checkEpoch_EpochDecreased_ShouldResync() {
+        // given
+        mirror.loadSnapshot(8, List.of(), List.of(), now());
+
+        // when & then: 초기화 후 새 등록으로 epoch가 조금 올라가도 8보다 낮으면 다시 적재
+        assertThat(mirror.checkEpoch(1, now())).isFalse();
+        assertThat(mirror.checkEpoch(2, now())).isTrue();
+    }
+
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.queue.service.QueueService.QueueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("대기 우선순위 점수 테스트")
+class QueuePriorityTest {
+
+    private static final long ARRIVED_AT = 1_000_000L;
+
+    @Test
+    @DisplayName("Normal 고객은 처음 건너뛸 때 Blacklist 보정과 스킵 보정을 함께 받는다")
+    void afterSkip_Normal_ShouldApplyBoostAndStep() {
+        // given
+        QueuePriority priority = new QueuePriority(300_000, 5_000, 120_000);
+
+        // when
+        double score = priority.afterSkip(ARRIVED_AT, ARRIVED_AT, QueueType.NORMAL);
+
+        // then
+        assertThat(score).isEqualTo(ARRIVED_AT - 305_000.0);
+    }
+
+    @Test
+    @DisplayName("반복해서 건너뛰면 앞선 Blacklist 고객을 추월하되 스킵 보정은 상한에서 멈춘다")
+    void afterSkip_Repeated_ShouldOvertakeUntilCapped() {
+        // given: 10초 먼저 온 Blacklist 고객 (건너뛴 적 없음)
+        QueuePriority priority = new QueuePriority(300_000, 5_000, 12_000);
+        double earlier = priority.afterMove(ARRIVED_AT - 10_000);
+        double score = priority.afterSkip(ARRIVED_AT, ARRIVED_AT, QueueType.NORMAL);
+
+        // when
+        score = priority.afterSkip(score, ARRIVED_AT, QueueType.BLACKLIST);
+        score = priority.afterSkip(score, ARRIVED_AT, QueueType.BLACKLIST);
+        double capped = priority.afterSkip(score, ARRIVED_AT, QueueType.BLACKLIST);
+
+        // then: 스킵 보정 15초 → 12초에서 멈춤
+        assertThat(score).isLessThan(earlier);
+        assertThat(capped).isEqualTo(ARRIVED_AT - 312_000.0);
+        assertThat(priority.afterSkip(capped, ARRIVED_AT, QueueType.BLACKLIST)).isEqualTo(capped);
+    }
+
+    @Test
+    @DisplayName("보정값이 음수이면 생성할 수 없다")
+    void constructor_NegativeValue_ShouldThrow() {
+        assertThatThrownBy(() -> new QueuePriority(300_000, -1, 120_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
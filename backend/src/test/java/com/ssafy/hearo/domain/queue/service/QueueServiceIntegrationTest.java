@@ -2,17 +2,29 @@ package com.ssafy.hearo.domain.queue.service;
 
 import com.ssafy.hearo.domain.customer.entity.Blacklist;
 import com.ssafy.hearo.domain.customer.entity.Customer;
+import com.ssafy.hearo.domain.customer.repository.BlacklistRepository;
+import com.ssafy.hearo.domain.customer.service.BlacklistIndex;
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.dto.QueueUpdateMessage;
+import com.ssafy.hearo.domain.queue.entity.QueueSnapshotEntry;
+import com.ssafy.hearo.domain.queue.repository.QueueSnapshotEntryRepository;
 import com.ssafy.hearo.domain.user.entity.User;
 import com.ssafy.hearo.domain.user.entity.UserRole;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.GenericContainer;
@@ -21,9 +33,15 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 @Testcontainers
@@ -34,6 +52,11 @@ class QueueServiceIntegrationTest {
     static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
             .withExposedPorts(6379);
 
+    // Redis 호출 수 확인용 (애플리케이션 스케줄러가 쓰지 않는 별도 Redis, INFO commandstats로 센다)
+    @Container
+    static GenericContainer<?> countedRedis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
     @Container
     static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
 
@@ -46,6 +69,8 @@ class QueueServiceIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         // 테스트 시 테이블 자동 생성
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔 (Order 24에서 직접 호출)
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 
     @Autowired
@@ -60,6 +85,30 @@ class QueueServiceIntegrationTest {
     @Autowired
     private PlatformTransactionManager transactionManager;
 
+    @Autowired
+    private QueueLeaseService queueLeaseService;
+
+    @Autowired
+    private BlacklistRepository blacklistRepository;
+
+    @Autowired
+    private QueueMirror queueMirror;
+
+    @Autowired
+    private QueueEventPublisher queueEventPublisher;
+
+    @Autowired
+    private QueuePriority queuePriority;
+
+    @Autowired
+    private BlacklistIndex blacklistIndex;
+
+    @Autowired
+    private QueueSnapshotService queueSnapshotService;
+
+    @Autowired
+    private QueueSnapshotEntryRepository queueSnapshotEntryRepository;
+
     // WebSocket 메시지 템플릿을 Mock으로 대체 (WebSocket 없이 테스트)
     @MockBean
     private SimpMessagingTemplate simpMessagingTemplate;
@@ -73,8 +122,13 @@ class QueueServiceIntegrationTest {
     }
 
     void clearQueues() {
-        redisTemplate.delete("queue:normal");
-        redisTemplate.delete("queue:blacklist");
+        redisTemplate.delete("queue:waiting");
+        redisTemplate.delete("queue:arrivals");
+        redisTemplate.delete("queue:blacklisted");
+        redisTemplate.delete("queue:rank-epoch");
+        redisTemplate.delete("queue:lease:deadlines");
+        redisTemplate.delete("queue:lease:tickets");
+        redisTemplate.delete("queue:lease:owners");
     }
 
     @AfterEach
@@ -232,47 +286,52 @@ class QueueServiceIntegrationTest {
         assertThat(queueService.getQueueSizes().normalQueueSize()).isEqualTo(1);
     }
 
-    // ==================== popMatchable 테스트 ====================
+    // ==================== peekMatchable / ageUnmatchable 테스트 ====================
 
     @Test
     @Order(9)
-    @DisplayName("popMatchable: 가용 상담원이 없으면 빈 결과 반환")
-    void popMatchable_NoAvailableCounselors_ShouldReturnEmpty() {
+    @DisplayName("peekMatchable/ageUnmatchable: 가용 상담원이 없으면 아무것도 변경하지 않는다")
+    void matchScan_NoAvailableCounselors_ShouldDoNothing() {
         // given
         queueService.enqueue("customer-1");
 
         // when
-        var result = queueService.popMatchable(Set.of());
+        var candidates = queueService.peekMatchable(Set.of(), 1);
+        var aging = queueService.ageUnmatchable(Set.of());
 
         // then
-        assertThat(result.hasMatch()).isFalse();
-        // 고객은 여전히 대기열에 있어야 함
-        assertThat(queueService.isInQueue("customer-1")).isTrue();
+        assertThat(candidates).isEmpty();
+        assertThat(aging.movedCustomerIds()).isEmpty();
+        // 고객은 Normal 고객으로 여전히 대기열에 있어야 함
+        assertThat(queueService.getQueueType("customer-1")).contains(QueueService.QueueType.NORMAL);
     }
 
     @Test
     @Order(10)
-    @DisplayName("popMatchable: 블랙리스트 관계 없는 고객은 바로 매칭된다 (문자열 ID)")
-    void popMatchable_NonNumericId_ShouldMatchWithAllCounselors() {
+    @DisplayName("peekMatchable: 블랙리스트 관계 없는 고객은 바로 매칭 후보가 되고 claim으로 꺼낸다 (문자열 ID)")
+    void peekMatchable_NonNumericId_ShouldMatchWithAllCounselors() {
         // given - 문자열 ID는 블랙리스트 체크를 스킵
         queueService.enqueue("string-customer");
         Set<Long> availableCounselors = Set.of(1L, 2L, 3L);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
+        var candidates = queueService.peekMatchable(availableCounselors, 1);
 
         // then
-        assertThat(result.hasMatch()).isTrue();
-        assertThat(result.customerId()).isEqualTo("string-customer");
-        assertThat(result.matchableCounselorIds()).containsExactlyInAnyOrderElementsOf(availableCounselors);
-        assertThat(result.skippedCount()).isZero();
-        assertThat(result.movedToBlacklistCount()).isZero();
+        assertThat(candidates).hasSize(1);
+        assertThat(candidates.get(0).customerId()).isEqualTo("string-customer");
+        assertThat(candidates.get(0).matchableCounselorIds()).containsExactlyInAnyOrderElementsOf(availableCounselors);
+        // peek은 꺼내지 않음
+        assertThat(queueService.isInQueue("string-customer")).isTrue();
+
+        assertThat(queueService.claim("string-customer")).isTrue();
+        assertThat(queueService.isInQueue("string-customer")).isFalse();
     }
 
     @Test
     @Order(11)
-    @DisplayName("popMatchable: Blacklist Queue에서 스킵된 고객은 복원된다")
-    void popMatchable_BlacklistQueueSkip_ShouldRestoreSkipped() {
+    @DisplayName("peekMatchable: 매칭 불가 Blacklist 고객은 건너뛰고 대기열에 그대로 남는다")
+    void peekMatchable_BlacklistQueueSkip_ShouldKeepSkipped() {
         // given - 트랜잭션으로 데이터 생성 및 커밋
         TestData testData = transactionTemplate.execute(status -> {
             User counselor1 = createUser("counselor1@test.com", "상담원1");
@@ -305,24 +364,23 @@ class QueueServiceIntegrationTest {
         Set<Long> availableCounselors = Set.of(testData.counselor1Id, testData.counselor2Id);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
+        var candidates = queueService.peekMatchable(availableCounselors, 1);
 
-        // then
-        assertThat(result.hasMatch()).isTrue();
-        assertThat(result.customerId()).isEqualTo(testData.customer2Id.toString());
-        assertThat(result.matchableCounselorIds()).containsExactly(testData.counselor2Id);
-        assertThat(result.skippedCount()).isEqualTo(1); // customer1이 스킵됨
+        // then - customer1은 스킵, customer2가 counselor2와 매칭 후보
+        assertThat(candidates).hasSize(1);
+        assertThat(candidates.get(0).customerId()).isEqualTo(testData.customer2Id.toString());
+        assertThat(candidates.get(0).matchableCounselorIds()).containsExactly(testData.counselor2Id);
 
-        // customer1은 Blacklist Queue에 복원되어 있어야 함
-        assertThat(queueService.isInQueue(testData.customer1Id.toString())).isTrue();
+        // customer1은 Blacklist Queue에 그대로 있어야 함
+        assertThat(queueService.getWaitingRank(testData.customer1Id.toString())).contains(1L);
         assertThat(queueService.getQueueType(testData.customer1Id.toString()))
                 .contains(QueueService.QueueType.BLACKLIST);
     }
 
     @Test
     @Order(12)
-    @DisplayName("popMatchable: Normal Queue에서 매칭 불가 시 Blacklist Queue로 이동")
-    void popMatchable_NormalQueueUnmatchable_ShouldMoveToBlacklist() {
+    @DisplayName("ageUnmatchable: Normal Queue에서 매칭 불가 시 Blacklist Queue로 이동")
+    void ageUnmatchable_NormalQueueUnmatchable_ShouldMoveToBlacklist() {
         // given
         TestData testData = transactionTemplate.execute(status -> {
             User counselor1 = createUser("counselor3@test.com", "상담원3");
@@ -348,22 +406,23 @@ class QueueServiceIntegrationTest {
         Set<Long> availableCounselors = Set.of(testData.counselor1Id);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
-
-        // then
-        assertThat(result.hasMatch()).isTrue();
-        assertThat(result.customerId()).isEqualTo(testData.customer2Id.toString());
-        assertThat(result.movedToBlacklistCount()).isEqualTo(1); // customer1이 Blacklist로 이동
+        var aging = queueService.ageUnmatchable(availableCounselors);
 
-        // customer1은 이제 Blacklist Queue에 있어야 함
+        // then - customer1만 Blacklist로 이동, customer2는 그대로 매칭 후보
+        assertThat(aging.movedCustomerIds()).containsExactly(testData.customer1Id.toString());
         assertThat(queueService.getQueueType(testData.customer1Id.toString()))
                 .contains(QueueService.QueueType.BLACKLIST);
+        assertThat(queueService.getQueueType(testData.customer2Id.toString()))
+                .contains(QueueService.QueueType.NORMAL);
+        assertThat(queueService.peekMatchable(availableCounselors, 1))
+                .extracting(QueueService.MatchCandidate::customerId)
+                .containsExactly(testData.customer2Id.toString());
     }
 
     @Test
     @Order(13)
-    @DisplayName("popMatchable: 모든 고객이 매칭 불가능하면 빈 결과 반환")
-    void popMatchable_AllUnmatchable_ShouldReturnEmpty() {
+    @DisplayName("ageUnmatchable: 모든 고객이 매칭 불가능하면 모두 Blacklist Queue로 이동하고 매칭 후보는 없다")
+    void ageUnmatchable_AllUnmatchable_ShouldMoveAll() {
         // given
         TestData testData = transactionTemplate.execute(status -> {
             User counselor1 = createUser("counselor4@test.com", "상담원4");
@@ -390,11 +449,11 @@ class QueueServiceIntegrationTest {
         Set<Long> availableCounselors = Set.of(testData.counselor1Id);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
+        var aging = queueService.ageUnmatchable(availableCounselors);
 
         // then
-        assertThat(result.hasMatch()).isFalse();
-        assertThat(result.movedToBlacklistCount()).isEqualTo(2); // 둘 다 Blacklist로 이동
+        assertThat(aging.movedCustomerIds()).hasSize(2); // 둘 다 Blacklist로 이동
+        assertThat(queueService.peekMatchable(availableCounselors, 1)).isEmpty();
 
         // 둘 다 Blacklist Queue에 있어야 함
         assertThat(queueService.getQueueType(testData.customer1Id.toString()))
@@ -405,8 +464,8 @@ class QueueServiceIntegrationTest {
 
     @Test
     @Order(14)
-    @DisplayName("popMatchable: Blacklist Queue 전체 스킵 후 Normal Queue에서 매칭")
-    void popMatchable_SkipAllBlacklistThenMatchNormal() throws InterruptedException {
+    @DisplayName("peekMatchable/ageUnmatchable: Blacklist Queue 전체 스킵 후 Normal Queue에서 매칭")
+    void matchScan_SkipAllBlacklistThenMatchNormal() throws InterruptedException {
         // given
         TestData testData = transactionTemplate.execute(status -> {
             User counselor1 = createUser("counselor5@test.com", "상담원5");
@@ -437,21 +496,562 @@ class QueueServiceIntegrationTest {
         Set<Long> availableCounselors = Set.of(testData.counselor1Id);
 
         // when
-        var result = queueService.popMatchable(availableCounselors);
+        var candidates = queueService.peekMatchable(availableCounselors, 1);
+        var aging = queueService.ageUnmatchable(availableCounselors);
 
         // then
-        assertThat(result.hasMatch()).isTrue();
-        assertThat(result.customerId()).isEqualTo(testData.customer2Id.toString());
-        assertThat(result.skippedCount()).isEqualTo(1); // Blacklist Queue에서 1명 스킵
-        assertThat(result.movedToBlacklistCount()).isZero();
+        assertThat(candidates).extracting(QueueService.MatchCandidate::customerId)
+                .containsExactly(testData.customer2Id.toString());
+        assertThat(aging.skippedCustomerIds()).containsExactly(testData.customer1Id.toString()); // Blacklist Queue에서 1명 스킵
+        assertThat(aging.movedCustomerIds()).isEmpty();
 
         // blacklistCustomer는 여전히 Blacklist Queue에 있어야 함
         assertThat(queueService.getQueueType(testData.customer1Id.toString()))
                 .contains(QueueService.QueueType.BLACKLIST);
     }
 
+    @Test
+    @Order(15)
+    @DisplayName("ageUnmatchable: 유령고객 제거와 Normal→Blacklist 이동을 한 번에 처리하고, peek은 여러 번 해도 점수를 바꾸지 않는다")
+    void ageUnmatchable_Atomic_ShouldEvictGhostsAndAgeOncePerCall() throws InterruptedException {
+        // given
+        TestData testData = transactionTemplate.execute(status -> {
+            User counselor1 = createUser("counselor6@test.com", "상담원6");
+            User counselor2 = createUser("counselor7@test.com", "상담원7");
+
+            Customer customer1 = createCustomer("고객8", "010-1010-1010");
+            Customer customer2 = createCustomer("고객9", "010-1212-1212");
+            Customer customer3 = createCustomer("고객10", "010-1313-1313");
+
+            entityManager.flush();
+
+            // customer1은 모든 상담원과, customer2는 counselor1과만 블랙리스트
+            createBlacklist(counselor1, customer1, "테스트");
+            createBlacklist(counselor2, customer1, "테스트");
+            createBlacklist(counselor1, customer2, "테스트");
+
+            entityManager.flush();
+
+            return new TestData(counselor1.getId(), counselor2.getId(),
+                    customer1.getId().longValue(), customer2.getId().longValue(), customer3.getId().longValue());
+        });
+        String customer1 = testData.customer1Id.toString();
+        String customer2 = testData.customer2Id.toString();
+        String customer3 = testData.customer3Id.toString();
+
+        // lease 없이 등록된 유령고객이 맨 앞, 그 뒤로 customer1, customer2, customer3 (lease 있음)
+        queueService.enqueue("ghost-customer");
+        for (String customerId : List.of(customer1, customer2, customer3)) {
+            Thread.sleep(10);
+            queueService.enqueue(customerId);
+            queueLeaseService.createLease(customerId);
+        }
+
+        // when - counselor1만 가용
+        var aging = queueService.ageUnmatchable(Set.of(testData.counselor1Id));
+
+        // then - 유령고객 제거, customer1/customer2는 Blacklist Queue로 이동, customer3은 그대로
+        assertThat(aging.movedCustomerIds()).containsExactly(customer1, customer2);
+        assertThat(queueService.isInQueue("ghost-customer")).isFalse();
+        assertThat(queueService.getQueueType(customer1)).contains(QueueService.QueueType.BLACKLIST);
+        assertThat(queueService.getQueueType(customer2)).contains(QueueService.QueueType.BLACKLIST);
+        assertThat(queueService.getQueueType(customer3)).contains(QueueService.QueueType.NORMAL);
+
+        // when - 두 상담원 모두 가용, 한 사이클 안에서 여러 번 조회
+        Set<Long> bothCounselors = Set.of(testData.counselor1Id, testData.counselor2Id);
+        Double scoreBefore = redisTemplate.opsForZSet().score("queue:waiting", customer1);
+        for (int i = 0; i < 3; i++) {
+            var candidates = queueService.peekMatchable(bothCounselors, 1);
+
+            // then - customer1은 스킵, customer2는 counselor2와 매칭 후보
+            assertThat(candidates).hasSize(1);
+            assertThat(candidates.get(0).customerId()).isEqualTo(customer2);
+            assertThat(candidates.get(0).matchableCounselorIds()).containsExactly(testData.counselor2Id);
+        }
+
+        // then - 조회만으로는 스킵한 고객의 점수가 바뀌지 않는다 (aging은 사이클당 한 번)
+        assertThat(redisTemplate.opsForZSet().score("queue:waiting", customer1)).isEqualTo(scoreBefore);
+
+        // when/then - customer2를 꺼낸 뒤 aging해도 customer1은 순위 1로 남아 있어야 함
+        assertThat(queueService.claim(customer2)).isTrue();
+        assertThat(queueService.ageUnmatchable(bothCounselors).skippedCustomerIds()).containsExactly(customer1);
+        assertThat(queueService.getWaitingRank(customer1)).contains(1L);
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("순위 변경 이벤트: 제거 1건당 브로드캐스트 1건만 전송되고, 이벤트로 모든 고객의 새 순위를 계산할 수 있다")
+    void remove_ShouldPublishSingleRankShiftEvent() throws InterruptedException {
+        // given
+        String[] customers = {"shift-1", "shift-2", "shift-3", "shift-4"};
+        for (String c : customers) {
+            queueService.enqueue(c);
+            Thread.sleep(10);
+        }
+        // 등록 알림(비동기)이 모두 나간 뒤부터 확인
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-rank/shift-4"), any(Object.class));
+        long epochBefore = queueService.getStatus("shift-1").orElseThrow().getRankEpoch();
+        clearInvocations(simpMessagingTemplate);
+
+        // when
+        queueService.remove("shift-2");
+
+        // then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-updates"), captor.capture());
+        QueueUpdateMessage message = (QueueUpdateMessage) captor.getValue();
+
+        assertThat(message.getEpoch()).isEqualTo(epochBefore + 1);
+        assertThat(message.getRemovedRanks()).containsExactly(2L);
+        assertThat(message.getInsertedRanks()).isEmpty();
+        assertThat(message.shiftRank(1)).isEqualTo(queueService.getWaitingRank("shift-1").orElseThrow());
+        assertThat(message.shiftRank(3)).isEqualTo(queueService.getWaitingRank("shift-3").orElseThrow());
+        assertThat(message.shiftRank(4)).isEqualTo(queueService.getWaitingRank("shift-4").orElseThrow());
+
+        // 나머지 고객에게 개별 순위 메시지를 보내지 않는다
+        verify(simpMessagingTemplate, after(300).never())
+                .convertAndSend(startsWith("/topic/queue-rank/"), any(Object.class));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("순위 변경 이벤트: Blacklist Queue 이동 시 이동한 고객만 개별 순위 메시지를 받는다")
+    void moveToBlacklistQueue_ShouldPublishShiftAndNotifyMovedCustomerOnly() throws InterruptedException {
+        // given
+        String[] customers = {"move-1", "move-2", "move-3"};
+        for (String c : customers) {
+            queueService.enqueue(c);
+            Thread.sleep(10);
+        }
+        // 등록 알림(비동기)이 모두 나간 뒤부터 확인
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-rank/move-3"), any(Object.class));
+        clearInvocations(simpMessagingTemplate);
+
+        // when
+        queueService.moveToBlacklistQueue("move-3");
+
+        // then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-updates"), captor.capture());
+        QueueUpdateMessage message = (QueueUpdateMessage) captor.getValue();
+
+        assertThat(message.getRemovedRanks()).containsExactly(3L);
+        assertThat(message.getInsertedRanks()).containsExactly(1L);
+        assertThat(message.shiftRank(1)).isEqualTo(queueService.getWaitingRank("move-1").orElseThrow());
+        assertThat(message.shiftRank(2)).isEqualTo(queueService.getWaitingRank("move-2").orElseThrow());
+
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-rank/move-3"), any(Object.class));
+        verify(simpMessagingTemplate, after(300).never()).convertAndSend(eq("/topic/queue-rank/move-1"), any(Object.class));
+        verify(simpMessagingTemplate, never()).convertAndSend(eq("/topic/queue-rank/move-2"), any(Object.class));
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("블랙리스트 인덱스: 등록/해제가 매칭에 바로 반영되고, Redis 초기화 후에도 다시 적재된다")
+    void blacklistIndex_ShouldFollowChangesAndReloadAfterReset() {
+        // given
+        TestData testData = transactionTemplate.execute(status -> {
+            User counselor = createUser("counselor-index@test.com", "상담원");
+            Customer customer = createCustomer("고객-인덱스", "010-9999-0000");
+            entityManager.flush();
+            createBlacklist(counselor, customer, "테스트");
+            return new TestData(counselor.getId(), null, customer.getId().longValue(), null, null);
+        });
+        String customerId = testData.customer1Id.toString();
+        Set<Long> availableCounselors = Set.of(testData.counselor1Id);
+        queueService.enqueue(customerId);
+        queueLeaseService.createLease(customerId);
+
+        // when: 인덱스 키가 모두 사라진 상태에서 매칭 시도 (Redis 초기화)
+        redisTemplate.delete(BlacklistIndex.READY_KEY);
+        redisTemplate.delete(BlacklistIndex.KEY_PREFIX + customerId);
+        var aging = queueService.ageUnmatchable(availableCounselors);
+
+        // then: 다시 적재된 인덱스로 차단 관계를 확인해 Blacklist Queue로 이동
+        assertThat(aging.movedCustomerIds()).containsExactly(customerId);
+        assertThat(queueService.getQueueType(customerId)).contains(QueueService.QueueType.BLACKLIST);
+
+        // when: 블랙리스트 해제 후 다시 매칭 시도
+        transactionTemplate.executeWithoutResult(status -> blacklistRepository.delete(
+                blacklistRepository.findByUserIdAndCustomerId(testData.counselor1Id, testData.customer1Id.intValue())
+                        .orElseThrow()));
+        var candidates = queueService.peekMatchable(availableCounselors, 1);
+
+        // then
+        assertThat(candidates).hasSize(1);
+        assertThat(candidates.get(0).customerId()).isEqualTo(customerId);
+        assertThat(candidates.get(0).matchableCounselorIds()).containsExactly(testData.counselor1Id);
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("lease 만료 고객 일괄 정리: 큐 위치와 무관하게 한 번에 제거되고, 이벤트로 남은 고객의 새 순위를 계산할 수 있다")
+    void peekMatchable_ExpiredLeases_ShouldBeDroppedInBulk() throws InterruptedException {
+        // given: Blacklist [lease-5], Normal [lease-1, lease-2, lease-3, lease-4, lease-6]
+        String[] customers = {"lease-1", "lease-2", "lease-3", "lease-4", "lease-5", "lease-6"};
+        for (String c : customers) {
+            queueService.enqueue(c);
+            queueLeaseService.createLease(c);
+            Thread.sleep(10);
+        }
+        queueService.moveToBlacklistQueue("lease-5");
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-rank/lease-5"), any(Object.class));
+        clearInvocations(simpMessagingTemplate);
+
+        // lease-5(순위 1), lease-3(순위 4)의 lease 만료
+        long past = System.currentTimeMillis() - 1000;
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "lease-5", past);
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "lease-3", past);
+
+        // when
+        var candidates = queueService.peekMatchable(Set.of(1L), 1);
+
+        // then: 만료 고객 제거 후 Normal Queue 맨 앞 고객(순위 2)이 매칭 후보
+        assertThat(candidates).extracting(QueueService.MatchCandidate::customerId).containsExactly("lease-1");
+        assertThat(queueService.isInQueue("lease-1")).isTrue();
+        assertThat(queueService.isInQueue("lease-5")).isFalse();
+        assertThat(queueService.isInQueue("lease-3")).isFalse();
+        assertThat(queueLeaseService.isLeaseAlive("lease-4")).isTrue();
+        assertThat(redisTemplate.opsForHash().hasKey("queue:lease:owners", "lease-5")).isFalse();
+        assertThat(redisTemplate.opsForZSet().score("queue:lease:deadlines", "lease-3")).isNull();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-updates"), captor.capture());
+        QueueUpdateMessage message = (QueueUpdateMessage) captor.getValue();
+
+        assertThat(message.getRemovedRanks()).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(message.shiftRank(2)).isEqualTo(queueService.getWaitingRank("lease-1").orElseThrow());
+        assertThat(message.shiftRank(3)).isEqualTo(queueService.getWaitingRank("lease-2").orElseThrow());
+        assertThat(message.shiftRank(5)).isEqualTo(queueService.getWaitingRank("lease-4").orElseThrow());
+        assertThat(message.shiftRank(6)).isEqualTo(queueService.getWaitingRank("lease-6").orElseThrow());
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("evictExpiredLeases: 매칭 없이도 lease 만료 고객을 한꺼번에 제거하고 순위 변경 이벤트는 1건만 전송한다")
+    void evictExpiredLeases_ShouldRemoveExpiredWithSingleEvent() throws InterruptedException {
+        // given: Normal [evict-1, evict-2, evict-3, evict-4, evict-5]
+        String[] customers = {"evict-1", "evict-2", "evict-3", "evict-4", "evict-5"};
+        for (String c : customers) {
+            queueService.enqueue(c);
+            queueLeaseService.createLease(c);
+            Thread.sleep(10);
+        }
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-rank/evict-5"), any(Object.class));
+        clearInvocations(simpMessagingTemplate);
+
+        // evict-2, evict-4의 lease 만료 + 대기열에 없는 고객의 만료 lease
+        long past = System.currentTimeMillis() - 1000;
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "evict-2", past);
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "evict-4", past);
+        queueLeaseService.createLease("evict-gone");
+        redisTemplate.opsForZSet().add("queue:lease:deadlines", "evict-gone", past);
+
+        // when
+        var evicted = queueService.evictExpiredLeases(100);
+
+        // then
+        assertThat(evicted).containsExactlyInAnyOrder("evict-2", "evict-4");
+        assertThat(queueService.getQueueSizes().normalQueueSize()).isEqualTo(3);
+        assertThat(redisTemplate.opsForZSet().zCard("queue:lease:deadlines")).isEqualTo(3);
+        assertThat(redisTemplate.opsForHash().hasKey("queue:lease:owners", "evict-gone")).isFalse();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSend(eq("/topic/queue-updates"), captor.capture());
+        QueueUpdateMessage message = (QueueUpdateMessage) captor.getValue();
+        assertThat(message.getRemovedRanks()).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(message.shiftRank(3)).isEqualTo(queueService.getWaitingRank("evict-3").orElseThrow());
+        assertThat(message.shiftRank(5)).isEqualTo(queueService.getWaitingRank("evict-5").orElseThrow());
+        verify(simpMessagingTemplate, after(300).times(1)).convertAndSend(eq("/topic/queue-updates"), any(Object.class));
+
+        // 다시 실행하면 정리할 고객 없음
+        assertThat(queueService.evictExpiredLeases(100)).isEmpty();
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("읽기 미러: 변경 내역 채널로 Redis 대기열 변경을 따라간다")
+    void queueMirror_ShouldFollowQueueChanges() throws InterruptedException {
+        // given: 대기열을 비운 상태와 맞춤
+        queueMirror.verify();
+
+        // when
+        queueService.enqueue("customer1");
+        queueService.enqueue("customer2");
+        queueService.enqueue("customer3");
+        queueService.moveToBlacklistQueue("customer3");
+        queueService.remove("customer1");
+
+        // then: customer3(Blacklist) → customer2(Normal)
+        QueueMirror.MirrorRank expected = new QueueMirror.MirrorRank(2, QueueService.QueueType.NORMAL, 5);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!queueMirror.findRank("customer2").equals(java.util.Optional.of(expected))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(queueMirror.findRank("customer2")).contains(expected);
+        assertThat(queueMirror.findRank("customer3").map(QueueMirror.MirrorRank::rank)).contains(1L);
+        assertThat(queueMirror.findRank("customer1")).isEmpty();
+        assertThat(queueMirror.findSizes()).contains(queueService.getQueueSizes());
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("enqueueAll: 여러 고객을 Redis 호출 1회로 등록하고 요청 순서대로 순위를 반환한다")
+    void enqueueAll_ShouldRegisterInSingleRoundTrip() {
+        LettuceConnectionFactory factory = countedConnectionFactory();
+        try {
+            // given: 별도 Redis를 쓰는 대기열 서비스, bulk-0 등록으로 스크립트도 미리 적재
+            RedisTemplate<String, String> countedTemplate = new StringRedisTemplate(factory);
+            QueueService bulkService = new QueueServiceImpl(countedTemplate, queueEventPublisher, blacklistIndex, queuePriority);
+            bulkService.enqueueAll(List.of("bulk-0"));
+
+            // 고객 ID 순서와 다른 요청 순서 (bulk-50, bulk-49, ..., bulk-1) + 이미 대기 중인 고객/중복
+            List<String> requested = new ArrayList<>();
+            for (int i = 50; i >= 1; i--) {
+                requested.add("bulk-" + i);
+            }
+            requested.add("bulk-0");
+            requested.add("bulk-50");
+            resetCommandStats(countedTemplate);
+
+            // when
+            List<QueueStatusResponse> statuses = bulkService.enqueueAll(requested);
+
+            // then: Redis가 받은 스크립트 호출 1회 (스크립트 재적재 없음)
+            assertThat(commandCalls(countedTemplate, "evalsha")).isEqualTo(1);
+            assertThat(commandCalls(countedTemplate, "eval")).isZero();
+            assertThat(statuses).hasSize(requested.size());
+            for (int i = 0; i < 50; i++) {
+                assertThat(statuses.get(i).getWaitingRank()).isEqualTo(i + 2L);
+                assertThat(bulkService.getWaitingRank(requested.get(i))).contains(i + 2L);
+            }
+            assertThat(statuses.get(50).getWaitingRank()).isEqualTo(1L);
+            assertThat(statuses.get(51).getWaitingRank()).isEqualTo(2L);
+            assertThat(bulkService.getQueueSizes().normalQueueSize()).isEqualTo(51);
+
+            // 순위 변경 이벤트는 1건 (bulk-0 등록 1건 + 일괄 등록 1건)
+            ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+            verify(simpMessagingTemplate, timeout(1000).times(2)).convertAndSend(eq("/topic/queue-updates"), captor.capture());
+            QueueUpdateMessage message = (QueueUpdateMessage) captor.getAllValues().get(1);
+            assertThat(message.getInsertedRanks()).hasSize(50);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("requeueAll: 원래 도착 시각/점수/큐 종류로 되돌린 고객은 원래 자리로 돌아간다")
+    void requeueAll_ShouldRestoreOriginalPositions() {
+        // given
+        long now = System.currentTimeMillis();
+        queueService.enqueue("n1");
+        queueService.enqueue("n2");
+
+        // when: 먼저 온 Normal 고객과 Blacklist 고객을 되돌림
+        List<QueueStatusResponse> statuses = queueService.requeueAll(List.of(
+                new QueueService.QueueEntry("early", now - 1000, now - 1000, QueueService.QueueType.NORMAL),
+                new QueueService.QueueEntry("black", now - 500, queuePriority.afterMove(now - 500),
+                        QueueService.QueueType.BLACKLIST),
+                new QueueService.QueueEntry("n2", now, now, QueueService.QueueType.BLACKLIST)));
+
+        // then: black → early → n1 → n2 (이미 대기 중인 n2는 그대로)
+        assertThat(statuses).extracting(QueueStatusResponse::getWaitingRank).containsExactly(2L, 1L, 4L);
+        assertThat(queueService.getAllCustomersWithRanks().keySet()).containsExactly("black", "early", "n1", "n2");
+        assertThat(queueService.getQueueType("black")).contains(QueueService.QueueType.BLACKLIST);
+        assertThat(queueService.getQueueType("n2")).contains(QueueService.QueueType.NORMAL);
+        assertThat(queueService.getQueueSizes()).isEqualTo(new QueueService.QueueSizes(3, 1));
+        assertThat(redisTemplate.opsForHash().get("queue:arrivals", "early")).isEqualTo(String.valueOf(now - 1000));
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("스냅샷: Redis 대기열이 유실되면 마지막 스냅샷으로 순위/큐 종류/lease를 복원한다")
+    void snapshot_RedisLost_ShouldRestoreQueueAndLeases() {
+        // given: 3명 대기 (c2는 Blacklist 고객), 스냅샷 저장
+        queueService.enqueue("c1");
+        queueService.enqueue("c2");
+        queueService.enqueue("c3");
+        String ticket1 = queueLeaseService.createLease("c1");
+        String ticket3 = queueLeaseService.createLease("c3");
+        queueService.moveToBlacklistQueue("c2");
+        Object arrivedAt = redisTemplate.opsForHash().get("queue:arrivals", "c3");
+
+        assertThat(queueSnapshotService.saveChanges()).isEqualTo(3);
+        // 변경이 없으면 저장하지 않음, c3 이탈은 해당 항목만 삭제
+        assertThat(queueSnapshotService.saveChanges()).isZero();
+        queueService.remove("c3");
+        assertThat(queueSnapshotService.saveChanges()).isEqualTo(1);
+        queueService.requeueAll(List.of(new QueueService.QueueEntry("c3", Long.parseLong((String) arrivedAt),
+                Long.parseLong((String) arrivedAt), QueueService.QueueType.NORMAL)));
+        assertThat(queueSnapshotService.saveChanges()).isEqualTo(1);
+        Map<String, Long> ranks = queueService.getAllCustomersWithRanks();
+
+        // when: Redis 유실 (epoch 초기화) 후 다음 저장 주기
+        clearQueues();
+        queueSnapshotService.saveChanges();
+
+        // then
+        assertThat(queueService.getAllCustomersWithRanks()).isEqualTo(ranks);
+        assertThat(queueService.getQueueType("c2")).contains(QueueService.QueueType.BLACKLIST);
+        assertThat(queueService.getQueueSizes()).isEqualTo(new QueueService.QueueSizes(2, 1));
+        assertThat(redisTemplate.opsForHash().get("queue:arrivals", "c3")).isEqualTo(arrivedAt);
+        assertThat(queueLeaseService.validateLease(ticket1)).contains("c1");
+        assertThat(queueLeaseService.validateLease(ticket3)).contains("c3");
+        assertThat(Long.parseLong(redisTemplate.opsForValue().get("queue:rank-epoch"))).isPositive();
+
+        queueSnapshotEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("createLeases: 여러 고객의 lease를 Redis 호출 1회로 생성하고 살아있는 lease는 유지한다")
+    void createLeases_ShouldCreateInSingleRoundTrip() {
+        LettuceConnectionFactory factory = countedConnectionFactory();
+        try {
+            // given: lease-0은 이미 lease가 있음 (스크립트도 미리 적재)
+            RedisTemplate<String, String> countedTemplate = new StringRedisTemplate(factory);
+            QueueLeaseService leaseService = new QueueLeaseServiceImpl(countedTemplate);
+            String existing = leaseService.createLeases(List.of("lease-0")).get("lease-0");
+
+            List<String> customerIds = new ArrayList<>();
+            for (int i = 0; i <= 50; i++) {
+                customerIds.add("lease-" + i);
+            }
+            resetCommandStats(countedTemplate);
+
+            // when
+            Map<String, String> created = leaseService.createLeases(customerIds);
+
+            // then
+            assertThat(commandCalls(countedTemplate, "evalsha")).isEqualTo(1);
+            assertThat(commandCalls(countedTemplate, "eval")).isZero();
+            assertThat(created).hasSize(50).doesNotContainKey("lease-0");
+            assertThat(leaseService.validateLease(existing)).contains("lease-0");
+            created.forEach((customerId, ticket) ->
+                    assertThat(leaseService.validateLease(ticket)).contains(customerId));
+            assertThat(leaseService.findAliveCustomers(customerIds)).hasSize(51);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("스냅샷: 유실 후 Redis epoch가 남아 있지만 스냅샷보다 작으면 epoch를 올려 한 번만 복원한다")
+    void snapshot_SmallerEpoch_ShouldRestoreOnce() {
+        // given: 2명 대기 후 스냅샷 저장 (이전 테스트의 저장 상태는 비움)
+        ReflectionTestUtils.setField(queueSnapshotService, "persisted", null);
+        queueService.enqueue("e1");
+        queueService.enqueue("e2");
+        queueLeaseService.createLease("e1");
+        queueLeaseService.createLease("e2");
+        redisTemplate.opsForValue().increment("queue:rank-epoch", 100);
+        assertThat(queueSnapshotService.saveChanges()).isEqualTo(2);
+        long snapshotEpoch = Long.parseLong(redisTemplate.opsForValue().get("queue:rank-epoch"));
+
+        // when: Redis 유실 후 다른 노드가 epoch 키를 작은 값으로 다시 만든 상태에서 저장 주기
+        clearQueues();
+        redisTemplate.opsForValue().set("queue:rank-epoch", "1");
+        queueSnapshotService.saveChanges();
+
+        // then: 복원되고 epoch는 스냅샷 이상
+        assertThat(queueService.getAllCustomersWithRanks().keySet()).containsExactly("e1", "e2");
+        assertThat(Long.parseLong(redisTemplate.opsForValue().get("queue:rank-epoch"))).isGreaterThanOrEqualTo(snapshotEpoch);
+
+        // 이후 이탈은 다시 복원되지 않고 스냅샷에서 지워짐
+        queueService.remove("e1");
+        assertThat(queueSnapshotService.saveChanges()).isEqualTo(1);
+        assertThat(queueService.isInQueue("e1")).isFalse();
+        assertThat(queueSnapshotEntryRepository.findAll()).extracting(QueueSnapshotEntry::getCustomerId)
+                .containsExactly("e2");
+
+        queueSnapshotEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("스냅샷: 모든 항목이 만료됐으면 스냅샷에서 지우고 다음 저장 주기에 다시 복원하지 않는다")
+    void snapshot_AllExpired_ShouldNotRestoreAgain() {
+        // given: 만료 시간보다 오래된 항목만 있는 스냅샷
+        ReflectionTestUtils.setField(queueSnapshotService, "persisted", null);
+        long arrivedAt = System.currentTimeMillis() - QueueService.QUEUE_ENTRY_TIMEOUT_MS - 60_000;
+        transactionTemplate.executeWithoutResult(status ->
+                queueSnapshotEntryRepository.upsert("old", arrivedAt, arrivedAt, "NORMAL", null, 50L));
+
+        // when: Redis 유실 상태(epoch 없음)에서 저장 주기 두 번
+        queueSnapshotService.saveChanges();
+        queueService.enqueue("fresh");
+        queueSnapshotService.saveChanges();
+
+        // then: 만료 항목은 복원되지 않고 지워지며, 새 고객은 복원이 아니라 저장됨
+        assertThat(queueService.isInQueue("old")).isFalse();
+        assertThat(Long.parseLong(redisTemplate.opsForValue().get("queue:rank-epoch"))).isGreaterThanOrEqualTo(50L);
+        assertThat(queueSnapshotEntryRepository.findAll()).extracting(QueueSnapshotEntry::getCustomerId)
+                .containsExactly("fresh");
+
+        queueSnapshotEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("enqueueAllFromHold: 콜백 대기열에 남아 있는 고객만 빼서 등록하고 이미 빠진 고객은 건너뛴다")
+    void enqueueAllFromHold_ShouldSkipCustomersNoLongerHeld() {
+        // given: h1, h2, h3 콜백 대기 중 h2가 이동 전에 취소
+        String holdKey = QueueAdmissionService.HOLD_QUEUE_KEY;
+        redisTemplate.opsForZSet().add(holdKey, "h1", 1);
+        redisTemplate.opsForZSet().add(holdKey, "h2", 2);
+        redisTemplate.opsForZSet().add(holdKey, "h3", 3);
+        redisTemplate.opsForZSet().remove(holdKey, "h2");
+
+        try {
+            // when
+            List<QueueStatusResponse> statuses = queueService.enqueueAllFromHold(holdKey, List.of("h1", "h2", "h3"));
+
+            // then
+            assertThat(statuses).extracting(QueueStatusResponse::getCustomerId).containsExactly("h1", "h3");
+            assertThat(statuses).extracting(QueueStatusResponse::getWaitingRank).containsExactly(1L, 2L);
+            assertThat(queueService.isInQueue("h2")).isFalse();
+            assertThat(redisTemplate.opsForZSet().zCard(holdKey)).isZero();
+        } finally {
+            redisTemplate.delete(holdKey);
+        }
+    }
+
     // ==================== 헬퍼 메서드 ====================
 
+    private static LettuceConnectionFactory countedConnectionFactory() {
+        LettuceConnectionFactory factory =
+                new LettuceConnectionFactory(countedRedis.getHost(), countedRedis.getFirstMappedPort());
+        factory.afterPropertiesSet();
+        factory.start();
+        try (RedisConnection connection = factory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        return factory;
+    }
+
+    private static void resetCommandStats(RedisTemplate<String, String> template) {
+        template.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().resetConfigStats();
+            return null;
+        });
+    }
+
+    /**
+     * INFO commandstats의 명령별 호출 수 (cmdstat_evalsha:calls=1,usec=...)
+     */
+    private static long commandCalls(RedisTemplate<String, String> template, String command) {
+        Properties stats = template.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("commandstats"));
+        String value = stats != null ? stats.getProperty("cmdstat_" + command) : null;
+        if (value == null) {
+            return 0;
+        }
+        return Long.parseLong(value.split(",")[0].substring("calls=".length()));
+    }
+
     private User createUser(String email, String name) {
         User user = User.builder()
                 .email(email)
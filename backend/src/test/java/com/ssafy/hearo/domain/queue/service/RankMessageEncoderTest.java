@@ -0,0 +1,72 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.hearo.domain.queue.service.QueueEventPublisher.RankUpdateMessage;
+import com.ssafy.hearo.domain.queue.websocket.QueueHandshakeInterceptor;
+import com.ssafy.hearo.global.config.WebSocketConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("순위 메시지 JSON 인코더 테스트")
+class RankMessageEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Jackson과 같은 JSON을 만든다 (null, 음수, 이스케이프, 비 ASCII 포함)")
+    void encode_ShouldMatchJackson() throws Exception {
+        List<RankUpdateMessage> messages = List.of(
+                new RankUpdateMessage("customer_1", 3L, "WAITING", 12L, 1_700_000_000_000L, 900L),
+                new RankUpdateMessage("customer_2", null, "REMOVED", 0L, 1L),
+                new RankUpdateMessage("q\"u\\o\nte\t\u0001/", Long.MAX_VALUE, "WAITING", -5L, Long.MIN_VALUE, 0L),
+                new RankUpdateMessage("고객-😀-é", 1L, "WAITING", 1L, 1L, 60L),
+                new RankUpdateMessage(null, 1L, null, null, null, null));
+
+        for (RankUpdateMessage message : messages) {
+            assertThat(new String(RankMessageEncoder.encode(message).bytes(), "UTF-8"))
+                    .isEqualTo(objectMapper.writeValueAsString(message));
+        }
+    }
+
+    @Test
+    @DisplayName("convertAndSend로 보내면 Jackson 변환 없이 JSON content-type과 함께 그대로 전송된다")
+    void convertAndSend_EncodedJson_ShouldBypassJackson() throws Exception {
+        // given: Boot가 기본 변환기(Jackson 포함)를 먼저 넣은 뒤 WebSocketConfig 적용
+        List<Message<?>> sent = new ArrayList<>();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        List<MessageConverter> converters = new ArrayList<>(List.of(
+                new StringMessageConverter(), new ByteArrayMessageConverter(), new MappingJackson2MessageConverter()));
+        new WebSocketConfig(mock(QueueHandshakeInterceptor.class), new SimpleMeterRegistry())
+                .configureMessageConverters(converters);
+        template.setMessageConverter(new CompositeMessageConverter(converters));
+        RankUpdateMessage message = new RankUpdateMessage("customer_1", 2L, "WAITING", 7L, 100L, 120L);
+
+        // when
+        template.convertAndSend("/topic/queue-rank/customer_1", RankMessageEncoder.encode(message));
+
+        // then
+        assertThat(sent).hasSize(1);
+        Message<?> frame = sent.get(0);
+        assertThat(SimpMessageHeaderAccessor.getDestination(frame.getHeaders()))
+                .isEqualTo("/topic/queue-rank/customer_1");
+        assertThat(frame.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(objectMapper.readValue((byte[]) frame.getPayload(), RankUpdateMessage.class)).isEqualTo(message);
+    }
+}
@@ -0,0 +1,243 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.hearo.domain.queue.dto.QueueUpdateMessage;
+import com.ssafy.hearo.domain.queue.service.QueueEventPublisher.RankUpdateMessage;
+import com.ssafy.hearo.global.websocket.EncodedJson;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("순위 메시지 합치기(RankUpdateDispatcher) 테스트")
+class RankUpdateDispatcherTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private MeterRegistry meterRegistry;
+    private RankUpdateDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new RankUpdateDispatcher(messagingTemplate, meterRegistry, new WaitTimeEstimator(600_000, 300));
+    }
+
+    @Test
+    @DisplayName("같은 고객의 순위 메시지는 구간 안에서 가장 최신 값 하나만 전송된다")
+    void submitRank_SameCustomer_ShouldSendNewestOnly() throws Exception {
+        // given
+        dispatcher.submitRank(rank("c1", 5L, 1));
+        dispatcher.submitRank(rank("c1", 4L, 2));
+        dispatcher.submitRank(rank("c1", 3L, 3));
+
+        // when
+        dispatcher.flush();
+
+        // then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/queue-rank/c1"), captor.capture());
+        assertThat(decode(captor.getValue()).rank()).isEqualTo(3L);
+        assertThat(count("queue.rank.dispatch.sent", "rank")).isEqualTo(1);
+        assertThat(count("queue.rank.dispatch.suppressed", "rank")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("연속된 대기열 변경은 하나의 메시지로 합쳐지고, 순위 메시지는 마지막 epoch 기준으로 다시 계산된다")
+    void flush_ContiguousShifts_ShouldMergeAndRebaseRank() {
+        // given: 5명 대기 중, c3이 Blacklist Queue 맨 앞으로 이동(epoch 1) 후 1위 추출(epoch 2)
+        dispatcher.submitShift(shift(1, List.of(3L), List.of(1L)));
+        dispatcher.submitRank(rank("c3", 1L, 1));
+        dispatcher.submitShift(shift(2, List.of(1L), List.of()));
+
+        // when
+        dispatcher.flush();
+
+        // then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/queue-updates"), captor.capture());
+        QueueUpdateMessage merged = (QueueUpdateMessage) captor.getValue();
+        assertThat(merged.getFromEpoch()).isEqualTo(1L);
+        assertThat(merged.getEpoch()).isEqualTo(2L);
+        // c3은 이동 후 바로 추출됨 - 변경 전 3위 자리만 빠진 것과 같다
+        assertThat(merged.getRemovedRanks()).containsExactly(3L);
+        assertThat(merged.getInsertedRanks()).isEmpty();
+
+        assertThat(count("queue.rank.dispatch.sent", "shift")).isEqualTo(1);
+        assertThat(count("queue.rank.dispatch.suppressed", "shift")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 순위 메시지는 이미 전송된 변경까지 반영해 최신 epoch로 전송된다")
+    void flush_LateRankMessage_ShouldRebaseOnRecentShifts() throws Exception {
+        // given: 등록(epoch 1, 3위) 이후 1위 제거(epoch 2)가 먼저 전송됨
+        dispatcher.submitShift(shift(1, List.of(), List.of(3L)));
+        dispatcher.submitShift(shift(2, List.of(1L), List.of()));
+        dispatcher.flush();
+        reset(messagingTemplate);
+
+        // when
+        dispatcher.submitRank(rank("c3", 3L, 1));
+        dispatcher.flush();
+
+        // then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/queue-rank/c3"), captor.capture());
+        RankUpdateMessage sent = decode(captor.getValue());
+        assertThat(sent.rank()).isEqualTo(2L);
+        assertThat(sent.epoch()).isEqualTo(2L);
+        // 예상 대기 시간은 다시 계산한 순위 기준 (매칭 이력이 없으면 한 명당 300초)
+        assertThat(sent.estimatedWaitSeconds()).isEqualTo(600L);
+    }
+
+    @Test
+    @DisplayName("매칭 완료된 고객의 대기 중인 순위 메시지는 전송되지 않는다")
+    void discard_ShouldDropPendingRank() {
+        // given
+        dispatcher.submitRank(rank("c1", 2L, 1));
+
+        // when
+        dispatcher.discard("c1");
+        dispatcher.flush();
+
+        // then
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("종료 상태는 이미 전송 중인 순위 메시지가 나간 뒤에 전송된다")
+    void sendFinal_DuringFlush_ShouldSendAfterInFlightRank() throws Exception {
+        // given: flush가 c1의 순위 메시지를 꺼내 전송하는 도중 멈춰 있음
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (!(invocation.getArgument(1) instanceof String)) {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(messagingTemplate).convertAndSend(eq("/topic/queue-rank/c1"), any(Object.class));
+        dispatcher.submitRank(rank("c1", 2L, 1));
+        Thread flusher = new Thread(dispatcher::flush);
+        flusher.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        Thread finisher = new Thread(() -> dispatcher.sendFinal("c1", "MATCHED"));
+        finisher.start();
+        finisher.join(200);
+        boolean sentBeforeFlush = !finisher.isAlive();
+        release.countDown();
+        flusher.join(5_000);
+        finisher.join(5_000);
+
+        // then
+        assertThat(sentBeforeFlush).isFalse();
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate).convertAndSend(eq("/topic/queue-rank/c1"), any(EncodedJson.class));
+        inOrder.verify(messagingTemplate).convertAndSend("/topic/queue-rank/c1", (Object) "MATCHED");
+    }
+
+    @Test
+    @DisplayName("종료 상태를 보내면 대기 중인 순위 메시지는 폐기된다")
+    void sendFinal_ShouldDropPendingRank() {
+        // given
+        dispatcher.submitRank(rank("c1", 2L, 1));
+
+        // when
+        dispatcher.sendFinal("c1", "MATCHED");
+        dispatcher.flush();
+
+        // then
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/queue-rank/c1"), any(Object.class));
+        verify(messagingTemplate).convertAndSend("/topic/queue-rank/c1", (Object) "MATCHED");
+    }
+
+    @Test
+    @DisplayName("무작위 변경을 합친 메시지로 계산한 순위가 실제 대기열 순위와 같다")
+    void merge_RandomMutations_ShouldMatchActualRanks() {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            List<String> queue = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                queue.add("c" + i);
+            }
+            List<String> initial = new ArrayList<>(queue);
+            Set<String> touched = new HashSet<>();
+            int nextId = 20;
+
+            QueueUpdateMessage merged = null;
+            for (long epoch = 1; epoch <= 10; epoch++) {
+                QueueUpdateMessage shift = randomMutation(random, queue, touched, epoch, nextId++);
+                merged = merged == null ? shift : merged.then(shift);
+            }
+
+            // 건드리지 않은 고객은 합친 메시지만으로 현재 순위를 계산할 수 있어야 함
+            for (String customerId : initial) {
+                if (touched.contains(customerId)) {
+                    continue;
+                }
+                long before = initial.indexOf(customerId) + 1;
+                long after = queue.indexOf(customerId) + 1;
+                assertThat(merged.shiftRank(before)).as("round %d, %s", round, customerId).isEqualTo(after);
+            }
+        }
+    }
+
+    /**
+     * 대기열에 무작위 변경(등록/제거/이동)을 적용하고 해당 변경 이벤트를 반환
+     */
+    private QueueUpdateMessage randomMutation(Random random, List<String> queue, Set<String> touched,
+                                              long epoch, int nextId) {
+        int op = queue.isEmpty() ? 0 : random.nextInt(3);
+        if (op == 0) {
+            String customerId = "c" + nextId;
+            int position = random.nextInt(queue.size() + 1);
+            queue.add(position, customerId);
+            touched.add(customerId);
+            return shift(epoch, List.of(), List.of((long) position + 1));
+        }
+
+        int from = random.nextInt(queue.size());
+        String customerId = queue.remove(from);
+        touched.add(customerId);
+        if (op == 1) {
+            return shift(epoch, List.of((long) from + 1), List.of());
+        }
+
+        int to = random.nextInt(queue.size() + 1);
+        queue.add(to, customerId);
+        return shift(epoch, List.of((long) from + 1), List.of((long) to + 1));
+    }
+
+    private static QueueUpdateMessage shift(long epoch, List<Long> removedRanks, List<Long> insertedRanks) {
+        return QueueUpdateMessage.of(0, 0, epoch, removedRanks, insertedRanks, System.currentTimeMillis());
+    }
+
+    // 고객별 순위 메시지는 미리 직렬화된 JSON으로 전송됨
+    private static RankUpdateMessage decode(Object payload) throws Exception {
+        return new ObjectMapper().readValue(((EncodedJson) payload).bytes(), RankUpdateMessage.class);
+    }
+
+    private static RankUpdateMessage rank(String customerId, Long rank, long epoch) {
+        return new RankUpdateMessage(customerId, rank, "WAITING", epoch, System.currentTimeMillis());
+    }
+
+    private double count(String name, String type) {
+        return meterRegistry.get(name).tag("type", type).counter().count();
+    }
+}
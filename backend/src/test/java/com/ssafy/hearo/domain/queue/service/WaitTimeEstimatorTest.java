@@ -0,0 +1,133 @@
+package com.ssafy.hearo.domain.queue.service;
+
+import com.ssafy.hearo.domain.queue.dto.QueueStatusResponse;
+import com.ssafy.hearo.domain.queue.service.WaitTimeEstimator.Estimate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("예상 대기 시간 추정 테스트")
+class WaitTimeEstimatorTest {
+
+    private static final long HALF_LIFE_MS = 600_000;
+    private static final long START = 1_000_000L;
+
+    @Test
+    @DisplayName("이력이 없으면 기본 상담 시간으로 순위당 대기 시간을 계산한다")
+    void snapshot_NoHistory_ShouldUseDefaultHandleTime() {
+        // given
+        WaitTimeEstimator estimator = new WaitTimeEstimator(HALF_LIFE_MS, 300, START);
+
+        // when
+        Estimate estimate = estimator.snapshot(START + 1_000);
+
+        // then
+        assertThat(estimate.secondsPerRank()).isEqualTo(300.0);
+        assertThat(estimate.matchesPerMinute()).isZero();
+    }
+
+    @Test
+    @DisplayName("일정한 속도로 매칭되면 그 속도의 역수가 순위당 대기 시간이 된다")
+    void snapshot_SteadyMatches_ShouldTrackRate() {
+        // given: 30분 동안 20초마다 1건 매칭 (분당 3건)
+        WaitTimeEstimator estimator = new WaitTimeEstimator(HALF_LIFE_MS, 300, START);
+        long now = START;
+        for (int i = 0; i < 90; i++) {
+            now += 20_000;
+            estimator.recordMatch(now);
+        }
+
+        // when
+        Estimate estimate = estimator.snapshot(now);
+
+        // then
+        assertThat(estimate.matchesPerMinute()).isCloseTo(3.0, within(0.2));
+        assertThat(estimate.secondsPerRank()).isCloseTo(20.0, within(1.5));
+    }
+
+    @Test
+    @DisplayName("매칭 속도가 바뀌면 반감기 정도 지나 새 속도를 따라간다")
+    void snapshot_RateChange_ShouldDecayOldMatches() {
+        // given: 분당 6건으로 30분 후 분당 1건으로 30분
+        WaitTimeEstimator estimator = new WaitTimeEstimator(HALF_LIFE_MS, 300, START);
+        long now = START;
+        for (int i = 0; i < 180; i++) {
+            now += 10_000;
+            estimator.recordMatch(now);
+        }
+        for (int i = 0; i < 30; i++) {
+            now += 60_000;
+            estimator.recordMatch(now);
+        }
+
+        // when
+        Estimate estimate = estimator.snapshot(now);
+
+        // then: 이전 속도의 영향은 1/8 이하로 줄어듦
+        assertThat(estimate.matchesPerMinute()).isBetween(1.0, 1.8);
+    }
+
+    @Test
+    @DisplayName("최근 매칭이 드물면 평균 상담 시간 기준으로 돌아간다")
+    void snapshot_FewMatches_ShouldFallBackToHandleTime() {
+        // given
+        WaitTimeEstimator estimator = new WaitTimeEstimator(HALF_LIFE_MS, 300, START);
+        estimator.recordHandleTime(100, START + 1_000);
+        estimator.recordHandleTime(200, START + 2_000);
+        estimator.recordMatch(START + 3_000);
+
+        // when
+        Estimate estimate = estimator.snapshot(START + 4_000);
+
+        // then
+        assertThat(estimate.avgHandleSeconds()).isCloseTo(150.0, within(0.1));
+        assertThat(estimate.secondsPerRank()).isCloseTo(150.0, within(0.1));
+    }
+
+    @Test
+    @DisplayName("Redis 공유 집계를 읽은 노드는 매칭 이벤트를 받지 않았어도 같은 값으로 추정한다")
+    void load_SharedAggregate_ShouldGiveSameEstimateOnEveryNode() {
+        // given: 매칭 리더(기록한 노드)와 늦게 시작한 다른 노드
+        WaitTimeEstimator leader = new WaitTimeEstimator(HALF_LIFE_MS, 300, START);
+        WaitTimeEstimator replica = new WaitTimeEstimator(HALF_LIFE_MS, 300, START + 600_000);
+        long now = START;
+        for (int i = 0; i < 30; i++) {
+            now += 20_000;
+            leader.recordMatch(now);
+        }
+        leader.recordHandleTime(120, now);
+
+        // when: 리더의 집계를 Redis 응답 형식으로 다른 노드에 반영
+        Estimate expected = leader.snapshot(now + 5_000);
+        replica.load(List.of(
+                String.valueOf(ReflectionTestUtils.getField(leader, "matchWeight")), String.valueOf(now),
+                "1", "120", String.valueOf(now), String.valueOf(START)));
+
+        // then
+        Estimate estimate = replica.snapshot(now + 5_000);
+        assertThat(estimate.matchesPerMinute()).isCloseTo(expected.matchesPerMinute(), within(1e-9));
+        assertThat(estimate.avgHandleSeconds()).isCloseTo(120.0, within(1e-9));
+        assertThat(estimate.secondsPerRank()).isCloseTo(expected.secondsPerRank(), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("대기 순위 응답에 순위 기준 예상 대기 시간을 채운다")
+    void withEstimate_ShouldFillWaitTime() {
+        // given
+        WaitTimeEstimator estimator = new WaitTimeEstimator(HALF_LIFE_MS, 90);
+        QueueStatusResponse status = QueueStatusResponse.of("c1", 3L, "NORMAL", 7L);
+
+        // when
+        QueueStatusResponse estimated = estimator.withEstimate(status);
+
+        // then
+        assertThat(estimated.getEstimatedWaitSeconds()).isEqualTo(270L);
+        assertThat(estimated.getEstimatedWaitMinutes()).isEqualTo(5L);
+        assertThat(estimated.getWaitingRank()).isEqualTo(3L);
+        assertThat(estimated.getRankEpoch()).isEqualTo(7L);
+    }
+}
@@ -54,6 +54,8 @@ class QueueWebSocketIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         // 테스트 시 테이블 자동 생성
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 
     @Autowired
@@ -102,8 +104,9 @@ class QueueWebSocketIntegrationTest {
 
     void clearRedis() {
         try {
-            redisTemplate.delete("queue:normal");
-            redisTemplate.delete("queue:blacklist");
+            redisTemplate.delete("queue:waiting");
+            redisTemplate.delete("queue:arrivals");
+            redisTemplate.delete("queue:blacklisted");
             Set<String> heartbeatKeys = redisTemplate.keys("heartbeat:*");
             if (heartbeatKeys != null && !heartbeatKeys.isEmpty()) {
                 redisTemplate.delete(heartbeatKeys);
@@ -75,8 +75,8 @@ class UserControllerIntegrationTest {
 
     @BeforeEach
     void setup() {
-        // Clear Redis heartbeat keys
-        redisTemplate.keys("heartbeat:counselor:*").forEach(redisTemplate::delete);
+        // Clear Redis heartbeats
+        redisTemplate.delete("heartbeat:counselors");
 
         // Create test user and get access token
         testUser = transactionTemplate.execute(status -> {
@@ -123,10 +123,9 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.isHeartbeatActive").value(true))
                 .andExpect(jsonPath("$.message").isNotEmpty());
 
-        // then - Verify Redis key exists
-        String heartbeatKey = "heartbeat:counselor:" + testUser.getId();
-        Boolean exists = redisTemplate.hasKey(heartbeatKey);
-        assertThat(exists).isTrue();
+        // then - Verify heartbeat is recorded in Redis
+        Double lastSeen = redisTemplate.opsForZSet().score("heartbeat:counselors", testUser.getId().toString());
+        assertThat(lastSeen).isNotNull();
     }
 
     @Test
@@ -134,8 +133,7 @@ class UserControllerIntegrationTest {
     @DisplayName("POST /api/v1/users/me/heartbeat: 하트비트 비활성화 시 Redis에서 삭제")
     void setHeartbeat_WhenInactive_ShouldRemoveFromRedis() throws Exception {
         // given - First activate heartbeat
-        String heartbeatKey = "heartbeat:counselor:" + testUser.getId();
-        redisTemplate.opsForValue().set(heartbeatKey, "active");
+        redisTemplate.opsForZSet().add("heartbeat:counselors", testUser.getId().toString(), System.currentTimeMillis());
 
         String requestBody = """
             {
@@ -151,9 +149,9 @@ class UserControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.isHeartbeatActive").value(false));
 
-        // then - Verify Redis key removed
-        Boolean exists = redisTemplate.hasKey(heartbeatKey);
-        assertThat(exists).isFalse();
+        // then - Verify heartbeat removed from Redis
+        Double lastSeen = redisTemplate.opsForZSet().score("heartbeat:counselors", testUser.getId().toString());
+        assertThat(lastSeen).isNull();
     }
 
     @Test
@@ -0,0 +1,91 @@
+package com.ssafy.hearo.domain.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("하트비트 만료 처리(HeartbeatReaper) 테스트")
+class HeartbeatReaperTest {
+
+    private HeartbeatService heartbeatService;
+    private UserStateService userStateService;
+    private HeartbeatReaper heartbeatReaper;
+
+    @BeforeEach
+    void setUp() {
+        heartbeatService = mock(HeartbeatService.class);
+        userStateService = mock(UserStateService.class);
+        heartbeatReaper = new HeartbeatReaper(heartbeatService, userStateService);
+        ReflectionTestUtils.setField(heartbeatReaper, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("만료된 상담원을 비가용 처리하고 REST로 전환한다")
+    void reapExpiredHeartbeats_ShouldDeactivateAndSwitchToRest() {
+        // given
+        when(heartbeatService.reapExpiredHeartbeats(2)).thenReturn(Set.of(1L));
+
+        // when
+        heartbeatReaper.reapExpiredHeartbeats();
+
+        // then
+        verify(heartbeatService).setHeartbeat(1L, false);
+        verify(userStateService).switchToRestOnHeartbeatTimeout(1L);
+    }
+
+    @Test
+    @DisplayName("한 번에 꺼낸 수가 배치 크기와 같으면 남은 만료 상담원을 이어서 처리한다")
+    void reapExpiredHeartbeats_FullBatch_ShouldContinue() {
+        // given
+        when(heartbeatService.reapExpiredHeartbeats(2))
+                .thenReturn(Set.of(1L, 2L))
+                .thenReturn(Set.of(3L));
+
+        // when
+        heartbeatReaper.reapExpiredHeartbeats();
+
+        // then
+        verify(heartbeatService, times(2)).reapExpiredHeartbeats(2);
+        verify(userStateService, times(3)).switchToRestOnHeartbeatTimeout(anyLong());
+    }
+
+    @Test
+    @DisplayName("꺼낸 직후 하트비트가 다시 들어온 상담원은 만료 처리하지 않는다")
+    void reapExpiredHeartbeats_RefreshedMeanwhile_ShouldSkip() {
+        // given
+        when(heartbeatService.reapExpiredHeartbeats(2)).thenReturn(Set.of(1L));
+        when(heartbeatService.isHeartbeatActive(1L)).thenReturn(true);
+
+        // when
+        heartbeatReaper.reapExpiredHeartbeats();
+
+        // then
+        verify(heartbeatService, never()).setHeartbeat(1L, false);
+        verifyNoInteractions(userStateService);
+    }
+
+    @Test
+    @DisplayName("한 상담원 처리 중 오류가 나도 나머지 상담원은 처리한다")
+    void reapExpiredHeartbeats_OneFails_ShouldHandleOthers() {
+        // given
+        when(heartbeatService.reapExpiredHeartbeats(2))
+                .thenReturn(new LinkedHashSet<>(List.of(1L, 2L)))
+                .thenReturn(Set.of());
+        doThrow(new IllegalArgumentException("사용자 없음"))
+                .when(userStateService).switchToRestOnHeartbeatTimeout(1L);
+
+        // when
+        heartbeatReaper.reapExpiredHeartbeats();
+
+        // then
+        verify(userStateService).switchToRestOnHeartbeatTimeout(2L);
+    }
+}
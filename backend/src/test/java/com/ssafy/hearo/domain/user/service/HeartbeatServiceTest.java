@@ -13,7 +13,6 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,34 +44,29 @@ class HeartbeatServiceTest {
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
     }
 
+    private static final String HEARTBEAT_KEY = "heartbeat:counselors";
+
     @BeforeEach
     void setup() {
-        // Clear all heartbeat keys
-        Set<String> keys = redisTemplate.keys("heartbeat:counselor:*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
-        }
+        // Clear all heartbeats
+        redisTemplate.delete(HEARTBEAT_KEY);
     }
 
     @Test
     @Order(1)
-    @DisplayName("setHeartbeat: true일 때 Redis에 TTL과 함께 저장")
-    void setHeartbeat_WhenTrue_ShouldStoreWithTTL() {
+    @DisplayName("setHeartbeat: true일 때 Redis에 마지막 하트비트 시각 저장")
+    void setHeartbeat_WhenTrue_ShouldStoreLastSeen() {
         // given
         Long counselorId = 1L;
+        long before = System.currentTimeMillis();
 
         // when
         heartbeatService.setHeartbeat(counselorId, true);
 
         // then
-        String key = "heartbeat:counselor:" + counselorId;
-        Boolean exists = redisTemplate.hasKey(key);
-        assertThat(exists).isTrue();
-
-        // Verify TTL is set (should be around 30 seconds)
-        Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        assertThat(ttl).isGreaterThan(0L);
-        assertThat(ttl).isLessThanOrEqualTo(30L);
+        Double lastSeen = redisTemplate.opsForZSet().score(HEARTBEAT_KEY, counselorId.toString());
+        assertThat(lastSeen).isNotNull();
+        assertThat(lastSeen.longValue()).isBetween(before, System.currentTimeMillis());
     }
 
     @Test
@@ -81,15 +75,14 @@ class HeartbeatServiceTest {
     void setHeartbeat_WhenFalse_ShouldRemoveFromRedis() {
         // given
         Long counselorId = 2L;
-        String key = "heartbeat:counselor:" + counselorId;
-        redisTemplate.opsForValue().set(key, "active");
+        redisTemplate.opsForZSet().add(HEARTBEAT_KEY, counselorId.toString(), System.currentTimeMillis());
 
         // when
         heartbeatService.setHeartbeat(counselorId, false);
 
         // then
-        Boolean exists = redisTemplate.hasKey(key);
-        assertThat(exists).isFalse();
+        Double lastSeen = redisTemplate.opsForZSet().score(HEARTBEAT_KEY, counselorId.toString());
+        assertThat(lastSeen).isNull();
     }
 
     @Test
@@ -152,23 +145,56 @@ class HeartbeatServiceTest {
 
     @Test
     @Order(7)
-    @DisplayName("setHeartbeat: 연속 호출 시 TTL 갱신")
-    void setHeartbeat_ConsecutiveCalls_ShouldRefreshTTL() throws InterruptedException {
+    @DisplayName("setHeartbeat: 연속 호출 시 마지막 하트비트 시각 갱신")
+    void setHeartbeat_ConsecutiveCalls_ShouldRefreshLastSeen() throws InterruptedException {
         // given
         Long counselorId = 5L;
         heartbeatService.setHeartbeat(counselorId, true);
+        Double lastSeenBefore = redisTemplate.opsForZSet().score(HEARTBEAT_KEY, counselorId.toString());
 
         // Wait a bit
         Thread.sleep(1000);
 
-        String key = "heartbeat:counselor:" + counselorId;
-        Long ttlBefore = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-
         // when - Refresh heartbeat
         heartbeatService.setHeartbeat(counselorId, true);
 
-        // then - TTL should be refreshed back to ~30 seconds
-        Long ttlAfter = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        assertThat(ttlAfter).isGreaterThanOrEqualTo(ttlBefore);
+        // then - Last seen should move forward
+        Double lastSeenAfter = redisTemplate.opsForZSet().score(HEARTBEAT_KEY, counselorId.toString());
+        assertThat(lastSeenAfter).isGreaterThan(lastSeenBefore);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("TTL(30초)이 지난 하트비트는 만료 처리 전이라도 비활성으로 본다")
+    void expiredHeartbeat_ShouldNotBeActiveBeforeReaped() {
+        // given: 31초 전 마지막 하트비트
+        redisTemplate.opsForZSet().add(HEARTBEAT_KEY, "40", System.currentTimeMillis() - 31_000);
+        heartbeatService.setHeartbeat(41L, true);
+
+        // when & then
+        assertThat(heartbeatService.isHeartbeatActive(40L)).isFalse();
+        assertThat(heartbeatService.getActiveHeartbeatCounselorIds()).containsExactly(41L);
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("reapExpiredHeartbeats: 만료된 상담원만 꺼내 제거하고 한 번만 반환")
+    void reapExpiredHeartbeats_ShouldRemoveOnlyExpiredOnce() {
+        // given
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().add(HEARTBEAT_KEY, "50", now - 60_000);
+        redisTemplate.opsForZSet().add(HEARTBEAT_KEY, "51", now - 31_000);
+        redisTemplate.opsForZSet().add(HEARTBEAT_KEY, "52", now);
+
+        // when
+        Set<Long> firstBatch = heartbeatService.reapExpiredHeartbeats(1);
+        Set<Long> rest = heartbeatService.reapExpiredHeartbeats(100);
+        Set<Long> again = heartbeatService.reapExpiredHeartbeats(100);
+
+        // then: 오래된 순으로 꺼내고, 활성 상담원은 남김
+        assertThat(firstBatch).containsExactly(50L);
+        assertThat(rest).containsExactly(51L);
+        assertThat(again).isEmpty();
+        assertThat(redisTemplate.opsForZSet().range(HEARTBEAT_KEY, 0, -1)).containsExactly("52");
     }
 }
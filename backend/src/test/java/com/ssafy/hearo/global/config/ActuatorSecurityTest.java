@@ -0,0 +1,50 @@
+package com.ssafy.hearo.global.config;
+
+import com.ssafy.hearo.support.IntegrationTestSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@DisplayName("Actuator 접근 제어 테스트")
+class ActuatorSecurityTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("health는 인증 없이 조회할 수 있다")
+    void health_ShouldBePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("metrics는 인증 없이 조회할 수 없다")
+    void metrics_Anonymous_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("metrics와 matchingleader는 관리자가 아니면 조회할 수 없다")
+    void metrics_NonAdmin_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("counselor").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/matchingleader").with(user("counselor").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("관리자는 metrics를 조회할 수 있다")
+    void metrics_Admin_ShouldBeAllowed() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+}
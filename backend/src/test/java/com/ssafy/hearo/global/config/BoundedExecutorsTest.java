@@ -0,0 +1,105 @@
+package com.ssafy.hearo.global.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("크기 제한 실행기 테스트")
+class BoundedExecutorsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 작업을 버리지 않고 제출한 스레드가 직접 실행하며, 대기 수와 거절 수가 측정된다")
+    void execute_WhenSaturated_ShouldRunOnCallerAndCount() throws Exception {
+        // given: 스레드 1개, 대기열 1개
+        executor = BoundedExecutors.create("test", 1, 1, meterRegistry);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> await(release));
+
+        // when: 세 번째 작업은 대기열에 들어갈 자리가 없음
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        // then
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+        assertThat(meterRegistry.get("executor.bounded.rejected").tag("name", "test").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("executor.bounded.queued").tag("name", "test").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("executor.bounded.active").tag("name", "test").gauge().value())
+                .isEqualTo(1.0);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("REJECT 방식은 대기열이 가득 차면 제출한 스레드에서 실행하지 않고 거부한다")
+    void execute_RejectWhenSaturated_ShouldThrowAndCount() throws Exception {
+        // given: 스레드 1개, 대기열 1개
+        executor = BoundedExecutors.create("reject", 1, 1, BoundedExecutors.Overflow.REJECT, meterRegistry);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> await(release));
+
+        // when/then
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        assertThatThrownBy(() -> executor.execute(() -> ranOn.set(Thread.currentThread())))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(ranOn.get()).isNull();
+        assertThat(meterRegistry.get("executor.bounded.rejected").tag("name", "reject").counter().count())
+                .isEqualTo(1.0);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("초기화 전에도 측정값 조회가 실패하지 않는다")
+    void gauges_BeforeInitialize_ShouldReadZero() throws Exception {
+        // when
+        executor = BoundedExecutors.create("idle", 2, 10, meterRegistry);
+
+        // then
+        assertThat(meterRegistry.get("executor.bounded.queued").tag("name", "idle").gauge().value()).isZero();
+        assertThat(meterRegistry.get("executor.bounded.active").tag("name", "idle").gauge().value()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
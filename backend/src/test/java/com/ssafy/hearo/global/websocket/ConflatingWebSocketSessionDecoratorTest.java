@@ -0,0 +1,125 @@
+package com.ssafy.hearo.global.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("순위 메시지 합치기 세션 버퍼 테스트")
+class ConflatingWebSocketSessionDecoratorTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Counter conflated;
+    private WebSocketSession delegate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conflated = new SimpleMeterRegistry().counter("websocket.session.conflated");
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("session-1");
+        // 첫 전송에서 release 전까지 멈추는 느린 클라이언트
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            sent.add(((TextMessage) message).getPayload());
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("전송이 밀린 동안 같은 구독의 순위 프레임은 최신 것만 남고, MATCHED는 합치지 않고 순서대로 전송된다")
+    void sendMessage_WhileBlocked_ShouldKeepLatestRankAndPassMatched() throws Exception {
+        // given: 다른 스레드가 첫 프레임 전송 중 (클라이언트가 느림)
+        ConflatingWebSocketSessionDecorator session =
+                new ConflatingWebSocketSessionDecorator(delegate, 10_000, 1024 * 1024, conflated);
+        Thread sender = new Thread(() -> send(session, frame("/topic/queue-updates", "sub-0", "{\"size\":3}")));
+        sender.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        send(session, rank("sub-1", 3));
+        send(session, frame("/topic/queue-rank/customer_2", "sub-2", waitingBody(9)));
+        send(session, rank("sub-1", 2));
+        send(session, rank("sub-1", 1));
+        send(session, frame("/topic/queue-rank/customer_1", "sub-1", "{\"customerId\":\"customer_1\",\"status\":\"MATCHED\"}"));
+        send(session, rank("sub-1", 7));
+        release.countDown();
+        sender.join(5000);
+
+        // then
+        assertThat(sent).containsExactly(
+                frame("/topic/queue-updates", "sub-0", "{\"size\":3}").getPayload(),
+                rank("sub-1", 1).getPayload(),
+                frame("/topic/queue-rank/customer_2", "sub-2", waitingBody(9)).getPayload(),
+                frame("/topic/queue-rank/customer_1", "sub-1", "{\"customerId\":\"customer_1\",\"status\":\"MATCHED\"}").getPayload(),
+                rank("sub-1", 7).getPayload());
+        assertThat(conflated.count()).isEqualTo(2.0);
+        assertThat(session.getBufferSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("합칠 수 없는 프레임이 버퍼 한도를 넘게 쌓이면 세션 한도 초과로 종료된다")
+    void sendMessage_WhenBufferExceeded_ShouldThrowLimitExceeded() throws Exception {
+        // given
+        ConflatingWebSocketSessionDecorator session =
+                new ConflatingWebSocketSessionDecorator(delegate, 10_000, 300, conflated);
+        Thread sender = new Thread(() -> send(session, frame("/topic/queue-updates", "sub-0", "{}")));
+        sender.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when: 순위 프레임은 덮어써져 한도에 닿지 않음
+        for (int i = 0; i < 20; i++) {
+            send(session, rank("sub-1", i));
+        }
+        assertThat(session.getBufferSize()).isLessThan(300);
+
+        // then
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 20; i++) {
+                session.sendMessage(frame("/topic/queue-updates", "sub-0", "{\"size\":" + i + "}"));
+            }
+        }).isInstanceOf(SessionLimitExceededException.class);
+
+        release.countDown();
+        sender.join(5000);
+    }
+
+    private static void send(WebSocketSession session, TextMessage message) {
+        try {
+            session.sendMessage(message);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static TextMessage rank(String subscription, long rank) {
+        return frame("/topic/queue-rank/customer_1", subscription, waitingBody(rank));
+    }
+
+    private static String waitingBody(long rank) {
+        return "{\"customerId\":\"customer_1\",\"rank\":" + rank + ",\"status\":\"WAITING\"}";
+    }
+
+    private static TextMessage frame(String destination, String subscription, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n"
+                + "subscription:" + subscription + "\nmessage-id:m-" + body.hashCode() + "\n"
+                + "content-length:" + body.length() + "\n\n" + body + "\u0000");
+    }
+}
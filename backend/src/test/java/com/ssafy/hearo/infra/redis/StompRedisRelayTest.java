@@ -0,0 +1,133 @@
+package com.ssafy.hearo.infra.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("STOMP 메시지 노드 간 전달 테스트")
+class StompRedisRelayTest {
+
+    private static final byte[] CHANNEL = StompRedisRelay.RELAY_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private RedisTemplate<String, String> redisTemplate;
+    private StompRedisRelay nodeA;
+    private StompRedisRelay nodeB;
+    private ExecutorSubscribableChannel brokerChannelA;
+    private ExecutorSubscribableChannel brokerChannelB;
+    private final List<Message<?>> deliveredA = new ArrayList<>();
+    private final List<Message<?>> deliveredB = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        brokerChannelA = new ExecutorSubscribableChannel();
+        brokerChannelB = new ExecutorSubscribableChannel();
+        brokerChannelA.subscribe(deliveredA::add);
+        brokerChannelB.subscribe(deliveredB::add);
+
+        nodeA = relay(brokerChannelA);
+        nodeB = relay(brokerChannelB);
+        nodeA.start();
+        nodeB.start();
+    }
+
+    private StompRedisRelay relay(ExecutorSubscribableChannel brokerChannel) {
+        StompRedisRelay relay = new StompRedisRelay(brokerChannel, redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "bufferSize", 100);
+        return relay;
+    }
+
+    @Test
+    @DisplayName("/topic 메시지는 로컬 구독자에게 바로 전달하고, 다른 노드에는 한 번에 발행해 그 노드 구독자에게만 전달한다")
+    @SuppressWarnings("unchecked")
+    void topicMessage_ShouldDeliverLocallyAndRelayToOtherNodes() {
+        // given
+        Message<byte[]> rank = message("/topic/queue-rank/customer_1", "{\"rank\":3}");
+        Message<byte[]> counselor = message("/topic/counselor/7", "{\"type\":\"MATCH_ASSIGNED\"}");
+
+        // when: 노드 A에서 전송 후 발행 주기
+        brokerChannelA.send(rank);
+        brokerChannelA.send(counselor);
+        nodeA.flush();
+
+        // then: 로컬 전달은 그대로
+        assertThat(deliveredA).containsExactly(rank, counselor);
+
+        // 발행은 pipeline 1회
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate, times(1)).executePipelined(callback.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        ArgumentCaptor<byte[]> bodies = ArgumentCaptor.forClass(byte[].class);
+        verify(connection, times(2)).publish(eq(CHANNEL), bodies.capture());
+
+        // 노드 B는 받은 메시지를 자기 구독자에게 전달, 노드 A는 자기가 보낸 메시지 무시
+        for (byte[] body : bodies.getAllValues()) {
+            nodeA.onMessage(new DefaultMessage(CHANNEL, body), null);
+            nodeB.onMessage(new DefaultMessage(CHANNEL, body), null);
+        }
+        assertThat(deliveredA).hasSize(2);
+        assertThat(deliveredB).hasSize(2);
+        Message<?> relayed = deliveredB.get(0);
+        assertThat(SimpMessageHeaderAccessor.getDestination(relayed.getHeaders()))
+                .isEqualTo("/topic/queue-rank/customer_1");
+        assertThat(relayed.getHeaders().get(MessageHeaders.CONTENT_TYPE))
+                .isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(new String((byte[]) relayed.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"rank\":3}");
+
+        // 전달받은 메시지는 다시 발행하지 않음
+        nodeB.flush();
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("세션별 목적지(/queue, /user)와 구독 요청은 다른 노드에 발행하지 않는다")
+    void nonTopicMessages_ShouldNotBeRelayed() {
+        // given
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        subscribe.setDestination("/topic/queue-updates");
+        subscribe.setSessionId("session-1");
+        subscribe.setSubscriptionId("sub-0");
+
+        // when
+        brokerChannelA.send(message("/queue/errors-usersession-1", "{}"));
+        brokerChannelA.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        nodeA.flush();
+
+        // then
+        assertThat(deliveredA).hasSize(2);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static Message<byte[]> message(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -24,5 +24,11 @@ public abstract class IntegrationTestSupport {
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
         // 스케줄링 비활성화
         registry.add("spring.task.scheduling.pool.size", () -> "0");
+        // 이벤트 기반 매칭 비활성화 (수동으로 호출할 것이므로)
+        registry.add("queue.matching.event-trigger", () -> "false");
+        // 단일 노드로 실행 (다른 테스트 컨텍스트가 남긴 리더 lease에 막히지 않도록)
+        registry.add("matching.leader.enabled", () -> "false");
+        // 테스트가 Redis 대기열을 직접 지우므로 스냅샷 자동 저장/복원은 끔
+        registry.add("queue.snapshot.enabled", () -> "false");
     }
 }
@@ -34,6 +34,7 @@ DROP INDEX public.idx_registrations_product_id;
 DROP INDEX public.idx_registrations_customer_id;
 DROP INDEX public.idx_registrations_created_at;
 DROP INDEX public.idx_products_code;
+DROP INDEX public.idx_experiences_category;
 DROP INDEX public.idx_customers_phone;
 DROP INDEX public.idx_consultations_user_id;
 DROP INDEX public.idx_consultations_termination_reason;
@@ -42,18 +43,24 @@ DROP INDEX public.idx_consultations_customer_id;
 DROP INDEX public.idx_consultations_created_at;
 DROP INDEX public.idx_blacklists_user_id;
 DROP INDEX public.idx_blacklists_customer_id;
+DROP INDEX public.idx_affinities_customer_id;
 ALTER TABLE ONLY public.voice_recordings DROP CONSTRAINT voice_recordings_pkey;
 ALTER TABLE ONLY public.voice_recordings DROP CONSTRAINT voice_recordings_consultation_id_key;
 ALTER TABLE ONLY public.users DROP CONSTRAINT users_pkey;
 ALTER TABLE ONLY public.users DROP CONSTRAINT users_email_key;
+ALTER TABLE ONLY public.counselor_category_experiences DROP CONSTRAINT uk_experiences_counselor_category;
 ALTER TABLE ONLY public.customers DROP CONSTRAINT uk_customers_name_phone;
 ALTER TABLE ONLY public.blacklists DROP CONSTRAINT uk_blacklists_user_customer;
+ALTER TABLE ONLY public.counselor_customer_affinities DROP CONSTRAINT uk_affinities_counselor_customer;
 ALTER TABLE ONLY public.todos DROP CONSTRAINT todos_pkey;
 ALTER TABLE ONLY public.registrations DROP CONSTRAINT registrations_pkey;
+ALTER TABLE ONLY public.queue_snapshot_entries DROP CONSTRAINT queue_snapshot_entries_pkey;
 ALTER TABLE ONLY public.products DROP CONSTRAINT products_pkey;
 ALTER TABLE ONLY public.products DROP CONSTRAINT products_code_key;
 ALTER TABLE ONLY public.energy_history DROP CONSTRAINT energy_history_pkey;
 ALTER TABLE ONLY public.customers DROP CONSTRAINT customers_pkey;
+ALTER TABLE ONLY public.counselor_customer_affinities DROP CONSTRAINT counselor_customer_affinities_pkey;
+ALTER TABLE ONLY public.counselor_category_experiences DROP CONSTRAINT counselor_category_experiences_pkey;
 ALTER TABLE ONLY public.consultations DROP CONSTRAINT consultations_pkey;
 ALTER TABLE ONLY public.consultation_ratings DROP CONSTRAINT consultation_ratings_pkey;
 ALTER TABLE ONLY public.consultation_ratings DROP CONSTRAINT consultation_ratings_consultation_id_key;
@@ -62,9 +69,12 @@ DROP TABLE public.voice_recordings;
 DROP TABLE public.users;
 DROP TABLE public.todos;
 DROP TABLE public.registrations;
+DROP TABLE public.queue_snapshot_entries;
 DROP TABLE public.products;
 DROP TABLE public.energy_history;
 DROP TABLE public.customers;
+DROP TABLE public.counselor_customer_affinities;
+DROP TABLE public.counselor_category_experiences;
 DROP TABLE public.consultations;
 DROP TABLE public.consultation_ratings;
 DROP TABLE public.blacklists;
@@ -175,6 +185,64 @@ ALTER TABLE public.consultations ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDE
 );
 
 
+--
+-- Name: counselor_category_experiences; Type: TABLE; Schema: public; Owner: hearo_user
+--
+
+CREATE TABLE public.counselor_category_experiences (
+    consultation_count bigint NOT NULL,
+    counselor_id bigint NOT NULL,
+    id bigint NOT NULL,
+    category character varying(30) NOT NULL
+);
+
+
+ALTER TABLE public.counselor_category_experiences OWNER TO hearo_user;
+
+--
+-- Name: counselor_category_experiences_id_seq; Type: SEQUENCE; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE public.counselor_category_experiences ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.counselor_category_experiences_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
+--
+-- Name: counselor_customer_affinities; Type: TABLE; Schema: public; Owner: hearo_user
+--
+
+CREATE TABLE public.counselor_customer_affinities (
+    customer_id integer NOT NULL,
+    consultation_count bigint NOT NULL,
+    counselor_id bigint NOT NULL,
+    id bigint NOT NULL,
+    rating_count bigint NOT NULL,
+    rating_sum double precision NOT NULL
+);
+
+
+ALTER TABLE public.counselor_customer_affinities OWNER TO hearo_user;
+
+--
+-- Name: counselor_customer_affinities_id_seq; Type: SEQUENCE; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE public.counselor_customer_affinities ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.counselor_customer_affinities_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
 --
 -- Name: customers; Type: TABLE; Schema: public; Owner: hearo_user
 --
@@ -268,6 +336,23 @@ ALTER TABLE public.products ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY
 );
 
 
+--
+-- Name: queue_snapshot_entries; Type: TABLE; Schema: public; Owner: hearo_user
+--
+
+CREATE TABLE public.queue_snapshot_entries (
+    arrived_at bigint NOT NULL,
+    score double precision NOT NULL,
+    snapshot_epoch bigint NOT NULL,
+    queue_type character varying(20) NOT NULL,
+    customer_id character varying(64) NOT NULL,
+    queue_ticket character varying(64),
+    CONSTRAINT queue_snapshot_entries_queue_type_check CHECK (((queue_type)::text = ANY ((ARRAY['NORMAL'::character varying, 'BLACKLIST'::character varying])::text[])))
+);
+
+
+ALTER TABLE public.queue_snapshot_entries OWNER TO hearo_user;
+
 --
 -- Name: registrations; Type: TABLE; Schema: public; Owner: hearo_user
 --
@@ -711,6 +796,22 @@ COPY public.consultations (avg_aggression_score, customer_id, duration_seconds,
 \.
 
 
+--
+-- Data for Name: counselor_category_experiences; Type: TABLE DATA; Schema: public; Owner: hearo_user
+--
+
+COPY public.counselor_category_experiences (consultation_count, counselor_id, id, category) FROM stdin;
+\.
+
+
+--
+-- Data for Name: counselor_customer_affinities; Type: TABLE DATA; Schema: public; Owner: hearo_user
+--
+
+COPY public.counselor_customer_affinities (customer_id, consultation_count, counselor_id, id, rating_count, rating_sum) FROM stdin;
+\.
+
+
 --
 -- Data for Name: customers; Type: TABLE DATA; Schema: public; Owner: hearo_user
 --
@@ -2592,6 +2693,14 @@ COPY public.products (id, created_at, updated_at, category, code, name, image_ur
 \.
 
 
+--
+-- Data for Name: queue_snapshot_entries; Type: TABLE DATA; Schema: public; Owner: hearo_user
+--
+
+COPY public.queue_snapshot_entries (arrived_at, score, snapshot_epoch, queue_type, customer_id, queue_ticket) FROM stdin;
+\.
+
+
 --
 -- Data for Name: registrations; Type: TABLE DATA; Schema: public; Owner: hearo_user
 --
@@ -2983,6 +3092,20 @@ SELECT pg_catalog.setval('public.consultation_ratings_id_seq', 51, true);
 SELECT pg_catalog.setval('public.consultations_id_seq', 214, true);
 
 
+--
+-- Name: counselor_category_experiences_id_seq; Type: SEQUENCE SET; Schema: public; Owner: hearo_user
+--
+
+SELECT pg_catalog.setval('public.counselor_category_experiences_id_seq', 1, false);
+
+
+--
+-- Name: counselor_customer_affinities_id_seq; Type: SEQUENCE SET; Schema: public; Owner: hearo_user
+--
+
+SELECT pg_catalog.setval('public.counselor_customer_affinities_id_seq', 1, false);
+
+
 --
 -- Name: customers_id_seq; Type: SEQUENCE SET; Schema: public; Owner: hearo_user
 --
@@ -3064,6 +3187,22 @@ ALTER TABLE ONLY public.consultations
     ADD CONSTRAINT consultations_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: counselor_category_experiences counselor_category_experiences_pkey; Type: CONSTRAINT; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE ONLY public.counselor_category_experiences
+    ADD CONSTRAINT counselor_category_experiences_pkey PRIMARY KEY (id);
+
+
+--
+-- Name: counselor_customer_affinities counselor_customer_affinities_pkey; Type: CONSTRAINT; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE ONLY public.counselor_customer_affinities
+    ADD CONSTRAINT counselor_customer_affinities_pkey PRIMARY KEY (id);
+
+
 --
 -- Name: customers customers_pkey; Type: CONSTRAINT; Schema: public; Owner: hearo_user
 --
@@ -3096,6 +3235,14 @@ ALTER TABLE ONLY public.products
     ADD CONSTRAINT products_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: queue_snapshot_entries queue_snapshot_entries_pkey; Type: CONSTRAINT; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE ONLY public.queue_snapshot_entries
+    ADD CONSTRAINT queue_snapshot_entries_pkey PRIMARY KEY (customer_id);
+
+
 --
 -- Name: registrations registrations_pkey; Type: CONSTRAINT; Schema: public; Owner: hearo_user
 --
@@ -3112,6 +3259,14 @@ ALTER TABLE ONLY public.todos
     ADD CONSTRAINT todos_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: counselor_customer_affinities uk_affinities_counselor_customer; Type: CONSTRAINT; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE ONLY public.counselor_customer_affinities
+    ADD CONSTRAINT uk_affinities_counselor_customer UNIQUE (counselor_id, customer_id);
+
+
 --
 -- Name: blacklists uk_blacklists_user_customer; Type: CONSTRAINT; Schema: public; Owner: hearo_user
 --
@@ -3128,6 +3283,14 @@ ALTER TABLE ONLY public.customers
     ADD CONSTRAINT uk_customers_name_phone UNIQUE (name, phone);
 
 
+--
+-- Name: counselor_category_experiences uk_experiences_counselor_category; Type: CONSTRAINT; Schema: public; Owner: hearo_user
+--
+
+ALTER TABLE ONLY public.counselor_category_experiences
+    ADD CONSTRAINT uk_experiences_counselor_category UNIQUE (counselor_id, category);
+
+
 --
 -- Name: users users_email_key; Type: CONSTRAINT; Schema: public; Owner: hearo_user
 --
@@ -3160,6 +3323,13 @@ ALTER TABLE ONLY public.voice_recordings
     ADD CONSTRAINT voice_recordings_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: idx_affinities_customer_id; Type: INDEX; Schema: public; Owner: hearo_user
+--
+
+CREATE INDEX idx_affinities_customer_id ON public.counselor_customer_affinities USING btree (customer_id);
+
+
 --
 -- Name: idx_blacklists_customer_id; Type: INDEX; Schema: public; Owner: hearo_user
 --
@@ -3216,6 +3386,13 @@ CREATE INDEX idx_consultations_user_id ON public.consultations USING btree (user
 CREATE INDEX idx_customers_phone ON public.customers USING btree (phone);
 
 
+--
+-- Name: idx_experiences_category; Type: INDEX; Schema: public; Owner: hearo_user
+--
+
+CREATE INDEX idx_experiences_category ON public.counselor_category_experiences USING btree (category);
+
+
 --
 -- Name: idx_products_code; Type: INDEX; Schema: public; Owner: hearo_user
 --
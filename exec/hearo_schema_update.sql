@@ -0,0 +1,57 @@
+--
+-- 운영 DB 스키마 변경분 (이전 버전 hearo_dump.sql로 구성된 DB에 추가된 테이블 생성)
+--
+-- 운영 환경은 ddl-auto: validate 이므로 애플리케이션 배포 전에 먼저 실행해야 합니다.
+-- 이미 있는 테이블/인덱스는 건너뛰므로 여러 번 실행해도 안전합니다.
+--
+
+--
+-- 매칭 점수 계산용 통계 (상담원-고객 상담 이력, 상담원 카테고리별 상담 횟수)
+-- 비어 있으면 애플리케이션 기동 시 상담 이력으로 채워집니다.
+-- UNIQUE 제약은 통계 증감 쿼리(INSERT ... ON CONFLICT)에 필요합니다.
+--
+
+CREATE TABLE IF NOT EXISTS public.counselor_customer_affinities (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    counselor_id bigint NOT NULL,
+    customer_id integer NOT NULL,
+    consultation_count bigint NOT NULL,
+    rating_sum double precision NOT NULL,
+    rating_count bigint NOT NULL,
+    CONSTRAINT counselor_customer_affinities_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_affinities_counselor_customer UNIQUE (counselor_id, customer_id)
+);
+
+ALTER TABLE public.counselor_customer_affinities OWNER TO hearo_user;
+
+CREATE INDEX IF NOT EXISTS idx_affinities_customer_id ON public.counselor_customer_affinities USING btree (customer_id);
+
+CREATE TABLE IF NOT EXISTS public.counselor_category_experiences (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    counselor_id bigint NOT NULL,
+    category character varying(30) NOT NULL,
+    consultation_count bigint NOT NULL,
+    CONSTRAINT counselor_category_experiences_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_experiences_counselor_category UNIQUE (counselor_id, category)
+);
+
+ALTER TABLE public.counselor_category_experiences OWNER TO hearo_user;
+
+CREATE INDEX IF NOT EXISTS idx_experiences_category ON public.counselor_category_experiences USING btree (category);
+
+--
+-- 대기열 스냅샷 (Redis 대기열 유실 시 복원용, 매칭 리더가 주기적으로 저장)
+--
+
+CREATE TABLE IF NOT EXISTS public.queue_snapshot_entries (
+    customer_id character varying(64) NOT NULL,
+    arrived_at bigint NOT NULL,
+    score double precision NOT NULL,
+    queue_type character varying(20) NOT NULL,
+    queue_ticket character varying(64),
+    snapshot_epoch bigint NOT NULL,
+    CONSTRAINT queue_snapshot_entries_pkey PRIMARY KEY (customer_id),
+    CONSTRAINT queue_snapshot_entries_queue_type_check CHECK (((queue_type)::text = ANY ((ARRAY['NORMAL'::character varying, 'BLACKLIST'::character varying])::text[])))
+);
+
+ALTER TABLE public.queue_snapshot_entries OWNER TO hearo_user;
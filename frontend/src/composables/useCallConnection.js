@@ -164,6 +164,7 @@ export function useCallConnection(role = "customer", options = {}) {
       customerId,
       onMatched: handleMatched,
       onRankUpdate: options.onRankUpdate,
+      onAdmitted: options.onAdmitted,
     });
 
     matching.connect();
@@ -212,6 +213,11 @@ export function useCallConnection(role = "customer", options = {}) {
     connectionState.value = "idle";
   };
 
+  // 대기 순위 기준값 전달 (/api/v1/queue/status 응답의 waitingRank, rankEpoch)
+  const syncQueueRank = (rank, epoch) => {
+    matching?.syncRank?.(rank, epoch);
+  };
+
   return {
     connectionState,
     matchedData,
@@ -223,5 +229,6 @@ export function useCallConnection(role = "customer", options = {}) {
     handleMatched,
     navigateToCall,
     connectToCall, // 상담사가 모달 확인 시 수동 연결용
+    syncQueueRank,
   };
 }
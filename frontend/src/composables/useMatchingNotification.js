@@ -4,13 +4,72 @@ import { Client } from '@stomp/stompjs'
 import { getSockJsUrl } from '@/utils/runtimeBase'
 
 export function useMatchingNotification(options = {}) {
-  const { customerId, counselorId, onMatched, onRankUpdate } = options
+  const { customerId, counselorId, onMatched, onRankUpdate, onAdmitted } = options
 
   const client = ref(null)
   const isConnected = ref(false)
   const matchData = ref(null)
   const isMatched = ref(false) // 중복 매칭 방지 플래그
 
+  // 순위 추적 상태
+  // 서버는 대기열 변경마다 /topic/queue-updates 로 { epoch, removedRanks, insertedRanks } 를 1번만 보내고,
+  // 고객은 마지막으로 알던 순위(rank, epoch)에 이를 적용해 자기 순위를 계산한다.
+  // 서버가 짧은 구간의 변경을 합쳐 보내면 한 메시지가 fromEpoch ~ epoch 구간을 담는다.
+  let knownRank = null
+  let knownEpoch = null
+  const pendingShifts = new Map() // fromEpoch -> 아직 적용하지 못한 변경 이벤트 (순서가 뒤바뀌어 도착한 경우)
+  const MAX_PENDING_SHIFTS = 50 // 이보다 많이 밀리면 버리고 다음 /status 조회로 다시 맞춤
+
+  const shiftRank = (rank, shift) => {
+    let shifted = rank
+    for (const removed of shift.removedRanks || []) {
+      if (removed < rank) shifted--
+    }
+    for (const inserted of shift.insertedRanks || []) {
+      if (inserted <= shifted) shifted++
+    }
+    return shifted
+  }
+
+  const applyPendingShifts = () => {
+    const before = knownRank
+    while (pendingShifts.has(knownEpoch + 1)) {
+      const shift = pendingShifts.get(knownEpoch + 1)
+      pendingShifts.delete(knownEpoch + 1)
+      knownRank = shiftRank(knownRank, shift)
+      knownEpoch = shift.epoch
+    }
+    for (const fromEpoch of pendingShifts.keys()) {
+      if (fromEpoch <= knownEpoch) pendingShifts.delete(fromEpoch)
+    }
+    if (knownRank !== before) {
+      onRankUpdate?.(knownRank)
+    }
+  }
+
+  // 기준 순위 설정 (/api/v1/queue/status 응답 또는 본인에게 온 순위 메시지)
+  const syncRank = (rank, epoch) => {
+    if (rank == null || epoch == null) return
+    if (knownEpoch !== null && epoch < knownEpoch) return // 이미 더 최신 순위를 알고 있음
+    const changed = knownRank !== rank
+    knownRank = rank
+    knownEpoch = epoch
+    if (changed) onRankUpdate?.(knownRank)
+    applyPendingShifts()
+  }
+
+  const handleQueueShift = (shift) => {
+    if (shift.epoch == null) return
+    if (knownEpoch !== null && shift.epoch <= knownEpoch) return
+    pendingShifts.set(shift.fromEpoch ?? shift.epoch, shift)
+    if (pendingShifts.size > MAX_PENDING_SHIFTS) {
+      console.warn('[STOMP] 순위 변경 이벤트 누락 - 다음 대기열 조회로 순위를 다시 맞춥니다')
+      pendingShifts.clear()
+      return
+    }
+    if (knownEpoch !== null) applyPendingShifts()
+  }
+
   // STOMP 클라이언트 연결
   const connect = () => {
     // 새 연결 시작 시 매칭 플래그 리셋
@@ -55,16 +114,34 @@ export function useMatchingNotification(options = {}) {
               isMatched.value = true
               matchData.value = data
               onMatched?.(data)
+            } else if (data.status === 'ADMITTED') {
+              // 콜백 대기(HOLD)에서 실시간 대기열로 이동됨
+              // queueTicket은 이 공개 토픽으로 오지 않으므로 /api/v1/queue/status 조회로 받아 하트비트를 시작한다
+              console.log('[STOMP] 실시간 대기열 진입:', data.rank)
+              if (data.rank != null && data.epoch != null) {
+                syncRank(data.rank, data.epoch)
+              }
+              onAdmitted?.(data)
             } else if (data.status === 'WAITING' && data.rank !== undefined) {
-              // 대기 순위 업데이트
+              // 본인 순위 직접 전달 (등록 직후, Blacklist Queue로 이동된 경우 등)
               console.log('[STOMP] 순위 업데이트:', data.rank)
-              onRankUpdate?.(data.rank)
+              if (data.epoch != null) {
+                syncRank(data.rank, data.epoch)
+              } else {
+                onRankUpdate?.(data.rank)
+              }
             } else {
               console.log('[STOMP] 기타 상태:', data.status, data)
             }
           })
 
           console.log('[STOMP] 고객 매칭 알림 구독 완료')
+
+          // 대기열 변경 이벤트 구독 - 내 순위는 이 이벤트로 직접 계산
+          client.value.subscribe('/topic/queue-updates', (message) => {
+            if (isMatched.value) return
+            handleQueueShift(JSON.parse(message.body))
+          })
         }
 
         // 상담원용 매칭 알림 구독
@@ -109,6 +186,9 @@ export function useMatchingNotification(options = {}) {
       client.value = null
     }
     isMatched.value = false // 플래그 리셋
+    knownRank = null
+    knownEpoch = null
+    pendingShifts.clear()
   }
 
   // Note: onUnmounted 제거
@@ -119,6 +199,7 @@ export function useMatchingNotification(options = {}) {
     isConnected,
     matchData,
     connect,
-    disconnect
+    disconnect,
+    syncRank
   }
 }
\ No newline at end of file